@@ -0,0 +1,130 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio.data;
+
+import org.knime.base.node.audio.ext.org.openimaj.audio.AudioFormat;
+
+/**
+ * The header information of an audio file, i.e. the format its samples are
+ * decoded to, the number of sample frames, the duration and the encoding of
+ * the file. Instances are immutable and are shared by all audios of the same
+ * file via the {@link AudioMetadataCache}.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+public final class AudioMetadata {
+
+    private final AudioFormat m_format;
+    private final long m_frameLength;
+    private final long m_duration;
+    private final String m_encoding;
+    private final long m_fileSize;
+    private final long m_lastModified;
+
+    /**
+     * @param format the PCM format the samples are decoded to
+     * @param frameLength the number of sample frames, or -1 if unknown
+     * @param duration the duration in milliseconds, or -1 if unknown
+     * @param encoding the name of the encoding of the file
+     * @param fileSize the size of the file in bytes
+     * @param lastModified the last modification time of the file
+     */
+    AudioMetadata(final AudioFormat format, final long frameLength, final long duration,
+            final String encoding, final long fileSize, final long lastModified){
+        m_format = format.clone();
+        m_frameLength = frameLength;
+        m_duration = duration;
+        m_encoding = encoding;
+        m_fileSize = fileSize;
+        m_lastModified = lastModified;
+    }
+
+    /**
+     * @return a copy of the PCM format the samples are decoded to
+     */
+    public AudioFormat getFormat() {
+        return m_format.clone();
+    }
+
+    /**
+     * @return the number of sample frames, or -1 if it is unknown
+     */
+    public long getFrameLength() {
+        return m_frameLength;
+    }
+
+    /**
+     * @return the duration in milliseconds, or -1 if it is unknown
+     */
+    public long getDuration() {
+        return m_duration;
+    }
+
+    /**
+     * @return the name of the encoding of the audio file
+     */
+    public String getEncoding() {
+        return m_encoding;
+    }
+
+    /**
+     * @return the size of the audio file in bytes at the time it was read
+     */
+    public long getFileSize() {
+        return m_fileSize;
+    }
+
+    /**
+     * @return the last modification time of the audio file at the time it was read
+     */
+    public long getLastModified() {
+        return m_lastModified;
+    }
+
+}
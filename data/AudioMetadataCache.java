@@ -0,0 +1,168 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio.data;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat.Encoding;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+import org.knime.base.node.audio.ext.org.openimaj.audio.AudioFormat;
+import org.knime.base.node.audio.util.AudioUtils;
+
+/**
+ * JVM-wide cache of the {@link AudioMetadata} of audio files, so that the
+ * header of a file is only parsed once even if many audios and nodes refer to
+ * it. An entry is only used as long as the size and the last modification time
+ * of the file are unchanged, otherwise the header is parsed again. The cache
+ * holds at most {@link #MAX_ENTRIES} entries, the least recently used ones are
+ * dropped first.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+public final class AudioMetadataCache {
+
+    /** The maximum number of cached entries */
+    public static final int MAX_ENTRIES = 100000;
+
+    private static final Map<String, AudioMetadata> CACHE =
+            new LinkedHashMap<String, AudioMetadata>(16, 0.75f, true){
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, AudioMetadata> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private AudioMetadataCache(){
+        // Utility class
+    }
+
+    /**
+     * Returns the metadata of the given audio file. The header of the file is
+     * only parsed if it isn't cached yet or the file has changed since.
+     *
+     * @param file the audio file
+     * @return the metadata of the file
+     * @throws UnsupportedAudioFileException if the file format isn't supported
+     * @throws IOException if the file couldn't be read
+     */
+    public static AudioMetadata getMetadata(final File file)
+            throws UnsupportedAudioFileException, IOException{
+        final String path = file.getAbsolutePath();
+        final long fileSize = file.length();
+        final long lastModified = file.lastModified();
+        synchronized(CACHE){
+            final AudioMetadata metadata = CACHE.get(path);
+            if(metadata != null && metadata.getFileSize() == fileSize
+                    && metadata.getLastModified() == lastModified){
+                return metadata;
+            }
+        }
+
+        // Parse the header outside of the lock, a concurrent parse of the same
+        // file only results in the same metadata being put twice
+        final AudioMetadata metadata = readMetadata(file, fileSize, lastModified);
+        synchronized(CACHE){
+            CACHE.put(path, metadata);
+        }
+        return metadata;
+    }
+
+    /**
+     * Removes all entries from the cache.
+     */
+    public static void clear(){
+        synchronized(CACHE){
+            CACHE.clear();
+        }
+    }
+
+    private static AudioMetadata readMetadata(final File file, final long fileSize,
+            final long lastModified) throws UnsupportedAudioFileException, IOException{
+        final AudioFileFormat fileFormat = AudioSystem.getAudioFileFormat(file);
+        final javax.sound.sampled.AudioFormat fileAudioFormat = fileFormat.getFormat();
+        final javax.sound.sampled.AudioFormat audioFormat = KNAudio.getDecodedFormat(fileAudioFormat);
+        final AudioFormat format = new AudioFormat(
+            AudioUtils.normalizeBitDepthFromBits(audioFormat.getSampleSizeInBits()),
+            audioFormat.getSampleRate() / 1000,
+            audioFormat.getChannels());
+        format.setBigEndian(audioFormat.isBigEndian());
+        format.setSigned(audioFormat.getEncoding() == Encoding.PCM_SIGNED);
+
+        // The frame length is only reliable for PCM, for compressed files it
+        // counts the encoded frames
+        long frameLength = -1;
+        final Encoding encoding = fileAudioFormat.getEncoding();
+        if((encoding == Encoding.PCM_SIGNED || encoding == Encoding.PCM_UNSIGNED)
+                && fileFormat.getFrameLength() != AudioSystem.NOT_SPECIFIED){
+            frameLength = fileFormat.getFrameLength();
+        }
+
+        long duration = -1;
+        if(frameLength >= 0){
+            duration = (long)(frameLength / format.getSampleRateKHz());
+        }else{
+            final Object micros = fileFormat.getProperty("duration");
+            if(micros instanceof Long){
+                duration = ((Long)micros).longValue() / 1000;
+            }
+        }
+
+        return new AudioMetadata(format, frameLength, duration, encoding.toString(),
+            fileSize, lastModified);
+    }
+
+}
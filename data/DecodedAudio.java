@@ -0,0 +1,139 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio.data;
+
+import java.nio.FloatBuffer;
+
+/**
+ * A handle to decoded samples held by the {@link DecodedAudioCache}. The
+ * samples are stored off-heap, one channel after the other, normalized to the
+ * range of -1.0 to 1.0. The cache entry stays pinned, i.e. it isn't evicted,
+ * until the handle is closed, hence handles should be used in a
+ * try-with-resources statement. The buffers returned by a handle must not be
+ * used after it has been closed.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+public final class DecodedAudio implements AutoCloseable {
+
+    private final DecodedAudioCache.Entry m_entry;
+
+    private boolean m_closed = false;
+
+    /**
+     * @param entry the pinned cache entry
+     */
+    DecodedAudio(final DecodedAudioCache.Entry entry){
+        m_entry = entry;
+    }
+
+    /**
+     * @return the number of channels
+     */
+    public int getNumChannels(){
+        return m_entry.getNumChannels();
+    }
+
+    /**
+     * @return the number of samples per channel
+     */
+    public int getFrameLength(){
+        return m_entry.getFrameLength();
+    }
+
+    /**
+     * @return the sample rate in kHz
+     */
+    public double getSampleRateKHz(){
+        return m_entry.getSampleRateKHz();
+    }
+
+    /**
+     * Returns a read-only view of the samples of the given channel. The view
+     * has its own position and limit, so it can be read by several threads.
+     *
+     * @param channel the index of the channel
+     * @return the samples of the channel
+     */
+    public FloatBuffer getChannel(final int channel){
+        if(channel < 0 || channel >= getNumChannels()){
+            throw new IndexOutOfBoundsException("Channel " + channel + " doesn't exist.");
+        }
+        final FloatBuffer samples = m_entry.getSamples().duplicate();
+        final int start = channel * getFrameLength();
+        samples.limit(start + getFrameLength());
+        samples.position(start);
+        return samples.slice().asReadOnlyBuffer();
+    }
+
+    /**
+     * @param channel the index of the channel
+     * @return a copy of the samples of the given channel
+     */
+    public double[] getChannelAsDoubles(final int channel){
+        final FloatBuffer samples = getChannel(channel);
+        final double[] result = new double[samples.remaining()];
+        for(int i = 0; i < result.length; i++){
+            result[i] = samples.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Unpins the cache entry. Closing a handle more than once has no effect.
+     */
+    @Override
+    public synchronized void close(){
+        if(!m_closed){
+            m_closed = true;
+            DecodedAudioCache.release(m_entry);
+        }
+    }
+
+}
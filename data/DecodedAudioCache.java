@@ -0,0 +1,456 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio.data;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.knime.base.node.audio.ext.org.openimaj.audio.AudioFormat;
+import org.knime.base.node.audio.ext.org.openimaj.audio.SampleChunk;
+import org.knime.base.node.audio.util.PCMUtils;
+
+/**
+ * Process-wide cache of decoded audio samples, so that a file is only decoded
+ * once even if several nodes or views need its samples. The samples are
+ * stored in direct buffers outside of the Java heap. The cache is limited by a
+ * byte budget, which can be set with the system property
+ * {@value #BUDGET_PROPERTY} or {@link #setBudget(long)}. The least recently
+ * used entries are evicted first once the budget is exceeded, but never while
+ * they are pinned by an open {@link DecodedAudio} handle.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+public final class DecodedAudioCache {
+
+    /** The system property to set the byte budget of the cache */
+    public static final String BUDGET_PROPERTY = "knime.audio.decodedcache.bytes";
+
+    /** The default byte budget of the cache */
+    public static final long DEFAULT_BUDGET = 256L * 1024 * 1024;
+
+    /** The initial number of frames per channel if the length is unknown */
+    private static final int INITIAL_CAPACITY = 1 << 16;
+
+    private static final DecodedAudioCache INSTANCE = new DecodedAudioCache(
+        Long.getLong(BUDGET_PROPERTY, DEFAULT_BUDGET));
+
+    /**
+     * The layout of the cached samples.
+     */
+    public enum Layout {
+        /** Each channel of the audio separately */
+        CHANNELS,
+        /** All channels mixed down into one channel */
+        MONO
+    }
+
+    private final Map<Key, Entry> m_entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true);
+
+    private long m_budget;
+
+    private long m_size = 0;
+
+    private DecodedAudioCache(final long budget){
+        m_budget = budget;
+    }
+
+    /**
+     * Returns the decoded samples of the given audio, decoding the file if
+     * the samples aren't cached yet. The returned handle must be closed once
+     * the samples aren't needed anymore.
+     *
+     * @param audio the audio whose samples should be returned
+     * @param layout the layout of the samples
+     * @return the pinned decoded samples
+     * @throws IOException if the audio couldn't be decoded
+     */
+    public static DecodedAudio get(final KNAudio audio, final Layout layout) throws IOException{
+        final Key key = new Key(audio, layout);
+        DecodedAudio decoded = INSTANCE.pin(key);
+        if(decoded != null){
+            return decoded;
+        }
+
+        Entry entry = null;
+        if(layout == Layout.MONO){
+            try(final DecodedAudio channels = INSTANCE.pin(new Key(audio, Layout.CHANNELS))){
+                if(channels != null){
+                    entry = mixDown(channels);
+                }
+            }
+        }
+        if(entry == null){
+            entry = decode(audio, layout);
+        }
+        return INSTANCE.put(key, entry);
+    }
+
+    /**
+     * Returns the decoded samples of the given audio if they are cached.
+     * The returned handle must be closed once the samples aren't needed anymore.
+     *
+     * @param audio the audio whose samples should be returned
+     * @param layout the layout of the samples
+     * @return the pinned decoded samples, or <code>null</code> if they aren't cached
+     */
+    public static DecodedAudio getIfPresent(final KNAudio audio, final Layout layout){
+        return INSTANCE.pin(new Key(audio, layout));
+    }
+
+    /**
+     * Returns the decoded samples of the given audio, decoding the file into
+     * the cache if the samples aren't cached yet but fit into the budget.
+     * Audio whose samples wouldn't be kept by the cache, or whose length is
+     * unknown, isn't decoded, the caller should stream it instead. The
+     * returned handle must be closed once the samples aren't needed anymore.
+     *
+     * @param audio the audio whose samples should be returned
+     * @param layout the layout of the samples
+     * @return the pinned decoded samples, or <code>null</code> if they aren't
+     *         cached and don't fit into the cache
+     * @throws IOException if the audio couldn't be decoded
+     */
+    public static DecodedAudio getIfFits(final KNAudio audio, final Layout layout) throws IOException{
+        final DecodedAudio decoded = getIfPresent(audio, layout);
+        if(decoded != null || audio.getFormat() == null){
+            return decoded;
+        }
+        final long frameLength = audio.getFrameLength();
+        final int nChannels = layout == Layout.MONO ? 1 : audio.getFormat().getNumChannels();
+        if(frameLength <= 0 || frameLength * nChannels * Float.BYTES > getBudget()){
+            return null;
+        }
+        return get(audio, layout);
+    }
+
+    /**
+     * Sets the byte budget of the cache and evicts entries if necessary.
+     *
+     * @param budget the maximum number of bytes of all cached samples
+     */
+    public static void setBudget(final long budget){
+        if(budget < 0){
+            throw new IllegalArgumentException("The budget must not be negative.");
+        }
+        synchronized(INSTANCE){
+            INSTANCE.m_budget = budget;
+            INSTANCE.evict();
+        }
+    }
+
+    /**
+     * @return the maximum number of bytes of all cached samples
+     */
+    public static long getBudget(){
+        synchronized(INSTANCE){
+            return INSTANCE.m_budget;
+        }
+    }
+
+    /**
+     * Removes all entries which are currently not pinned.
+     */
+    public static void clear(){
+        synchronized(INSTANCE){
+            final long budget = INSTANCE.m_budget;
+            INSTANCE.m_budget = 0;
+            INSTANCE.evict();
+            INSTANCE.m_budget = budget;
+        }
+    }
+
+    /**
+     * Unpins the given entry.
+     */
+    static void release(final Entry entry){
+        synchronized(INSTANCE){
+            entry.m_pins--;
+            INSTANCE.evict();
+        }
+    }
+
+    private synchronized DecodedAudio pin(final Key key){
+        final Entry entry = m_entries.get(key);
+        if(entry == null){
+            return null;
+        }
+        entry.m_pins++;
+        return new DecodedAudio(entry);
+    }
+
+    private synchronized DecodedAudio put(final Key key, final Entry entry){
+        // Another thread might have decoded the same audio in the meantime
+        final Entry existing = m_entries.get(key);
+        if(existing != null){
+            existing.m_pins++;
+            return new DecodedAudio(existing);
+        }
+        entry.m_pins++;
+        if(entry.getBytes() <= m_budget){
+            m_entries.put(key, entry);
+            m_size += entry.getBytes();
+            evict();
+        }
+        return new DecodedAudio(entry);
+    }
+
+    private void evict(){
+        final Iterator<Entry> it = m_entries.values().iterator();
+        while(m_size > m_budget && it.hasNext()){
+            final Entry entry = it.next();
+            if(entry.m_pins == 0){
+                it.remove();
+                m_size -= entry.getBytes();
+            }
+        }
+    }
+
+    /**
+     * Decodes the whole audio chunk by chunk into planar float samples. Each
+     * chunk is written straight into the direct buffer, multiple channels are
+     * mixed down while they are decoded if the layout is {@link Layout#MONO}.
+     */
+    private static Entry decode(final KNAudio audio, final Layout layout) throws IOException{
+        final AudioFormat format = audio.getFormat();
+        if(format == null){
+            throw new IOException("The format of \"" + audio.getName() + "\" is unknown.");
+        }
+        final int nChannels = format.getNumChannels();
+        final int nBufferChannels = layout == Layout.MONO ? 1 : nChannels;
+        final int frameSize = PCMUtils.getBytesPerSample(format) * nChannels;
+        final int maxFrames = Integer.MAX_VALUE / (Float.BYTES * nBufferChannels);
+
+        // Use an own stream, so that the given audio isn't repositioned
+        final KNAudio stream = new KNAudio(audio.getFilePath(), format.clone());
+        final long frameLength = audio.getFrameLength();
+        if(frameLength > maxFrames){
+            throw new IOException("\"" + audio.getName() + "\" is too long to be decoded into memory.");
+        }
+        int capacity = frameLength > 0 ? (int)frameLength : INITIAL_CAPACITY;
+        FloatBuffer buffer = allocate(nBufferChannels, capacity);
+        float[][] channels = new float[nBufferChannels][0];
+        double[] mixed = new double[0];
+        int nFrames = 0;
+        try{
+            SampleChunk chunk;
+            while((chunk = stream.nextSampleChunk()) != null){
+                final byte[] bytes = chunk.getSamples();
+                final int nChunkFrames = bytes.length / frameSize;
+                if(nFrames + nChunkFrames > capacity){
+                    if((long)nFrames + nChunkFrames > maxFrames){
+                        throw new IOException("\"" + audio.getName()
+                            + "\" is too long to be decoded into memory.");
+                    }
+                    final int newCapacity = (int)Math.min(maxFrames,
+                        Math.max(nFrames + nChunkFrames, capacity + (capacity >> 1)));
+                    buffer = relocate(buffer, nBufferChannels, nFrames, capacity, newCapacity);
+                    capacity = newCapacity;
+                }
+                if(channels[0].length < nChunkFrames){
+                    channels = new float[nBufferChannels][nChunkFrames];
+                    mixed = new double[layout == Layout.MONO ? nChunkFrames : 0];
+                }
+                if(layout == Layout.MONO){
+                    PCMUtils.mixDown(bytes, 0, nChunkFrames, format, mixed, 0);
+                    for(int i = 0; i < nChunkFrames; i++){
+                        channels[0][i] = (float)mixed[i];
+                    }
+                }else{
+                    PCMUtils.deinterleave(bytes, 0, nChunkFrames, format, channels, 0);
+                }
+                for(int ch = 0; ch < nBufferChannels; ch++){
+                    buffer.position(ch * capacity + nFrames);
+                    buffer.put(channels[ch], 0, nChunkFrames);
+                }
+                nFrames += nChunkFrames;
+            }
+        } finally{
+            stream.reset();
+        }
+
+        if(nFrames < capacity){
+            // Don't keep the unused capacity in the cache
+            buffer = relocate(buffer, nBufferChannels, nFrames, capacity, nFrames);
+        }
+        buffer.clear();
+        return new Entry(buffer, nBufferChannels, nFrames, format.getSampleRateKHz());
+    }
+
+    /**
+     * Copies the first frames of each channel into a new buffer with the given
+     * number of frames per channel.
+     */
+    private static FloatBuffer relocate(final FloatBuffer buffer, final int nChannels,
+            final int nFrames, final int oldCapacity, final int newCapacity){
+        final FloatBuffer result = allocate(nChannels, newCapacity);
+        for(int ch = 0; ch < nChannels; ch++){
+            final FloatBuffer channel = buffer.duplicate();
+            channel.limit(ch * oldCapacity + nFrames);
+            channel.position(ch * oldCapacity);
+            result.position(ch * newCapacity);
+            result.put(channel);
+        }
+        return result;
+    }
+
+    /**
+     * Mixes the cached channels down into one channel.
+     */
+    private static Entry mixDown(final DecodedAudio channels){
+        final int nChannels = channels.getNumChannels();
+        final int nFrames = channels.getFrameLength();
+        final FloatBuffer buffer = allocate(1, nFrames);
+        for(int ch = 0; ch < nChannels; ch++){
+            final FloatBuffer samples = channels.getChannel(ch);
+            for(int i = 0; i < nFrames; i++){
+                buffer.put(i, buffer.get(i) + samples.get(i));
+            }
+        }
+        for(int i = 0; i < nFrames; i++){
+            buffer.put(i, buffer.get(i) / nChannels);
+        }
+        return new Entry(buffer, 1, nFrames, channels.getSampleRateKHz());
+    }
+
+    private static FloatBuffer allocate(final int nChannels, final int nFrames){
+        return ByteBuffer.allocateDirect(nChannels * nFrames * Float.BYTES)
+                .order(ByteOrder.nativeOrder()).asFloatBuffer();
+    }
+
+    /**
+     * Identifies the decoded samples of a file in a specific layout. The size
+     * and last modification time of the file are part of the key, so the
+     * samples of a changed file aren't used anymore.
+     */
+    private static final class Key {
+
+        private final String m_path;
+        private final long m_size;
+        private final long m_lastModified;
+        private final Layout m_layout;
+
+        Key(final KNAudio audio, final Layout layout){
+            final File file = new File(audio.getFilePath());
+            m_path = file.getAbsolutePath();
+            m_size = file.length();
+            m_lastModified = file.lastModified();
+            m_layout = layout;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = m_path.hashCode();
+            result = 31 * result + Long.hashCode(m_size);
+            result = 31 * result + Long.hashCode(m_lastModified);
+            return 31 * result + m_layout.hashCode();
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if(this == obj){
+                return true;
+            }
+            if(!(obj instanceof Key)){
+                return false;
+            }
+            final Key other = (Key)obj;
+            return m_path.equals(other.m_path) && m_size == other.m_size
+                    && m_lastModified == other.m_lastModified && m_layout == other.m_layout;
+        }
+    }
+
+    /**
+     * The decoded samples of one file, one channel after the other.
+     */
+    static final class Entry {
+
+        private final FloatBuffer m_samples;
+        private final int m_nChannels;
+        private final int m_nFrames;
+        private final double m_sampleRateKHz;
+
+        /** The number of open handles, guarded by the cache */
+        private int m_pins = 0;
+
+        Entry(final FloatBuffer samples, final int nChannels, final int nFrames,
+                final double sampleRateKHz){
+            m_samples = samples;
+            m_nChannels = nChannels;
+            m_nFrames = nFrames;
+            m_sampleRateKHz = sampleRateKHz;
+        }
+
+        FloatBuffer getSamples(){
+            return m_samples;
+        }
+
+        int getNumChannels(){
+            return m_nChannels;
+        }
+
+        int getFrameLength(){
+            return m_nFrames;
+        }
+
+        double getSampleRateKHz(){
+            return m_sampleRateKHz;
+        }
+
+        long getBytes(){
+            return (long)m_nChannels * m_nFrames * Float.BYTES;
+        }
+    }
+
+}
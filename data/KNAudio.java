@@ -51,6 +51,7 @@ package org.knime.base.node.audio.data;
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -66,6 +67,7 @@ import org.knime.base.node.audio.data.recognizer.RecognizerInfo;
 import org.knime.base.node.audio.ext.org.openimaj.audio.AudioFormat;
 import org.knime.base.node.audio.ext.org.openimaj.audio.AudioStream;
 import org.knime.base.node.audio.ext.org.openimaj.audio.SampleChunk;
+import org.knime.base.node.audio.ext.org.openimaj.audio.timecode.AudioTimecode;
 import org.knime.base.node.audio.ext.org.openimaj.feature.DoubleFV;
 import org.knime.base.node.audio.util.AudioUtils;
 import org.knime.core.util.UniqueNameGenerator;
@@ -86,7 +88,16 @@ public class KNAudio extends AudioStream {
     private final Map<String, RecognitionResult> m_recognitionResults;
 //    private final Map<String, Recognizer> m_recognizers;
 
-    private AudioInputStream m_inStream;
+    private transient AudioInputStream m_inStream;
+
+    /** The memory mapped samples of uncompressed WAV and AIFF files */
+    private transient MappedAudioFile m_mappedFile;
+
+    /** The index of the next sample frame read from the mapped file */
+    private transient long m_framePosition;
+
+    /** The header information of the audio file shared via the {@link AudioMetadataCache} */
+    private transient AudioMetadata m_metadata;
 
     /**
      *
@@ -129,30 +140,62 @@ public class KNAudio extends AudioStream {
         initialize(file);
     }
 
+    /**
+     * Creates a copy of the given audio without accessing the file again.
+     *
+     * @param audio the audio to copy
+     */
+    private KNAudio(final KNAudio audio){
+        m_name = audio.m_name;
+        m_filePath = audio.m_filePath;
+        m_features = new LinkedHashMap<FeatureType, DoubleFV>();
+        m_recognitionResults = new LinkedHashMap<String, RecognitionResult>();
+        m_metadata = audio.m_metadata;
+        if(audio.getFormat() != null){
+            super.setFormat(audio.getFormat().clone());
+        }
+        initializeFeatures();
+    }
+
+    /**
+     * Creates an audio of the given file whose format is already known, e.g.
+     * when an audio of a saved table is restored. The file isn't accessed.
+     *
+     * @param filePath the absolute path of the audio file
+     * @param format the format of the audio, <code>null</code> if it is unknown
+     */
+    public KNAudio(final String filePath, final AudioFormat format){
+        if(filePath == null){
+            throw new IllegalArgumentException("The file path can't be null.");
+        }
+        m_name = new File(filePath).getName();
+        m_filePath = filePath;
+        m_features = new LinkedHashMap<FeatureType, DoubleFV>();
+        m_recognitionResults = new LinkedHashMap<String, RecognitionResult>();
+        if(format != null){
+            super.setFormat(format);
+        }
+        initializeFeatures();
+    }
+
     /**
      * @throws IOException
      */
     private void initialize(final File file){
         // Initialize AudioFormat
         try{
-            final javax.sound.sampled.AudioFormat audioFormat = AudioSystem.getAudioFileFormat(file).getFormat();
-            final AudioFormat fmt = new AudioFormat(
-                audioFormat.getSampleSizeInBits(),
-                audioFormat.getSampleRate() / 1000,
-                audioFormat.getChannels());
-            fmt.setBigEndian(audioFormat.isBigEndian());
-            if(audioFormat.getEncoding() == Encoding.PCM_SIGNED){
-                fmt.setSigned(true);
-            }else if(audioFormat.getEncoding() == Encoding.PCM_UNSIGNED){
-                fmt.setSigned(false);
-            }
-            super.setFormat(fmt);
+            m_metadata = AudioMetadataCache.getMetadata(file);
+            super.setFormat(m_metadata.getFormat());
         } catch(UnsupportedAudioFileException ex){
             ex.printStackTrace(); //TODO
         } catch(IOException ex){
             ex.printStackTrace(); //TODO
         }
 
+        initializeFeatures();
+    }
+
+    private void initializeFeatures(){
         // Initialize available Feature Types
         for(FeatureType type : FeatureType.values()){
             m_features.put(type, null);
@@ -180,6 +223,12 @@ public class KNAudio extends AudioStream {
     @Override
     public SampleChunk nextSampleChunk() {
         openStream();
+        if(m_mappedFile != null){
+            return nextMappedSampleChunk();
+        }
+        if(m_inStream == null){
+            return null;
+        }
         final int normalBytes = AudioUtils.normalizeBytesFromBits(getFormat().getNBits());
         byte[] bytes = new byte[AudioUtils.DEF_BUFFER_SAMPLE_SZ * getFormat().getNumChannels() * normalBytes];
 //        LOGGER.debug("Next Sample Chunk Bytes Size: " + bytes.length);
@@ -203,10 +252,89 @@ public class KNAudio extends AudioStream {
         return samples;
     }
 
+    /**
+     * Copies the next sample frames from the mapped file. {@link SampleChunk}
+     * is backed by a byte array, hence the frames can't be handed out as a view
+     * of the mapping, but the copy is a plain memory copy.
+     */
+    private SampleChunk nextMappedSampleChunk(){
+        final int frameSize = m_mappedFile.getFrameSize();
+        final byte[] bytes = new byte[AudioUtils.DEF_BUFFER_SAMPLE_SZ * frameSize];
+        final int nFrames = m_mappedFile.read(m_framePosition, bytes, 0,
+            AudioUtils.DEF_BUFFER_SAMPLE_SZ);
+        if(nFrames <= 0){
+            return null;
+        }
+        final AudioTimecode timecode = new AudioTimecode(
+            (long)(m_framePosition / getFormat().getSampleRateKHz()));
+        m_framePosition += nFrames;
+        return new SampleChunk(nFrames == AudioUtils.DEF_BUFFER_SAMPLE_SZ ? bytes
+            : Arrays.copyOf(bytes, nFrames * frameSize), getFormat(), timecode);
+    }
+
+    /**
+     * Maps the samples of the audio file if it is an uncompressed WAV or AIFF
+     * file whose format is the same as the format of this audio.
+     *
+     * @return the mapped file or <code>null</code> if the file can't be mapped
+     */
+    private MappedAudioFile openMappedFile(){
+        try{
+            final MappedAudioFile mappedFile = MappedAudioFile.open(new File(m_filePath));
+            if(mappedFile != null && isSameFormat(mappedFile.getFormat(), getFormat())){
+                return mappedFile;
+            }
+        } catch(IOException ex){
+            // Fall back to the audio input stream
+        }
+        return null;
+    }
+
+    private static boolean isSameFormat(final AudioFormat format1, final AudioFormat format2){
+        return format2 != null && format1.getNBits() == format2.getNBits()
+                && format1.getNumChannels() == format2.getNumChannels()
+                && format1.isSigned() == format2.isSigned()
+                && (format1.getNBits() == 8 || format1.isBigEndian() == format2.isBigEndian())
+                && Math.abs(format1.getSampleRateKHz() - format2.getSampleRateKHz()) < 1e-3;
+    }
+
+    /**
+     * Returns the PCM format the samples of this audio are delivered in. PCM
+     * formats are returned unchanged, compressed formats (e.g. MP3) are decoded
+     * to signed PCM with the same sample rate and number of channels.
+     *
+     * @param format the format of the audio file
+     * @return the PCM format of the decoded samples
+     */
+    static javax.sound.sampled.AudioFormat getDecodedFormat(
+            final javax.sound.sampled.AudioFormat format){
+        if(format.getEncoding() == Encoding.PCM_SIGNED
+                || format.getEncoding() == Encoding.PCM_UNSIGNED){
+            return format;
+        }
+        final int bitDepth = format.getSampleSizeInBits() > 0
+                ? AudioUtils.normalizeBitDepthFromBits(format.getSampleSizeInBits()) : 16;
+        return new javax.sound.sampled.AudioFormat(Encoding.PCM_SIGNED,
+            format.getSampleRate(), bitDepth, format.getChannels(),
+            format.getChannels() * (bitDepth / 8), format.getSampleRate(),
+            format.isBigEndian());
+    }
+
     private void openStream(){
-        if(m_inStream == null){
+        if(m_mappedFile == null && m_inStream == null){
+            m_mappedFile = openMappedFile();
+            m_framePosition = 0;
+            if(m_mappedFile != null){
+                return;
+            }
             try{
-                m_inStream = AudioSystem.getAudioInputStream(new File(m_filePath));
+                final AudioInputStream stream = AudioSystem.getAudioInputStream(new File(m_filePath));
+                final javax.sound.sampled.AudioFormat decodedFormat = getDecodedFormat(stream.getFormat());
+                if(decodedFormat == stream.getFormat()){
+                    m_inStream = stream;
+                }else{
+                    m_inStream = AudioSystem.getAudioInputStream(decodedFormat, stream);
+                }
             } catch(IOException ex){
                 ex.printStackTrace();
             } catch(UnsupportedAudioFileException ex){
@@ -216,6 +344,9 @@ public class KNAudio extends AudioStream {
     }
 
     private void closeStream(){
+        // Release the mapping, it is created again when the samples are read
+        m_mappedFile = null;
+        m_framePosition = 0;
         if(m_inStream != null){
             try{
                 m_inStream.close();
@@ -226,6 +357,52 @@ public class KNAudio extends AudioStream {
         }
     }
 
+    /**
+     * Returns the number of sample frames of this audio. The length is only
+     * available for PCM encoded audio whose header specifies it.
+     *
+     * @return the number of sample frames, or -1 if it is unknown
+     */
+    public long getFrameLength(){
+        if(m_mappedFile != null){
+            return m_mappedFile.getFrameLength();
+        }
+        final AudioMetadata metadata = getMetadata();
+        if(metadata != null){
+            return metadata.getFrameLength();
+        }
+        return -1;
+    }
+
+    /**
+     * Positions the stream at the given sample frame, so that the next sample
+     * chunk starts with this frame. For uncompressed WAV and AIFF files this
+     * doesn't need to read the file, other files are read up to the frame.
+     *
+     * @param frame the index of the sample frame to start from
+     * @throws IOException if the stream couldn't be positioned
+     */
+    public void seekFrame(final long frame) throws IOException{
+        openStream();
+        if(m_mappedFile != null){
+            m_framePosition = Math.max(0, Math.min(frame, m_mappedFile.getFrameLength()));
+            return;
+        }
+        closeStream();
+        openStream();
+        if(m_inStream == null){
+            throw new IOException("Couldn't open the audio stream of \"" + m_name + "\".");
+        }
+        long remaining = frame * m_inStream.getFormat().getFrameSize();
+        while(remaining > 0){
+            final long skipped = m_inStream.skip(remaining);
+            if(skipped <= 0){
+                break;
+            }
+            remaining -= skipped;
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -234,13 +411,46 @@ public class KNAudio extends AudioStream {
         closeStream();
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void seek(final long timestamp) {
+        try{
+            seekFrame((long)(timestamp * getFormat().getSampleRateKHz()));
+        } catch(IOException ex){
+            ex.printStackTrace();
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public long getLength() {
-        // TODO Auto-generated method stub
-        return 0;
+        final AudioMetadata metadata = getMetadata();
+        if(metadata != null){
+            return metadata.getDuration();
+        }
+        return -1;
+    }
+
+    /**
+     * @return the header information of the audio file, or <code>null</code>
+     * if the file couldn't be read
+     */
+    public AudioMetadata getMetadata(){
+        // The metadata isn't serialized, look it up again after deserialization
+        if(m_metadata == null){
+            try{
+                m_metadata = AudioMetadataCache.getMetadata(new File(m_filePath));
+            } catch(UnsupportedAudioFileException ex){
+                ex.printStackTrace();
+            } catch(IOException ex){
+                ex.printStackTrace();
+            }
+        }
+        return m_metadata;
     }
 
     /**
@@ -314,7 +524,7 @@ public class KNAudio extends AudioStream {
 
     @Override
     public KNAudio clone(){
-        final KNAudio newAudio = new KNAudio(getFilePath());
+        final KNAudio newAudio = new KNAudio(this);
         for(Entry<FeatureType, DoubleFV> entry : getExtractedFeatures().entrySet()){
             newAudio.setFeatureVector(entry.getKey(), entry.getValue());
         }
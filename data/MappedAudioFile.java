@@ -0,0 +1,348 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio.data;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+import org.knime.base.node.audio.ext.org.openimaj.audio.AudioFormat;
+
+/**
+ * Random access to the samples of an uncompressed PCM WAV or AIFF file. The
+ * data chunk of the file is mapped into memory with {@link FileChannel#map},
+ * so reading the samples at any position doesn't require to read the file
+ * from the start. Data chunks larger than 2GB are mapped in several segments.
+ *
+ * <p>
+ * The file channel is closed right after the mapping has been created, the
+ * mapping itself stays valid until it is garbage collected. Instances are
+ * immutable, hence can be shared between threads, but the buffers returned by
+ * {@link #getFrames(long, int)} must not be modified.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+public final class MappedAudioFile {
+
+    /** The maximum size of one mapped segment */
+    private static final long MAX_SEGMENT_SIZE = Integer.MAX_VALUE;
+
+    private static final int WAVE_FORMAT_PCM = 0x0001;
+    private static final int WAVE_FORMAT_EXTENSIBLE = 0xFFFE;
+
+    private final AudioFormat m_format;
+    private final int m_frameSize;
+    private final long m_frameLength;
+    private final long m_framesPerSegment;
+    private final MappedByteBuffer[] m_segments;
+
+    private MappedAudioFile(final File file, final AudioFormat format, final long dataOffset,
+            final long dataLength) throws IOException{
+        m_format = format;
+        m_frameSize = (format.getNBits() / 8) * format.getNumChannels();
+        m_frameLength = dataLength / m_frameSize;
+        m_framesPerSegment = MAX_SEGMENT_SIZE / m_frameSize;
+
+        final int nSegments = (int)Math.max(1, (m_frameLength + m_framesPerSegment - 1)
+            / m_framesPerSegment);
+        m_segments = new MappedByteBuffer[nSegments];
+        final RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try{
+            final FileChannel channel = raf.getChannel();
+            for(int i = 0; i < nSegments; i++){
+                final long firstFrame = i * m_framesPerSegment;
+                final long nFrames = Math.min(m_framesPerSegment, m_frameLength - firstFrame);
+                m_segments[i] = channel.map(MapMode.READ_ONLY,
+                    dataOffset + firstFrame * m_frameSize, nFrames * m_frameSize);
+                m_segments[i].order(format.isBigEndian() ? ByteOrder.BIG_ENDIAN
+                    : ByteOrder.LITTLE_ENDIAN);
+            }
+        } finally{
+            raf.close();
+        }
+    }
+
+    /**
+     * Maps the data chunk of the given file.
+     *
+     * @param file the audio file
+     * @return the mapped file, or <code>null</code> if the file isn't an
+     *         uncompressed PCM WAV or AIFF file
+     * @throws IOException if the file couldn't be read
+     */
+    public static MappedAudioFile open(final File file) throws IOException{
+        final RandomAccessFile raf = new RandomAccessFile(file, "r");
+        final Header header;
+        try{
+            final byte[] id = new byte[12];
+            raf.readFully(id);
+            final String riff = new String(id, 0, 4, "US-ASCII");
+            final String type = new String(id, 8, 4, "US-ASCII");
+            if("RIFF".equals(riff) && "WAVE".equals(type)){
+                header = readWaveHeader(raf);
+            }else if("FORM".equals(riff) && ("AIFF".equals(type) || "AIFC".equals(type))){
+                header = readAiffHeader(raf, "AIFC".equals(type));
+            }else{
+                header = null;
+            }
+        } catch(EOFException ex){
+            return null;
+        } finally{
+            raf.close();
+        }
+
+        if(header == null){
+            return null;
+        }
+        // The length in the header may be wrong for files which haven't been
+        // written completely
+        final long dataLength = Math.max(0, Math.min(header.m_dataLength,
+            file.length() - header.m_dataOffset));
+        return new MappedAudioFile(file, header.m_format, header.m_dataOffset, dataLength);
+    }
+
+    private static Header readWaveHeader(final RandomAccessFile raf) throws IOException{
+        AudioFormat format = null;
+        while(raf.getFilePointer() + 8 <= raf.length()){
+            final String chunkId = readChunkId(raf);
+            final long chunkSize = Integer.reverseBytes(raf.readInt()) & 0xFFFFFFFFL;
+            final long chunkStart = raf.getFilePointer();
+            if("fmt ".equals(chunkId)){
+                int formatTag = Short.reverseBytes(raf.readShort()) & 0xFFFF;
+                final int nChannels = Short.reverseBytes(raf.readShort()) & 0xFFFF;
+                final long sampleRate = Integer.reverseBytes(raf.readInt()) & 0xFFFFFFFFL;
+                raf.readInt(); // byte rate
+                final int blockAlign = Short.reverseBytes(raf.readShort()) & 0xFFFF;
+                final int bitsPerSample = Short.reverseBytes(raf.readShort()) & 0xFFFF;
+                if(formatTag == WAVE_FORMAT_EXTENSIBLE && chunkSize >= 40){
+                    raf.skipBytes(8); // cbSize, valid bits and channel mask
+                    formatTag = Short.reverseBytes(raf.readShort()) & 0xFFFF;
+                }
+                final int nBytes = (bitsPerSample + 7) / 8;
+                if(formatTag != WAVE_FORMAT_PCM || nChannels < 1 || nBytes < 1 || nBytes > 4
+                        || blockAlign != nBytes * nChannels){
+                    return null;
+                }
+                format = new AudioFormat(nBytes * 8, sampleRate / 1000.0, nChannels);
+                // 8 bit WAV samples are unsigned, all others are signed
+                format.setSigned(nBytes > 1);
+                format.setBigEndian(false);
+            }else if("data".equals(chunkId)){
+                if(format == null){
+                    return null;
+                }
+                return new Header(format, chunkStart, chunkSize);
+            }
+            // Chunks are word aligned
+            raf.seek(chunkStart + chunkSize + (chunkSize & 1));
+        }
+        return null;
+    }
+
+    private static Header readAiffHeader(final RandomAccessFile raf, final boolean isAifc)
+            throws IOException{
+        AudioFormat format = null;
+        while(raf.getFilePointer() + 8 <= raf.length()){
+            final String chunkId = readChunkId(raf);
+            final long chunkSize = raf.readInt() & 0xFFFFFFFFL;
+            final long chunkStart = raf.getFilePointer();
+            if("COMM".equals(chunkId)){
+                final int nChannels = raf.readShort() & 0xFFFF;
+                raf.readInt(); // number of sample frames
+                final int sampleSize = raf.readShort() & 0xFFFF;
+                final double sampleRate = readExtended(raf);
+                boolean littleEndian = false;
+                if(isAifc){
+                    final String compression = readChunkId(raf);
+                    if("sowt".equals(compression)){
+                        littleEndian = true;
+                    }else if(!"NONE".equals(compression)){
+                        return null;
+                    }
+                }
+                final int nBytes = (sampleSize + 7) / 8;
+                if(nChannels < 1 || nBytes < 1 || nBytes > 4){
+                    return null;
+                }
+                format = new AudioFormat(nBytes * 8, sampleRate / 1000, nChannels);
+                format.setSigned(true);
+                format.setBigEndian(!littleEndian);
+            }else if("SSND".equals(chunkId)){
+                if(format == null){
+                    return null;
+                }
+                final long offset = raf.readInt() & 0xFFFFFFFFL;
+                raf.readInt(); // block size
+                return new Header(format, chunkStart + 8 + offset, chunkSize - 8 - offset);
+            }
+            raf.seek(chunkStart + chunkSize + (chunkSize & 1));
+        }
+        return null;
+    }
+
+    private static String readChunkId(final RandomAccessFile raf) throws IOException{
+        final byte[] id = new byte[4];
+        raf.readFully(id);
+        return new String(id, "US-ASCII");
+    }
+
+    /** Reads an 80 bit IEEE 754 extended precision number as used by AIFF. */
+    private static double readExtended(final RandomAccessFile raf) throws IOException{
+        final int signAndExponent = raf.readShort() & 0xFFFF;
+        final long mantissa = raf.readLong();
+        if(signAndExponent == 0 && mantissa == 0){
+            return 0;
+        }
+        final int exponent = (signAndExponent & 0x7FFF) - 16383;
+        final double value = (mantissa >>> 1) * Math.pow(2, exponent - 62);
+        return (signAndExponent & 0x8000) != 0 ? -value : value;
+    }
+
+    /**
+     * @return the format of the samples
+     */
+    public AudioFormat getFormat(){
+        return m_format;
+    }
+
+    /**
+     * @return the size of one sample frame in bytes
+     */
+    public int getFrameSize(){
+        return m_frameSize;
+    }
+
+    /**
+     * @return the number of sample frames
+     */
+    public long getFrameLength(){
+        return m_frameLength;
+    }
+
+    /**
+     * @return the duration of the audio in milliseconds
+     */
+    public long getDuration(){
+        return (long)(m_frameLength / m_format.getSampleRateKHz());
+    }
+
+    /**
+     * Copies sample frames into the given array.
+     *
+     * @param frame the index of the first frame to copy
+     * @param dst the array to copy the bytes of the frames to
+     * @param dstOffset the index in <code>dst</code> of the first byte
+     * @param nFrames the maximum number of frames to copy
+     * @return the number of frames copied, -1 if <code>frame</code> is beyond
+     *         the last frame
+     */
+    public int read(final long frame, final byte[] dst, final int dstOffset, final int nFrames){
+        if(frame >= m_frameLength){
+            return -1;
+        }
+        final int total = (int)Math.min(nFrames, m_frameLength - frame);
+        int copied = 0;
+        while(copied < total){
+            final long current = frame + copied;
+            final int segmentIdx = (int)(current / m_framesPerSegment);
+            final long segmentFrame = current - segmentIdx * m_framesPerSegment;
+            final ByteBuffer segment = m_segments[segmentIdx].duplicate();
+            final int n = (int)Math.min(total - copied,
+                segment.capacity() / m_frameSize - segmentFrame);
+            segment.position((int)(segmentFrame * m_frameSize));
+            segment.get(dst, dstOffset + copied * m_frameSize, n * m_frameSize);
+            copied += n;
+        }
+        return total;
+    }
+
+    /**
+     * Returns a read-only view of the given sample frames without copying them.
+     *
+     * @param frame the index of the first frame
+     * @param nFrames the number of frames
+     * @return a view of the frames with the byte order of the samples, or
+     *         <code>null</code> if the frames are not within the file or span
+     *         two mapped segments
+     */
+    public ByteBuffer getFrames(final long frame, final int nFrames){
+        if(frame < 0 || nFrames < 0 || frame + nFrames > m_frameLength){
+            return null;
+        }
+        final int segmentIdx = (int)(frame / m_framesPerSegment);
+        final long segmentFrame = frame - segmentIdx * m_framesPerSegment;
+        if(segmentFrame + nFrames > m_framesPerSegment){
+            return null;
+        }
+        final ByteBuffer view = m_segments[segmentIdx].asReadOnlyBuffer();
+        view.position((int)(segmentFrame * m_frameSize));
+        view.limit(view.position() + nFrames * m_frameSize);
+        return view.slice().order(m_segments[segmentIdx].order());
+    }
+
+    private static final class Header {
+
+        private final AudioFormat m_format;
+        private final long m_dataOffset;
+        private final long m_dataLength;
+
+        private Header(final AudioFormat format, final long dataOffset, final long dataLength){
+            m_format = format;
+            m_dataOffset = dataOffset;
+            m_dataLength = dataLength;
+        }
+    }
+
+}
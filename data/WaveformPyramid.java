@@ -0,0 +1,700 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio.data;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.knime.base.node.audio.data.DecodedAudioCache.Layout;
+import org.knime.base.node.audio.ext.org.openimaj.audio.AudioFormat;
+import org.knime.base.node.audio.ext.org.openimaj.audio.SampleChunk;
+import org.knime.base.node.audio.util.DiskCache;
+import org.knime.base.node.audio.util.PCMUtils;
+import org.knime.core.node.NodeLogger;
+
+/**
+ * Multi-resolution summary of the waveform of an audio file, used to draw the
+ * waveform at any zoom level without holding the samples in memory. The
+ * finest level stores the minimum, maximum and mean square of each block of
+ * {@value #BASE_BLOCK_SIZE} sample frames per channel, each further level
+ * combines {@value #LEVEL_FACTOR} blocks of the level below. A pyramid is
+ * computed in one pass over the samples and takes about 16 bytes per channel
+ * and {@value #BASE_BLOCK_SIZE} frames, i.e. a few MB for an hour of audio.
+ * The samples are decoded into the {@link DecodedAudioCache} if they fit, so
+ * that the nodes processing the audio afterwards find them there.
+ *
+ * <p>
+ * Summaries finer than the finest level are computed from the samples, which
+ * are taken from the {@link DecodedAudioCache} or read from the file on demand. Pyramids are cached per file up to a
+ * total size of {@value #CACHE_BUDGET} bytes, so reopening a view doesn't read
+ * the file again. The finest level is also stored in the KNIME home directory
+ * up to a total size of {@value #DISK_CACHE_BUDGET} bytes, so that the first
+ * view of a file after a restart doesn't read it either.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+public final class WaveformPyramid {
+
+    /** The number of sample frames summarized by one block of the finest level */
+    public static final int BASE_BLOCK_SIZE = 1024;
+
+    /** The number of blocks of a level combined into one block of the next level */
+    public static final int LEVEL_FACTOR = 4;
+
+    /** The maximum total size of the cached pyramids in bytes */
+    private static final long CACHE_BUDGET = 64L * 1024 * 1024;
+
+    /** The maximum total size of the pyramids stored on disk in bytes */
+    private static final long DISK_CACHE_BUDGET = 256L * 1024 * 1024;
+
+    private static final byte VERSION = 1;
+
+    private static final String ENTRY_SUFFIX = ".pyramid";
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(WaveformPyramid.class);
+
+    private static final DiskCache DISK_CACHE = new DiskCache(
+        DiskCache.getDefaultDirectory("audio-waveform-cache"), ENTRY_SUFFIX, DISK_CACHE_BUDGET);
+
+    private static final Map<String, WaveformPyramid> CACHE =
+            new LinkedHashMap<String, WaveformPyramid>(16, 0.75f, true);
+
+    private static long cacheSize = 0;
+
+    private final String m_filePath;
+
+    private final AudioFormat m_format;
+
+    private final long m_nFrames;
+
+    /** The minimum, maximum and mean square per channel, level and block */
+    private final float[][][] m_min;
+
+    private final float[][][] m_max;
+
+    private final float[][][] m_meanSquare;
+
+    private WaveformPyramid(final KNAudio audio, final long nFrames, final float[][] min,
+            final float[][] max, final float[][] meanSquare){
+        m_filePath = audio.getFilePath();
+        m_format = audio.getFormat().clone();
+        m_nFrames = nFrames;
+        final int nChannels = min.length;
+        m_min = new float[nChannels][][];
+        m_max = new float[nChannels][][];
+        m_meanSquare = new float[nChannels][][];
+        for(int ch = 0; ch < nChannels; ch++){
+            m_min[ch] = buildLevels(min[ch], true);
+            m_max[ch] = buildLevels(max[ch], false);
+            m_meanSquare[ch] = buildMeanSquareLevels(meanSquare[ch], nFrames);
+        }
+    }
+
+    /**
+     * Returns the pyramid of the given audio, computing it if it isn't cached
+     * yet. The audio file may be read, hence the method shouldn't be called
+     * from the event dispatch thread.
+     *
+     * @param audio the audio
+     * @return the pyramid of the audio
+     * @throws IOException if the format of the audio is unknown
+     */
+    public static WaveformPyramid get(final KNAudio audio) throws IOException{
+        final File file = new File(audio.getFilePath());
+        final String key = file.getAbsolutePath() + "|" + file.length() + "|" + file.lastModified();
+        synchronized(CACHE){
+            final WaveformPyramid pyramid = CACHE.get(key);
+            if(pyramid != null){
+                return pyramid;
+            }
+        }
+
+        WaveformPyramid pyramid = load(key, audio);
+        if(pyramid == null){
+            pyramid = compute(audio);
+            store(key, pyramid);
+        }
+        synchronized(CACHE){
+            final WaveformPyramid previous = CACHE.put(key, pyramid);
+            if(previous != null){
+                cacheSize -= previous.getSizeInBytes();
+            }
+            cacheSize += pyramid.getSizeInBytes();
+            final Iterator<WaveformPyramid> it = CACHE.values().iterator();
+            while(cacheSize > CACHE_BUDGET && CACHE.size() > 1){
+                cacheSize -= it.next().getSizeInBytes();
+                it.remove();
+            }
+        }
+        return pyramid;
+    }
+
+    /**
+     * Reads the finest level of the pyramid stored under the given key.
+     *
+     * @return the pyramid or <code>null</code> if none is stored or it couldn't be read
+     */
+    private static WaveformPyramid load(final String key, final KNAudio audio){
+        if(audio.getFormat() == null){
+            return null;
+        }
+        try{
+            return DISK_CACHE.get(DiskCache.hash(key), new DiskCache.EntryReader<WaveformPyramid>() {
+                @Override
+                public WaveformPyramid read(final DataInputStream input) throws IOException {
+                    final byte version = input.readByte();
+                    final int nChannels = input.readInt();
+                    if(version != VERSION || nChannels != audio.getFormat().getNumChannels()){
+                        return null;
+                    }
+                    final long nFrames = input.readLong();
+                    final int nBlocks = input.readInt();
+                    final float[][] min = new float[nChannels][];
+                    final float[][] max = new float[nChannels][];
+                    final float[][] meanSquare = new float[nChannels][];
+                    for(int ch = 0; ch < nChannels; ch++){
+                        min[ch] = readFloats(input, nBlocks);
+                        max[ch] = readFloats(input, nBlocks);
+                        meanSquare[ch] = readFloats(input, nBlocks);
+                    }
+                    return new WaveformPyramid(audio, nFrames, min, max, meanSquare);
+                }
+            });
+        } catch(IOException ex){
+            LOGGER.warn("Couldn't read the stored audio wave of " + audio.getName()
+                + ": " + ex.getMessage(), ex);
+            return null;
+        }
+    }
+
+    /**
+     * Stores the finest level of the pyramid under the given key.
+     */
+    private static void store(final String key, final WaveformPyramid pyramid){
+        try{
+            DISK_CACHE.put(DiskCache.hash(key), new DiskCache.EntryWriter() {
+                @Override
+                public void write(final DataOutputStream output) throws IOException {
+                    final int nChannels = pyramid.getNumberOfChannels();
+                    output.writeByte(VERSION);
+                    output.writeInt(nChannels);
+                    output.writeLong(pyramid.m_nFrames);
+                    output.writeInt(nChannels == 0 ? 0 : pyramid.m_min[0][0].length);
+                    for(int ch = 0; ch < nChannels; ch++){
+                        writeFloats(output, pyramid.m_min[ch][0]);
+                        writeFloats(output, pyramid.m_max[ch][0]);
+                        writeFloats(output, pyramid.m_meanSquare[ch][0]);
+                    }
+                }
+            });
+        } catch(IOException ex){
+            LOGGER.warn("Couldn't store the audio wave: " + ex.getMessage(), ex);
+        }
+    }
+
+    private static void writeFloats(final DataOutputStream output, final float[] values)
+            throws IOException{
+        final ByteBuffer buffer = ByteBuffer.allocate(values.length * Float.BYTES);
+        buffer.asFloatBuffer().put(values);
+        output.write(buffer.array());
+    }
+
+    private static float[] readFloats(final DataInputStream input, final int length)
+            throws IOException{
+        final byte[] bytes = new byte[length * Float.BYTES];
+        input.readFully(bytes);
+        final float[] values = new float[length];
+        ByteBuffer.wrap(bytes).asFloatBuffer().get(values);
+        return values;
+    }
+
+    /**
+     * Computes the finest level of all channels in one pass over the samples.
+     * The samples are taken from the {@link DecodedAudioCache}, the audio is
+     * decoded into the cache if it fits into its budget, so that the nodes
+     * processing the audio afterwards don't decode it again. Otherwise the
+     * file is streamed.
+     */
+    private static WaveformPyramid compute(final KNAudio audio) throws IOException{
+        if(audio.getFormat() == null){
+            throw new IOException("Unknown format of audio \"" + audio.getName() + "\".");
+        }
+        final int nChannels = audio.getFormat().getNumChannels();
+        final BlockBuilder builder = new BlockBuilder(nChannels);
+        try(final DecodedAudio decoded = DecodedAudioCache.getIfFits(audio, Layout.CHANNELS)){
+            if(decoded != null){
+                final FloatBuffer[] channels = new FloatBuffer[nChannels];
+                for(int ch = 0; ch < nChannels; ch++){
+                    channels[ch] = decoded.getChannel(ch);
+                }
+                final float[][] samples = new float[nChannels][LEVEL_FACTOR * BASE_BLOCK_SIZE];
+                for(int pos = 0; pos < decoded.getFrameLength(); pos += samples[0].length){
+                    final int n = Math.min(samples[0].length, decoded.getFrameLength() - pos);
+                    for(int ch = 0; ch < nChannels; ch++){
+                        channels[ch].get(samples[ch], 0, n);
+                    }
+                    builder.add(samples, n);
+                }
+                return builder.build(audio);
+            }
+        }
+
+        // The copy has its own read position
+        final KNAudio stream = new KNAudio(audio.getFilePath(), audio.getFormat().clone());
+        float[][] samples = new float[nChannels][0];
+        try{
+            SampleChunk chunk;
+            while((chunk = stream.nextSampleChunk()) != null){
+                final int nChunkFrames = decode(chunk, samples);
+                if(samples[0].length < nChunkFrames){
+                    samples = new float[nChannels][nChunkFrames];
+                    decode(chunk, samples);
+                }
+                builder.add(samples, nChunkFrames);
+            }
+        } finally{
+            stream.reset();
+        }
+        return builder.build(audio);
+    }
+
+    /**
+     * Decodes the samples of the chunk into the given arrays if they are large
+     * enough.
+     *
+     * @return the number of sample frames of the chunk
+     */
+    private static int decode(final SampleChunk chunk, final float[][] samples){
+        final AudioFormat format = chunk.getFormat();
+        final int nFrames = chunk.getSamples().length
+                / (PCMUtils.getBytesPerSample(format) * format.getNumChannels());
+        if(samples[0].length >= nFrames){
+            PCMUtils.deinterleave(chunk.getSamples(), 0, nFrames, format, samples, 0);
+        }
+        return nFrames;
+    }
+
+    /**
+     * Creates the coarser levels of the minimum or maximum on top of the given
+     * finest level.
+     */
+    private static float[][] buildLevels(final float[] base, final boolean minimum){
+        final int nLevels = getNumberOfLevels(base.length);
+        final float[][] levels = new float[nLevels][];
+        levels[0] = base;
+        for(int l = 1; l < nLevels; l++){
+            final float[] below = levels[l - 1];
+            final float[] level = new float[(below.length + LEVEL_FACTOR - 1) / LEVEL_FACTOR];
+            for(int b = 0; b < level.length; b++){
+                final int to = Math.min(below.length, (b + 1) * LEVEL_FACTOR);
+                float value = below[b * LEVEL_FACTOR];
+                for(int i = b * LEVEL_FACTOR + 1; i < to; i++){
+                    value = minimum ? Math.min(value, below[i]) : Math.max(value, below[i]);
+                }
+                level[b] = value;
+            }
+            levels[l] = level;
+        }
+        return levels;
+    }
+
+    /**
+     * Creates the coarser levels of the mean square on top of the given finest
+     * level. The last block of each level may contain less frames, hence the
+     * blocks are weighted by their number of frames.
+     */
+    private static float[][] buildMeanSquareLevels(final float[] base, final long nFrames){
+        final int nLevels = getNumberOfLevels(base.length);
+        final float[][] levels = new float[nLevels][];
+        levels[0] = base;
+        long blockSize = BASE_BLOCK_SIZE;
+        for(int l = 1; l < nLevels; l++){
+            final float[] below = levels[l - 1];
+            final float[] level = new float[(below.length + LEVEL_FACTOR - 1) / LEVEL_FACTOR];
+            for(int b = 0; b < level.length; b++){
+                final int to = Math.min(below.length, (b + 1) * LEVEL_FACTOR);
+                double sum = 0;
+                long count = 0;
+                for(int i = b * LEVEL_FACTOR; i < to; i++){
+                    final long n = Math.min(blockSize, nFrames - i * blockSize);
+                    sum += below[i] * (double)n;
+                    count += n;
+                }
+                level[b] = (float)(sum / count);
+            }
+            levels[l] = level;
+            blockSize *= LEVEL_FACTOR;
+        }
+        return levels;
+    }
+
+    private static int getNumberOfLevels(final int nBaseBlocks){
+        int nLevels = 1;
+        for(int n = nBaseBlocks; n > 1; n = (n + LEVEL_FACTOR - 1) / LEVEL_FACTOR){
+            nLevels++;
+        }
+        return nLevels;
+    }
+
+    private long getSizeInBytes(){
+        long size = 0;
+        for(int ch = 0; ch < m_min.length; ch++){
+            for(final float[] level : m_min[ch]){
+                size += 3L * Float.BYTES * level.length;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return the number of channels
+     */
+    public int getNumberOfChannels(){
+        return m_min.length;
+    }
+
+    /**
+     * @return the number of sample frames per channel
+     */
+    public long getNumberOfFrames(){
+        return m_nFrames;
+    }
+
+    /**
+     * Summarizes the given range of sample frames of a channel in the given
+     * number of bins of equal width. The bins are taken from the coarsest
+     * level which still has at least one block per bin. If the bins are
+     * narrower than the blocks of the finest level, the samples of the range
+     * may be read from the file, hence the method shouldn't be called from the
+     * event dispatch thread.
+     *
+     * @param channel the index of the channel
+     * @param startFrame the first sample frame of the range (inclusive)
+     * @param endFrame the last sample frame of the range (exclusive)
+     * @param nBins the number of bins, less bins are returned if the range
+     *            contains less sample frames
+     * @return the summary of the range
+     * @throws IOException if the samples couldn't be read
+     */
+    public Summary summarize(final int channel, final long startFrame, final long endFrame,
+            final int nBins) throws IOException{
+        final long start = Math.max(0, Math.min(startFrame, m_nFrames));
+        final long end = Math.max(start, Math.min(endFrame, m_nFrames));
+        final int n = (int)Math.max(0, Math.min(nBins, end - start));
+        final Summary summary = new Summary(start, n == 0 ? 1 : (end - start) / (double)n, n);
+        if(n == 0){
+            return summary;
+        }
+        if(summary.m_framesPerBin < BASE_BLOCK_SIZE){
+            summarizeSamples(channel, summary);
+            return summary;
+        }
+
+        int level = 0;
+        long blockSize = BASE_BLOCK_SIZE;
+        while(level + 1 < m_min[channel].length && blockSize * LEVEL_FACTOR <= summary.m_framesPerBin){
+            level++;
+            blockSize *= LEVEL_FACTOR;
+        }
+        final float[] min = m_min[channel][level];
+        final float[] max = m_max[channel][level];
+        final float[] meanSquare = m_meanSquare[channel][level];
+        for(int b = 0; b < n; b++){
+            final long binStart = start + (long)(b * summary.m_framesPerBin);
+            final long binEnd = b + 1 == n ? end : start + (long)((b + 1) * summary.m_framesPerBin);
+            final int from = (int)(binStart / blockSize);
+            final int to = (int)Math.min(min.length, Math.max(from + 1, (binEnd + blockSize - 1) / blockSize));
+            float binMin = Float.POSITIVE_INFINITY;
+            float binMax = Float.NEGATIVE_INFINITY;
+            double sum = 0;
+            long count = 0;
+            for(int i = from; i < to; i++){
+                binMin = Math.min(binMin, min[i]);
+                binMax = Math.max(binMax, max[i]);
+                final long frames = Math.min(blockSize, m_nFrames - i * blockSize);
+                sum += meanSquare[i] * (double)frames;
+                count += frames;
+            }
+            summary.m_min[b] = binMin;
+            summary.m_max[b] = binMax;
+            summary.m_rms[b] = Math.sqrt(sum / count);
+        }
+        return summary;
+    }
+
+    /**
+     * Computes the bins of the summary from the samples of the file.
+     */
+    private void summarizeSamples(final int channel, final Summary summary) throws IOException{
+        final KNAudio stream = new KNAudio(m_filePath, m_format.clone());
+        final int n = summary.m_min.length;
+        final long end = summary.m_startFrame + (long)Math.ceil(n * summary.m_framesPerBin);
+        Arrays.fill(summary.m_min, Double.POSITIVE_INFINITY);
+        Arrays.fill(summary.m_max, Double.NEGATIVE_INFINITY);
+        final double[] sumOfSquares = summary.m_rms;
+        final long[] counts = new long[n];
+        try(final DecodedAudio decoded = DecodedAudioCache.getIfPresent(stream, Layout.CHANNELS)){
+            if(decoded != null){
+                // Don't read the file if the samples are still cached
+                final FloatBuffer samples = decoded.getChannel(channel);
+                final long to = Math.min(end, samples.limit());
+                for(long frame = summary.m_startFrame; frame < to; frame++){
+                    summary.add(frame, samples.get((int)frame), counts);
+                }
+            }else{
+                try{
+                    stream.seekFrame(summary.m_startFrame);
+                    long frame = summary.m_startFrame;
+                    float[][] samples = new float[m_format.getNumChannels()][0];
+                    SampleChunk chunk;
+                    while(frame < end && (chunk = stream.nextSampleChunk()) != null){
+                        final int nChunkFrames = decode(chunk, samples);
+                        if(samples[0].length < nChunkFrames){
+                            samples = new float[samples.length][nChunkFrames];
+                            decode(chunk, samples);
+                        }
+                        for(int i = 0; i < nChunkFrames && frame < end; i++, frame++){
+                            summary.add(frame, samples[channel][i], counts);
+                        }
+                    }
+                } finally{
+                    stream.reset();
+                }
+            }
+        }
+        for(int b = 0; b < n; b++){
+            if(counts[b] == 0){
+                summary.m_min[b] = 0;
+                summary.m_max[b] = 0;
+            }else{
+                sumOfSquares[b] = Math.sqrt(sumOfSquares[b] / counts[b]);
+            }
+        }
+    }
+
+    /**
+     * Collects the minimum, maximum and mean square of each block of
+     * {@value #BASE_BLOCK_SIZE} sample frames per channel.
+     */
+    private static final class BlockBuilder {
+
+        private final int m_nChannels;
+
+        private float[][] m_min;
+
+        private float[][] m_max;
+
+        private float[][] m_meanSquare;
+
+        private final float[] m_blockMin;
+
+        private final float[] m_blockMax;
+
+        private final double[] m_sumOfSquares;
+
+        private int m_nBlocks = 0;
+
+        /** The number of sample frames of the current block */
+        private int m_n = 0;
+
+        private long m_nFrames = 0;
+
+        private BlockBuilder(final int nChannels){
+            m_nChannels = nChannels;
+            m_min = new float[nChannels][1024];
+            m_max = new float[nChannels][1024];
+            m_meanSquare = new float[nChannels][1024];
+            m_blockMin = new float[nChannels];
+            m_blockMax = new float[nChannels];
+            m_sumOfSquares = new double[nChannels];
+            Arrays.fill(m_blockMin, Float.POSITIVE_INFINITY);
+            Arrays.fill(m_blockMax, Float.NEGATIVE_INFINITY);
+        }
+
+        /**
+         * Adds the first <code>nFrames</code> samples of each channel.
+         */
+        private void add(final float[][] samples, final int nFrames){
+            for(int i = 0; i < nFrames; i++){
+                for(int ch = 0; ch < m_nChannels; ch++){
+                    final float sample = samples[ch][i];
+                    m_blockMin[ch] = Math.min(m_blockMin[ch], sample);
+                    m_blockMax[ch] = Math.max(m_blockMax[ch], sample);
+                    m_sumOfSquares[ch] += sample * sample;
+                }
+                if(++m_n == BASE_BLOCK_SIZE){
+                    addBlock();
+                }
+            }
+            m_nFrames += nFrames;
+        }
+
+        private void addBlock(){
+            if(m_nBlocks == m_min[0].length){
+                m_min = grow(m_min);
+                m_max = grow(m_max);
+                m_meanSquare = grow(m_meanSquare);
+            }
+            for(int ch = 0; ch < m_nChannels; ch++){
+                m_min[ch][m_nBlocks] = m_blockMin[ch];
+                m_max[ch][m_nBlocks] = m_blockMax[ch];
+                m_meanSquare[ch][m_nBlocks] = (float)(m_sumOfSquares[ch] / m_n);
+                m_blockMin[ch] = Float.POSITIVE_INFINITY;
+                m_blockMax[ch] = Float.NEGATIVE_INFINITY;
+                m_sumOfSquares[ch] = 0;
+            }
+            m_nBlocks++;
+            m_n = 0;
+        }
+
+        private static float[][] grow(final float[][] arrays){
+            final float[][] result = new float[arrays.length][];
+            for(int ch = 0; ch < arrays.length; ch++){
+                result[ch] = Arrays.copyOf(arrays[ch], 2 * arrays[ch].length);
+            }
+            return result;
+        }
+
+        /**
+         * Adds the last partial block and creates the pyramid.
+         */
+        private WaveformPyramid build(final KNAudio audio){
+            if(m_n > 0){
+                addBlock();
+            }
+            for(int ch = 0; ch < m_nChannels; ch++){
+                m_min[ch] = Arrays.copyOf(m_min[ch], m_nBlocks);
+                m_max[ch] = Arrays.copyOf(m_max[ch], m_nBlocks);
+                m_meanSquare[ch] = Arrays.copyOf(m_meanSquare[ch], m_nBlocks);
+            }
+            return new WaveformPyramid(audio, m_nFrames, m_min, m_max, m_meanSquare);
+        }
+    }
+
+    /**
+     * The minimum, maximum and RMS of consecutive bins of sample frames of one channel.
+     */
+    public static final class Summary {
+
+        private final long m_startFrame;
+
+        private final double m_framesPerBin;
+
+        private final double[] m_min;
+
+        private final double[] m_max;
+
+        private final double[] m_rms;
+
+        private Summary(final long startFrame, final double framesPerBin, final int nBins){
+            m_startFrame = startFrame;
+            m_framesPerBin = framesPerBin;
+            m_min = new double[nBins];
+            m_max = new double[nBins];
+            m_rms = new double[nBins];
+        }
+
+        /**
+         * Adds a sample to its bin, the RMS holds the sum of squares until all
+         * samples are added.
+         */
+        private void add(final long frame, final double sample, final long[] counts){
+            final int b = (int)Math.min(m_min.length - 1, (frame - m_startFrame) / m_framesPerBin);
+            m_min[b] = Math.min(m_min[b], sample);
+            m_max[b] = Math.max(m_max[b], sample);
+            m_rms[b] += sample * sample;
+            counts[b]++;
+        }
+
+        /**
+         * @return the number of bins
+         */
+        public int getNumberOfBins(){
+            return m_min.length;
+        }
+
+        /**
+         * @param bin the index of the bin
+         * @return the sample frame in the middle of the bin
+         */
+        public double getCenterFrame(final int bin){
+            return m_startFrame + (bin + 0.5) * m_framesPerBin;
+        }
+
+        /**
+         * @return the minimum sample of each bin
+         */
+        public double[] getMin(){
+            return m_min;
+        }
+
+        /**
+         * @return the maximum sample of each bin
+         */
+        public double[] getMax(){
+            return m_max;
+        }
+
+        /**
+         * @return the root mean square of the samples of each bin
+         */
+        public double[] getRms(){
+            return m_rms;
+        }
+    }
+
+}
@@ -0,0 +1,148 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio.data.feature.aggregator;
+
+/**
+ * The available aggregations of the feature vectors of the windows of an audio.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+public enum AggregatorType {
+
+    /** The arithmetic mean */
+    MEAN("Mean"),
+
+    /** The sample standard deviation */
+    STANDARD_DEVIATION("Standard Deviation"),
+
+    /** The minimum */
+    MINIMUM("Minimum"),
+
+    /** The maximum */
+    MAXIMUM("Maximum"),
+
+    /** The sample skewness */
+    SKEWNESS("Skewness"),
+
+    /** The excess kurtosis */
+    KURTOSIS("Kurtosis"),
+
+    /** The approximate median */
+    MEDIAN("Median"),
+
+    /** The approximate 25% quantile */
+    LOWER_QUARTILE("Lower Quartile"),
+
+    /** The approximate 75% quantile */
+    UPPER_QUARTILE("Upper Quartile");
+
+    private final String m_name;
+
+    private AggregatorType(final String name){
+        m_name = name;
+    }
+
+    /**
+     * @return the name
+     */
+    public String getName() {
+        return m_name;
+    }
+
+    /**
+     * @return a new aggregator of this type without any values
+     */
+    public Aggregator createAggregator(){
+        switch(this){
+            case MEAN:
+                return new Mean();
+            case STANDARD_DEVIATION:
+                return new StandardDeviation();
+            case MINIMUM:
+                return new Minimum();
+            case MAXIMUM:
+                return new Maximum();
+            case SKEWNESS:
+                return new Skewness();
+            case KURTOSIS:
+                return new Kurtosis();
+            case MEDIAN:
+                return new Quantile(0.5);
+            case LOWER_QUARTILE:
+                return new Quantile(0.25);
+            case UPPER_QUARTILE:
+                return new Quantile(0.75);
+            default:
+                throw new IllegalStateException("Unknown aggregator type: " + this);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return getName();
+    }
+
+    /**
+     * @param name the name of the aggregator type to retrieve
+     * @return the aggregator type based on the given name, or <code>null</code>
+     * if there is no such type
+     */
+    public static AggregatorType getAggregatorType(final String name){
+        for(final AggregatorType type : AggregatorType.values()){
+            if(type.getName().equals(name)){
+                return type;
+            }
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,166 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio.data.feature.aggregator;
+
+import java.util.Arrays;
+
+/**
+ * Base class of the aggregators based on the central moments of the values.
+ * The moments are updated per value and merged with the one-pass formulas
+ * given by P. P&eacute;bay, "Formulas for Robust, One-Pass Parallel
+ * Computation of Covariances and Arbitrary-Order Statistical Moments", 2008,
+ * which generalize Welford's algorithm for the variance.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+abstract class CentralMoments implements Aggregator {
+
+    private long[] m_counts = new long[0];
+    private double[] m_means = new double[0];
+    private double[] m_m2 = new double[0];
+    private double[] m_m3 = new double[0];
+    private double[] m_m4 = new double[0];
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void update(final double[] values) {
+        if(values == null){
+            return;
+        }
+        ensureDimensions(values.length);
+        for(int i = 0; i < values.length; i++){
+            final double n1 = m_counts[i];
+            final double n = ++m_counts[i];
+            final double delta = values[i] - m_means[i];
+            final double deltaN = delta / n;
+            final double deltaN2 = deltaN * deltaN;
+            final double term1 = delta * deltaN * n1;
+            m_means[i] += deltaN;
+            m_m4[i] += term1 * deltaN2 * (n * n - 3 * n + 3)
+                    + 6 * deltaN2 * m_m2[i] - 4 * deltaN * m_m3[i];
+            m_m3[i] += term1 * deltaN * (n - 2) - 3 * deltaN * m_m2[i];
+            m_m2[i] += term1;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void merge(final Aggregator other) {
+        if(other == null || other.getClass() != getClass()){
+            throw new IllegalArgumentException("Only aggregators of the same type can be merged.");
+        }
+        final CentralMoments moments = (CentralMoments)other;
+        ensureDimensions(moments.m_counts.length);
+        for(int i = 0; i < moments.m_counts.length; i++){
+            final double na = m_counts[i];
+            final double nb = moments.m_counts[i];
+            if(nb == 0){
+                continue;
+            }
+            final double n = na + nb;
+            final double delta = moments.m_means[i] - m_means[i];
+            final double delta2 = delta * delta;
+            final double m2a = m_m2[i];
+            final double m3a = m_m3[i];
+            final double m2b = moments.m_m2[i];
+            final double m3b = moments.m_m3[i];
+
+            m_m4[i] += moments.m_m4[i]
+                    + delta2 * delta2 * na * nb * (na * na - na * nb + nb * nb) / (n * n * n)
+                    + 6 * delta2 * (na * na * m2b + nb * nb * m2a) / (n * n)
+                    + 4 * delta * (na * m3b - nb * m3a) / n;
+            m_m3[i] += m3b + delta2 * delta * na * nb * (na - nb) / (n * n)
+                    + 3 * delta * (na * m2b - nb * m2a) / n;
+            m_m2[i] += m2b + delta2 * na * nb / n;
+            m_means[i] += delta * nb / n;
+            m_counts[i] += moments.m_counts[i];
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double[] getResult() {
+        if(m_counts.length == 0){
+            return new double[]{0.0};
+        }
+        final double[] result = new double[m_counts.length];
+        for(int i = 0; i < result.length; i++){
+            result[i] = getResult(m_counts[i], m_m2[i], m_m3[i], m_m4[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Computes the result of one dimension from its central moments.
+     *
+     * @param count the number of values
+     * @param m2 the sum of squared differences from the mean
+     * @param m3 the sum of cubed differences from the mean
+     * @param m4 the sum of differences from the mean to the power of four
+     * @return the result of the dimension
+     */
+    protected abstract double getResult(long count, double m2, double m3, double m4);
+
+    private void ensureDimensions(final int nDimensions){
+        if(nDimensions > m_counts.length){
+            m_counts = Arrays.copyOf(m_counts, nDimensions);
+            m_means = Arrays.copyOf(m_means, nDimensions);
+            m_m2 = Arrays.copyOf(m_m2, nDimensions);
+            m_m3 = Arrays.copyOf(m_m3, nDimensions);
+            m_m4 = Arrays.copyOf(m_m4, nDimensions);
+        }
+    }
+
+}
@@ -48,11 +48,90 @@
  */
 package org.knime.base.node.audio.data.feature.aggregator;
 
+import java.util.Arrays;
+
 /**
  *
  * @author Budi Yanto, KNIME.com
  */
-public class Mean {
+public class Mean implements Aggregator {
+
+    private double[] m_sums;
+    private long[] m_counts;
+
+    /**
+     * Creates a new running mean without any values.
+     */
+    public Mean() {
+        m_sums = new double[0];
+        m_counts = new long[0];
+    }
+
+    /**
+     * Adds the values of one window to the running mean. The values are
+     * accumulated per dimension, so windows with different number of
+     * dimensions are handled the same way as in {@link #aggregate(double[][])}.
+     *
+     * @param values the values to add, <code>null</code> is ignored
+     */
+    @Override
+    public void update(final double[] values){
+        if(values == null){
+            return;
+        }
+        if(values.length > m_sums.length){
+            m_sums = Arrays.copyOf(m_sums, values.length);
+            m_counts = Arrays.copyOf(m_counts, values.length);
+        }
+        for(int i = 0; i < values.length; i++){
+            m_sums[i] += values[i];
+            m_counts[i]++;
+        }
+    }
+
+    /**
+     * Merges the values accumulated by the given mean into this mean. This
+     * allows to compute partial means of different parts of the audio
+     * independently.
+     *
+     * @param other the mean to merge into this one
+     */
+    public void merge(final Mean other){
+        if(other.m_sums.length > m_sums.length){
+            m_sums = Arrays.copyOf(m_sums, other.m_sums.length);
+            m_counts = Arrays.copyOf(m_counts, other.m_counts.length);
+        }
+        for(int i = 0; i < other.m_sums.length; i++){
+            m_sums[i] += other.m_sums[i];
+            m_counts[i] += other.m_counts[i];
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void merge(final Aggregator other){
+        if(!(other instanceof Mean)){
+            throw new IllegalArgumentException("Only aggregators of the same type can be merged.");
+        }
+        merge((Mean)other);
+    }
+
+    /**
+     * @return the mean of all values added so far
+     */
+    @Override
+    public double[] getResult(){
+        if(m_sums.length == 0){
+            return new double[]{0.0};
+        }
+        final double[] result = new double[m_sums.length];
+        for(int i = 0; i < result.length; i++){
+            result[i] = m_counts[i] == 0 ? 0.0 : m_sums[i] / m_counts[i];
+        }
+        return result;
+    }
 
     /**
      *
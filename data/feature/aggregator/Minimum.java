@@ -0,0 +1,108 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio.data.feature.aggregator;
+
+import java.util.Arrays;
+
+/**
+ * Computes the minimum per dimension.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+public class Minimum implements Aggregator {
+
+    private double[] m_mins = new double[0];
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void update(final double[] values) {
+        if(values == null){
+            return;
+        }
+        ensureDimensions(values.length);
+        for(int i = 0; i < values.length; i++){
+            if(values[i] < m_mins[i]){
+                m_mins[i] = values[i];
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void merge(final Aggregator other) {
+        if(!(other instanceof Minimum)){
+            throw new IllegalArgumentException("Only aggregators of the same type can be merged.");
+        }
+        update(((Minimum)other).m_mins);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double[] getResult() {
+        if(m_mins.length == 0){
+            return new double[]{0.0};
+        }
+        return m_mins.clone();
+    }
+
+    private void ensureDimensions(final int nDimensions){
+        if(nDimensions > m_mins.length){
+            final int length = m_mins.length;
+            m_mins = Arrays.copyOf(m_mins, nDimensions);
+            Arrays.fill(m_mins, length, nDimensions, Double.POSITIVE_INFINITY);
+        }
+    }
+
+}
@@ -0,0 +1,130 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio.data.feature.aggregator;
+
+import java.util.Arrays;
+
+/**
+ * Estimates a quantile per dimension in a single pass using a t-digest per
+ * dimension, so the memory needed doesn't depend on the number of windows.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+public class Quantile implements Aggregator {
+
+    private final double m_quantile;
+
+    private TDigest[] m_digests = new TDigest[0];
+
+    /**
+     * @param quantile the quantile to estimate, between 0 and 1
+     */
+    public Quantile(final double quantile) {
+        if(quantile < 0 || quantile > 1){
+            throw new IllegalArgumentException("The quantile must be between 0 and 1.");
+        }
+        m_quantile = quantile;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void update(final double[] values) {
+        if(values == null){
+            return;
+        }
+        ensureDimensions(values.length);
+        for(int i = 0; i < values.length; i++){
+            m_digests[i].add(values[i]);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void merge(final Aggregator other) {
+        if(!(other instanceof Quantile) || ((Quantile)other).m_quantile != m_quantile){
+            throw new IllegalArgumentException("Only aggregators of the same quantile can be merged.");
+        }
+        final TDigest[] digests = ((Quantile)other).m_digests;
+        ensureDimensions(digests.length);
+        for(int i = 0; i < digests.length; i++){
+            m_digests[i].merge(digests[i]);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double[] getResult() {
+        if(m_digests.length == 0){
+            return new double[]{0.0};
+        }
+        final double[] result = new double[m_digests.length];
+        for(int i = 0; i < result.length; i++){
+            final double value = m_digests[i].quantile(m_quantile);
+            result[i] = Double.isNaN(value) ? 0.0 : value;
+        }
+        return result;
+    }
+
+    private void ensureDimensions(final int nDimensions){
+        if(nDimensions > m_digests.length){
+            final int length = m_digests.length;
+            m_digests = Arrays.copyOf(m_digests, nDimensions);
+            for(int i = length; i < nDimensions; i++){
+                m_digests[i] = new TDigest(TDigest.DEFAULT_COMPRESSION);
+            }
+        }
+    }
+
+}
@@ -49,9 +49,22 @@
 package org.knime.base.node.audio.data.feature.aggregator;
 
 /**
+ * Computes the sample standard deviation per dimension in a single pass.
  *
  * @author Budi Yanto, KNIME.com
  */
-public class StandardDeviation {
+public class StandardDeviation extends CentralMoments {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected double getResult(final long count, final double m2, final double m3,
+            final double m4) {
+        if(count < 2){
+            return 0.0;
+        }
+        return Math.sqrt(m2 / (count - 1));
+    }
 
 }
@@ -0,0 +1,261 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio.data.feature.aggregator;
+
+/**
+ * A merging t-digest, which approximates the distribution of a stream of
+ * values with a bounded number of weighted centroids. Centroids near the tails
+ * of the distribution are kept small, so extreme quantiles are estimated
+ * accurately. See T. Dunning and O. Ertl, "Computing Extremely Accurate
+ * Quantiles Using t-Digests", 2019. New values are buffered and merged into
+ * the centroids once the buffer is full.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+final class TDigest {
+
+    /** The default compression, which bounds the number of centroids */
+    static final double DEFAULT_COMPRESSION = 100;
+
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    private final double m_compression;
+
+    private final double[] m_bufferMeans;
+    private final double[] m_bufferWeights;
+    private int m_nBuffered = 0;
+
+    private double[] m_means = new double[0];
+    private double[] m_weights = new double[0];
+    private int m_nCentroids = 0;
+
+    private double m_totalWeight = 0;
+    private double m_min = Double.POSITIVE_INFINITY;
+    private double m_max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * @param compression the compression, a higher value results in more
+     *            centroids and more accurate quantiles
+     */
+    TDigest(final double compression){
+        m_compression = compression;
+        m_bufferMeans = new double[(int)(5 * compression)];
+        m_bufferWeights = new double[m_bufferMeans.length];
+    }
+
+    /**
+     * @param value the value to add, NaN is ignored
+     */
+    void add(final double value){
+        add(value, 1);
+    }
+
+    private void add(final double mean, final double weight){
+        if(Double.isNaN(mean)){
+            return;
+        }
+        if(m_nBuffered == m_bufferMeans.length){
+            compress();
+        }
+        m_bufferMeans[m_nBuffered] = mean;
+        m_bufferWeights[m_nBuffered] = weight;
+        m_nBuffered++;
+        m_totalWeight += weight;
+        m_min = Math.min(m_min, mean);
+        m_max = Math.max(m_max, mean);
+    }
+
+    /**
+     * Adds the centroids of the given digest to this digest.
+     *
+     * @param other the digest to merge into this one
+     */
+    void merge(final TDigest other){
+        other.compress();
+        for(int i = 0; i < other.m_nCentroids; i++){
+            add(other.m_means[i], other.m_weights[i]);
+        }
+        m_min = Math.min(m_min, other.m_min);
+        m_max = Math.max(m_max, other.m_max);
+    }
+
+    /**
+     * @param q the quantile, between 0 and 1
+     * @return the estimated value of the given quantile, or NaN if the digest is empty
+     */
+    double quantile(final double q){
+        compress();
+        if(m_nCentroids == 0){
+            return Double.NaN;
+        }
+        if(m_nCentroids == 1){
+            return m_means[0];
+        }
+
+        // Interpolate linearly between the centers of the centroids and between
+        // the outer centers and the minimum or maximum respectively
+        final double index = q * m_totalWeight;
+        final double firstHalf = m_weights[0] / 2;
+        if(index < firstHalf){
+            return m_min + (m_means[0] - m_min) * index / firstHalf;
+        }
+        double cumulative = firstHalf;
+        for(int i = 0; i < m_nCentroids - 1; i++){
+            final double dw = (m_weights[i] + m_weights[i + 1]) / 2;
+            if(cumulative + dw > index){
+                return m_means[i] + (m_means[i + 1] - m_means[i]) * (index - cumulative) / dw;
+            }
+            cumulative += dw;
+        }
+        final int last = m_nCentroids - 1;
+        final double lastHalf = m_weights[last] / 2;
+        return m_means[last] + (m_max - m_means[last]) * Math.min(1, (index - cumulative) / lastHalf);
+    }
+
+    /**
+     * Merges the buffered values into the centroids.
+     */
+    private void compress(){
+        if(m_nBuffered == 0){
+            return;
+        }
+        final int n = m_nCentroids + m_nBuffered;
+        final double[] means = new double[n];
+        final double[] weights = new double[n];
+        System.arraycopy(m_means, 0, means, 0, m_nCentroids);
+        System.arraycopy(m_weights, 0, weights, 0, m_nCentroids);
+        System.arraycopy(m_bufferMeans, 0, means, m_nCentroids, m_nBuffered);
+        System.arraycopy(m_bufferWeights, 0, weights, m_nCentroids, m_nBuffered);
+        sort(means, weights, 0, n - 1);
+
+        // Merge neighbouring centroids as long as the merged centroid doesn't
+        // span more than one unit of the scale function
+        int nCentroids = 0;
+        double weightSoFar = 0;
+        double mean = means[0];
+        double weight = weights[0];
+        for(int i = 1; i < n; i++){
+            final double proposed = weight + weights[i];
+            if(scale((weightSoFar + proposed) / m_totalWeight)
+                    - scale(weightSoFar / m_totalWeight) <= 1){
+                mean += (means[i] - mean) * weights[i] / proposed;
+                weight = proposed;
+            }else{
+                means[nCentroids] = mean;
+                weights[nCentroids] = weight;
+                nCentroids++;
+                weightSoFar += weight;
+                mean = means[i];
+                weight = weights[i];
+            }
+        }
+        means[nCentroids] = mean;
+        weights[nCentroids] = weight;
+        nCentroids++;
+
+        m_means = means;
+        m_weights = weights;
+        m_nCentroids = nCentroids;
+        m_nBuffered = 0;
+    }
+
+    /**
+     * The k1 scale function mapping a quantile to the index of a centroid.
+     */
+    private double scale(final double q){
+        return m_compression / (2 * Math.PI) * Math.asin(2 * Math.min(1, q) - 1);
+    }
+
+    /**
+     * Sorts the given range of the means and applies the same permutation to the weights.
+     */
+    private static void sort(final double[] means, final double[] weights, final int from, final int to){
+        if(to - from < INSERTION_SORT_THRESHOLD){
+            for(int i = from + 1; i <= to; i++){
+                final double mean = means[i];
+                final double weight = weights[i];
+                int j = i - 1;
+                while(j >= from && means[j] > mean){
+                    means[j + 1] = means[j];
+                    weights[j + 1] = weights[j];
+                    j--;
+                }
+                means[j + 1] = mean;
+                weights[j + 1] = weight;
+            }
+            return;
+        }
+        final double pivot = means[(from + to) >>> 1];
+        int i = from;
+        int j = to;
+        while(i <= j){
+            while(means[i] < pivot){
+                i++;
+            }
+            while(means[j] > pivot){
+                j--;
+            }
+            if(i <= j){
+                swap(means, i, j);
+                swap(weights, i, j);
+                i++;
+                j--;
+            }
+        }
+        sort(means, weights, from, j);
+        sort(means, weights, i, to);
+    }
+
+    private static void swap(final double[] values, final int i, final int j){
+        final double tmp = values[i];
+        values[i] = values[j];
+        values[j] = tmp;
+    }
+
+}
@@ -50,6 +50,7 @@ package org.knime.base.node.audio.data.feature.extractor;
 
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Map.Entry;
 
 import org.knime.base.node.audio.data.feature.FeatureType;
 
@@ -135,6 +136,23 @@ public abstract class FeatureExtractor {
         }
     }
 
+    /**
+     * Creates a new extractor of the same feature type with the same parameter
+     * values. The copy doesn't share any state with this extractor and can be
+     * used by another thread.
+     *
+     * @return a copy of this extractor
+     */
+    public FeatureExtractor copy(){
+        final FeatureExtractor copy = getFeatureExtractor(m_type);
+        if(m_parameters != null){
+            for(Entry<String, Integer> entry : m_parameters.entrySet()){
+                copy.setParameterValue(entry.getKey(), entry.getValue());
+            }
+        }
+        return copy;
+    }
+
     /**
      * Extract the feature of the given samples
      * @param samples the samples of the audio whose feature should be extracted
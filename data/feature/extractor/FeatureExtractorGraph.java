@@ -0,0 +1,265 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio.data.feature.extractor;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.knime.base.node.audio.data.feature.FeatureType;
+import org.knime.base.node.audio.util.WindowFunction;
+
+import jAudioFeatureExtractor.jAudioTools.FFT;
+
+/**
+ * Executes a set of feature extractors on a window of samples, taking into
+ * account the dependencies defined by {@link FeatureType#getDependencies()}.
+ * Every feature is computed at most once per window, dependencies which
+ * haven't been requested are computed internally, and all
+ * {@link SpectralFeatureExtractor}s share one FFT per window. The window
+ * function of the graph is only applied to the samples the FFT is computed of.
+ *
+ * <p>
+ * Instances are not thread-safe.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+public class FeatureExtractorGraph {
+
+    /** The requested extractors */
+    private final FeatureExtractor[] m_extractors;
+
+    /** All extractors including the dependencies in topological order */
+    private final FeatureExtractor[] m_nodes;
+
+    /** The indices of the dependencies of each node */
+    private final int[][] m_dependencies;
+
+    /** The index of the node of each requested extractor */
+    private final int[] m_outputs;
+
+    private final boolean m_needsFFT;
+
+    /** The window function applied before the FFT */
+    private final WindowFunction m_windowFunction;
+
+    /** The buffer holding the windowed samples */
+    private double[] m_windowed;
+
+    /** The features of the current window per node */
+    private final double[][] m_values;
+
+    /** The features of the current window per requested extractor */
+    private final double[][] m_results;
+
+    /**
+     * Creates a new graph for the given feature extractors, which applies the
+     * Hann window before the FFT.
+     * @param extractors the feature extractors to execute
+     */
+    public FeatureExtractorGraph(final FeatureExtractor... extractors) {
+        this(WindowFunction.HANN, extractors);
+    }
+
+    /**
+     * Creates a new graph for the given feature extractors.
+     * @param windowFunction the window function applied before the FFT
+     * @param extractors the feature extractors to execute
+     */
+    public FeatureExtractorGraph(final WindowFunction windowFunction,
+            final FeatureExtractor... extractors) {
+        if(extractors == null){
+            throw new IllegalArgumentException("Extractors cannot be null");
+        }
+        if(windowFunction == null){
+            throw new IllegalArgumentException("Window function cannot be null");
+        }
+        m_extractors = extractors;
+        m_windowFunction = windowFunction;
+
+        final Map<FeatureType, FeatureExtractor> requested =
+                new LinkedHashMap<FeatureType, FeatureExtractor>();
+        for(FeatureExtractor extractor : extractors){
+            if(!requested.containsKey(extractor.getType())){
+                requested.put(extractor.getType(), extractor);
+            }
+        }
+
+        final Map<FeatureType, Integer> nodeIndices = new LinkedHashMap<FeatureType, Integer>();
+        final List<FeatureExtractor> nodes = new ArrayList<FeatureExtractor>();
+        final List<int[]> dependencies = new ArrayList<int[]>();
+        for(FeatureExtractor extractor : extractors){
+            addNode(extractor.getType(), requested, nodeIndices, nodes, dependencies,
+                new HashSet<FeatureType>());
+        }
+
+        m_nodes = nodes.toArray(new FeatureExtractor[nodes.size()]);
+        m_dependencies = dependencies.toArray(new int[dependencies.size()][]);
+        m_outputs = new int[extractors.length];
+        for(int i = 0; i < extractors.length; i++){
+            m_outputs[i] = nodeIndices.get(extractors[i].getType());
+        }
+
+        boolean needsFFT = false;
+        for(FeatureExtractor node : m_nodes){
+            needsFFT |= node instanceof SpectralFeatureExtractor;
+        }
+        m_needsFFT = needsFFT;
+        m_values = new double[m_nodes.length][];
+        m_results = new double[extractors.length][];
+    }
+
+    private static int addNode(final FeatureType type,
+            final Map<FeatureType, FeatureExtractor> requested,
+            final Map<FeatureType, Integer> nodeIndices, final List<FeatureExtractor> nodes,
+            final List<int[]> dependencies, final Set<FeatureType> visiting){
+        final Integer index = nodeIndices.get(type);
+        if(index != null){
+            return index;
+        }
+        if(!visiting.add(type)){
+            throw new IllegalArgumentException("Cyclic dependency detected for feature type: "
+                    + type);
+        }
+
+        int[] depIndices = null;
+        if(type.hasDependencies()){
+            final FeatureType[] deps = type.getDependencies();
+            depIndices = new int[deps.length];
+            for(int i = 0; i < deps.length; i++){
+                depIndices[i] = addNode(deps[i], requested, nodeIndices, nodes,
+                    dependencies, visiting);
+            }
+        }
+
+        FeatureExtractor extractor = requested.get(type);
+        if(extractor == null){
+            extractor = FeatureExtractor.getFeatureExtractor(type);
+        }
+        nodes.add(extractor);
+        dependencies.add(depIndices);
+        nodeIndices.put(type, nodes.size() - 1);
+        visiting.remove(type);
+        return nodes.size() - 1;
+    }
+
+    /**
+     * @return the requested feature extractors
+     */
+    public FeatureExtractor[] getExtractors(){
+        return m_extractors;
+    }
+
+    /**
+     * @return the window function applied before the FFT
+     */
+    public WindowFunction getWindowFunction(){
+        return m_windowFunction;
+    }
+
+    /**
+     * Creates a new graph with copies of the requested extractors, which can be
+     * used by another thread.
+     *
+     * @return a copy of this graph
+     * @see FeatureExtractor#copy()
+     */
+    public FeatureExtractorGraph copy(){
+        final FeatureExtractor[] extractors = new FeatureExtractor[m_extractors.length];
+        for(int i = 0; i < extractors.length; i++){
+            extractors[i] = m_extractors[i].copy();
+        }
+        return new FeatureExtractorGraph(m_windowFunction, extractors);
+    }
+
+    /**
+     * Extracts the features of the given window.
+     *
+     * @param window the samples of the window
+     * @param sampleRate the sample rate of the audio
+     * @return the features of the window in the same order as the extractors
+     *         this graph was created with. The returned array is reused by the
+     *         next call of this method.
+     * @throws Exception if a feature couldn't be extracted
+     */
+    public double[][] extract(final double[] window, final double sampleRate) throws Exception{
+        FFT fft = null;
+        if(m_needsFFT){
+            if(m_windowed == null || m_windowed.length != window.length){
+                m_windowed = new double[window.length];
+            }
+            m_windowFunction.apply(window, m_windowed);
+            fft = new FFT(m_windowed, null, false, false);
+        }
+        for(int i = 0; i < m_nodes.length; i++){
+            final FeatureExtractor node = m_nodes[i];
+            if(node instanceof SpectralFeatureExtractor){
+                m_values[i] = ((SpectralFeatureExtractor)node).extractFeature(fft, sampleRate);
+            }else{
+                double[][] additionalFeatures = null;
+                if(m_dependencies[i] != null){
+                    additionalFeatures = new double[m_dependencies[i].length][];
+                    for(int d = 0; d < additionalFeatures.length; d++){
+                        additionalFeatures[d] = m_values[m_dependencies[i][d]];
+                    }
+                }
+                m_values[i] = node.extractFeature(window, sampleRate, additionalFeatures);
+            }
+        }
+
+        for(int i = 0; i < m_outputs.length; i++){
+            m_results[i] = m_values[m_outputs[i]];
+        }
+        return m_results;
+    }
+
+}
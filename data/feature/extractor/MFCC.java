@@ -49,7 +49,6 @@
 package org.knime.base.node.audio.data.feature.extractor;
 
 import org.knime.base.node.audio.data.feature.FeatureType;
-import org.oc.ocvolume.dsp.featureExtraction;
 
 /**
  *
@@ -60,6 +59,12 @@ public class MFCC extends FeatureExtractor{
     private static final String PARAMETER_NAME = FeatureType.MFCC.getParameters()[0];
     private static final int DEFAULT_PARAMETER_VALUE = 13;
 
+    /** The plan of the last extracted window, shared with other extractors */
+    private MFCCPlan m_plan;
+
+    /** Buffer for the log filter bank energies of a window */
+    private double[] m_filterBank;
+
     /**
      *
      */
@@ -73,13 +78,14 @@ public class MFCC extends FeatureExtractor{
     @Override
     public double[] extractFeature(final double[] samples, final double sampleRate,
             final double[][] additionalFeatureValues) throws Exception{
-        final featureExtraction extractor = new featureExtraction();
-        extractor.numCepstra = getParameterValue(PARAMETER_NAME);
-        final int[] cbin = extractor.fftBinIndices(sampleRate,
-            additionalFeatureValues[0].length);
-        final double[] fbank = extractor.melFilter(additionalFeatureValues[0], cbin);
-        final double[] f = extractor.nonLinearTransformation(fbank);
-        final double[] cepc = extractor.cepCoefficients(f);
+        final int numCepstra = getParameterValue(PARAMETER_NAME);
+        final double[] spectrum = additionalFeatureValues[0];
+        if(m_plan == null || !m_plan.isPlanFor(sampleRate, spectrum.length, numCepstra)){
+            m_plan = MFCCPlan.getPlan(sampleRate, spectrum.length, numCepstra);
+            m_filterBank = new double[m_plan.getNumberOfFilters()];
+        }
+        final double[] cepc = new double[numCepstra];
+        m_plan.apply(spectrum, m_filterBank, cepc);
         return cepc;
     }
 
@@ -0,0 +1,256 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio.data.feature.extractor;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.oc.ocvolume.dsp.featureExtraction;
+
+/**
+ * Precomputed MFCC plan for a given sample rate, spectrum length and number
+ * of cepstral coefficients. The plan holds the mel filter bank as sparse
+ * weights over the spectrum bins and the DCT matrix, so that the coefficients
+ * of a window are computed with a filter bank multiplication, a logarithm and
+ * a matrix multiplication only.
+ *
+ * <p>
+ * The weights are derived from the Orange Cow implementation by applying its
+ * (linear) filter bank and DCT to unit vectors, hence the results are the same
+ * as computed by {@link featureExtraction}. Plans are immutable and shared
+ * between threads.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+final class MFCCPlan {
+
+    /** The floor of the log filter bank energies as used by Orange Cow */
+    private static final double LOG_FLOOR = -50;
+
+    private static final ConcurrentMap<Key, MFCCPlan> PLANS = new ConcurrentHashMap<Key, MFCCPlan>();
+
+    private final Key m_key;
+
+    /** The first spectrum bin of each filter */
+    private final int[] m_filterOffsets;
+
+    /** The weights of each filter starting at its first bin */
+    private final double[][] m_filterWeights;
+
+    /** The DCT matrix (coefficients x filters) */
+    private final double[][] m_dct;
+
+    private MFCCPlan(final Key key){
+        m_key = key;
+        final featureExtraction extractor = new featureExtraction();
+        extractor.numCepstra = key.m_numCepstra;
+        final int[] cbin = extractor.fftBinIndices(key.m_sampleRate, key.m_spectrumLength);
+
+        // Probe the filter bank with unit vectors to get the weight of each bin
+        final double[] unit = new double[key.m_spectrumLength];
+        double[][] weights = null;
+        for(int bin = 0; bin < unit.length; bin++){
+            unit[bin] = 1.0;
+            final double[] response = extractor.melFilter(unit, cbin);
+            unit[bin] = 0.0;
+            if(weights == null){
+                weights = new double[response.length][unit.length];
+            }
+            for(int filter = 0; filter < response.length; filter++){
+                weights[filter][bin] = response[filter];
+            }
+        }
+        if(weights == null){
+            weights = new double[0][];
+        }
+
+        // Only keep the non-zero range of each filter
+        m_filterOffsets = new int[weights.length];
+        m_filterWeights = new double[weights.length][];
+        for(int filter = 0; filter < weights.length; filter++){
+            int start = 0;
+            while(start < weights[filter].length && weights[filter][start] == 0.0){
+                start++;
+            }
+            int end = weights[filter].length;
+            while(end > start && weights[filter][end - 1] == 0.0){
+                end--;
+            }
+            m_filterOffsets[filter] = start;
+            m_filterWeights[filter] = new double[end - start];
+            System.arraycopy(weights[filter], start, m_filterWeights[filter], 0, end - start);
+        }
+
+        // Probe the DCT with unit vectors
+        m_dct = new double[key.m_numCepstra][weights.length];
+        final double[] unitFilter = new double[weights.length];
+        for(int filter = 0; filter < unitFilter.length; filter++){
+            unitFilter[filter] = 1.0;
+            final double[] response = extractor.cepCoefficients(unitFilter);
+            unitFilter[filter] = 0.0;
+            for(int coeff = 0; coeff < m_dct.length; coeff++){
+                m_dct[coeff][filter] = response[coeff];
+            }
+        }
+    }
+
+    /**
+     * Returns the plan for the given parameters, creates it if it doesn't exist yet.
+     *
+     * @param sampleRate the sample rate of the audio
+     * @param spectrumLength the length of the magnitude spectrum
+     * @param numCepstra the number of cepstral coefficients
+     * @return the plan for the given parameters
+     */
+    static MFCCPlan getPlan(final double sampleRate, final int spectrumLength, final int numCepstra){
+        final Key key = new Key(sampleRate, spectrumLength, numCepstra);
+        MFCCPlan plan = PLANS.get(key);
+        if(plan == null){
+            plan = new MFCCPlan(key);
+            final MFCCPlan existing = PLANS.putIfAbsent(key, plan);
+            if(existing != null){
+                plan = existing;
+            }
+        }
+        return plan;
+    }
+
+    /**
+     * @param sampleRate the sample rate of the audio
+     * @param spectrumLength the length of the magnitude spectrum
+     * @param numCepstra the number of cepstral coefficients
+     * @return <code>true</code> if this plan has been created for the given parameters
+     */
+    boolean isPlanFor(final double sampleRate, final int spectrumLength, final int numCepstra){
+        return m_key.m_sampleRate == sampleRate && m_key.m_spectrumLength == spectrumLength
+                && m_key.m_numCepstra == numCepstra;
+    }
+
+    /**
+     * @return the number of mel filters
+     */
+    int getNumberOfFilters(){
+        return m_filterWeights.length;
+    }
+
+    /**
+     * Computes the cepstral coefficients of the given magnitude spectrum.
+     *
+     * @param spectrum the magnitude spectrum of the window
+     * @param filterBank array to store the log filter bank energies, must have
+     *            the length {@link #getNumberOfFilters()}
+     * @param result array to store the coefficients, must have the length of the
+     *            number of cepstral coefficients
+     */
+    void apply(final double[] spectrum, final double[] filterBank, final double[] result){
+        for(int filter = 0; filter < m_filterWeights.length; filter++){
+            final double[] weights = m_filterWeights[filter];
+            final int offset = m_filterOffsets[filter];
+            double energy = 0.0;
+            for(int i = 0; i < weights.length; i++){
+                energy += weights[i] * spectrum[offset + i];
+            }
+            final double log = Math.log(energy);
+            filterBank[filter] = log < LOG_FLOOR ? LOG_FLOOR : log;
+        }
+
+        for(int coeff = 0; coeff < m_dct.length; coeff++){
+            final double[] row = m_dct[coeff];
+            double sum = 0.0;
+            for(int filter = 0; filter < row.length; filter++){
+                sum += row[filter] * filterBank[filter];
+            }
+            result[coeff] = sum;
+        }
+    }
+
+    private static final class Key {
+
+        private final double m_sampleRate;
+        private final int m_spectrumLength;
+        private final int m_numCepstra;
+
+        private Key(final double sampleRate, final int spectrumLength, final int numCepstra){
+            m_sampleRate = sampleRate;
+            m_spectrumLength = spectrumLength;
+            m_numCepstra = numCepstra;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int hashCode() {
+            final int prime = 31;
+            int result = 1;
+            final long temp = Double.doubleToLongBits(m_sampleRate);
+            result = prime * result + (int)(temp ^ (temp >>> 32));
+            result = prime * result + m_spectrumLength;
+            result = prime * result + m_numCepstra;
+            return result;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key)obj;
+            return Double.doubleToLongBits(m_sampleRate) == Double.doubleToLongBits(other.m_sampleRate)
+                    && m_spectrumLength == other.m_spectrumLength && m_numCepstra == other.m_numCepstra;
+        }
+    }
+
+}
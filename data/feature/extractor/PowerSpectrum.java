@@ -56,7 +56,7 @@ import jAudioFeatureExtractor.jAudioTools.FFT;
  *
  * @author Budi Yanto, KNIME.com
  */
-public class PowerSpectrum extends FeatureExtractor{
+public class PowerSpectrum extends SpectralFeatureExtractor{
 
     /**
      *
@@ -69,9 +69,7 @@ public class PowerSpectrum extends FeatureExtractor{
      * {@inheritDoc}
      */
     @Override
-    public double[] extractFeature(final double[] samples, final double sampleRate,
-            final double[][] additionalFeatureValues) throws Exception{
-        FFT fft = new FFT(samples, null, false, true);
+    public double[] extractFeature(final FFT fft, final double sampleRate) throws Exception{
         return fft.getPowerSpectrum();
     }
 
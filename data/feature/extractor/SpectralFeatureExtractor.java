@@ -0,0 +1,90 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio.data.feature.extractor;
+
+import org.knime.base.node.audio.data.feature.FeatureType;
+
+import jAudioFeatureExtractor.jAudioTools.FFT;
+
+/**
+ * A feature extractor whose feature is derived from the FFT of the window.
+ * When used within a {@link FeatureExtractorGraph} the FFT of each window is
+ * computed only once and shared by all spectral extractors.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+public abstract class SpectralFeatureExtractor extends FeatureExtractor {
+
+    /**
+     *
+     * @param type
+     */
+    protected SpectralFeatureExtractor(final FeatureType type) {
+        super(type);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double[] extractFeature(final double[] samples, final double sampleRate,
+            final double[][] additionalFeatureValues) throws Exception{
+        return extractFeature(new FFT(samples, null, false, true), sampleRate);
+    }
+
+    /**
+     * Extract the feature from the given FFT of the samples
+     * @param fft the FFT of the samples whose feature should be extracted
+     * @param sampleRate the sample rate of the audio
+     * @return the feature of the samples
+     * @throws Exception
+     */
+    public abstract double[] extractFeature(final FFT fft, final double sampleRate) throws Exception;
+
+}
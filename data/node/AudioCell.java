@@ -49,10 +49,22 @@
 package org.knime.base.node.audio.data.node;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Map.Entry;
 
 import org.knime.base.node.audio.data.KNAudio;
+import org.knime.base.node.audio.data.feature.FeatureType;
+import org.knime.base.node.audio.data.recognizer.RecognitionResult;
+import org.knime.base.node.audio.ext.org.openimaj.audio.AudioFormat;
+import org.knime.base.node.audio.ext.org.openimaj.feature.DoubleFV;
 import org.knime.core.data.DataCell;
+import org.knime.core.data.DataCellDataInput;
+import org.knime.core.data.DataCellDataOutput;
+import org.knime.core.data.DataCellSerializer;
 import org.knime.core.data.DataType;
 import org.knime.core.data.StringValue;
 
@@ -72,8 +84,21 @@ public class AudioCell extends DataCell implements AudioValue, StringValue {
      */
     public static final DataType TYPE = DataType.getType(AudioCell.class);
 
+    private static final AudioSerializer SERIALIZER = new AudioSerializer();
+
     private final KNAudio m_audio;
 
+    /**
+     * Returns the factory to read/write DataCells of this class from/to a
+     * DataInput/DataOutput. This method is called via reflection.
+     *
+     * @return a serializer for reading/writing cells of this kind
+     * @see DataCell
+     */
+    public static final DataCellSerializer<AudioCell> getCellSerializer(){
+        return SERIALIZER;
+    }
+
     /**
      *
      * @param audio
@@ -169,4 +194,152 @@ public class AudioCell extends DataCell implements AudioValue, StringValue {
         return builder.toString();
     }
 
+    /**
+     * Serializer for {@link AudioCell}s. The audio is written in a compact
+     * binary layout instead of Java serialization of the whole {@link KNAudio}:
+     * <ol>
+     * <li>the layout version</li>
+     * <li>the file path</li>
+     * <li>the format fields, if the format is known</li>
+     * <li>the extracted features, each with its name and its raw values</li>
+     * <li>the recognition results, each with its key, transcript, confidence
+     * and recognizer info</li>
+     * </ol>
+     * Strings are written as length-prefixed UTF-8. The file isn't accessed
+     * when a cell is read.
+     *
+     * @author Budi Yanto, KNIME.com
+     */
+    public static final class AudioSerializer implements DataCellSerializer<AudioCell> {
+
+        private static final byte VERSION = 1;
+
+        private static final byte FLAG_SIGNED = 1;
+
+        private static final byte FLAG_BIG_ENDIAN = 2;
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void serialize(final AudioCell cell, final DataCellDataOutput output)
+                throws IOException {
+            final KNAudio audio = cell.getAudio();
+            output.writeByte(VERSION);
+            writeString(output, audio.getFilePath());
+
+            final AudioFormat format = audio.getFormat();
+            output.writeBoolean(format != null);
+            if(format != null){
+                output.writeInt(format.getNBits());
+                output.writeInt(format.getNumChannels());
+                output.writeDouble(format.getSampleRateKHz());
+                byte flags = 0;
+                if(format.isSigned()){
+                    flags |= FLAG_SIGNED;
+                }
+                if(format.isBigEndian()){
+                    flags |= FLAG_BIG_ENDIAN;
+                }
+                output.writeByte(flags);
+            }
+
+            final Map<FeatureType, DoubleFV> features = audio.getExtractedFeatures();
+            output.writeInt(features.size());
+            for(Entry<FeatureType, DoubleFV> entry : features.entrySet()){
+                writeString(output, entry.getKey().name());
+                writeDoubles(output, entry.getValue().getVector());
+            }
+
+            final Map<String, RecognitionResult> results = audio.getRecognitionResults();
+            output.writeInt(results.size());
+            for(Entry<String, RecognitionResult> entry : results.entrySet()){
+                writeString(output, entry.getKey());
+                RecognitionResult.write(output, entry.getValue());
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public AudioCell deserialize(final DataCellDataInput input) throws IOException {
+            final byte version = input.readByte();
+            if(version != VERSION){
+                throw new IOException("Unsupported audio cell version: " + version);
+            }
+            final String filePath = readString(input);
+
+            AudioFormat format = null;
+            if(input.readBoolean()){
+                final int nBits = input.readInt();
+                final int nChannels = input.readInt();
+                final double sampleRateKHz = input.readDouble();
+                final byte flags = input.readByte();
+                format = new AudioFormat(nBits, sampleRateKHz, nChannels);
+                format.setSigned((flags & FLAG_SIGNED) != 0);
+                format.setBigEndian((flags & FLAG_BIG_ENDIAN) != 0);
+            }
+            final KNAudio audio = new KNAudio(filePath, format);
+
+            final int nFeatures = input.readInt();
+            for(int i = 0; i < nFeatures; i++){
+                final String name = readString(input);
+                final double[] values = readDoubles(input);
+                try{
+                    audio.setFeatureVector(FeatureType.valueOf(name), new DoubleFV(values));
+                } catch(IllegalArgumentException ex){
+                    // The feature type doesn't exist anymore, drop its values
+                }
+            }
+
+            final int nResults = input.readInt();
+            for(int i = 0; i < nResults; i++){
+                final String key = readString(input);
+                audio.getRecognitionResults().put(key, RecognitionResult.read(input));
+            }
+
+            return new AudioCell(audio);
+        }
+
+        private static void writeString(final DataCellDataOutput output, final String str)
+                throws IOException {
+            if(str == null){
+                output.writeInt(-1);
+                return;
+            }
+            final byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+            output.writeInt(bytes.length);
+            output.write(bytes);
+        }
+
+        private static String readString(final DataCellDataInput input) throws IOException {
+            final int length = input.readInt();
+            if(length < 0){
+                return null;
+            }
+            final byte[] bytes = new byte[length];
+            input.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private static void writeDoubles(final DataCellDataOutput output, final double[] values)
+                throws IOException {
+            output.writeInt(values.length);
+            final ByteBuffer buffer = ByteBuffer.allocate(values.length * Double.BYTES);
+            buffer.asDoubleBuffer().put(values);
+            output.write(buffer.array());
+        }
+
+        private static double[] readDoubles(final DataCellDataInput input) throws IOException {
+            final int length = input.readInt();
+            final byte[] bytes = new byte[length * Double.BYTES];
+            input.readFully(bytes);
+            final double[] values = new double[length];
+            ByteBuffer.wrap(bytes).asDoubleBuffer().get(values);
+            return values;
+        }
+
+    }
+
 }
@@ -73,7 +73,7 @@ public enum AudioFeatureCellExtractor {
             if(featureValues == null || featureValues.length == 0){
                 return DataType.getMissingCell();
             }
-            final List<DoubleCell> cells = new ArrayList<DoubleCell>();
+            final List<DoubleCell> cells = new ArrayList<DoubleCell>(featureValues.length);
             for(double val : featureValues){
                 cells.add(new DoubleCell(val));
             }
@@ -98,7 +98,7 @@ public enum AudioFeatureCellExtractor {
                 return DataType.getMissingCell();
             }
 
-            final List<DoubleCell> cells = new ArrayList<DoubleCell>();
+            final List<DoubleCell> cells = new ArrayList<DoubleCell>(featureValues.length);
             for(double val : featureValues){
                 cells.add(new DoubleCell(val));
             }
@@ -119,7 +119,8 @@ public enum AudioFeatureCellExtractor {
 
         @Override
         public DataCell getValue(final double[] featureValues) {
-            final List<DoubleCell> cells = new ArrayList<DoubleCell>();
+            final List<DoubleCell> cells = new ArrayList<DoubleCell>(
+                    featureValues == null ? 0 : featureValues.length);
             if(featureValues != null && featureValues.length > 0){
                 for(double val : featureValues){
                     cells.add(new DoubleCell(val));
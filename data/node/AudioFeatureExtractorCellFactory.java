@@ -49,10 +49,13 @@
 package org.knime.base.node.audio.data.node;
 
 import org.knime.base.node.audio.data.KNAudio;
+import org.knime.base.node.audio.ext.org.openimaj.feature.DoubleFV;
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataColumnSpec;
 import org.knime.core.data.DataRow;
+import org.knime.core.data.DataType;
 import org.knime.core.data.container.AbstractCellFactory;
+import org.knime.core.data.def.DoubleCell;
 
 /**
  * The {@link AbstractCellFactory} implementation of the AudioFeatureExtractor node
@@ -64,6 +67,9 @@ public class AudioFeatureExtractorCellFactory extends AbstractCellFactory{
 
     private final int m_audioColIdx;
     private final AudioFeatureCellExtractor[] m_extractors;
+    private final FeatureOutputType m_outputType;
+    private final int[] m_dimensions;
+    private final int m_nColumns;
 
     /**
      * Constructor for {@link AudioFeatureExtractorCellFactory}
@@ -75,6 +81,23 @@ public class AudioFeatureExtractorCellFactory extends AbstractCellFactory{
     public AudioFeatureExtractorCellFactory(final int audioColIdx,
             final DataColumnSpec[] colSpecs,
             final AudioFeatureCellExtractor[] extractors) {
+        this(audioColIdx, colSpecs, extractors, FeatureOutputType.LIST, null);
+    }
+
+    /**
+     * Constructor for {@link AudioFeatureExtractorCellFactory}
+     * @param audioColIdx the index of the audio column
+     * @param colSpecs the {@link DataColumnSpec} to return in the same order
+     * as the extractors, for {@link FeatureOutputType#COLUMNS} one per dimension
+     * @param extractors the {@link AudioFeatureCellExtractor}s to use
+     * @param outputType the type of the created cells
+     * @param dimensions the number of columns per extractor, only used for
+     * {@link FeatureOutputType#COLUMNS}
+     */
+    public AudioFeatureExtractorCellFactory(final int audioColIdx,
+            final DataColumnSpec[] colSpecs,
+            final AudioFeatureCellExtractor[] extractors,
+            final FeatureOutputType outputType, final int[] dimensions) {
         super(colSpecs);
         if (audioColIdx < 0) {
             throw new IllegalArgumentException("Invalid audio column");
@@ -82,12 +105,28 @@ public class AudioFeatureExtractorCellFactory extends AbstractCellFactory{
         if (extractors == null || extractors.length < 1) {
             throw new IllegalArgumentException("extractors must not be empty");
         }
-        if (colSpecs.length != extractors.length) {
+        if (outputType == FeatureOutputType.COLUMNS) {
+            if (dimensions == null || dimensions.length != extractors.length) {
+                throw new IllegalArgumentException(
+                        "Dimensions and extractors must have the same size");
+            }
+            int nColumns = 0;
+            for (final int dimension : dimensions) {
+                nColumns += dimension;
+            }
+            if (colSpecs.length != nColumns) {
+                throw new IllegalArgumentException(
+                        "Column specs must match the sum of the dimensions");
+            }
+        } else if (colSpecs.length != extractors.length) {
             throw new IllegalArgumentException(
                     "Column specs and extractors must have the same sice");
         }
         m_audioColIdx = audioColIdx;
         m_extractors = extractors;
+        m_outputType = outputType;
+        m_dimensions = dimensions;
+        m_nColumns = colSpecs.length;
     }
 
     /**
@@ -103,11 +142,28 @@ public class AudioFeatureExtractorCellFactory extends AbstractCellFactory{
             throw new IllegalStateException("Invalid column type");
         }
 
-        final DataCell[] cells = new DataCell[m_extractors.length];
+        final DataCell[] cells = new DataCell[m_nColumns];
+        int offset = 0;
         for(int i = 0; i < m_extractors.length; i++){
             final AudioFeatureCellExtractor extractor = m_extractors[i];
-            final double[] values = audio.getFeatureVector(extractor.getType()).asDoubleVector();
-            cells[i] = extractor.getValue(values);
+            // The values are only read, hence the array of the audio is used directly
+            final DoubleFV vector = audio.getFeatureVector(extractor.getType());
+            final double[] values = vector == null ? null : vector.getVector();
+            switch(m_outputType){
+                case VECTOR:
+                    cells[i] = values == null || values.length == 0 ? DataType.getMissingCell()
+                        : new FeatureVectorCell(values);
+                    break;
+                case COLUMNS:
+                    for(int d = 0; d < m_dimensions[i]; d++){
+                        cells[offset + d] = values != null && d < values.length
+                                ? new DoubleCell(values[d]) : DataType.getMissingCell();
+                    }
+                    offset += m_dimensions[i];
+                    break;
+                default:
+                    cells[i] = extractor.getValue(values);
+            }
         }
         return cells;
     }
@@ -0,0 +1,353 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio.data.node;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataCellDataInput;
+import org.knime.core.data.DataCellDataOutput;
+import org.knime.core.data.DataCellSerializer;
+import org.knime.core.data.DataType;
+
+/**
+ * Cell holding the feature vectors of consecutive frames of an audio. The
+ * values are stored frame by frame in one contiguous <code>float</code> array.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+public class FeatureMatrixCell extends DataCell implements FeatureMatrixValue {
+
+    private static final long serialVersionUID = -3215546370734584522L;
+
+    /**
+     * Convenience access member for
+     * <code>DataType.getType(FeatureMatrixCell.class)</code>.
+     *
+     * @see DataType#getType(Class)
+     */
+    public static final DataType TYPE = DataType.getType(FeatureMatrixCell.class);
+
+    private static final FeatureMatrixSerializer SERIALIZER = new FeatureMatrixSerializer();
+
+    private final float[] m_values;
+    private final int m_nFrames;
+    private final int m_nDimensions;
+    private final long m_startTimecode;
+    private final int m_hopSize;
+    private final double m_sampleRateKHz;
+
+    /**
+     * Returns the factory to read/write DataCells of this class from/to a
+     * DataInput/DataOutput. This method is called via reflection.
+     *
+     * @return a serializer for reading/writing cells of this kind
+     * @see DataCell
+     */
+    public static final DataCellSerializer<FeatureMatrixCell> getCellSerializer(){
+        return SERIALIZER;
+    }
+
+    /**
+     * @param values the values frame by frame, the array is not copied
+     * @param nFrames the number of frames
+     * @param nDimensions the number of dimensions of each frame
+     * @param startTimecode the timecode of the first frame in milliseconds
+     * @param hopSize the number of samples between the start of two consecutive frames
+     * @param sampleRateKHz the sample rate of the audio in kHz
+     */
+    public FeatureMatrixCell(final float[] values, final int nFrames, final int nDimensions,
+            final long startTimecode, final int hopSize, final double sampleRateKHz){
+        if(values.length < (long)nFrames * nDimensions){
+            throw new IllegalArgumentException("The number of values is less than frames * dimensions.");
+        }
+        m_values = values;
+        m_nFrames = nFrames;
+        m_nDimensions = nDimensions;
+        m_startTimecode = startTimecode;
+        m_hopSize = hopSize;
+        m_sampleRateKHz = sampleRateKHz;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getNumFrames() {
+        return m_nFrames;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getNumDimensions() {
+        return m_nDimensions;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public float getValue(final int frame, final int dimension) {
+        if(dimension < 0 || dimension >= m_nDimensions){
+            throw new IndexOutOfBoundsException("Dimension " + dimension + " doesn't exist.");
+        }
+        return m_values[getOffset(frame) + dimension];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public float[] getFrame(final int frame) {
+        final int offset = getOffset(frame);
+        return Arrays.copyOfRange(m_values, offset, offset + m_nDimensions);
+    }
+
+    private int getOffset(final int frame){
+        if(frame < 0 || frame >= m_nFrames){
+            throw new IndexOutOfBoundsException("Frame " + frame + " doesn't exist.");
+        }
+        return frame * m_nDimensions;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getStartTimecode() {
+        return m_startTimecode;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getHopSize() {
+        return m_hopSize;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getSampleRateKHz() {
+        return m_sampleRateKHz;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "Feature Matrix[frames=" + m_nFrames + ", dimensions=" + m_nDimensions
+                + ", start=" + m_startTimecode + "ms, hop=" + m_hopSize + "]";
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected boolean equalsDataCell(final DataCell dc) {
+        final FeatureMatrixCell other = (FeatureMatrixCell)dc;
+        if(m_nFrames != other.m_nFrames || m_nDimensions != other.m_nDimensions
+                || m_startTimecode != other.m_startTimecode || m_hopSize != other.m_hopSize
+                || Double.compare(m_sampleRateKHz, other.m_sampleRateKHz) != 0){
+            return false;
+        }
+        final int length = m_nFrames * m_nDimensions;
+        for(int i = 0; i < length; i++){
+            if(Float.compare(m_values[i], other.m_values[i]) != 0){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        int result = 1;
+        final int length = m_nFrames * m_nDimensions;
+        for(int i = 0; i < length; i++){
+            result = 31 * result + Float.floatToIntBits(m_values[i]);
+        }
+        result = 31 * result + m_nDimensions;
+        return 31 * result + Long.hashCode(m_startTimecode);
+    }
+
+    /**
+     * Collects the feature vectors of consecutive frames while they are
+     * extracted. The vectors are appended to a growing primitive array, so no
+     * per-frame objects are kept.
+     *
+     * @author Budi Yanto, KNIME.com
+     */
+    public static final class Builder {
+
+        private static final int INITIAL_CAPACITY = 1024;
+
+        private final int m_nDimensions;
+        private final long m_startTimecode;
+        private final int m_hopSize;
+        private final double m_sampleRateKHz;
+
+        private float[] m_values;
+        private int m_nFrames = 0;
+
+        /**
+         * @param nDimensions the number of dimensions of each frame
+         * @param startTimecode the timecode of the first frame in milliseconds
+         * @param hopSize the number of samples between the start of two consecutive frames
+         * @param sampleRateKHz the sample rate of the audio in kHz
+         */
+        public Builder(final int nDimensions, final long startTimecode, final int hopSize,
+                final double sampleRateKHz){
+            m_nDimensions = nDimensions;
+            m_startTimecode = startTimecode;
+            m_hopSize = hopSize;
+            m_sampleRateKHz = sampleRateKHz;
+            m_values = new float[INITIAL_CAPACITY * nDimensions];
+        }
+
+        /**
+         * Appends the feature vector of the next frame.
+         *
+         * @param frame the feature vector, must have the number of dimensions of this builder
+         */
+        public void addFrame(final double[] frame){
+            if(frame.length != m_nDimensions){
+                throw new IllegalArgumentException("The frame has " + frame.length
+                    + " dimensions instead of " + m_nDimensions + ".");
+            }
+            final int offset = m_nFrames * m_nDimensions;
+            if(offset + m_nDimensions > m_values.length){
+                m_values = Arrays.copyOf(m_values, Math.max(offset + m_nDimensions,
+                    m_values.length + (m_values.length >> 1)));
+            }
+            for(int i = 0; i < m_nDimensions; i++){
+                m_values[offset + i] = (float)frame[i];
+            }
+            m_nFrames++;
+        }
+
+        /**
+         * @return the number of frames added so far
+         */
+        public int getNumFrames(){
+            return m_nFrames;
+        }
+
+        /**
+         * @return a new cell containing all frames added so far
+         */
+        public FeatureMatrixCell build(){
+            return new FeatureMatrixCell(Arrays.copyOf(m_values, m_nFrames * m_nDimensions),
+                m_nFrames, m_nDimensions, m_startTimecode, m_hopSize, m_sampleRateKHz);
+        }
+    }
+
+    /**
+     * Serializer for {@link FeatureMatrixCell}s. The header fields are followed
+     * by the raw values.
+     *
+     * @author Budi Yanto, KNIME.com
+     */
+    public static final class FeatureMatrixSerializer implements DataCellSerializer<FeatureMatrixCell> {
+
+        private static final byte VERSION = 1;
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void serialize(final FeatureMatrixCell cell, final DataCellDataOutput output)
+                throws IOException {
+            output.writeByte(VERSION);
+            output.writeInt(cell.m_nFrames);
+            output.writeInt(cell.m_nDimensions);
+            output.writeLong(cell.m_startTimecode);
+            output.writeInt(cell.m_hopSize);
+            output.writeDouble(cell.m_sampleRateKHz);
+            final int length = cell.m_nFrames * cell.m_nDimensions;
+            final ByteBuffer buffer = ByteBuffer.allocate(length * Float.BYTES);
+            buffer.asFloatBuffer().put(cell.m_values, 0, length);
+            output.write(buffer.array());
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public FeatureMatrixCell deserialize(final DataCellDataInput input) throws IOException {
+            final byte version = input.readByte();
+            if(version != VERSION){
+                throw new IOException("Unsupported feature matrix cell version: " + version);
+            }
+            final int nFrames = input.readInt();
+            final int nDimensions = input.readInt();
+            final long startTimecode = input.readLong();
+            final int hopSize = input.readInt();
+            final double sampleRateKHz = input.readDouble();
+            final byte[] bytes = new byte[nFrames * nDimensions * Float.BYTES];
+            input.readFully(bytes);
+            final float[] values = new float[nFrames * nDimensions];
+            ByteBuffer.wrap(bytes).asFloatBuffer().get(values);
+            return new FeatureMatrixCell(values, nFrames, nDimensions, startTimecode,
+                hopSize, sampleRateKHz);
+        }
+
+    }
+
+}
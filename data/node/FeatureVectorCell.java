@@ -0,0 +1,190 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio.data.node;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataCellDataInput;
+import org.knime.core.data.DataCellDataOutput;
+import org.knime.core.data.DataCellSerializer;
+import org.knime.core.data.DataType;
+
+/**
+ * Cell holding a dense feature vector in a single <code>double</code> array,
+ * instead of one cell object per value as a list of double cells does.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+public class FeatureVectorCell extends DataCell implements FeatureVectorValue {
+
+    private static final long serialVersionUID = 6151283542960713839L;
+
+    /**
+     * Convenience access member for
+     * <code>DataType.getType(FeatureVectorCell.class)</code>.
+     *
+     * @see DataType#getType(Class)
+     */
+    public static final DataType TYPE = DataType.getType(FeatureVectorCell.class);
+
+    private static final FeatureVectorSerializer SERIALIZER = new FeatureVectorSerializer();
+
+    private final double[] m_values;
+
+    /**
+     * Returns the factory to read/write DataCells of this class from/to a
+     * DataInput/DataOutput. This method is called via reflection.
+     *
+     * @return a serializer for reading/writing cells of this kind
+     * @see DataCell
+     */
+    public static final DataCellSerializer<FeatureVectorCell> getCellSerializer(){
+        return SERIALIZER;
+    }
+
+    /**
+     * Creates a new cell backed by the given array. The array is not copied,
+     * hence it must not be modified afterwards.
+     *
+     * @param values the values of the vector
+     */
+    public FeatureVectorCell(final double[] values){
+        if(values == null){
+            throw new NullPointerException("Values must not be null.");
+        }
+        m_values = values;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getLength() {
+        return m_values.length;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getValue(final int index) {
+        return m_values[index];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double[] getValues() {
+        return m_values.clone();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return Arrays.toString(m_values);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected boolean equalsDataCell(final DataCell dc) {
+        return Arrays.equals(m_values, ((FeatureVectorCell)dc).m_values);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(m_values);
+    }
+
+    /**
+     * Serializer for {@link FeatureVectorCell}s, writing the length followed
+     * by the raw values.
+     *
+     * @author Budi Yanto, KNIME.com
+     */
+    public static final class FeatureVectorSerializer implements DataCellSerializer<FeatureVectorCell> {
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void serialize(final FeatureVectorCell cell, final DataCellDataOutput output)
+                throws IOException {
+            output.writeInt(cell.m_values.length);
+            final ByteBuffer buffer = ByteBuffer.allocate(cell.m_values.length * Double.BYTES);
+            buffer.asDoubleBuffer().put(cell.m_values);
+            output.write(buffer.array());
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public FeatureVectorCell deserialize(final DataCellDataInput input) throws IOException {
+            final int length = input.readInt();
+            final byte[] bytes = new byte[length * Double.BYTES];
+            input.readFully(bytes);
+            final double[] values = new double[length];
+            ByteBuffer.wrap(bytes).asDoubleBuffer().get(values);
+            return new FeatureVectorCell(values);
+        }
+
+    }
+
+}
@@ -48,7 +48,15 @@
  */
 package org.knime.base.node.audio.data.recognizer;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 
 /**
  *
@@ -126,6 +134,13 @@ public class RecognitionResult implements Serializable{
         return m_recognizerInfo.getInfo(key);
     }
 
+    /**
+     * @return the recognizer info
+     */
+    public RecognizerInfo getRecognizerInfo(){
+        return m_recognizerInfo;
+    }
+
     /**
      * @param key
      * @param value
@@ -134,6 +149,77 @@ public class RecognitionResult implements Serializable{
         m_recognizerInfo.addInfo(key, value);
     }
 
+    /**
+     * Writes the transcript, the confidence score and the recognizer info of
+     * a result in the binary layout read by {@link #read(DataInput)}.
+     *
+     * @param output the output to write to
+     * @param result the result to write
+     * @throws IOException if the result couldn't be written
+     */
+    public static void write(final DataOutput output, final RecognitionResult result)
+            throws IOException{
+        writeString(output, result.getTranscript());
+        output.writeDouble(result.getConfidence());
+        final Map<String, Object> infos = result.getRecognizerInfo().getInfos();
+        output.writeInt(infos.size());
+        for(Entry<String, Object> info : infos.entrySet()){
+            // The recognizer name is null if the recognizer didn't provide one
+            final Object value = info.getValue();
+            writeString(output, info.getKey());
+            writeString(output, value == null ? null : value.toString());
+        }
+    }
+
+    /**
+     * Reads a result written by {@link #write(DataOutput, RecognitionResult)}.
+     * The values of the recognizer info are restored as strings.
+     *
+     * @param input the input to read from
+     * @return the result
+     * @throws IOException if the result couldn't be read
+     */
+    public static RecognitionResult read(final DataInput input) throws IOException{
+        final String transcript = readString(input);
+        final double confidence = input.readDouble();
+        final int nInfos = input.readInt();
+        String recognizerName = null;
+        final List<String[]> infos = new ArrayList<String[]>(nInfos);
+        for(int i = 0; i < nInfos; i++){
+            final String[] info = new String[]{readString(input), readString(input)};
+            if(RecognizerInfo.KEY_NAME.equals(info[0])){
+                recognizerName = info[1];
+            }else if(info[1] != null){
+                infos.add(info);
+            }
+        }
+        final RecognitionResult result = new RecognitionResult(recognizerName, transcript, confidence);
+        for(String[] info : infos){
+            result.addRecognizerInfo(info[0], info[1]);
+        }
+        return result;
+    }
+
+    private static void writeString(final DataOutput output, final String str) throws IOException{
+        if(str == null){
+            output.writeInt(-1);
+            return;
+        }
+        final byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(final DataInput input) throws IOException{
+        final int length = input.readInt();
+        if(length < 0){
+            return null;
+        }
+        final byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
     /**
      * {@inheritDoc}
      */
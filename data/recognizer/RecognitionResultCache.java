@@ -0,0 +1,270 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio.data.recognizer;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.knime.base.node.audio.data.KNAudio;
+import org.knime.base.node.audio.util.DiskCache;
+import org.knime.core.node.NodeLogger;
+
+/**
+ * On-disk cache of {@link RecognitionResult}s, so that an audio file is only
+ * recognized once per recognizer configuration, even across re-executions of
+ * a node and restarts. An entry is keyed by the SHA-256 hash of the content
+ * of the audio file together with the {@link Recognizer#getConfigurationKey()
+ * configuration key} of the recognizer, hence a renamed or copied file is
+ * still found while a modified file is recognized again.
+ *
+ * <p>
+ * Every entry is stored in its own file, which is written as soon as the
+ * audio is recognized, so a node whose execution failed or was canceled
+ * resumes with the audio files which weren't recognized yet. The total size of
+ * the entries is bounded, the least recently used entries are deleted first.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+public final class RecognitionResultCache {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(RecognitionResultCache.class);
+
+    /** The default maximum total size of the entries in bytes */
+    public static final long DEFAULT_MAX_SIZE = 64L * 1024 * 1024;
+
+    /** The maximum number of content hashes remembered in memory */
+    private static final int MAX_HASHES = 100000;
+
+    private static final byte VERSION = 1;
+
+    private static final String ENTRY_SUFFIX = ".result";
+
+    private static RecognitionResultCache defaultCache;
+
+    /** The content hashes of the audio files, see {@link #getContentHash(File)} */
+    private static final Map<String, ContentHash> HASHES =
+            new LinkedHashMap<String, ContentHash>(16, 0.75f, true){
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, ContentHash> eldest) {
+            return size() > MAX_HASHES;
+        }
+    };
+
+    private final DiskCache m_cache;
+
+    /**
+     * @param directory the directory to store the entries in
+     * @param maxSize the maximum total size of the entries in bytes
+     */
+    public RecognitionResultCache(final File directory, final long maxSize){
+        m_cache = new DiskCache(directory, ENTRY_SUFFIX, maxSize);
+    }
+
+    /**
+     * @return the cache shared by all nodes, located in the KNIME home directory
+     */
+    public static synchronized RecognitionResultCache getDefault(){
+        if(defaultCache == null){
+            defaultCache = new RecognitionResultCache(
+                DiskCache.getDefaultDirectory("audio-recognition-cache"), DEFAULT_MAX_SIZE);
+        }
+        return defaultCache;
+    }
+
+    /**
+     * Returns the cached result of the given audio, the audio is only
+     * recognized by the recognizer if there is no result yet. Results are only
+     * cached if the recognizer returns one, failures are retried the next time.
+     *
+     * @param recognizer the recognizer
+     * @param audio the audio to recognize
+     * @return the result of the recognition, <code>null</code> if the
+     *         recognizer didn't return a result
+     * @throws FileNotFoundException if the audio file doesn't exist
+     */
+    public RecognitionResult recognize(final Recognizer recognizer, final KNAudio audio)
+            throws FileNotFoundException{
+        final File file = new File(audio.getFilePath());
+        String key = null;
+        try{
+            key = getKey(file, recognizer.getConfigurationKey());
+            final RecognitionResult result = get(key);
+            if(result != null){
+                LOGGER.debug("Use cached recognition result of " + file.getName());
+                return result;
+            }
+        } catch(FileNotFoundException ex){
+            throw ex;
+        } catch(IOException ex){
+            LOGGER.warn("Couldn't read the recognition cache: " + ex.getMessage(), ex);
+        }
+
+        final RecognitionResult result = recognizer.recognize(audio);
+        if(result != null && key != null){
+            try{
+                put(key, result);
+            } catch(IOException ex){
+                LOGGER.warn("Couldn't write the recognition cache: " + ex.getMessage(), ex);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param file the audio file
+     * @param configurationKey the configuration key of the recognizer
+     * @return the key of the cache entry of the given file and configuration
+     * @throws IOException if the file couldn't be read
+     */
+    public static String getKey(final File file, final String configurationKey) throws IOException{
+        final MessageDigest digest = DiskCache.createDigest();
+        digest.update(getContentHash(file));
+        digest.update(configurationKey.getBytes(StandardCharsets.UTF_8));
+        return DiskCache.toHex(digest.digest());
+    }
+
+    /**
+     * @param key the key of the entry
+     * @return the cached result or <code>null</code> if there is none
+     * @throws IOException if the entry couldn't be read
+     */
+    public RecognitionResult get(final String key) throws IOException{
+        return m_cache.get(key, new DiskCache.EntryReader<RecognitionResult>() {
+            @Override
+            public RecognitionResult read(final DataInputStream input) throws IOException {
+                final byte version = input.readByte();
+                if(version != VERSION){
+                    throw new IOException("Unsupported cache entry version: " + version);
+                }
+                return RecognitionResult.read(input);
+            }
+        });
+    }
+
+    /**
+     * @param key the key of the entry
+     * @param result the result to cache
+     * @throws IOException if the entry couldn't be written
+     */
+    public void put(final String key, final RecognitionResult result) throws IOException{
+        m_cache.put(key, new DiskCache.EntryWriter() {
+            @Override
+            public void write(final DataOutputStream output) throws IOException {
+                output.writeByte(VERSION);
+                RecognitionResult.write(output, result);
+            }
+        });
+    }
+
+    /**
+     * Deletes all entries.
+     */
+    public void clear(){
+        m_cache.clear();
+    }
+
+    /**
+     * Returns the SHA-256 hash of the content of the given file. The hash is
+     * remembered as long as the size and modification time of the file are
+     * unchanged, so a file is only read once.
+     */
+    private static byte[] getContentHash(final File file) throws IOException{
+        final String path = file.getAbsolutePath();
+        final long fileSize = file.length();
+        final long lastModified = file.lastModified();
+        synchronized(HASHES){
+            final ContentHash hash = HASHES.get(path);
+            if(hash != null && hash.m_fileSize == fileSize && hash.m_lastModified == lastModified){
+                return hash.m_hash;
+            }
+        }
+
+        final MessageDigest digest = DiskCache.createDigest();
+        try(final InputStream input = new FileInputStream(file)){
+            final byte[] buffer = new byte[64 * 1024];
+            int read;
+            while((read = input.read(buffer)) != -1){
+                digest.update(buffer, 0, read);
+            }
+        }
+        final byte[] hash = digest.digest();
+        synchronized(HASHES){
+            HASHES.put(path, new ContentHash(fileSize, lastModified, hash));
+        }
+        return hash;
+    }
+
+    /** The content hash of a file together with the state of the file it belongs to */
+    private static final class ContentHash {
+
+        private final long m_fileSize;
+
+        private final long m_lastModified;
+
+        private final byte[] m_hash;
+
+        private ContentHash(final long fileSize, final long lastModified, final byte[] hash){
+            m_fileSize = fileSize;
+            m_lastModified = lastModified;
+            m_hash = hash;
+        }
+    }
+
+}
@@ -70,6 +70,17 @@ public interface Recognizer {
      */
     String getName();
 
+    /**
+     * Returns a key identifying the configuration of the recognizer, i.e. two
+     * recognizers with the same key return the same result for an audio. It is
+     * used to key the {@link RecognitionResultCache}.
+     *
+     * @return the configuration key, by default the name of the recognizer
+     */
+    default String getConfigurationKey(){
+        return getName();
+    }
+
 //    /**
 //     * @param dataTable
 //     * @param exec
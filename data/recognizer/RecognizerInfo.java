@@ -48,6 +48,7 @@
  */
 package org.knime.base.node.audio.data.recognizer;
 
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
@@ -58,6 +59,13 @@ import java.util.Map;
 public class RecognizerInfo {
 
     public static final String KEY_NAME = "Name";
+
+    /**
+     * Prefix of the keys of the segments of an audio which was recognized in
+     * parts, followed by the number of the segment starting at 1. The value
+     * contains the timecodes and the transcript of the segment.
+     */
+    public static final String KEY_SEGMENT_PREFIX = "Segment ";
     private final Map<String, Object> m_info = new LinkedHashMap<String, Object>();
 
     public RecognizerInfo(final String recognizerName){
@@ -75,4 +83,11 @@ public class RecognizerInfo {
         return m_info.get(key);
     }
 
+    /**
+     * @return an unmodifiable view of all info entries, including the name
+     */
+    public Map<String, Object> getInfos(){
+        return Collections.unmodifiableMap(m_info);
+    }
+
 }
@@ -0,0 +1,151 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio.data.recognizer;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The policy used by the cloud recognizers to retry requests which failed
+ * because the service is overloaded (HTTP 429) or unavailable (HTTP 5xx). The
+ * delay between two attempts grows exponentially and is randomized, so that
+ * concurrent requests don't retry at the same time.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+public final class RetryPolicy {
+
+    /** The policy used by default */
+    public static final RetryPolicy DEFAULT = new RetryPolicy(4, 500, 30000);
+
+    private final int m_maxRetries;
+
+    private final long m_initialBackoffMillis;
+
+    private final long m_maxBackoffMillis;
+
+    /**
+     * @param maxRetries the maximum number of retries of a request
+     * @param initialBackoffMillis the delay before the first retry in milliseconds
+     * @param maxBackoffMillis the maximum delay between two attempts in milliseconds
+     */
+    public RetryPolicy(final int maxRetries, final long initialBackoffMillis,
+            final long maxBackoffMillis) {
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("Number of retries must not be negative");
+        }
+        if (initialBackoffMillis < 0 || maxBackoffMillis < initialBackoffMillis) {
+            throw new IllegalArgumentException("Invalid backoff: " + initialBackoffMillis
+                + " - " + maxBackoffMillis);
+        }
+        m_maxRetries = maxRetries;
+        m_initialBackoffMillis = initialBackoffMillis;
+        m_maxBackoffMillis = maxBackoffMillis;
+    }
+
+    /**
+     * @return the maximum number of retries of a request
+     */
+    public int getMaxRetries() {
+        return m_maxRetries;
+    }
+
+    /**
+     * @param statusCode the HTTP status code of the response
+     * @return <code>true</code> if a request with the given response should
+     *         be retried
+     */
+    public static boolean isRetryable(final int statusCode) {
+        return statusCode == 429 || statusCode >= 500;
+    }
+
+    /**
+     * @param attempt the number of the failed attempt, starting with 0
+     * @return <code>true</code> if another attempt is allowed
+     */
+    public boolean canRetry(final int attempt) {
+        return attempt < m_maxRetries;
+    }
+
+    /**
+     * Waits before the next attempt of a request.
+     *
+     * @param attempt the number of the failed attempt, starting with 0
+     * @param retryAfter the value of the Retry-After header of the response in
+     *            seconds, <code>null</code> if not available
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public void backoff(final int attempt, final String retryAfter) throws InterruptedException {
+        Thread.sleep(getBackoffMillis(attempt, retryAfter));
+    }
+
+    /**
+     * @param attempt the number of the failed attempt, starting with 0
+     * @param retryAfter the value of the Retry-After header of the response in
+     *            seconds, <code>null</code> if not available
+     * @return the delay before the next attempt in milliseconds
+     */
+    public long getBackoffMillis(final int attempt, final String retryAfter) {
+        if (retryAfter != null) {
+            try {
+                // The service tells when to retry, but neither a negative
+                // delay nor one longer than the maximum is accepted
+                final long seconds = Long.parseLong(retryAfter.trim());
+                return seconds <= 0 ? 0
+                    : Math.min(m_maxBackoffMillis, Math.min(seconds, Long.MAX_VALUE / 1000) * 1000);
+            } catch (NumberFormatException ex) {
+                // The header contains a date, use the exponential backoff instead
+            }
+        }
+        final long backoff = Math.min(m_maxBackoffMillis,
+            m_initialBackoffMillis << Math.min(attempt, 30));
+        // Randomize between half and the whole backoff
+        return backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+    }
+
+}
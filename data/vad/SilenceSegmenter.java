@@ -0,0 +1,277 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio.data.vad;
+
+import java.io.IOException;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.knime.base.node.audio.data.DecodedAudio;
+import org.knime.base.node.audio.data.DecodedAudioCache;
+import org.knime.base.node.audio.data.DecodedAudioCache.Layout;
+import org.knime.base.node.audio.data.KNAudio;
+import org.knime.base.node.audio.ext.org.openimaj.audio.AudioFormat;
+import org.knime.base.node.audio.ext.org.openimaj.audio.SampleChunk;
+import org.knime.base.node.audio.util.PCMUtils;
+
+/**
+ * Splits an audio into consecutive segments of bounded length, so that the
+ * segments can be processed independently. Each segment is cut at the
+ * quietest point within the second half of its maximum length, hence the cuts
+ * usually fall into pauses between words and every segment is at least half
+ * the maximum length, except for the last one. The energy is smoothed over a
+ * few frames so that a pause is preferred over a single quiet frame.
+ *
+ * <p>
+ * A segmenter has no state, hence it can be used by several threads at the
+ * same time.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+public final class SilenceSegmenter {
+
+    /** The default maximum length of a segment in milliseconds */
+    public static final int DEFAULT_MAX_SEGMENT_MILLIS = 30000;
+
+    /** The length of a frame in milliseconds */
+    private static final int FRAME_MILLIS = 20;
+
+    /** The number of frames on each side the energy is averaged over */
+    private static final int ENERGY_SMOOTHING = 5;
+
+    private final int m_maxSegmentMillis;
+
+    /**
+     * Creates a segmenter with the default maximum segment length.
+     */
+    public SilenceSegmenter(){
+        this(DEFAULT_MAX_SEGMENT_MILLIS);
+    }
+
+    /**
+     * @param maxSegmentMillis the maximum length of a segment in
+     *            milliseconds, at least twice the frame length of 20 ms
+     */
+    public SilenceSegmenter(final int maxSegmentMillis){
+        if(maxSegmentMillis < 2 * FRAME_MILLIS){
+            throw new IllegalArgumentException("Maximum segment length must be at least "
+                + 2 * FRAME_MILLIS + " ms: " + maxSegmentMillis);
+        }
+        m_maxSegmentMillis = maxSegmentMillis;
+    }
+
+    /**
+     * @return the maximum length of a segment in milliseconds
+     */
+    public int getMaxSegmentMillis(){
+        return m_maxSegmentMillis;
+    }
+
+    /**
+     * @return a key identifying the parameters of this segmenter, i.e. two
+     *         segmenters with the same key create the same segments
+     */
+    public String getConfigurationKey(){
+        return "SEG(" + FRAME_MILLIS + "," + ENERGY_SMOOTHING + "," + m_maxSegmentMillis + ")";
+    }
+
+    /**
+     * Splits the given audio into segments. The samples are taken from the
+     * {@link DecodedAudioCache}, the audio is decoded into the cache if it
+     * fits into its budget. Otherwise the audio is read chunk by chunk, so
+     * that long audio files don't have to be held in memory.
+     *
+     * @param audio the audio
+     * @return the consecutive segments covering the whole audio, empty if the
+     *         audio doesn't contain any samples
+     * @throws IOException if the format of the audio is unknown or it couldn't be decoded
+     */
+    public List<SpeechRegion> segment(final KNAudio audio) throws IOException{
+        try(final DecodedAudio decoded = DecodedAudioCache.getIfFits(audio, Layout.MONO)){
+            if(decoded != null){
+                return segment(decoded.getChannel(0), decoded.getSampleRateKHz());
+            }
+        }
+        if(audio.getFormat() == null){
+            throw new IOException("The format of \"" + audio.getName() + "\" is unknown.");
+        }
+
+        // The copy has its own read position
+        final KNAudio stream = new KNAudio(audio.getFilePath(), audio.getFormat().clone());
+        final double sampleRateKHz = stream.getFormat().getSampleRateKHz();
+        final int frameSize = getFrameSize(sampleRateKHz);
+        double[] energies = new double[1024];
+        int nFrames = 0;
+        long nSamples = 0;
+        double sumOfSquares = 0;
+        int n = 0;
+        double[] mixed = new double[0];
+        try{
+            SampleChunk chunk;
+            while((chunk = stream.nextSampleChunk()) != null){
+                final AudioFormat format = chunk.getFormat();
+                final int nChunkFrames = chunk.getSamples().length
+                        / (PCMUtils.getBytesPerSample(format) * format.getNumChannels());
+                if(mixed.length < nChunkFrames){
+                    mixed = new double[nChunkFrames];
+                }
+                PCMUtils.mixDown(chunk.getSamples(), 0, nChunkFrames, format, mixed, 0);
+                for(int i = 0; i < nChunkFrames; i++){
+                    sumOfSquares += mixed[i] * mixed[i];
+                    if(++n == frameSize){
+                        if(nFrames == energies.length){
+                            energies = Arrays.copyOf(energies, 2 * nFrames);
+                        }
+                        energies[nFrames++] = sumOfSquares / n;
+                        sumOfSquares = 0;
+                        n = 0;
+                    }
+                }
+                nSamples += nChunkFrames;
+            }
+        } finally{
+            stream.reset();
+        }
+        if(n > 0){
+            if(nFrames == energies.length){
+                energies = Arrays.copyOf(energies, nFrames + 1);
+            }
+            energies[nFrames++] = sumOfSquares / n;
+        }
+        return createSegments(energies, nFrames, nSamples, sampleRateKHz);
+    }
+
+    /**
+     * Splits the given samples into segments.
+     *
+     * @param samples the normalized samples of one channel
+     * @param sampleRateKHz the sample rate in kHz
+     * @return the consecutive segments covering all samples, empty if there
+     *         aren't any samples
+     */
+    public List<SpeechRegion> segment(final FloatBuffer samples, final double sampleRateKHz){
+        final int frameSize = getFrameSize(sampleRateKHz);
+        final int offset = samples.position();
+        final int nSamples = samples.remaining();
+        final int nFrames = (nSamples + frameSize - 1) / frameSize;
+        final double[] energies = new double[nFrames];
+        for(int f = 0; f < nFrames; f++){
+            final int start = f * frameSize;
+            final int n = Math.min(frameSize, nSamples - start);
+            double sumOfSquares = 0;
+            for(int i = 0; i < n; i++){
+                final double sample = samples.get(offset + start + i);
+                sumOfSquares += sample * sample;
+            }
+            energies[f] = sumOfSquares / n;
+        }
+        return createSegments(energies, nFrames, nSamples, sampleRateKHz);
+    }
+
+    private static int getFrameSize(final double sampleRateKHz){
+        return Math.max(1, (int)Math.round(FRAME_MILLIS * sampleRateKHz));
+    }
+
+    /**
+     * Cuts the frames with the given mean energies into segments. The times
+     * are computed from the frame size in samples, which is 20 ms rounded to
+     * whole samples, so that the cuts don't drift away from the samples over
+     * long audio.
+     */
+    private List<SpeechRegion> createSegments(final double[] frameEnergies, final int nFrames,
+            final long nSamples, final double sampleRateKHz){
+        if(nFrames == 0){
+            return Collections.emptyList();
+        }
+
+        final double frameMillis = getFrameSize(sampleRateKHz) / sampleRateKHz;
+        final double[] energies = smooth(frameEnergies, nFrames);
+        final int maxFrames = Math.max(2, (int)(m_maxSegmentMillis / frameMillis));
+        final int minFrames = maxFrames / 2;
+        final List<SpeechRegion> segments = new ArrayList<SpeechRegion>();
+        int start = 0;
+        while(nFrames - start > maxFrames){
+            // The latest of the quietest frames, to keep the segments long
+            int cut = start + maxFrames;
+            for(int f = cut - 1; f >= start + minFrames; f--){
+                if(energies[f] < energies[cut]){
+                    cut = f;
+                }
+            }
+            segments.add(new SpeechRegion(Math.round(start * frameMillis),
+                Math.round(cut * frameMillis)));
+            start = cut;
+        }
+        final long startMillis = Math.round(start * frameMillis);
+        final long endMillis = (long)Math.ceil(nSamples / sampleRateKHz);
+        segments.add(new SpeechRegion(startMillis, Math.max(endMillis, startMillis)));
+        return segments;
+    }
+
+    /**
+     * Averages the energy of each frame over the surrounding frames.
+     */
+    private static double[] smooth(final double[] energies, final int nFrames){
+        final double[] smoothed = new double[nFrames];
+        for(int f = 0; f < nFrames; f++){
+            final int from = Math.max(0, f - ENERGY_SMOOTHING);
+            final int to = Math.min(nFrames - 1, f + ENERGY_SMOOTHING);
+            double sum = 0;
+            for(int i = from; i <= to; i++){
+                sum += energies[i];
+            }
+            smoothed[f] = sum / (to - from + 1);
+        }
+        return smoothed;
+    }
+
+}
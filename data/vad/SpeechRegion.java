@@ -0,0 +1,162 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio.data.vad;
+
+import org.knime.base.node.audio.ext.org.openimaj.audio.timecode.AudioTimecode;
+
+/**
+ * A region of an audio containing speech, as detected by the
+ * {@link VoiceActivityDetector}. The region starts at its start time
+ * (inclusive) and ends at its end time (exclusive), both in milliseconds from
+ * the start of the audio.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+public final class SpeechRegion {
+
+    private final long m_startMillis;
+
+    private final long m_endMillis;
+
+    /**
+     * @param startMillis the start of the region in milliseconds
+     * @param endMillis the end of the region in milliseconds
+     */
+    public SpeechRegion(final long startMillis, final long endMillis){
+        if(startMillis < 0 || endMillis < startMillis){
+            throw new IllegalArgumentException("Invalid speech region: " + startMillis
+                + " - " + endMillis);
+        }
+        m_startMillis = startMillis;
+        m_endMillis = endMillis;
+    }
+
+    /**
+     * @return the start of the region in milliseconds
+     */
+    public long getStartMillis(){
+        return m_startMillis;
+    }
+
+    /**
+     * @return the end of the region in milliseconds
+     */
+    public long getEndMillis(){
+        return m_endMillis;
+    }
+
+    /**
+     * @return the duration of the region in milliseconds
+     */
+    public long getDurationMillis(){
+        return m_endMillis - m_startMillis;
+    }
+
+    /**
+     * @return the start of the region as timecode
+     */
+    public AudioTimecode getStartTimecode(){
+        return new AudioTimecode(m_startMillis);
+    }
+
+    /**
+     * @return the end of the region as timecode
+     */
+    public AudioTimecode getEndTimecode(){
+        return new AudioTimecode(m_endMillis);
+    }
+
+    /**
+     * @param sampleRateKHz the sample rate of the audio in kHz
+     * @return the index of the first sample frame of the region
+     */
+    public long getStartFrame(final double sampleRateKHz){
+        return (long)Math.floor(m_startMillis * sampleRateKHz);
+    }
+
+    /**
+     * @param sampleRateKHz the sample rate of the audio in kHz
+     * @return the index of the sample frame after the region
+     */
+    public long getEndFrame(final double sampleRateKHz){
+        return (long)Math.ceil(m_endMillis * sampleRateKHz);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(final Object obj) {
+        if(this == obj){
+            return true;
+        }
+        if(!(obj instanceof SpeechRegion)){
+            return false;
+        }
+        final SpeechRegion other = (SpeechRegion)obj;
+        return m_startMillis == other.m_startMillis && m_endMillis == other.m_endMillis;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(m_startMillis) + Long.hashCode(m_endMillis);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "[" + m_startMillis + " ms - " + m_endMillis + " ms]";
+    }
+
+}
@@ -0,0 +1,175 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio.data.vad;
+
+import java.util.List;
+
+import org.knime.base.node.audio.ext.org.openimaj.audio.AudioStream;
+import org.knime.base.node.audio.ext.org.openimaj.audio.SampleChunk;
+import org.knime.base.node.audio.ext.org.openimaj.audio.processor.AudioProcessor;
+import org.knime.base.node.audio.util.PCMUtils;
+
+/**
+ * Audio processor passing on only the sample frames within the given speech
+ * regions, all other frames are dropped. The regions of a chunk are
+ * concatenated, chunks without any speech are skipped. The stream ends after
+ * the last region, the rest of the underlying stream isn't read.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+public class SpeechRegionFilter extends AudioProcessor {
+
+    /** The [start, end) frame indices of the regions */
+    private final long[][] m_frames;
+
+    private final int m_frameSize;
+
+    /** The index of the first frame of the next chunk */
+    private long m_position;
+
+    /** The index of the first region which may overlap the next chunk */
+    private int m_region = 0;
+
+    /**
+     * @param stream the audio stream to filter
+     * @param regions the speech regions in chronological order
+     */
+    public SpeechRegionFilter(final AudioStream stream, final List<SpeechRegion> regions){
+        this(stream, regions, 0);
+    }
+
+    /**
+     * @param stream the audio stream to filter
+     * @param regions the speech regions in chronological order
+     * @param position the index of the frame the stream is currently
+     *            positioned at, e.g. after seeking to the first region
+     */
+    public SpeechRegionFilter(final AudioStream stream, final List<SpeechRegion> regions,
+            final long position){
+        super(stream);
+        final double sampleRateKHz = getFormat().getSampleRateKHz();
+        m_frames = new long[regions.size()][];
+        for(int i = 0; i < m_frames.length; i++){
+            final SpeechRegion region = regions.get(i);
+            m_frames[i] = new long[]{region.getStartFrame(sampleRateKHz),
+                region.getEndFrame(sampleRateKHz)};
+        }
+        m_frameSize = PCMUtils.getBytesPerSample(getFormat()) * getFormat().getNumChannels();
+        m_position = position;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SampleChunk nextSampleChunk() {
+        SampleChunk chunk;
+        do{
+            if(isAfterLastRegion()){
+                // Don't read the rest of the stream
+                return null;
+            }
+            chunk = super.nextSampleChunk();
+        } while(chunk != null && chunk.getSamples().length == 0);
+        return chunk;
+    }
+
+    private boolean isAfterLastRegion(){
+        return m_frames.length == 0 || m_position >= m_frames[m_frames.length - 1][1];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SampleChunk process(final SampleChunk sample) throws Exception {
+        if(isAfterLastRegion()){
+            return null;
+        }
+        final byte[] bytes = sample.getSamples();
+        final long start = m_position;
+        final long end = start + bytes.length / m_frameSize;
+        m_position = end;
+
+        while(m_region < m_frames.length && m_frames[m_region][1] <= start){
+            m_region++;
+        }
+        if(m_region < m_frames.length && m_frames[m_region][0] <= start && m_frames[m_region][1] >= end){
+            // The whole chunk is speech
+            return sample;
+        }
+
+        int length = 0;
+        for(int r = m_region; r < m_frames.length && m_frames[r][0] < end; r++){
+            length += (int)(Math.min(end, m_frames[r][1]) - Math.max(start, m_frames[r][0])) * m_frameSize;
+        }
+        final byte[] filtered = new byte[length];
+        int pos = 0;
+        for(int r = m_region; r < m_frames.length && m_frames[r][0] < end; r++){
+            final int from = (int)(Math.max(start, m_frames[r][0]) - start) * m_frameSize;
+            final int to = (int)(Math.min(end, m_frames[r][1]) - start) * m_frameSize;
+            System.arraycopy(bytes, from, filtered, pos, to - from);
+            pos += to - from;
+        }
+        final SampleChunk chunk = new SampleChunk(filtered, sample.getFormat());
+        chunk.setStartTimecode(sample.getStartTimecode());
+        return chunk;
+    }
+
+    /**
+     * Resets the underlying stream to its first frame.
+     */
+    @Override
+    public void reset() {
+        super.reset();
+        m_position = 0;
+        m_region = 0;
+    }
+
+}
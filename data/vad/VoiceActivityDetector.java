@@ -0,0 +1,452 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio.data.vad;
+
+import java.io.IOException;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.knime.base.node.audio.data.DecodedAudio;
+import org.knime.base.node.audio.data.DecodedAudioCache;
+import org.knime.base.node.audio.data.DecodedAudioCache.Layout;
+import org.knime.base.node.audio.data.KNAudio;
+import org.knime.base.node.audio.ext.org.openimaj.audio.AudioFormat;
+import org.knime.base.node.audio.ext.org.openimaj.audio.SampleChunk;
+import org.knime.base.node.audio.util.PCMUtils;
+import org.knime.base.node.audio.util.WindowFunction;
+
+import jAudioFeatureExtractor.jAudioTools.FFT;
+
+/**
+ * Detects the regions of an audio containing speech. The audio is cut into
+ * short frames and a frame is considered as speech if
+ * <ul>
+ * <li>its effective sound pressure (the RMS of its samples) exceeds the noise
+ * floor of the audio by the energy threshold, where the noise floor is the
+ * 10th percentile of the sound pressure of all frames, and</li>
+ * <li>the spectral flux of the surrounding frames, i.e. how much the
+ * normalized magnitude spectrum changes from one frame to the next, reaches
+ * the flux threshold. This rejects loud but stationary sounds like hum or
+ * sustained tones.</li>
+ * </ul>
+ * The speech frames are merged into regions: gaps shorter than the minimum
+ * silence are bridged, regions shorter than the minimum speech duration are
+ * dropped and the remaining regions are padded on both sides.
+ *
+ * <p>
+ * A detector has no state, hence it can be used by several threads at the
+ * same time.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+public final class VoiceActivityDetector {
+
+    /** The default energy threshold above the noise floor in dB */
+    public static final double DEFAULT_ENERGY_THRESHOLD_DB = 12;
+
+    /** The default threshold of the spectral flux */
+    public static final double DEFAULT_FLUX_THRESHOLD = 0.1;
+
+    /** The default minimum duration of a speech region in milliseconds */
+    public static final int DEFAULT_MIN_SPEECH_MILLIS = 150;
+
+    /** The default minimum duration of a gap between two regions in milliseconds */
+    public static final int DEFAULT_MIN_SILENCE_MILLIS = 300;
+
+    /** The default padding added to both sides of a region in milliseconds */
+    public static final int DEFAULT_PADDING_MILLIS = 100;
+
+    /** The length of a frame in milliseconds */
+    private static final int FRAME_MILLIS = 20;
+
+    /** Frames quieter than this level in dBFS are never considered as speech */
+    private static final double MIN_SPEECH_LEVEL_DB = -60;
+
+    /** The percentile of the frame levels used as noise floor */
+    private static final double NOISE_FLOOR_PERCENTILE = 0.1;
+
+    /** The number of frames on each side the spectral flux is averaged over */
+    private static final int FLUX_SMOOTHING = 2;
+
+    private final double m_energyThresholdDb;
+
+    private final double m_fluxThreshold;
+
+    private final int m_minSpeechMillis;
+
+    private final int m_minSilenceMillis;
+
+    private final int m_paddingMillis;
+
+    /**
+     * Creates a detector with the default parameters.
+     */
+    public VoiceActivityDetector(){
+        this(DEFAULT_ENERGY_THRESHOLD_DB, DEFAULT_FLUX_THRESHOLD, DEFAULT_MIN_SPEECH_MILLIS,
+            DEFAULT_MIN_SILENCE_MILLIS, DEFAULT_PADDING_MILLIS);
+    }
+
+    /**
+     * @param energyThresholdDb the level above the noise floor in dB a frame
+     *            must exceed to be considered as speech
+     * @param fluxThreshold the spectral flux in the range of 0 to 1 a frame
+     *            must reach to be considered as speech, 0 to disable the flux gate
+     * @param minSpeechMillis the minimum duration of a speech region in milliseconds
+     * @param minSilenceMillis the minimum duration of a gap between two speech
+     *            regions in milliseconds, shorter gaps are bridged
+     * @param paddingMillis the padding added to both sides of a region in milliseconds
+     */
+    public VoiceActivityDetector(final double energyThresholdDb, final double fluxThreshold,
+            final int minSpeechMillis, final int minSilenceMillis, final int paddingMillis){
+        if(energyThresholdDb < 0){
+            throw new IllegalArgumentException("Energy threshold must not be negative: "
+                    + energyThresholdDb);
+        }
+        if(fluxThreshold < 0 || fluxThreshold > 1){
+            throw new IllegalArgumentException("Flux threshold must be between 0 and 1: "
+                    + fluxThreshold);
+        }
+        if(minSpeechMillis < 0 || minSilenceMillis < 0 || paddingMillis < 0){
+            throw new IllegalArgumentException("Durations must not be negative.");
+        }
+        m_energyThresholdDb = energyThresholdDb;
+        m_fluxThreshold = fluxThreshold;
+        m_minSpeechMillis = minSpeechMillis;
+        m_minSilenceMillis = minSilenceMillis;
+        m_paddingMillis = paddingMillis;
+    }
+
+    /**
+     * @return a key identifying the parameters of this detector, i.e. two
+     *         detectors with the same key detect the same regions
+     */
+    public String getConfigurationKey(){
+        return "VAD(" + FRAME_MILLIS + "," + m_energyThresholdDb + "," + m_fluxThreshold
+                + "," + m_minSpeechMillis + "," + m_minSilenceMillis + "," + m_paddingMillis + ")";
+    }
+
+    /**
+     * Detects the speech regions of the given audio. The samples are taken
+     * from the {@link DecodedAudioCache}, the audio is decoded into the cache
+     * if it fits into its budget. Otherwise the audio is read chunk by chunk,
+     * so that long audio files don't have to be held in memory.
+     *
+     * @param audio the audio
+     * @return the speech regions in chronological order, empty if the audio
+     *         doesn't contain any speech
+     * @throws IOException if the format of the audio is unknown or it couldn't be decoded
+     */
+    public List<SpeechRegion> detect(final KNAudio audio) throws IOException{
+        try(final DecodedAudio decoded = DecodedAudioCache.getIfFits(audio, Layout.MONO)){
+            if(decoded != null){
+                return detect(decoded.getChannel(0), decoded.getSampleRateKHz());
+            }
+        }
+        if(audio.getFormat() == null){
+            throw new IOException("The format of \"" + audio.getName() + "\" is unknown.");
+        }
+
+        // The copy has its own read position
+        final KNAudio stream = new KNAudio(audio.getFilePath(), audio.getFormat().clone());
+        final double sampleRateKHz = stream.getFormat().getSampleRateKHz();
+        final FrameAnalyzer analyzer = new FrameAnalyzer(getFrameSize(sampleRateKHz));
+        long nSamples = 0;
+        double[] mixed = new double[0];
+        try{
+            SampleChunk chunk;
+            while((chunk = stream.nextSampleChunk()) != null){
+                final AudioFormat format = chunk.getFormat();
+                final int nChunkFrames = chunk.getSamples().length
+                        / (PCMUtils.getBytesPerSample(format) * format.getNumChannels());
+                if(mixed.length < nChunkFrames){
+                    mixed = new double[nChunkFrames];
+                }
+                PCMUtils.mixDown(chunk.getSamples(), 0, nChunkFrames, format, mixed, 0);
+                for(int i = 0; i < nChunkFrames; i++){
+                    analyzer.add(mixed[i]);
+                }
+                nSamples += nChunkFrames;
+            }
+        } finally{
+            stream.reset();
+        }
+        analyzer.finish();
+        return detect(analyzer, nSamples, sampleRateKHz);
+    }
+
+    /**
+     * Detects the speech regions of the given samples.
+     *
+     * @param samples the normalized samples of one channel
+     * @param sampleRateKHz the sample rate in kHz
+     * @return the speech regions in chronological order, empty if the samples
+     *         don't contain any speech
+     */
+    public List<SpeechRegion> detect(final FloatBuffer samples, final double sampleRateKHz){
+        final FrameAnalyzer analyzer = new FrameAnalyzer(getFrameSize(sampleRateKHz));
+        final int nSamples = samples.remaining();
+        for(int i = 0; i < nSamples; i++){
+            analyzer.add(samples.get(samples.position() + i));
+        }
+        analyzer.finish();
+        return detect(analyzer, nSamples, sampleRateKHz);
+    }
+
+    private static int getFrameSize(final double sampleRateKHz){
+        return Math.max(1, (int)Math.round(FRAME_MILLIS * sampleRateKHz));
+    }
+
+    /**
+     * Classifies the analyzed frames and merges the speech frames into regions.
+     */
+    private List<SpeechRegion> detect(final FrameAnalyzer analyzer, final long nSamples,
+            final double sampleRateKHz){
+        final int nFrames = analyzer.getNumberOfFrames();
+        if(nFrames == 0){
+            return Collections.emptyList();
+        }
+        final double[] levels = analyzer.getLevels();
+        final double[] flux = analyzer.getFlux();
+
+        final double[] sorted = Arrays.copyOf(levels, nFrames);
+        Arrays.sort(sorted);
+        final double noiseFloor = sorted[(int)(NOISE_FLOOR_PERCENTILE * (nFrames - 1))];
+        final double threshold = Math.max(MIN_SPEECH_LEVEL_DB, noiseFloor + m_energyThresholdDb);
+
+        final boolean[] speech = new boolean[nFrames];
+        for(int f = 0; f < nFrames; f++){
+            speech[f] = levels[f] > threshold && getSmoothedFlux(flux, nFrames, f) >= m_fluxThreshold;
+        }
+        return createRegions(speech, analyzer.getFrameSize(), nSamples, sampleRateKHz);
+    }
+
+    /**
+     * Computes the level in dBFS and the spectral flux of consecutive frames
+     * of samples which are added one by one.
+     */
+    private static final class FrameAnalyzer {
+
+        private final int m_frameSize;
+
+        private final double[] m_window;
+
+        private final double[] m_frame;
+
+        private double[] m_previous = null;
+
+        private double m_sumOfSquares = 0;
+
+        private int m_n = 0;
+
+        private double[] m_levels = new double[1024];
+
+        private double[] m_flux = new double[1024];
+
+        private int m_nFrames = 0;
+
+        FrameAnalyzer(final int frameSize){
+            m_frameSize = frameSize;
+            int fftSize = Integer.highestOneBit(frameSize);
+            if(fftSize < frameSize){
+                fftSize <<= 1;
+            }
+            m_window = WindowFunction.HANN.getCoefficients(frameSize);
+            m_frame = new double[fftSize];
+        }
+
+        void add(final double sample){
+            m_sumOfSquares += sample * sample;
+            m_frame[m_n] = sample * m_window[m_n];
+            if(++m_n == m_frameSize){
+                completeFrame();
+            }
+        }
+
+        /**
+         * Completes the last, possibly shorter frame.
+         */
+        void finish(){
+            if(m_n > 0){
+                completeFrame();
+            }
+            if(m_nFrames > 1){
+                // The first frame has no predecessor
+                m_flux[0] = m_flux[1];
+            }
+        }
+
+        private void completeFrame(){
+            if(m_nFrames == m_levels.length){
+                m_levels = Arrays.copyOf(m_levels, 2 * m_nFrames);
+                m_flux = Arrays.copyOf(m_flux, 2 * m_nFrames);
+            }
+            Arrays.fill(m_frame, m_n, m_frame.length, 0.0);
+            m_levels[m_nFrames] = 20 * Math.log10(Math.sqrt(m_sumOfSquares / m_n) + 1e-10);
+
+            final double[] spectrum = getNormalizedSpectrum(m_frame);
+            if(m_previous != null && spectrum != null){
+                double sum = 0;
+                for(int i = 0; i < spectrum.length; i++){
+                    sum += Math.max(0, spectrum[i] - m_previous[i]);
+                }
+                m_flux[m_nFrames] = sum;
+            }
+            m_previous = spectrum;
+            m_nFrames++;
+            m_sumOfSquares = 0;
+            m_n = 0;
+        }
+
+        int getFrameSize(){
+            return m_frameSize;
+        }
+
+        int getNumberOfFrames(){
+            return m_nFrames;
+        }
+
+        double[] getLevels(){
+            return m_levels;
+        }
+
+        double[] getFlux(){
+            return m_flux;
+        }
+    }
+
+    /**
+     * Returns the magnitude spectrum of the given frame normalized to a sum of
+     * 1, so that the flux doesn't depend on the level, or <code>null</code>
+     * if the frame is silent.
+     */
+    private static double[] getNormalizedSpectrum(final double[] frame){
+        final double[] magnitudes;
+        try{
+            magnitudes = new FFT(frame, null, false, false).getMagnitudeSpectrum();
+        } catch(Exception ex){
+            throw new IllegalStateException("Couldn't compute the spectrum: " + ex.getMessage(), ex);
+        }
+        double sum = 0;
+        for(final double magnitude : magnitudes){
+            sum += magnitude;
+        }
+        if(sum <= 0){
+            return null;
+        }
+        final double[] normalized = new double[magnitudes.length];
+        for(int i = 0; i < magnitudes.length; i++){
+            normalized[i] = magnitudes[i] / sum;
+        }
+        return normalized;
+    }
+
+    private static double getSmoothedFlux(final double[] flux, final int nFrames, final int frame){
+        final int from = Math.max(0, frame - FLUX_SMOOTHING);
+        final int to = Math.min(nFrames - 1, frame + FLUX_SMOOTHING);
+        double sum = 0;
+        for(int f = from; f <= to; f++){
+            sum += flux[f];
+        }
+        return sum / (to - from + 1);
+    }
+
+    /**
+     * Merges the speech frames into regions. The times are computed from the
+     * frame size in samples, which is 20 ms rounded to whole samples, so that
+     * they don't drift away from the samples over long audio.
+     */
+    private List<SpeechRegion> createRegions(final boolean[] speech, final int frameSize,
+            final long nSamples, final double sampleRateKHz){
+        // Runs of speech frames as [start, end) frame indices
+        final List<int[]> runs = new ArrayList<int[]>();
+        for(int f = 0; f < speech.length; f++){
+            if(speech[f]){
+                final int start = f;
+                while(f < speech.length && speech[f]){
+                    f++;
+                }
+                runs.add(new int[]{start, f});
+            }
+        }
+
+        final double frameMillis = frameSize / sampleRateKHz;
+        final int minSilenceFrames = (int)Math.ceil(m_minSilenceMillis / frameMillis);
+        final List<int[]> bridged = new ArrayList<int[]>();
+        for(final int[] run : runs){
+            final int[] last = bridged.isEmpty() ? null : bridged.get(bridged.size() - 1);
+            if(last != null && run[0] - last[1] < minSilenceFrames){
+                last[1] = run[1];
+            }else{
+                bridged.add(run);
+            }
+        }
+
+        final long endMillis = (long)Math.ceil(nSamples / sampleRateKHz);
+        final List<SpeechRegion> regions = new ArrayList<SpeechRegion>();
+        long lastEnd = -1;
+        for(final int[] run : bridged){
+            if((run[1] - run[0]) * frameMillis < m_minSpeechMillis){
+                continue;
+            }
+            long start = Math.max(0, (long)Math.floor(run[0] * frameMillis) - m_paddingMillis);
+            final long end = Math.min(endMillis, (long)Math.ceil(run[1] * frameMillis) + m_paddingMillis);
+            if(start <= lastEnd){
+                // The padding made the regions overlap
+                start = regions.remove(regions.size() - 1).getStartMillis();
+            }
+            regions.add(new SpeechRegion(start, end));
+            lastEnd = end;
+        }
+        return regions;
+    }
+
+}
@@ -32,6 +32,10 @@
  */
 package org.knime.base.node.audio.ext.org.openimaj.audio.analysis;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
 import org.knime.base.node.audio.ext.org.openimaj.audio.AudioFormat;
 import org.knime.base.node.audio.ext.org.openimaj.audio.AudioStream;
 import org.knime.base.node.audio.ext.org.openimaj.audio.SampleChunk;
@@ -50,12 +54,28 @@ import edu.emory.mathcs.jtransforms.fft.FloatFFT_1D;
  * 	frequency domain array (such as that delivered by {@link #getLastFFT()})
  * 	and returns a {@link SampleChunk}. The format of the output sample chunk
  * 	is determined by the given audio format.
+ * 	<p>
+ * 	The FFT plans are cached per FFT size and thread, and the buffers of the
+ * 	last FFT are reused by the next call to {@link #process(SampleBuffer)} if
+ * 	the size doesn't change. The magnitude views accept caller-supplied
+ * 	output arrays so that repeated calls don't need to allocate.
  *
  *  @author David Dupplaw (dpd@ecs.soton.ac.uk)
  *	@created 28 Oct 2011
  */
 public class FourierTransform extends AudioProcessor
 {
+	/** The FFT plans of each thread, keyed by the size of the FFT */
+	private static final ThreadLocal<Map<Integer, FloatFFT_1D>> PLANS =
+			new ThreadLocal<Map<Integer, FloatFFT_1D>>()
+	{
+		@Override
+		protected Map<Integer, FloatFFT_1D> initialValue()
+		{
+			return new HashMap<Integer, FloatFFT_1D>();
+		}
+	};
+
 	/** The last generated FFT */
 	private float[][] lastFFT = null;
 
@@ -114,48 +134,84 @@ public class FourierTransform extends AudioProcessor
 				this.nextPowerOf2( nSamplesPerChannel ) : nSamplesPerChannel;
 
 		// The Fourier transformer we're going to use
-		final FloatFFT_1D fft = new FloatFFT_1D( nSamplesPerChannel );
+		final FloatFFT_1D fft = getPlan( sizeOfFFT );
 
-		// Creates an FFT for each of the channels in turn
-		this.lastFFT = new float[nChannels][];
+		// Creates an FFT for each of the channels in turn, reusing the
+		// buffers of the last FFT if they have the right size
+		if( this.lastFFT == null || this.lastFFT.length != nChannels ) {
+            this.lastFFT = new float[nChannels][];
+        }
 		for( int c = 0; c < nChannels; c++ )
 		{
 			// Twice the length to account for imaginary parts
-			this.lastFFT[c] = new float[ sizeOfFFT*2 ];
+			if( this.lastFFT[c] == null || this.lastFFT[c].length != sizeOfFFT*2 ) {
+                this.lastFFT[c] = new float[ sizeOfFFT*2 ];
+            } else {
+                Arrays.fill( this.lastFFT[c], 0f );
+            }
 
 			// Fill the array
 			for( int x = 0; x < nSamplesPerChannel; x++ ) {
                 this.lastFFT[c][x*2] = sb.get( x*nChannels+c ) * this.scalingFactor;
             }
 
-//			System.out.println( "FFT Input (channel "+c+"), length "+this.lastFFT[c].length+": " );
-//			System.out.println( Arrays.toString( this.lastFFT[c] ));
-
 			// Perform the FFT (using jTransforms)
 			fft.complexForward( this.lastFFT[c] );
 
 			if( this.normalise ) {
-                this.normaliseReals( sizeOfFFT );
+                this.normaliseReals( this.lastFFT[c], sizeOfFFT );
             }
-
-//			System.out.println( "FFT Output (channel "+c+"): " );
-//			System.out.println( Arrays.toString( this.lastFFT[c] ));
 		}
 
 	    return sb;
     }
 
 	/**
-	 * 	Divides the real parts of the last FFT by the given size
+	 * 	Divides the real parts of the given FFT data by the given size
+	 *	@param data The FFT data of one channel
 	 *	@param size the divisor
 	 */
-	private void normaliseReals( final int size )
+	private void normaliseReals( final float[] data, final int size )
+	{
+		for( int i = 0; i < data.length; i +=2 ) {
+            data[i] /= size;
+        }
+	}
+
+	/**
+	 * 	Returns the FFT plan of the current thread for the given size.
+	 *	@param size The size of the FFT (number of complex values)
+	 *	@return The FFT plan
+	 */
+	private static FloatFFT_1D getPlan( final int size )
 	{
-		for( int c = 0; c < this.lastFFT.length; c++ ) {
-            for( int i = 0; i < this.lastFFT[c].length; i +=2 ) {
-                this.lastFFT[c][i] /= size;
+		final Map<Integer, FloatFFT_1D> plans = PLANS.get();
+		FloatFFT_1D plan = plans.get( size );
+		if( plan == null )
+		{
+			plan = new FloatFFT_1D( size );
+			plans.put( size, plan );
+		}
+		return plan;
+	}
+
+	/**
+	 * 	Returns an output array with the given dimensions, reusing the given
+	 * 	array if it has the right size.
+	 */
+	private static float[][] getOutput( final float[][] output, final int nChannels,
+			final int length )
+	{
+		float[][] out = output;
+		if( out == null || out.length != nChannels ) {
+            out = new float[nChannels][];
+        }
+		for( int c = 0; c < nChannels; c++ ) {
+            if( out[c] == null || out[c].length != length ) {
+                out[c] = new float[length];
             }
         }
+		return out;
 	}
 
 	/**
@@ -196,7 +252,7 @@ public class FourierTransform extends AudioProcessor
 		final int nChannels = transformedData.length;
 
 		// The Fourier transformer we're going to use
-		final FloatFFT_1D fft = new FloatFFT_1D( transformedData[0].length/2 );
+		final FloatFFT_1D fft = getPlan( transformedData[0].length/2 );
 
 		// Create a sample buffer to put the time domain data into
 		final SampleBuffer sb = SampleBufferFactory.createSampleBuffer( format,
@@ -219,7 +275,8 @@ public class FourierTransform extends AudioProcessor
 	}
 
 	/**
-	 * 	Get the last processed FFT frequency data.
+	 * 	Get the last processed FFT frequency data. Note that the returned
+	 * 	arrays are overwritten by the next call to {@link #process(SampleBuffer)}.
 	 * 	@return The fft of the last processed window
 	 */
 	public float[][] getLastFFT()
@@ -236,10 +293,23 @@ public class FourierTransform extends AudioProcessor
 	 */
 	public float[][] getMagnitudes()
 	{
-		final float[][] mags = new float[this.lastFFT.length][];
+		return this.getMagnitudes( null );
+	}
+
+	/**
+	 * 	Returns the magnitudes of the last FFT data in the given array. The
+	 * 	array is reused if its dimensions match, otherwise a new one is
+	 * 	allocated.
+	 *
+	 *	@param output The array to write the magnitudes to, may be null
+	 *	@return The magnitudes of the last FFT data.
+	 */
+	public float[][] getMagnitudes( final float[][] output )
+	{
+		final float[][] mags = getOutput( output, this.lastFFT.length,
+				this.lastFFT.length > 0 ? this.lastFFT[0].length/4 : 0 );
 		for( int c = 0; c < this.lastFFT.length; c++ )
 		{
-			mags[c] = new float[ this.lastFFT[c].length/4 ];
 			for( int i = 0; i < this.lastFFT[c].length/4; i++ )
 			{
 				final float re = this.lastFFT[c][i*2];
@@ -261,10 +331,23 @@ public class FourierTransform extends AudioProcessor
 	 */
 	public float[][] getPowerMagnitudes()
 	{
-		final float[][] mags = new float[this.lastFFT.length][];
+		return this.getPowerMagnitudes( null );
+	}
+
+	/**
+	 * 	Returns the power magnitudes of the last FFT data in the given array.
+	 * 	The array is reused if its dimensions match, otherwise a new one is
+	 * 	allocated.
+	 *
+	 *	@param output The array to write the power magnitudes to, may be null
+	 *	@return The power magnitudes of the last FFT data.
+	 */
+	public float[][] getPowerMagnitudes( final float[][] output )
+	{
+		final float[][] mags = getOutput( output, this.lastFFT.length,
+				this.lastFFT.length > 0 ? this.lastFFT[0].length/4 : 0 );
 		for( int c = 0; c < this.lastFFT.length; c++ )
 		{
-			mags[c] = new float[ this.lastFFT[c].length/4 ];
 			for( int i = 0; i < this.lastFFT[c].length/4; i++ )
 			{
 				final float re = this.lastFFT[c][i*2];
@@ -286,10 +369,24 @@ public class FourierTransform extends AudioProcessor
 	 */
 	public float[][] getNormalisedMagnitudes( final float scalar )
 	{
-		final float[][] mags = new float[this.lastFFT.length][];
+		return this.getNormalisedMagnitudes( scalar, null );
+	}
+
+	/**
+	 * 	Returns the normalised magnitudes of the last FFT data in the given
+	 * 	array. The array is reused if its dimensions match, otherwise a new
+	 * 	one is allocated.
+	 *
+	 *	@param scalar The scalar
+	 *	@param output The array to write the magnitudes to, may be null
+	 *	@return Normalised magnitudes.
+	 */
+	public float[][] getNormalisedMagnitudes( final float scalar, final float[][] output )
+	{
+		final float[][] mags = getOutput( output, this.lastFFT.length,
+				this.lastFFT.length > 0 ? this.lastFFT[0].length/4 : 0 );
 		for( int c = 0; c < this.lastFFT.length; c++ )
 		{
-			mags[c] = new float[ this.lastFFT[c].length/4 ];
 			for( int i = 0; i < this.lastFFT[c].length/4; i++ )
 			{
 				final float re = this.lastFFT[c][i*2] * scalar;
@@ -308,10 +405,23 @@ public class FourierTransform extends AudioProcessor
 	 */
 	public float[][] getReals()
 	{
-		final float[][] reals = new float[this.lastFFT.length][];
+		return this.getReals( null );
+	}
+
+	/**
+	 * 	Returns just the real numbers from the last FFT in the given array.
+	 * 	The array is reused if its dimensions match, otherwise a new one is
+	 * 	allocated.
+	 *
+	 *	@param output The array to write the real numbers to, may be null
+	 *	@return The real numbers
+	 */
+	public float[][] getReals( final float[][] output )
+	{
+		final float[][] reals = getOutput( output, this.lastFFT.length,
+				this.lastFFT.length > 0 ? this.lastFFT[0].length/2 : 0 );
 		for( int c = 0; c < this.lastFFT.length; c++ )
 		{
-			reals[c] = new float[ this.lastFFT[c].length/2 ];
 			for( int i = 0; i < this.lastFFT[c].length/2; i++ ) {
                 reals[c][i] = this.lastFFT[c][i*2];
             }
@@ -96,42 +96,39 @@ public class SampleRateConverter extends AudioProcessor
 				final SampleBuffer sbin = s.getSampleBuffer();
 				final double size = sbin.size() / scalar;
 
-				if( this.sbout == null || this.sbout.size() != (int)size )
-				{
-					this.sbout = SampleBufferFactory.createSampleBuffer(
-						output, (int)size );
-					this.sbout.setFormat( output );
-				}
+				// The enum constant is shared by all converters, hence the
+				// output buffer must not be cached in it
+				final SampleBuffer sbout = SampleBufferFactory.createSampleBuffer(
+					output, (int)size );
+				sbout.setFormat( output );
 
 				// If the input format has a greater sample rate than the
 				// output format - down sampling (scalar > 1)
 				if( scalar > 1 )
 				{
-					for( int i = 0; i < this.sbout.size(); i++ ) {
-                        this.sbout.set( i, sbin.get( (int)(i * scalar) ) );
+					for( int i = 0; i < sbout.size(); i++ ) {
+                        sbout.set( i, sbin.get( (int)(i * scalar) ) );
                     }
-					return this.sbout.getSampleChunk();
+					return sbout.getSampleChunk();
 				}
 				// If the input format has a sample rate less than that
 				// of the output - up sampling (scalar < 1)
 				else
 				{
 					// Linear interpolate each sample value
-					for( int i = 0; i < this.sbout.size()-1; i++ )
+					for( int i = 0; i < sbout.size()-1; i++ )
 					{
 						final int inputSampleX = (int)(i * scalar);
-						this.sbout.set( i, Interpolation.lerp( (float)(i*scalar),
+						sbout.set( i, Interpolation.lerp( (float)(i*scalar),
 								inputSampleX, sbin.get(inputSampleX),
 								inputSampleX+1, sbin.get(inputSampleX+1) ) );
 					}
-					this.sbout.set( this.sbout.size()-1, sbin.get(sbin.size()-1) );
-					return this.sbout.getSampleChunk();
+					sbout.set( sbout.size()-1, sbin.get(sbin.size()-1) );
+					return sbout.getSampleChunk();
 				}
             }
 		};
 
-		protected SampleBuffer sbout = null;
-
 		/**
 		 * 	Process a sample chunk and output a sample chunk in the given
 		 * 	output format.
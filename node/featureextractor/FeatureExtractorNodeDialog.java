@@ -8,13 +8,19 @@ import java.awt.Frame;
 import java.awt.GridLayout;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
 import javax.swing.BorderFactory;
 import javax.swing.Box;
 import javax.swing.JButton;
+import javax.swing.JCheckBox;
+import javax.swing.JComboBox;
 import javax.swing.JDialog;
 import javax.swing.JEditorPane;
 import javax.swing.JLabel;
@@ -23,6 +29,7 @@ import javax.swing.JScrollPane;
 import javax.swing.JSpinner;
 import javax.swing.JSplitPane;
 import javax.swing.JTable;
+import javax.swing.JTextField;
 import javax.swing.ListSelectionModel;
 import javax.swing.SpinnerModel;
 import javax.swing.SpinnerNumberModel;
@@ -32,7 +39,9 @@ import javax.swing.event.ListSelectionListener;
 import javax.swing.table.DefaultTableModel;
 
 import org.knime.base.node.audio.data.feature.FeatureType;
+import org.knime.base.node.audio.data.feature.aggregator.AggregatorType;
 import org.knime.base.node.audio.data.node.AudioColumnSelection;
+import org.knime.base.node.audio.util.WindowFunction;
 import org.knime.core.data.DataTableSpec;
 import org.knime.core.node.InvalidSettingsException;
 import org.knime.core.node.NodeDialogPane;
@@ -67,6 +76,25 @@ public class FeatureExtractorNodeDialog extends NodeDialogPane {
 
     private final FeatureExtractorSettings m_settings;
 
+    private final SpinnerNumberModel m_numberOfThreadsModel;
+
+    private final SpinnerNumberModel m_maxQueueSizeModel;
+
+    private final JComboBox<OutputMode> m_outputModeBox;
+
+    private final JCheckBox m_speechOnlyBox =
+            new JCheckBox("Aggregate only the windows containing speech");
+
+    private final JTextField m_windowSizesField = new JTextField();
+
+    private final JTextField m_hopSizesField = new JTextField();
+
+    private final JComboBox<WindowFunction> m_windowFunctionBox =
+            new JComboBox<WindowFunction>(WindowFunction.values());
+
+    private final Map<AggregatorType, JCheckBox> m_aggregatorBoxes =
+            new EnumMap<AggregatorType, JCheckBox>(AggregatorType.class);
+
     /**
      * New pane for configuring the FeatureExtractor node.
      */
@@ -149,7 +177,15 @@ public class FeatureExtractorNodeDialog extends NodeDialogPane {
         });
         rightBox.add(m_parameterPanel);
 
-        // Create panel for aggregators (TODO)
+        // Create panel for aggregators
+        final JPanel aggregatorPanel = new JPanel(new GridLayout(0, 3));
+        aggregatorPanel.setBorder(BorderFactory.createTitledBorder("Aggregators"));
+        for(final AggregatorType type : AggregatorType.values()){
+            final JCheckBox checkBox = new JCheckBox(type.getName());
+            m_aggregatorBoxes.put(type, checkBox);
+            aggregatorPanel.add(checkBox);
+        }
+        rightBox.add(aggregatorPanel);
 
         /* Add to DialogPane */
         final JSplitPane splitPane = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT, leftPanel, rightPanel);
@@ -160,6 +196,52 @@ public class FeatureExtractorNodeDialog extends NodeDialogPane {
 
         addTab("Features", mainPanel);
 
+        /* Create panel for the parallel processing options */
+        m_numberOfThreadsModel = new SpinnerNumberModel(
+            FeatureExtractorSettings.DEFAULT_NUMBER_OF_THREADS, 1, Integer.MAX_VALUE, 1);
+        m_maxQueueSizeModel = new SpinnerNumberModel(
+            FeatureExtractorSettings.DEFAULT_MAX_QUEUE_SIZE, 1, Integer.MAX_VALUE, 1);
+        final JPanel parallelPanel = new JPanel(new GridLayout(2, 2, 5, 5));
+        parallelPanel.setBorder(BorderFactory.createTitledBorder("Parallel Processing"));
+        parallelPanel.add(new JLabel("Number of threads"));
+        parallelPanel.add(new JSpinner(m_numberOfThreadsModel));
+        parallelPanel.add(new JLabel("Maximum number of rows in process"));
+        parallelPanel.add(new JSpinner(m_maxQueueSizeModel));
+
+        /* Create panel for the output options */
+        m_outputModeBox = new JComboBox<OutputMode>(OutputMode.values());
+        m_outputModeBox.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(final ActionEvent e) {
+                // The frames are output for the whole audio
+                m_speechOnlyBox.setEnabled(m_outputModeBox.getSelectedItem() == OutputMode.AGGREGATED);
+            }
+        });
+        final JPanel outputPanel = new JPanel(new GridLayout(2, 2, 5, 5));
+        outputPanel.setBorder(BorderFactory.createTitledBorder("Output"));
+        outputPanel.add(new JLabel("Output mode"));
+        outputPanel.add(m_outputModeBox);
+        outputPanel.add(m_speechOnlyBox);
+
+        /* Create panel for the window options */
+        final JPanel windowPanel = new JPanel(new GridLayout(3, 2, 5, 5));
+        windowPanel.setBorder(BorderFactory.createTitledBorder("Windows"));
+        windowPanel.add(new JLabel("Window sizes (comma separated)"));
+        windowPanel.add(m_windowSizesField);
+        windowPanel.add(new JLabel("Hop sizes (one per window size)"));
+        windowPanel.add(m_hopSizesField);
+        windowPanel.add(new JLabel("Window function"));
+        windowPanel.add(m_windowFunctionBox);
+
+        final Box optionsBox = Box.createVerticalBox();
+        optionsBox.add(outputPanel);
+        optionsBox.add(windowPanel);
+        optionsBox.add(parallelPanel);
+        final JPanel optionsPanel = new JPanel(new BorderLayout());
+        optionsPanel.add(optionsBox, BorderLayout.NORTH);
+
+        addTab("Options", optionsPanel);
+
     }
 
     private void initFeaturesTable() {
@@ -343,9 +425,54 @@ public class FeatureExtractorNodeDialog extends NodeDialogPane {
     @Override
     protected void saveSettingsTo(final NodeSettingsWO settings) throws InvalidSettingsException {
         m_audioColumnComponent.saveSettingsTo(settings);
+        m_settings.setNumberOfThreads(m_numberOfThreadsModel.getNumber().intValue());
+        m_settings.setMaxQueueSize(m_maxQueueSizeModel.getNumber().intValue());
+        m_settings.setOutputMode((OutputMode)m_outputModeBox.getSelectedItem());
+        // The option is disabled if the frames are output
+        m_settings.setSpeechOnly(m_speechOnlyBox.isEnabled() && m_speechOnlyBox.isSelected());
+        final List<AggregatorType> aggregators = new ArrayList<AggregatorType>();
+        for(final Entry<AggregatorType, JCheckBox> entry : m_aggregatorBoxes.entrySet()){
+            if(entry.getValue().isSelected()){
+                aggregators.add(entry.getKey());
+            }
+        }
+        if(aggregators.isEmpty()){
+            throw new InvalidSettingsException("At least one aggregator must be selected.");
+        }
+        m_settings.setAggregators(aggregators.toArray(new AggregatorType[aggregators.size()]));
+        final int[] windowSizes = parseSizes(m_windowSizesField.getText(), "window size");
+        final int[] hopSizes = parseSizes(m_hopSizesField.getText(), "hop size");
+        FeatureExtractorSettings.validateWindows(windowSizes, hopSizes);
+        m_settings.setWindows(windowSizes, hopSizes);
+        m_settings.setWindowFunction((WindowFunction)m_windowFunctionBox.getSelectedItem());
         m_settings.saveSettingsTo(settings);
     }
 
+    private static int[] parseSizes(final String text, final String name)
+            throws InvalidSettingsException {
+        final String[] tokens = text.trim().split("\\s*,\\s*");
+        final int[] sizes = new int[tokens.length];
+        for(int i = 0; i < tokens.length; i++){
+            try{
+                sizes[i] = Integer.parseInt(tokens[i]);
+            } catch(NumberFormatException ex){
+                throw new InvalidSettingsException("Invalid " + name + ": \"" + tokens[i] + "\"");
+            }
+        }
+        return sizes;
+    }
+
+    private static String formatSizes(final int[] sizes){
+        final StringBuilder builder = new StringBuilder();
+        for(int i = 0; i < sizes.length; i++){
+            if(i > 0){
+                builder.append(", ");
+            }
+            builder.append(sizes[i]);
+        }
+        return builder.toString();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -354,6 +481,18 @@ public class FeatureExtractorNodeDialog extends NodeDialogPane {
             throws NotConfigurableException {
         m_audioColumnComponent.loadSettingsFrom(settings, specs);
         m_settings.loadSettingsFrom(settings);
+        m_numberOfThreadsModel.setValue(m_settings.getNumberOfThreads());
+        m_maxQueueSizeModel.setValue(m_settings.getMaxQueueSize());
+        m_outputModeBox.setSelectedItem(m_settings.getOutputMode());
+        m_speechOnlyBox.setSelected(m_settings.isSpeechOnly());
+        m_speechOnlyBox.setEnabled(m_settings.getOutputMode() == OutputMode.AGGREGATED);
+        m_windowSizesField.setText(formatSizes(m_settings.getWindowSizes()));
+        m_hopSizesField.setText(formatSizes(m_settings.getHopSizes()));
+        m_windowFunctionBox.setSelectedItem(m_settings.getWindowFunction());
+        final List<AggregatorType> aggregators = Arrays.asList(m_settings.getAggregators());
+        for(final Entry<AggregatorType, JCheckBox> entry : m_aggregatorBoxes.entrySet()){
+            entry.getValue().setSelected(aggregators.contains(entry.getKey()));
+        }
     }
 
 }
@@ -2,20 +2,31 @@ package org.knime.base.node.audio.node.featureextractor;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 
 import org.knime.base.node.audio.data.KNAudio;
 import org.knime.base.node.audio.data.feature.FeatureType;
+import org.knime.base.node.audio.data.feature.aggregator.AggregatorType;
 import org.knime.base.node.audio.data.feature.extractor.FeatureExtractor;
+import org.knime.base.node.audio.data.feature.extractor.FeatureExtractorGraph;
 import org.knime.base.node.audio.data.node.AudioCell;
 import org.knime.base.node.audio.data.node.AudioColumnSelection;
+import org.knime.base.node.audio.data.node.FeatureMatrixCell;
+import org.knime.base.node.audio.data.vad.SpeechRegion;
+import org.knime.base.node.audio.data.vad.VoiceActivityDetector;
 import org.knime.base.node.audio.ext.org.openimaj.feature.DoubleFV;
 import org.knime.base.node.audio.util.AudioUtils;
 import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.DataColumnSpecCreator;
 import org.knime.core.data.DataRow;
 import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.container.AbstractCellFactory;
 import org.knime.core.data.container.ColumnRearranger;
 import org.knime.core.data.container.SingleCellFactory;
 import org.knime.core.node.BufferedDataTable;
@@ -28,6 +39,11 @@ import org.knime.core.node.NodeModel;
 import org.knime.core.node.NodeSettingsRO;
 import org.knime.core.node.NodeSettingsWO;
 import org.knime.core.node.defaultnodesettings.SettingsModelString;
+import org.knime.core.node.port.PortObjectSpec;
+import org.knime.core.node.streamable.InputPortRole;
+import org.knime.core.node.streamable.OutputPortRole;
+import org.knime.core.node.streamable.PartitionInfo;
+import org.knime.core.node.streamable.StreamableOperator;
 
 /**
  * This is the model implementation of FeatureExtractor.
@@ -105,6 +121,31 @@ public class FeatureExtractorNodeModel extends NodeModel {
         return new DataTableSpec[]{rearranger.createSpec()};
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public InputPortRole[] getInputPortRoles() {
+        return new InputPortRole[]{InputPortRole.DISTRIBUTED_STREAMABLE};
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public OutputPortRole[] getOutputPortRoles() {
+        return new OutputPortRole[]{OutputPortRole.DISTRIBUTED};
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public StreamableOperator createStreamableOperator(final PartitionInfo partitionInfo,
+            final PortObjectSpec[] inSpecs) throws InvalidSettingsException {
+        return createColumnRearranger((DataTableSpec)inSpecs[0]).createStreamableFunction();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -162,7 +203,30 @@ public class FeatureExtractorNodeModel extends NodeModel {
         final ColumnRearranger rearranger = new ColumnRearranger(spec);
         final int colIdx = m_audioColumnSelection.getSelectedColumnIndex();
 
-        rearranger.replace(new SingleCellFactory(spec.getColumnSpec(colIdx)) {
+        final Set<FeatureType> selFeatures = m_settings.getSelectedFeatures();
+        final FeatureType[] selectedFeatures = selFeatures.toArray(new FeatureType[selFeatures.size()]);
+        // Each worker thread uses its own extractors since they aren't thread-safe
+        final ThreadLocal<FeatureExtractorGraph> graphs = new ThreadLocal<FeatureExtractorGraph>() {
+            @Override
+            protected FeatureExtractorGraph initialValue() {
+                final FeatureExtractor[] extractors = FeatureExtractor.getFeatureExtractors(selectedFeatures);
+                m_settings.updateExtractorParameters(extractors);
+                return new FeatureExtractorGraph(m_settings.getWindowFunction(), extractors);
+            }
+        };
+
+        final AggregatorType[] aggregators = m_settings.getAggregators();
+        final int[] windowSizes = m_settings.getWindowSizes();
+        final int[] hopSizes = m_settings.getHopSizes();
+        final int nThreads = m_settings.getNumberOfThreads();
+        final VoiceActivityDetector detector = m_settings.isSpeechOnly()
+                ? new VoiceActivityDetector() : null;
+        if(m_settings.getOutputMode() == OutputMode.FRAMES){
+            rearranger.append(createFramesCellFactory(spec, selectedFeatures, graphs));
+            return rearranger;
+        }
+        rearranger.replace(new SingleCellFactory(nThreads > 1, nThreads,
+                m_settings.getMaxQueueSize(), spec.getColumnSpec(colIdx)) {
 
             @Override
             public DataCell getCell(final DataRow row) {
@@ -171,18 +235,15 @@ public class FeatureExtractorNodeModel extends NodeModel {
                     final KNAudio newAudio = ((AudioCell)row.getCell(colIdx))
                             .getAudio().clone();
                     try{
-//                        final double[] samples = AudioUtils.getSamples(newAudio);
-                        final double[] samples = AudioUtils.getSamplesMixedDownIntoOneChannel(newAudio);
-                        Set<FeatureType> selFeatures = m_settings.getSelectedFeatures();
-                        final FeatureType[] selectedFeatures = selFeatures.toArray(new FeatureType[selFeatures.size()]);
-                        final FeatureExtractor[] extractors = FeatureExtractor.getFeatureExtractors(selectedFeatures);
-                        m_settings.updateExtractorParameters(extractors);
-                        final double sampleRate = newAudio.getFormat().getSampleRateKHz() * 1000;
-                        final Map<FeatureType, double[]> features = AudioUtils.extractFeatures(samples,
-                            sampleRate, extractors);
-
-                        for(Entry<FeatureType, double[]> entry : features.entrySet()){
-                            newAudio.setFeatureVector(entry.getKey(), new DoubleFV(entry.getValue()));
+                        final List<SpeechRegion> regions = detector == null ? null
+                                : detector.detect(newAudio);
+                        // Long files are only split if processors are idle
+                        final List<Map<FeatureType, double[]>> features = AudioUtils.extractFeatures(
+                            newAudio, graphs.get(), windowSizes, hopSizes, aggregators, regions, true);
+
+                        for(Entry<FeatureType, double[]> entry : features.get(0).entrySet()){
+                            newAudio.setFeatureVector(entry.getKey(),
+                                new DoubleFV(concatenate(features, entry.getKey())));
                         }
 
                         cell = new AudioCell(newAudio);
@@ -198,5 +259,75 @@ public class FeatureExtractorNodeModel extends NodeModel {
 
         return rearranger;
     }
-}
 
+    /**
+     * Creates the cell factory which appends a feature matrix column with the
+     * features of each frame per selected feature.
+     */
+    private AbstractCellFactory createFramesCellFactory(final DataTableSpec spec,
+            final FeatureType[] selectedFeatures, final ThreadLocal<FeatureExtractorGraph> graphs){
+        final int colIdx = m_audioColumnSelection.getSelectedColumnIndex();
+        final int[] windowSizes = m_settings.getWindowSizes();
+        final int[] hopSizes = m_settings.getHopSizes();
+        final DataColumnSpec[] colSpecs = new DataColumnSpec[windowSizes.length * selectedFeatures.length];
+        for(int w = 0; w < windowSizes.length; w++){
+            // Append the window configuration if several ones are extracted
+            final String suffix = windowSizes.length == 1 ? " Frames"
+                    : " Frames (" + windowSizes[w] + "/" + hopSizes[w] + ")";
+            for(int i = 0; i < selectedFeatures.length; i++){
+                colSpecs[w * selectedFeatures.length + i] = new DataColumnSpecCreator(
+                    DataTableSpec.getUniqueColumnName(spec, selectedFeatures[i].getName() + suffix),
+                    FeatureMatrixCell.TYPE).createSpec();
+            }
+        }
+
+        final int nThreads = m_settings.getNumberOfThreads();
+        return new AbstractCellFactory(nThreads > 1, nThreads, m_settings.getMaxQueueSize(), colSpecs) {
+
+            @Override
+            public DataCell[] getCells(final DataRow row) {
+                final DataCell[] cells = new DataCell[colSpecs.length];
+                Arrays.fill(cells, DataType.getMissingCell());
+                final DataCell cell = row.getCell(colIdx);
+                if(!cell.isMissing()){
+                    final KNAudio audio = ((AudioCell)cell).getAudio().clone();
+                    try{
+                        final List<Map<FeatureType, FeatureMatrixCell>> frames = AudioUtils.extractFrames(
+                            audio, graphs.get(), windowSizes, hopSizes);
+                        for(int w = 0; w < frames.size(); w++){
+                            for(int i = 0; i < selectedFeatures.length; i++){
+                                cells[w * selectedFeatures.length + i] =
+                                        frames.get(w).get(selectedFeatures[i]);
+                            }
+                        }
+                    } catch(Exception ex){
+                        LOGGER.error(ex.getMessage());
+                    }
+                }
+                return cells;
+            }
+        };
+    }
+
+    /**
+     * Concatenates the feature vectors of the given type of all window configurations.
+     */
+    private static double[] concatenate(final List<Map<FeatureType, double[]>> features,
+            final FeatureType type){
+        if(features.size() == 1){
+            return features.get(0).get(type);
+        }
+        int length = 0;
+        for(final Map<FeatureType, double[]> map : features){
+            length += map.get(type).length;
+        }
+        final double[] values = new double[length];
+        int offset = 0;
+        for(final Map<FeatureType, double[]> map : features){
+            final double[] vector = map.get(type);
+            System.arraycopy(vector, 0, values, offset, vector.length);
+            offset += vector.length;
+        }
+        return values;
+    }
+}
@@ -48,14 +48,19 @@
  */
 package org.knime.base.node.audio.node.featureextractor;
 
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 
 import org.knime.base.node.audio.data.feature.FeatureType;
+import org.knime.base.node.audio.data.feature.aggregator.AggregatorType;
 import org.knime.base.node.audio.data.feature.extractor.FeatureExtractor;
+import org.knime.base.node.audio.util.AudioUtils;
+import org.knime.base.node.audio.util.WindowFunction;
 import org.knime.core.node.InvalidSettingsException;
 import org.knime.core.node.NodeSettingsRO;
 import org.knime.core.node.NodeSettingsWO;
@@ -68,12 +73,49 @@ class FeatureExtractorSettings {
 
     private final Map<FeatureType, FeatureSetting> m_featuresMap;
     private static final String CFG_FEATURES = "features";
+    private static final String CFG_NUMBER_OF_THREADS = "numberOfThreads";
+    private static final String CFG_MAX_QUEUE_SIZE = "maxQueueSize";
+    private static final String CFG_OUTPUT_MODE = "outputMode";
+    private static final String CFG_AGGREGATORS = "aggregators";
+    private static final String CFG_WINDOW_SIZES = "windowSizes";
+    private static final String CFG_HOP_SIZES = "hopSizes";
+    private static final String CFG_WINDOW_FUNCTION = "windowFunction";
+    private static final String CFG_SPEECH_ONLY = "speechOnly";
+
+    /** The aggregators used by default and by older versions */
+    static final AggregatorType[] DEFAULT_AGGREGATORS = new AggregatorType[]{AggregatorType.MEAN};
+
+    /** The default number of threads used to process the rows */
+    static final int DEFAULT_NUMBER_OF_THREADS = Runtime.getRuntime().availableProcessors();
+
+    /** The default maximum number of rows which are processed at the same time */
+    static final int DEFAULT_MAX_QUEUE_SIZE = 4 * DEFAULT_NUMBER_OF_THREADS;
+
+    /** Older versions process one row after the other */
+    private static final int SEQUENTIAL = 1;
+
+    private int m_numberOfThreads;
+    private int m_maxQueueSize;
+    private OutputMode m_outputMode;
+    private AggregatorType[] m_aggregators;
+    private int[] m_windowSizes;
+    private int[] m_hopSizes;
+    private WindowFunction m_windowFunction;
+    private boolean m_speechOnly;
 
     FeatureExtractorSettings() {
         m_featuresMap = new LinkedHashMap<FeatureType, FeatureExtractorSettings.FeatureSetting>();
         for(FeatureType type : FeatureType.values()){
             m_featuresMap.put(type, new FeatureSetting(type));
         }
+        m_numberOfThreads = DEFAULT_NUMBER_OF_THREADS;
+        m_maxQueueSize = DEFAULT_MAX_QUEUE_SIZE;
+        m_outputMode = OutputMode.AGGREGATED;
+        m_aggregators = DEFAULT_AGGREGATORS;
+        m_windowSizes = new int[]{AudioUtils.DEFAULT_WINDOW_SIZE};
+        m_hopSizes = new int[]{AudioUtils.DEFAULT_WINDOW_SIZE};
+        m_windowFunction = WindowFunction.HANN;
+        m_speechOnly = false;
     }
 
     void saveSettingsTo(final NodeSettingsWO settings){
@@ -82,9 +124,35 @@ class FeatureExtractorSettings {
             NodeSettingsWO cfg = root.addNodeSettings(entry.getKey().getName());
             entry.getValue().saveSettingsTo(cfg);
         }
+        settings.addInt(CFG_NUMBER_OF_THREADS, m_numberOfThreads);
+        settings.addInt(CFG_MAX_QUEUE_SIZE, m_maxQueueSize);
+        settings.addString(CFG_OUTPUT_MODE, m_outputMode.name());
+        final String[] aggregators = new String[m_aggregators.length];
+        for(int i = 0; i < aggregators.length; i++){
+            aggregators[i] = m_aggregators[i].getName();
+        }
+        settings.addStringArray(CFG_AGGREGATORS, aggregators);
+        settings.addIntArray(CFG_WINDOW_SIZES, m_windowSizes);
+        settings.addIntArray(CFG_HOP_SIZES, m_hopSizes);
+        settings.addString(CFG_WINDOW_FUNCTION, m_windowFunction.name());
+        settings.addBoolean(CFG_SPEECH_ONLY, m_speechOnly);
     }
 
     void loadSettingsFrom(final NodeSettingsRO settings){
+        // Settings of older versions don't contain the options for parallel
+        // processing, they keep processing the rows sequentially
+        m_numberOfThreads = settings.getInt(CFG_NUMBER_OF_THREADS, SEQUENTIAL);
+        m_maxQueueSize = settings.getInt(CFG_MAX_QUEUE_SIZE, SEQUENTIAL);
+        m_outputMode = OutputMode.getOutputMode(
+            settings.getString(CFG_OUTPUT_MODE, OutputMode.AGGREGATED.name()));
+        m_aggregators = getAggregatorTypes(settings.getStringArray(CFG_AGGREGATORS, (String[])null));
+        // Older versions use non-overlapping windows of the default size
+        m_windowSizes = settings.getIntArray(CFG_WINDOW_SIZES, AudioUtils.DEFAULT_WINDOW_SIZE);
+        m_hopSizes = settings.getIntArray(CFG_HOP_SIZES, m_windowSizes);
+        m_windowFunction = WindowFunction.getWindowFunction(
+            settings.getString(CFG_WINDOW_FUNCTION, WindowFunction.HANN.name()));
+        // Older versions aggregate the windows of the whole audio
+        m_speechOnly = settings.getBoolean(CFG_SPEECH_ONLY, false);
         try{
             final NodeSettingsRO root = settings.getNodeSettings(CFG_FEATURES);
             for(String key : root.keySet()){
@@ -100,6 +168,32 @@ class FeatureExtractorSettings {
     }
 
     void validateSettings(final NodeSettingsRO settings) throws InvalidSettingsException{
+        if(settings.getInt(CFG_NUMBER_OF_THREADS, SEQUENTIAL) < 1){
+            throw new InvalidSettingsException("Number of threads must be at least 1.");
+        }
+        if(settings.getInt(CFG_MAX_QUEUE_SIZE, SEQUENTIAL) < 1){
+            throw new InvalidSettingsException("Maximum number of rows in process must be at least 1.");
+        }
+        final String[] aggregators = settings.getStringArray(CFG_AGGREGATORS, (String[])null);
+        if(aggregators != null){
+            if(aggregators.length == 0){
+                throw new InvalidSettingsException("At least one aggregator must be selected.");
+            }
+            for(final String name : aggregators){
+                if(AggregatorType.getAggregatorType(name) == null){
+                    throw new InvalidSettingsException("Unknown aggregator: " + name);
+                }
+            }
+        }
+        if(settings.getBoolean(CFG_SPEECH_ONLY, false) && OutputMode.getOutputMode(
+                settings.getString(CFG_OUTPUT_MODE, OutputMode.AGGREGATED.name())) == OutputMode.FRAMES){
+            // The frames are output for the whole audio
+            throw new InvalidSettingsException(
+                "Only the windows containing speech can't be selected if the frames are output.");
+        }
+        final int[] windowSizes = settings.getIntArray(CFG_WINDOW_SIZES,
+            AudioUtils.DEFAULT_WINDOW_SIZE);
+        validateWindows(windowSizes, settings.getIntArray(CFG_HOP_SIZES, windowSizes));
         NodeSettingsRO root = settings.getNodeSettings(CFG_FEATURES);
         for(String key : root.keySet()){
             final NodeSettingsRO cfg = root.getNodeSettings(key);
@@ -152,6 +246,133 @@ class FeatureExtractorSettings {
         return features;
     }
 
+    void setNumberOfThreads(final int numberOfThreads){
+        m_numberOfThreads = numberOfThreads;
+    }
+
+    /**
+     * @return the number of threads used to process the rows
+     */
+    int getNumberOfThreads(){
+        return m_numberOfThreads;
+    }
+
+    void setMaxQueueSize(final int maxQueueSize){
+        m_maxQueueSize = maxQueueSize;
+    }
+
+    /**
+     * @return the maximum number of rows which are processed at the same time
+     */
+    int getMaxQueueSize(){
+        return m_maxQueueSize;
+    }
+
+    void setOutputMode(final OutputMode outputMode){
+        m_outputMode = outputMode;
+    }
+
+    /**
+     * @return how the extracted features are output
+     */
+    OutputMode getOutputMode(){
+        return m_outputMode;
+    }
+
+    void setAggregators(final AggregatorType[] aggregators){
+        m_aggregators = aggregators;
+    }
+
+    /**
+     * @return the aggregators applied to the feature vectors of the windows, the
+     * aggregated vector of a feature contains their results in this order
+     */
+    AggregatorType[] getAggregators(){
+        return m_aggregators;
+    }
+
+    void setWindows(final int[] windowSizes, final int[] hopSizes){
+        m_windowSizes = windowSizes;
+        m_hopSizes = hopSizes;
+    }
+
+    /**
+     * @return the sizes of the windows, each size is extracted separately
+     */
+    int[] getWindowSizes(){
+        return m_windowSizes;
+    }
+
+    /**
+     * @return the hop size of each window size
+     */
+    int[] getHopSizes(){
+        return m_hopSizes;
+    }
+
+    void setWindowFunction(final WindowFunction windowFunction){
+        m_windowFunction = windowFunction;
+    }
+
+    /**
+     * @return the window function applied before the spectrum of a window is computed
+     */
+    WindowFunction getWindowFunction(){
+        return m_windowFunction;
+    }
+
+    void setSpeechOnly(final boolean speechOnly){
+        m_speechOnly = speechOnly;
+    }
+
+    /**
+     * @return <code>true</code> if only the windows within the detected speech
+     * regions are aggregated, <code>false</code> if all windows are aggregated
+     */
+    boolean isSpeechOnly(){
+        return m_speechOnly;
+    }
+
+    /**
+     * Checks that there is a valid hop size for each of at least one window size.
+     *
+     * @param windowSizes the window sizes to check
+     * @param hopSizes the hop sizes to check
+     * @throws InvalidSettingsException if the window or hop sizes are invalid
+     */
+    static void validateWindows(final int[] windowSizes, final int[] hopSizes)
+            throws InvalidSettingsException{
+        if(windowSizes == null || windowSizes.length == 0){
+            throw new InvalidSettingsException("At least one window size must be specified.");
+        }
+        if(hopSizes == null || hopSizes.length != windowSizes.length){
+            throw new InvalidSettingsException("A hop size must be specified for each window size.");
+        }
+        for(int i = 0; i < windowSizes.length; i++){
+            if(windowSizes[i] < 1){
+                throw new InvalidSettingsException("Window size must be at least 1.");
+            }
+            if(hopSizes[i] < 1 || hopSizes[i] > windowSizes[i]){
+                throw new InvalidSettingsException("Hop size must be between 1 and the window size "
+                    + windowSizes[i] + ".");
+            }
+        }
+    }
+
+    private static AggregatorType[] getAggregatorTypes(final String[] names){
+        if(names == null || names.length == 0){
+            return DEFAULT_AGGREGATORS;
+        }
+        final List<AggregatorType> types = new ArrayList<AggregatorType>(names.length);
+        for(final String name : names){
+            final AggregatorType type = AggregatorType.getAggregatorType(name);
+            if(type != null){
+                types.add(type);
+            }
+        }
+        return types.isEmpty() ? DEFAULT_AGGREGATORS : types.toArray(new AggregatorType[types.size()]);
+    }
+
     void updateExtractorParameters(final FeatureExtractor... extractors){
         for(FeatureExtractor extractor : extractors){
             final FeatureType type = extractor.getType();
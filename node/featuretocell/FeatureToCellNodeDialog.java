@@ -6,6 +6,7 @@ import javax.swing.BorderFactory;
 import javax.swing.JPanel;
 
 import org.knime.base.node.audio.data.node.AudioValue;
+import org.knime.base.node.audio.data.node.FeatureOutputType;
 import org.knime.core.data.DataTableSpec;
 import org.knime.core.node.InvalidSettingsException;
 import org.knime.core.node.NodeDialogPane;
@@ -14,6 +15,7 @@ import org.knime.core.node.NodeSettingsRO;
 import org.knime.core.node.NodeSettingsWO;
 import org.knime.core.node.NotConfigurableException;
 import org.knime.core.node.defaultnodesettings.DefaultNodeSettingsPane;
+import org.knime.core.node.defaultnodesettings.DialogComponentButtonGroup;
 import org.knime.core.node.defaultnodesettings.DialogComponentColumnNameSelection;
 import org.knime.core.node.util.filter.StringFilterPanel;
 
@@ -33,6 +35,7 @@ public class FeatureToCellNodeDialog extends NodeDialogPane {
     private final FeatureToCellFilterConfiguration m_config;
     private final StringFilterPanel m_filterPanel;
     private final DialogComponentColumnNameSelection m_audioColumnComponent;
+    private final DialogComponentButtonGroup m_outputTypeComponent;
 
     /**
      * New pane for configuring the AudioVector node.
@@ -51,6 +54,18 @@ public class FeatureToCellNodeDialog extends NodeDialogPane {
         mainPanel.add(audioColumnPanel, BorderLayout.NORTH);
         mainPanel.add(m_filterPanel, BorderLayout.CENTER);
 
+        final FeatureOutputType[] outputTypes = FeatureOutputType.values();
+        final String[] names = new String[outputTypes.length];
+        final String[] actionCommands = new String[outputTypes.length];
+        for(int i = 0; i < outputTypes.length; i++){
+            names[i] = outputTypes[i].getName();
+            actionCommands[i] = outputTypes[i].name();
+        }
+        m_outputTypeComponent = new DialogComponentButtonGroup(
+            FeatureToCellNodeModel.createOutputTypeSettingsModel(), "Output type: ", false,
+            names, actionCommands);
+        mainPanel.add(m_outputTypeComponent.getComponentPanel(), BorderLayout.SOUTH);
+
         addTab("Features", mainPanel);
     }
 
@@ -62,6 +77,7 @@ public class FeatureToCellNodeDialog extends NodeDialogPane {
         m_filterPanel.saveConfiguration(m_config);
         m_config.saveConfiguration(settings);
         m_audioColumnComponent.saveSettingsTo(settings);
+        m_outputTypeComponent.saveSettingsTo(settings);
     }
 
     /**
@@ -72,5 +88,6 @@ public class FeatureToCellNodeDialog extends NodeDialogPane {
         m_config.loadSettingsForDialog(settings);
         m_filterPanel.loadConfiguration(m_config, m_config.getFeatures());
         m_audioColumnComponent.loadSettingsFrom(settings, specs);
+        m_outputTypeComponent.loadSettingsFrom(settings, specs);
     }
 }
@@ -2,17 +2,26 @@ package org.knime.base.node.audio.node.featuretocell;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
+import org.knime.base.node.audio.data.KNAudio;
 import org.knime.base.node.audio.data.feature.FeatureType;
 import org.knime.base.node.audio.data.node.AudioFeatureCellExtractor;
 import org.knime.base.node.audio.data.node.AudioFeatureExtractorCellFactory;
 import org.knime.base.node.audio.data.node.AudioValue;
+import org.knime.base.node.audio.data.node.FeatureOutputType;
+import org.knime.base.node.audio.data.node.FeatureVectorCell;
+import org.knime.base.node.audio.ext.org.openimaj.feature.DoubleFV;
+import org.knime.core.data.DataCell;
 import org.knime.core.data.DataColumnSpec;
 import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
 import org.knime.core.data.DataTableSpec;
 import org.knime.core.data.DataType;
 import org.knime.core.data.container.CellFactory;
 import org.knime.core.data.container.ColumnRearranger;
+import org.knime.core.data.def.DoubleCell;
 import org.knime.core.node.BufferedDataTable;
 import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.node.ExecutionContext;
@@ -22,6 +31,11 @@ import org.knime.core.node.NodeModel;
 import org.knime.core.node.NodeSettingsRO;
 import org.knime.core.node.NodeSettingsWO;
 import org.knime.core.node.defaultnodesettings.SettingsModelString;
+import org.knime.core.node.port.PortObjectSpec;
+import org.knime.core.node.streamable.InputPortRole;
+import org.knime.core.node.streamable.OutputPortRole;
+import org.knime.core.node.streamable.PartitionInfo;
+import org.knime.core.node.streamable.StreamableOperator;
 import org.knime.core.node.util.filter.NameFilterConfiguration;
 
 /**
@@ -34,6 +48,7 @@ public class FeatureToCellNodeModel extends NodeModel {
 
     private final SettingsModelString m_audioCol = createAudioColumnSettingsModel();
     private final FeatureToCellFilterConfiguration m_config = createAudioVectorFilterConfiguration();
+    private final SettingsModelString m_outputType = createOutputTypeSettingsModel();
     private DataColumnSpec[] m_featureColSpecs = null;
 
     /**
@@ -67,12 +82,20 @@ public class FeatureToCellNodeModel extends NodeModel {
             setWarningMessage("No feature is selected. Node returns the original unaltered table.");
             resultTable = dataTable;
         }else{
-            final ColumnRearranger rearranger = new ColumnRearranger(inSpec);
-            final AudioFeatureCellExtractor[] extractors = AudioFeatureCellExtractor
-                    .getExctractor(FeatureType.getFeatureTypes(includedList));
-            final CellFactory cellFactory = new AudioFeatureExtractorCellFactory(
-                audioColIdx, m_featureColSpecs, extractors);
-            rearranger.append(cellFactory);
+            final ColumnRearranger rearranger;
+            if(getOutputType() == FeatureOutputType.COLUMNS){
+                // The number of columns depends on the extracted features
+                final AudioFeatureCellExtractor[] extractors = AudioFeatureCellExtractor
+                        .getExctractor(FeatureType.getFeatureTypes(includedList));
+                final int[] dimensions = getDimensions(dataTable, audioColIdx, extractors,
+                    exec.createSubProgress(0.1));
+                m_featureColSpecs = createColumnSpecs(inSpec, extractors, dimensions);
+                rearranger = new ColumnRearranger(inSpec);
+                rearranger.append(new AudioFeatureExtractorCellFactory(audioColIdx,
+                    m_featureColSpecs, extractors, FeatureOutputType.COLUMNS, dimensions));
+            }else{
+                rearranger = createColumnRearranger(inSpec);
+            }
             resultTable = exec.createColumnRearrangeTable(dataTable, rearranger, exec);
         }
         return new BufferedDataTable[]{resultTable};
@@ -121,18 +144,59 @@ public class FeatureToCellNodeModel extends NodeModel {
 
         final AudioFeatureCellExtractor[] extractors = AudioFeatureCellExtractor.getExctractor(
             FeatureType.getFeatureTypes(includedList));
-        m_featureColSpecs = createColumnSpecs(inSpec, extractors);
+        if(getOutputType() == FeatureOutputType.COLUMNS && includedList != null
+                && includedList.length > 0){
+            // The number of dimensions is only known during execution
+            return new DataTableSpec[]{null};
+        }
+        m_featureColSpecs = createColumnSpecs(inSpec, extractors, getOutputType());
 
         return new DataTableSpec[]{createTableSpec(inSpec, m_featureColSpecs)};
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public InputPortRole[] getInputPortRoles() {
+        if(getOutputType() == FeatureOutputType.COLUMNS){
+            // Column mode needs a full pass over the input to determine the dimensions
+            return super.getInputPortRoles();
+        }
+        return new InputPortRole[]{InputPortRole.DISTRIBUTED_STREAMABLE};
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public OutputPortRole[] getOutputPortRoles() {
+        if(getOutputType() == FeatureOutputType.COLUMNS){
+            return super.getOutputPortRoles();
+        }
+        return new OutputPortRole[]{OutputPortRole.DISTRIBUTED};
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public StreamableOperator createStreamableOperator(final PartitionInfo partitionInfo,
+            final PortObjectSpec[] inSpecs) throws InvalidSettingsException {
+        if(getOutputType() == FeatureOutputType.COLUMNS){
+            return super.createStreamableOperator(partitionInfo, inSpecs);
+        }
+        return createColumnRearranger((DataTableSpec)inSpecs[0]).createStreamableFunction();
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     protected void saveSettingsTo(final NodeSettingsWO settings) {
         m_audioCol.saveSettingsTo(settings);
-         m_config.saveConfiguration(settings);
+        m_config.saveConfiguration(settings);
+        m_outputType.saveSettingsTo(settings);
     }
 
     /**
@@ -143,6 +207,12 @@ public class FeatureToCellNodeModel extends NodeModel {
             throws InvalidSettingsException {
         m_audioCol.loadSettingsFrom(settings);
         m_config.loadConfigurationInModel(settings);
+        try{
+            m_outputType.loadSettingsFrom(settings);
+        } catch(InvalidSettingsException ex){
+            // Settings of older versions only support lists
+            m_outputType.setStringValue(FeatureOutputType.LIST.name());
+        }
     }
 
     /**
@@ -176,15 +246,48 @@ public class FeatureToCellNodeModel extends NodeModel {
         // TODO: generated method stub
     }
 
+    /**
+     * @param inSpec the input {@link DataTableSpec}
+     * @return the {@link ColumnRearranger} appending the selected features as
+     * lists or vectors
+     * @throws InvalidSettingsException if the selected audio column does not exist
+     */
+    private ColumnRearranger createColumnRearranger(final DataTableSpec inSpec)
+            throws InvalidSettingsException {
+        final ColumnRearranger rearranger = new ColumnRearranger(inSpec);
+        final String[] includedList = m_config.getIncludedList();
+        if(includedList == null || includedList.length == 0){
+            return rearranger;
+        }
+        final String audioColName = m_audioCol.getStringValue();
+        final int audioColIdx = inSpec.findColumnIndex(audioColName);
+        if (audioColIdx < 0) {
+            throw new InvalidSettingsException("Invalid audio column: " + audioColName);
+        }
+        final AudioFeatureCellExtractor[] extractors = AudioFeatureCellExtractor
+                .getExctractor(FeatureType.getFeatureTypes(includedList));
+        final FeatureOutputType outputType = getOutputType();
+        final CellFactory cellFactory = new AudioFeatureExtractorCellFactory(audioColIdx,
+            createColumnSpecs(inSpec, extractors, outputType), extractors, outputType, null);
+        rearranger.append(cellFactory);
+        return rearranger;
+    }
+
+    private FeatureOutputType getOutputType(){
+        return FeatureOutputType.getOutputType(m_outputType.getStringValue());
+    }
+
     /**
      * @param origSpec the original {@link DataTableSpec}
      * @param extractors the extractors to use
+     * @param outputType the type of the created cells
      * @return the {@link DataColumnSpec} for the given
      * {@link AudioFeatureCellExtractor} in the same order as given
      */
     private static DataColumnSpec[] createColumnSpecs(
             final DataTableSpec origSpec,
-            final AudioFeatureCellExtractor[] extractors) {
+            final AudioFeatureCellExtractor[] extractors,
+            final FeatureOutputType outputType) {
         if (extractors == null || extractors.length < 1) {
             return new DataColumnSpec[0];
         }
@@ -192,12 +295,62 @@ public class FeatureToCellNodeModel extends NodeModel {
         for (int i = 0, length = extractors.length; i < length; i++) {
              final String name = DataTableSpec.getUniqueColumnName(origSpec,
                      extractors[i].getType().getName());
-             final DataType type = extractors[i].getDataType();
+             final DataType type = outputType == FeatureOutputType.VECTOR
+                     ? FeatureVectorCell.TYPE : extractors[i].getDataType();
              cols[i] = new DataColumnSpecCreator(name, type).createSpec();
         }
         return cols;
     }
 
+    /**
+     * @param origSpec the original {@link DataTableSpec}
+     * @param extractors the extractors to use
+     * @param dimensions the number of dimensions per extractor
+     * @return one double {@link DataColumnSpec} per dimension of the given
+     * {@link AudioFeatureCellExtractor} in the same order as given
+     */
+    private static DataColumnSpec[] createColumnSpecs(
+            final DataTableSpec origSpec,
+            final AudioFeatureCellExtractor[] extractors,
+            final int[] dimensions) {
+        final List<DataColumnSpec> cols = new ArrayList<DataColumnSpec>();
+        for (int i = 0, length = extractors.length; i < length; i++) {
+            for (int d = 0; d < dimensions[i]; d++) {
+                final String name = DataTableSpec.getUniqueColumnName(origSpec,
+                    extractors[i].getType().getName() + " [" + d + "]");
+                cols.add(new DataColumnSpecCreator(name, DoubleCell.TYPE).createSpec());
+            }
+        }
+        return cols.toArray(new DataColumnSpec[cols.size()]);
+    }
+
+    /**
+     * Determines the maximum number of dimensions of each feature over all rows.
+     */
+    private static int[] getDimensions(final BufferedDataTable table, final int audioColIdx,
+            final AudioFeatureCellExtractor[] extractors, final ExecutionMonitor exec)
+                    throws CanceledExecutionException {
+        final int[] dimensions = new int[extractors.length];
+        final double rowCount = Math.max(1, table.size());
+        long rowIdx = 0;
+        for (final DataRow row : table) {
+            exec.checkCanceled();
+            exec.setProgress(rowIdx++ / rowCount, "Determining the number of columns");
+            final DataCell cell = row.getCell(audioColIdx);
+            if (cell.isMissing()) {
+                continue;
+            }
+            final KNAudio audio = ((AudioValue)cell).getAudio();
+            for (int i = 0; i < extractors.length; i++) {
+                final DoubleFV vector = audio.getFeatureVector(extractors[i].getType());
+                if (vector != null) {
+                    dimensions[i] = Math.max(dimensions[i], vector.getVector().length);
+                }
+            }
+        }
+        return dimensions;
+    }
+
     /**
      * @param origSpec the original {@link DataTableSpec}
      * @param columnSpecs the extractor {@link DataColumnSpec}s
@@ -217,6 +370,10 @@ public class FeatureToCellNodeModel extends NodeModel {
             FeatureType.getFeatureTypeNames());
     }
 
+    static SettingsModelString createOutputTypeSettingsModel(){
+        return new SettingsModelString("outputType", FeatureOutputType.LIST.name());
+    }
+
     static SettingsModelString createAudioColumnSettingsModel(){
         return new SettingsModelString("audioColumn", null);
     }
@@ -2,6 +2,9 @@ package org.knime.base.node.audio.node.reader;
 
 
 
+import javax.swing.JFileChooser;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
 import javax.swing.filechooser.FileFilter;
 import javax.swing.filechooser.FileNameExtensionFilter;
 
@@ -12,6 +15,13 @@ import org.knime.core.node.NodeSettingsRO;
 import org.knime.core.node.NodeSettingsWO;
 import org.knime.core.node.NotConfigurableException;
 import org.knime.core.node.defaultnodesettings.DefaultNodeSettingsPane;
+import org.knime.core.node.defaultnodesettings.DialogComponentBoolean;
+import org.knime.core.node.defaultnodesettings.DialogComponentButtonGroup;
+import org.knime.core.node.defaultnodesettings.DialogComponentFileChooser;
+import org.knime.core.node.defaultnodesettings.DialogComponentNumber;
+import org.knime.core.node.defaultnodesettings.DialogComponentString;
+import org.knime.core.node.defaultnodesettings.SettingsModelBoolean;
+import org.knime.core.node.defaultnodesettings.SettingsModelString;
 
 /**
  * <code>NodeDialog</code> for the "AudioReader" Node.
@@ -27,6 +37,8 @@ public class AudioReaderNodeDialog extends DefaultNodeSettingsPane {
 
     public static final String CFG_DIR_HISTORY = "audioReaderDirHistory";
 
+    private static final String CFG_ROOT_DIR_HISTORY = "audioReaderRootDirHistory";
+
     private static final FileFilter FILEFILTER;
 
 //    private static final String[] EXTENSIONS = new String[]{
@@ -41,13 +53,64 @@ public class AudioReaderNodeDialog extends DefaultNodeSettingsPane {
 
     private final DialogComponentMultiFileChooser m_fileChooser;
 
+    private final SettingsModelString m_sourceModel = AudioReaderNodeModel.createSourceModel();
+
+    private final SettingsModelString m_directoryModel = AudioReaderNodeModel.createDirectoryModel();
+
+    private final SettingsModelString m_filePatternModel =
+            AudioReaderNodeModel.createFilePatternModel();
+
+    private final SettingsModelBoolean m_includeSubfoldersModel =
+            AudioReaderNodeModel.createIncludeSubfoldersModel();
+
     /**
      * New pane for configuring the AudioReader node.
      */
     protected AudioReaderNodeDialog() {
+        final AudioSource[] sources = AudioSource.values();
+        final String[] names = new String[sources.length];
+        final String[] actionCommands = new String[sources.length];
+        for (int i = 0; i < sources.length; i++) {
+            names[i] = sources[i].getName();
+            actionCommands[i] = sources[i].name();
+        }
+        addDialogComponent(new DialogComponentButtonGroup(m_sourceModel, "Read from: ", false,
+            names, actionCommands));
+
+        createNewGroup("Selected files");
         m_fileChooser = new DialogComponentMultiFileChooser(
             AudioReaderNodeModel.createFileListModel(), FILEFILTER, CFG_DIR_HISTORY);
         addDialogComponent(m_fileChooser);
+        closeCurrentGroup();
+
+        createNewGroup("Directory");
+        addDialogComponent(new DialogComponentFileChooser(m_directoryModel,
+            CFG_ROOT_DIR_HISTORY, JFileChooser.OPEN_DIALOG, true));
+        addDialogComponent(new DialogComponentString(m_filePatternModel,
+            "File name pattern: ", true, 20));
+        addDialogComponent(new DialogComponentBoolean(m_includeSubfoldersModel,
+            "Include subfolders"));
+        closeCurrentGroup();
+
+        addDialogComponent(new DialogComponentNumber(
+            AudioReaderNodeModel.createNumberOfThreadsModel(), "Number of threads: ", 1));
+
+        m_sourceModel.addChangeListener(new ChangeListener() {
+
+            @Override
+            public void stateChanged(final ChangeEvent e) {
+                updateEnabledState();
+            }
+        });
+        updateEnabledState();
+    }
+
+    private void updateEnabledState() {
+        final boolean directory = AudioSource.getAudioSource(
+            m_sourceModel.getStringValue()) == AudioSource.DIRECTORY;
+        m_directoryModel.setEnabled(directory);
+        m_filePatternModel.setEnabled(directory);
+        m_includeSubfoldersModel.setEnabled(directory);
     }
 
     /**
@@ -57,6 +120,7 @@ public class AudioReaderNodeDialog extends DefaultNodeSettingsPane {
     public void loadAdditionalSettingsFrom(final NodeSettingsRO settings, final DataTableSpec[] specs)
             throws NotConfigurableException {
         super.loadAdditionalSettingsFrom(settings, specs);
+        updateEnabledState();
     }
 
     /**
@@ -2,14 +2,36 @@ package org.knime.base.node.audio.node.reader;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
 
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+import org.apache.commons.lang.StringUtils;
+import org.knime.base.node.audio.data.AudioMetadataCache;
 import org.knime.base.node.audio.data.node.AudioCell;
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataColumnSpec;
 import org.knime.core.data.DataColumnSpecCreator;
 import org.knime.core.data.DataRow;
 import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
 import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.StringCell;
 import org.knime.core.node.BufferedDataContainer;
 import org.knime.core.node.BufferedDataTable;
 import org.knime.core.node.CanceledExecutionException;
@@ -20,6 +42,9 @@ import org.knime.core.node.NodeLogger;
 import org.knime.core.node.NodeModel;
 import org.knime.core.node.NodeSettingsRO;
 import org.knime.core.node.NodeSettingsWO;
+import org.knime.core.node.defaultnodesettings.SettingsModelBoolean;
+import org.knime.core.node.defaultnodesettings.SettingsModelIntegerBounded;
+import org.knime.core.node.defaultnodesettings.SettingsModelString;
 import org.knime.core.node.defaultnodesettings.SettingsModelStringArray;
 
 /**
@@ -32,8 +57,27 @@ public class AudioReaderNodeModel extends NodeModel {
 
     private static final NodeLogger LOGGER = NodeLogger.getLogger(AudioReaderNodeModel.class);
 
+    /** The status of a successfully read audio file */
+    static final String STATUS_OK = "OK";
+
+    /** The default pattern matching the supported audio files */
+    static final String DEFAULT_FILE_PATTERN = "*.{wav,aiff,aifc,au,snd}";
+
+    /** The maximum number of files probed ahead of the output per thread */
+    private static final int PENDING_FILES_PER_THREAD = 4;
+
     private final SettingsModelStringArray m_files = createFileListModel();
 
+    private final SettingsModelString m_source = createSourceModel();
+
+    private final SettingsModelString m_directory = createDirectoryModel();
+
+    private final SettingsModelString m_filePattern = createFilePatternModel();
+
+    private final SettingsModelBoolean m_includeSubfolders = createIncludeSubfoldersModel();
+
+    private final SettingsModelIntegerBounded m_numberOfThreads = createNumberOfThreadsModel();
+
     /**
      * @return Model for the settings holding the file list.
      */
@@ -41,6 +85,42 @@ public class AudioReaderNodeModel extends NodeModel {
         return new SettingsModelStringArray("fileList", new String[] {});
     }
 
+    /**
+     * @return Model for the settings holding the source of the audio files.
+     */
+    static SettingsModelString createSourceModel() {
+        return new SettingsModelString("source", AudioSource.FILES.name());
+    }
+
+    /**
+     * @return Model for the settings holding the directory to read.
+     */
+    static SettingsModelString createDirectoryModel() {
+        return new SettingsModelString("directory", "");
+    }
+
+    /**
+     * @return Model for the settings holding the glob pattern of the file names.
+     */
+    static SettingsModelString createFilePatternModel() {
+        return new SettingsModelString("filePattern", DEFAULT_FILE_PATTERN);
+    }
+
+    /**
+     * @return Model for the settings holding whether subfolders are read.
+     */
+    static SettingsModelBoolean createIncludeSubfoldersModel() {
+        return new SettingsModelBoolean("includeSubfolders", true);
+    }
+
+    /**
+     * @return Model for the settings holding the number of reading threads.
+     */
+    static SettingsModelIntegerBounded createNumberOfThreadsModel() {
+        return new SettingsModelIntegerBounded("numberOfThreads",
+            Runtime.getRuntime().availableProcessors(), 1, Integer.MAX_VALUE);
+    }
+
     /**
      * Constructor for the node model.
      */
@@ -57,25 +137,130 @@ public class AudioReaderNodeModel extends NodeModel {
     protected BufferedDataTable[] execute(final BufferedDataTable[] inData,
             final ExecutionContext exec) throws Exception {
 
-        // Check if some files are selected
-        if(m_files == null || m_files.getStringArrayValue() == null ||
-                m_files.getStringArrayValue().length == 0) {
-            throw new InvalidSettingsException("No file is selected");
-        }
-
-        final BufferedDataContainer bdc = exec.createDataContainer(createOutSpec());
+        validateSource();
 
-        int rowId = 0;
-        for(String file : m_files.getStringArrayValue()){
-            DataCell cell = new AudioCell(file);
-            DataRow row = new DefaultRow("row" + rowId++, cell);
-            bdc.addRowToTable(row);
+        final AudioSource source = getSource();
+        final BufferedDataContainer bdc = exec.createDataContainer(createOutSpec(source));
+        final ExecutorService executor = Executors.newFixedThreadPool(
+            m_numberOfThreads.getIntValue());
+        final Deque<Future<DataCell[]>> pending = new ArrayDeque<Future<DataCell[]>>();
+        final int maxPending = m_numberOfThreads.getIntValue() * PENDING_FILES_PER_THREAD;
+        final String[] files = m_files.getStringArrayValue();
+        long rowId = 0;
+        try (final Stream<Path> paths = createPathStream(source)) {
+            final Iterator<Path> it = paths.iterator();
+            while (it.hasNext()) {
+                exec.checkCanceled();
+                pending.add(executor.submit(createReadTask(it.next(), source)));
+                if (pending.size() >= maxPending) {
+                    bdc.addRowToTable(new DefaultRow("row" + rowId++, getCells(pending.poll())));
+                    reportProgress(exec, source, rowId, files.length);
+                }
+            }
+            while (!pending.isEmpty()) {
+                exec.checkCanceled();
+                bdc.addRowToTable(new DefaultRow("row" + rowId++, getCells(pending.poll())));
+                reportProgress(exec, source, rowId, files.length);
+            }
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        } finally {
+            executor.shutdownNow();
         }
 
         bdc.close();
         return new BufferedDataTable[]{bdc.getTable()};
     }
 
+    /**
+     * Creates the lazily evaluated stream of the files to read. In directory
+     * mode the directory is walked while the files are read, so the file list
+     * is never held in memory or in the node settings.
+     */
+    private Stream<Path> createPathStream(final AudioSource source) throws IOException {
+        if (source == AudioSource.FILES) {
+            return Arrays.stream(m_files.getStringArrayValue()).map(f -> Paths.get(f));
+        }
+        final Path root = Paths.get(m_directory.getStringValue());
+        if (!Files.isDirectory(root)) {
+            throw new IOException("Selected directory: " + root + " is not a directory.");
+        }
+        final PathMatcher matcher = FileSystems.getDefault().getPathMatcher(
+            "glob:" + getFilePattern());
+        final int maxDepth = m_includeSubfolders.getBooleanValue() ? Integer.MAX_VALUE : 1;
+        return Files.walk(root, maxDepth).filter(p -> Files.isRegularFile(p)
+                && matcher.matches(p.getFileName()));
+    }
+
+    /**
+     * Creates the task reading the header of the given file. In directory mode
+     * unreadable files result in a missing audio cell and the error as status.
+     */
+    private static Callable<DataCell[]> createReadTask(final Path path,
+            final AudioSource source) {
+        if (source == AudioSource.FILES) {
+            return () -> new DataCell[]{new AudioCell(path.toString())};
+        }
+        return () -> {
+            final File file = path.toFile();
+            String status;
+            try {
+                AudioMetadataCache.getMetadata(file);
+                return new DataCell[]{new AudioCell(file), new StringCell(STATUS_OK)};
+            } catch (UnsupportedAudioFileException ex) {
+                status = "Unsupported audio file";
+            } catch (IOException | IllegalArgumentException ex) {
+                status = ex.getMessage();
+            }
+            LOGGER.debug("Skipping audio file " + file + ": " + status);
+            return new DataCell[]{DataType.getMissingCell(),
+                new StringCell(status == null ? "Unreadable file" : status)};
+        };
+    }
+
+    private static DataCell[] getCells(final Future<DataCell[]> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException ex) {
+            final Throwable cause = ex.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception)cause;
+            }
+            throw ex;
+        }
+    }
+
+    private static void reportProgress(final ExecutionContext exec, final AudioSource source,
+            final long nrFiles, final int totalFiles) {
+        if (source == AudioSource.FILES) {
+            exec.setProgress((double)nrFiles / totalFiles, "Reading file " + nrFiles
+                + " of " + totalFiles);
+        } else {
+            exec.setMessage("Read " + nrFiles + " files");
+        }
+    }
+
+    private AudioSource getSource() {
+        return AudioSource.getAudioSource(m_source.getStringValue());
+    }
+
+    private String getFilePattern() {
+        final String pattern = m_filePattern.getStringValue();
+        return StringUtils.isBlank(pattern) ? DEFAULT_FILE_PATTERN : pattern.trim();
+    }
+
+    private void validateSource() throws InvalidSettingsException {
+        if (getSource() == AudioSource.DIRECTORY) {
+            if (StringUtils.isBlank(m_directory.getStringValue())) {
+                throw new InvalidSettingsException("No directory is selected");
+            }
+        } else if(m_files == null || m_files.getStringArrayValue() == null ||
+                m_files.getStringArrayValue().length == 0) {
+            // Check if some files are selected
+            throw new InvalidSettingsException("No file is selected");
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -91,13 +276,9 @@ public class AudioReaderNodeModel extends NodeModel {
     protected DataTableSpec[] configure(final DataTableSpec[] inSpecs)
             throws InvalidSettingsException {
 
-        // Check if some files are selected
-        if(m_files == null || m_files.getStringArrayValue() == null ||
-                m_files.getStringArrayValue().length == 0) {
-            throw new InvalidSettingsException("No file is selected");
-        }
+        validateSource();
 
-        return new DataTableSpec[]{createOutSpec()};
+        return new DataTableSpec[]{createOutSpec(getSource())};
     }
 
     /**
@@ -106,6 +287,11 @@ public class AudioReaderNodeModel extends NodeModel {
     @Override
     protected void saveSettingsTo(final NodeSettingsWO settings) {
          m_files.saveSettingsTo(settings);
+         m_source.saveSettingsTo(settings);
+         m_directory.saveSettingsTo(settings);
+         m_filePattern.saveSettingsTo(settings);
+         m_includeSubfolders.saveSettingsTo(settings);
+         m_numberOfThreads.saveSettingsTo(settings);
     }
 
     /**
@@ -115,6 +301,16 @@ public class AudioReaderNodeModel extends NodeModel {
     protected void loadValidatedSettingsFrom(final NodeSettingsRO settings)
             throws InvalidSettingsException {
         m_files.loadSettingsFrom(settings);
+        try {
+            m_source.loadSettingsFrom(settings);
+            m_directory.loadSettingsFrom(settings);
+            m_filePattern.loadSettingsFrom(settings);
+            m_includeSubfolders.loadSettingsFrom(settings);
+            m_numberOfThreads.loadSettingsFrom(settings);
+        } catch (InvalidSettingsException ex) {
+            // Settings of older versions only support the selected files
+            m_source.setStringValue(AudioSource.FILES.name());
+        }
     }
 
     /**
@@ -146,9 +342,14 @@ public class AudioReaderNodeModel extends NodeModel {
         // TODO: generated method stub
     }
 
-    private DataTableSpec createOutSpec(){
+    private static DataTableSpec createOutSpec(final AudioSource source){
         final DataColumnSpecCreator creator = new DataColumnSpecCreator("Audio", AudioCell.TYPE);
 //        final DataColumnSpecCreator creator = new DataColumnSpecCreator("Audio", StringCell.TYPE);
+        if (source == AudioSource.DIRECTORY) {
+            final DataColumnSpec statusSpec = new DataColumnSpecCreator(
+                "Status", StringCell.TYPE).createSpec();
+            return new DataTableSpec(new DataColumnSpec[]{creator.createSpec(), statusSpec});
+        }
         final DataColumnSpec[] cspecs = new DataColumnSpec[]{creator.createSpec()};
         return new DataTableSpec(cspecs);
     }
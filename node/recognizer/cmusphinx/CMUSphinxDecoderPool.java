@@ -0,0 +1,218 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio.node.recognizer.cmusphinx;
+
+import java.io.IOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import edu.cmu.sphinx.api.Configuration;
+import edu.cmu.sphinx.api.StreamSpeechRecognizer;
+
+/**
+ * A pool of CMU Sphinx decoders created from the same configuration. A
+ * {@link StreamSpeechRecognizer} is stateful and can only decode one stream at
+ * a time, hence each thread acquires its own decoder from the pool and
+ * releases it afterwards. The decoders are created lazily, so that only as
+ * many models are loaded as threads actually decode concurrently. Pools are
+ * shared via the {@link CMUSphinxModelRegistry}.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+final class CMUSphinxDecoderPool {
+
+    /** The time to wait for a released decoder before checking the pool again */
+    private static final long WAIT_MILLIS = 100;
+
+    private final Configuration m_config;
+
+    private int m_size;
+
+    private final BlockingQueue<StreamSpeechRecognizer> m_idle;
+
+    private int m_created = 0;
+
+    /**
+     * @param config the configuration of the decoders, must not be changed
+     *            afterwards
+     * @param size the maximum number of decoders
+     */
+    CMUSphinxDecoderPool(final Configuration config, final int size) {
+        if(size < 1){
+            throw new IllegalArgumentException("Pool size must be at least 1");
+        }
+        m_config = config;
+        m_size = size;
+        m_idle = new LinkedBlockingQueue<StreamSpeechRecognizer>();
+    }
+
+    /**
+     * @return the maximum number of decoders
+     */
+    synchronized int getSize() {
+        return m_size;
+    }
+
+    /**
+     * Changes the maximum number of decoders. If the pool shrinks, idle
+     * decoders beyond the new size are dropped right away and decoders in
+     * use are dropped when they are released.
+     *
+     * @param size the maximum number of decoders
+     */
+    synchronized void setSize(final int size) {
+        if(size < 1){
+            throw new IllegalArgumentException("Pool size must be at least 1");
+        }
+        m_size = size;
+        while(m_created > m_size && m_idle.poll() != null){
+            m_created--;
+        }
+    }
+
+    /**
+     * Creates an idle decoder if no decoder has been created yet, so that the
+     * models are loaded before the first audio file is decoded.
+     *
+     * @throws IOException if the decoder couldn't be created
+     */
+    void prewarm() throws IOException {
+        synchronized(this){
+            if(m_created > 0){
+                return;
+            }
+            m_created++;
+        }
+        boolean created = false;
+        try{
+            m_idle.offer(new StreamSpeechRecognizer(m_config));
+            created = true;
+        } finally{
+            if(!created){
+                unreserve();
+            }
+        }
+    }
+
+    /**
+     * Returns an idle decoder. A new decoder is created if none is idle and
+     * the maximum number hasn't been reached yet, otherwise the call blocks
+     * until a decoder is released.
+     *
+     * @return a decoder which must be released after use
+     * @throws IOException if a new decoder couldn't be created
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    StreamSpeechRecognizer acquire() throws IOException, InterruptedException {
+        while(true){
+            StreamSpeechRecognizer decoder = m_idle.poll();
+            if(decoder != null){
+                return decoder;
+            }
+            if(reserve()){
+                // Load the models outside of the lock so decoders are created concurrently
+                boolean created = false;
+                try{
+                    decoder = new StreamSpeechRecognizer(m_config);
+                    created = true;
+                    return decoder;
+                } finally{
+                    if(!created){
+                        unreserve();
+                    }
+                }
+            }
+            // Check again periodically in case the creation of a decoder failed
+            decoder = m_idle.poll(WAIT_MILLIS, TimeUnit.MILLISECONDS);
+            if(decoder != null){
+                return decoder;
+            }
+        }
+    }
+
+    private synchronized boolean reserve() {
+        if(m_created < m_size){
+            m_created++;
+            return true;
+        }
+        return false;
+    }
+
+    private synchronized void unreserve() {
+        m_created--;
+    }
+
+    /**
+     * @param decoder the decoder acquired from this pool
+     */
+    synchronized void release(final StreamSpeechRecognizer decoder) {
+        if(decoder != null){
+            if(m_created > m_size){
+                // The pool has been shrunk while the decoder was in use
+                m_created--;
+            }else{
+                m_idle.offer(decoder);
+            }
+        }
+    }
+
+    /**
+     * Removes a decoder which can't be used anymore from the pool, so that a
+     * new one can be created instead.
+     *
+     * @param decoder the decoder acquired from this pool
+     */
+    void discard(final StreamSpeechRecognizer decoder) {
+        if(decoder != null){
+            unreserve();
+        }
+    }
+
+}
@@ -0,0 +1,262 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio.node.recognizer.cmusphinx;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import org.knime.core.node.NodeLogger;
+
+import edu.cmu.sphinx.api.Configuration;
+
+/**
+ * Shares the decoder pools of CMU Sphinx across all recognizers of the JVM. A
+ * pool is created for each combination of acoustic model, dictionary and
+ * language model when it is first acquired, hence the models of a
+ * configuration are only loaded once no matter how many nodes use them. The
+ * size of a pool is the largest number of decoders requested by the
+ * recognizers currently referencing it, and a pool is released as soon as no
+ * recognizer references it anymore.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+final class CMUSphinxModelRegistry {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(CMUSphinxModelRegistry.class);
+
+    private static final Map<ModelKey, Entry> POOLS = new HashMap<ModelKey, Entry>();
+
+    /** Loads the models in the background, one model set at a time */
+    private static final ExecutorService PREWARM_EXECUTOR = Executors.newSingleThreadExecutor(
+        new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable r) {
+                final Thread thread = new Thread(r, "CMU Sphinx model loader");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+
+    private CMUSphinxModelRegistry() {
+        // Utility class
+    }
+
+    /**
+     * Returns the shared pool of the given models and increments its
+     * reference count. Each call must be followed by a call of
+     * {@link #release(CMUSphinxDecoderPool)}.
+     *
+     * @param acousticModelPath the path of the acoustic model
+     * @param dictionaryPath the path of the dictionary
+     * @param languageModelPath the path of the language model
+     * @param numberOfDecoders the number of decoders the caller needs
+     * @return the shared pool of the given models
+     */
+    static synchronized CMUSphinxDecoderPool acquire(final String acousticModelPath,
+            final String dictionaryPath, final String languageModelPath, final int numberOfDecoders) {
+        final ModelKey key = new ModelKey(acousticModelPath, dictionaryPath, languageModelPath);
+        Entry entry = POOLS.get(key);
+        if(entry == null){
+            final Configuration config = new Configuration();
+            config.setAcousticModelPath(acousticModelPath);
+            config.setDictionaryPath(dictionaryPath);
+            config.setLanguageModelPath(languageModelPath);
+            entry = new Entry(key, new CMUSphinxDecoderPool(config, numberOfDecoders));
+            POOLS.put(key, entry);
+        }
+        entry.m_sizes.add(numberOfDecoders);
+        entry.updateSize();
+        return entry.m_pool;
+    }
+
+    /**
+     * Removes a reference from the given pool and releases the pool with all
+     * its decoders if it isn't referenced anymore. Otherwise the pool shrinks
+     * to the number of decoders the remaining references need.
+     *
+     * @param pool the pool returned by {@link #acquire(String, String, String, int)}
+     * @param numberOfDecoders the number of decoders the reference needed
+     */
+    static synchronized void release(final CMUSphinxDecoderPool pool, final int numberOfDecoders) {
+        final Entry entry = getEntry(pool);
+        if(entry != null){
+            entry.m_sizes.remove(Integer.valueOf(numberOfDecoders));
+            if(entry.m_sizes.isEmpty()){
+                POOLS.remove(entry.m_key);
+            }else{
+                entry.updateSize();
+            }
+        }
+    }
+
+    /**
+     * Changes the number of decoders a reference of the given pool needs.
+     *
+     * @param pool the pool returned by {@link #acquire(String, String, String, int)}
+     * @param oldNumberOfDecoders the number of decoders the reference needed
+     * @param newNumberOfDecoders the number of decoders the reference needs now
+     */
+    static synchronized void resize(final CMUSphinxDecoderPool pool, final int oldNumberOfDecoders,
+            final int newNumberOfDecoders) {
+        final Entry entry = getEntry(pool);
+        if(entry != null && entry.m_sizes.remove(Integer.valueOf(oldNumberOfDecoders))){
+            entry.m_sizes.add(newNumberOfDecoders);
+            entry.updateSize();
+        }
+    }
+
+    private static Entry getEntry(final CMUSphinxDecoderPool pool) {
+        for(final Entry entry : POOLS.values()){
+            if(entry.m_pool == pool){
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Loads the models of the given pool in the background, so that the first
+     * audio file doesn't have to wait for them.
+     *
+     * @param pool the pool returned by {@link #acquire(String, String, String, int)}
+     */
+    static void prewarm(final CMUSphinxDecoderPool pool) {
+        PREWARM_EXECUTOR.execute(new Runnable() {
+            @Override
+            public void run() {
+                try{
+                    pool.prewarm();
+                } catch(IOException ex){
+                    LOGGER.warn("Couldn't preload the CMU Sphinx models: " + ex.getMessage(), ex);
+                } catch(RuntimeException ex){
+                    LOGGER.warn("Couldn't preload the CMU Sphinx models: " + ex.getMessage(), ex);
+                }
+            }
+        });
+    }
+
+    private static final class Entry {
+
+        private final ModelKey m_key;
+
+        private final CMUSphinxDecoderPool m_pool;
+
+        /** The number of decoders needed by each reference */
+        private final List<Integer> m_sizes = new ArrayList<Integer>();
+
+        private Entry(final ModelKey key, final CMUSphinxDecoderPool pool) {
+            m_key = key;
+            m_pool = pool;
+        }
+
+        private void updateSize() {
+            m_pool.setSize(Collections.max(m_sizes));
+        }
+    }
+
+    /**
+     * Identifies a set of models by their paths.
+     */
+    private static final class ModelKey {
+
+        private final String m_acousticModelPath;
+
+        private final String m_dictionaryPath;
+
+        private final String m_languageModelPath;
+
+        private ModelKey(final String acousticModelPath, final String dictionaryPath,
+                final String languageModelPath) {
+            m_acousticModelPath = acousticModelPath;
+            m_dictionaryPath = dictionaryPath;
+            m_languageModelPath = languageModelPath;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int hashCode() {
+            int result = 17;
+            result = 31 * result + (m_acousticModelPath == null ? 0 : m_acousticModelPath.hashCode());
+            result = 31 * result + (m_dictionaryPath == null ? 0 : m_dictionaryPath.hashCode());
+            result = 31 * result + (m_languageModelPath == null ? 0 : m_languageModelPath.hashCode());
+            return result;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean equals(final Object obj) {
+            if(this == obj){
+                return true;
+            }
+            if(!(obj instanceof ModelKey)){
+                return false;
+            }
+            final ModelKey other = (ModelKey)obj;
+            return equals(m_acousticModelPath, other.m_acousticModelPath)
+                && equals(m_dictionaryPath, other.m_dictionaryPath)
+                && equals(m_languageModelPath, other.m_languageModelPath);
+        }
+
+        private static boolean equals(final String a, final String b) {
+            return a == null ? b == null : a.equals(b);
+        }
+    }
+
+}
@@ -54,96 +54,191 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang.StringUtils;
 import org.knime.base.node.audio.data.KNAudio;
 import org.knime.base.node.audio.data.recognizer.RecognitionResult;
 import org.knime.base.node.audio.data.recognizer.Recognizer;
-import org.knime.core.node.NodeLogger;
+import org.knime.base.node.audio.data.recognizer.RecognizerInfo;
+import org.knime.base.node.audio.data.vad.SilenceSegmenter;
+import org.knime.base.node.audio.data.vad.SpeechRegion;
+import org.knime.base.node.audio.data.vad.VoiceActivityDetector;
+import org.knime.base.node.audio.util.TranscodingAudioInputStream;
 
-import edu.cmu.sphinx.api.AbstractSpeechRecognizer;
 import edu.cmu.sphinx.api.Configuration;
 import edu.cmu.sphinx.api.SpeechResult;
 import edu.cmu.sphinx.api.StreamSpeechRecognizer;
 
 /**
- * A wrapper for CMU Sphinx Recognizer
+ * A wrapper for CMU Sphinx Recognizer. The audio files are decoded by a pool of
+ * decoders, hence the recognizer can be used by several threads at the same time.
+ * The pool is shared with all other recognizers using the same models via the
+ * {@link CMUSphinxModelRegistry} and the models are only loaded when they are
+ * needed the first time.
  * @author Budi Yanto, KNIME.com
  */
 public class CMUSphinxRecognizer implements Recognizer{
 
-    private static final NodeLogger LOGGER = NodeLogger.getLogger(CMUSphinxRecognizer.class);
+    private static final String PACKAGE_PATH = CMUSphinxRecognizer.class.getPackage().getName().replace(".", File.separator);
+    private static final String DEFAULT_ACOUSTIC_MODEL_PATH = "resource:/" + PACKAGE_PATH + File.separator + "models" + File.separator + "en-us-5.2";
+    private static final String DEFAULT_LANGUAGE_MODEL_PATH = "resource:/" + PACKAGE_PATH + File.separator + "models" + File.separator + "en-us.lm";
+    private static final String DEFAULT_DICTIONARY_PATH = "resource:/" + PACKAGE_PATH + File.separator + "models" + File.separator + "cmudict-en-us.dict";
+
+    /** Runs the helper threads decoding the segments of long audio files */
+    private static final ExecutorService SEGMENT_EXECUTOR = Executors.newCachedThreadPool(
+        new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable r) {
+                final Thread thread = new Thread(r, "CMU Sphinx segment decoder");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
 
-    private AbstractSpeechRecognizer m_recognizer;
     private final Configuration m_config;
+    private int m_numberOfDecoders = 1;
+    private CMUSphinxDecoderPool m_pool;
+    private VoiceActivityDetector m_voiceActivityDetector = null;
+    private SilenceSegmenter m_segmenter = null;
 
     /**
      *
      */
     public CMUSphinxRecognizer() {
-
         m_config = new Configuration();
-
-        final String packageName = CMUSphinxRecognizer.class.getPackage().getName().replace(".", File.separator);
-        final String acousticModelPath = "resource:/" + packageName + File.separator + "models" + File.separator + "en-us-5.2";
-        final String languageModelPath = "resource:/" + packageName + File.separator + "models" + File.separator + "en-us.lm";
-        final String dictionaryPath = "resource:/" + packageName + File.separator + "models" + File.separator + "cmudict-en-us.dict";
-
-        m_config.setAcousticModelPath(acousticModelPath);
-        m_config.setLanguageModelPath(languageModelPath);
-        m_config.setDictionaryPath(dictionaryPath);
-
-        try{
-            m_recognizer = new StreamSpeechRecognizer(m_config);
-        } catch(IOException ex){
-            LOGGER.error(ex.getMessage());
-        }
+        m_config.setAcousticModelPath(DEFAULT_ACOUSTIC_MODEL_PATH);
+        m_config.setLanguageModelPath(DEFAULT_LANGUAGE_MODEL_PATH);
+        m_config.setDictionaryPath(DEFAULT_DICTIONARY_PATH);
     }
 
     /**
-     *
+     * Sets the acoustic model path, the default model is used if the path is blank
      * @param acousticModelPath
      */
-    public void setAcoustisModelPath(final String acousticModelPath){
-        m_config.setAcousticModelPath(acousticModelPath);
+    public synchronized void setAcoustisModelPath(final String acousticModelPath){
+        final String path = StringUtils.isBlank(acousticModelPath)
+                ? DEFAULT_ACOUSTIC_MODEL_PATH : acousticModelPath;
+        if(!path.equals(m_config.getAcousticModelPath())){
+            m_config.setAcousticModelPath(path);
+            releasePool();
+        }
     }
 
     /**
      * @return the acoustic model path
      */
-    public String getAcousticModelPath(){
+    public synchronized String getAcousticModelPath(){
         return m_config.getAcousticModelPath();
     }
 
     /**
-     *
+     * Sets the language model path, the default model is used if the path is blank
      * @param languageModelPath
      */
-    public void setLanguageModelPath(final String languageModelPath){
-        m_config.setLanguageModelPath(languageModelPath);
+    public synchronized void setLanguageModelPath(final String languageModelPath){
+        final String path = StringUtils.isBlank(languageModelPath)
+                ? DEFAULT_LANGUAGE_MODEL_PATH : languageModelPath;
+        if(!path.equals(m_config.getLanguageModelPath())){
+            m_config.setLanguageModelPath(path);
+            releasePool();
+        }
     }
 
     /**
      * @return the language model path
      */
-    public String getLanguageModelPath(){
+    public synchronized String getLanguageModelPath(){
         return m_config.getLanguageModelPath();
     }
 
     /**
-     *
+     * Sets the dictionary path, the default dictionary is used if the path is blank
      * @param dictionaryPath
      */
-    public void setDictionaryPath(final String dictionaryPath){
-        m_config.setDictionaryPath(dictionaryPath);
+    public synchronized void setDictionaryPath(final String dictionaryPath){
+        final String path = StringUtils.isBlank(dictionaryPath)
+                ? DEFAULT_DICTIONARY_PATH : dictionaryPath;
+        if(!path.equals(m_config.getDictionaryPath())){
+            m_config.setDictionaryPath(path);
+            releasePool();
+        }
     }
 
     /**
      * @return the dictionary path
      */
-    public String getDictionaryPath(){
+    public synchronized String getDictionaryPath(){
         return m_config.getDictionaryPath();
     }
 
+    /**
+     * Sets the maximum number of audio files decoded at the same time. Each
+     * decoder holds its own copy of the models.
+     * @param numberOfDecoders the maximum number of decoders, at least 1
+     */
+    public synchronized void setNumberOfDecoders(final int numberOfDecoders){
+        if(numberOfDecoders < 1){
+            throw new IllegalArgumentException("Number of decoders must be at least 1");
+        }
+        if(m_pool != null){
+            CMUSphinxModelRegistry.resize(m_pool, m_numberOfDecoders, numberOfDecoders);
+        }
+        m_numberOfDecoders = numberOfDecoders;
+    }
+
+    /**
+     * @return the maximum number of audio files decoded at the same time
+     */
+    public synchronized int getNumberOfDecoders(){
+        return m_numberOfDecoders;
+    }
+
+    /**
+     * @param detector the detector of the speech regions, only these regions
+     *            are decoded, <code>null</code> to decode the whole audio
+     */
+    public synchronized void setVoiceActivityDetector(final VoiceActivityDetector detector){
+        m_voiceActivityDetector = detector;
+    }
+
+    /**
+     * Enables the decoding of long audio files in segments. The segments are
+     * cut at pauses and decoded concurrently by the decoders of the pool, the
+     * transcripts of the segments are joined.
+     *
+     * @param segmenter the segmenter splitting the audio, <code>null</code> to
+     *            decode each audio as one stream
+     */
+    public synchronized void setSegmenter(final SilenceSegmenter segmenter){
+        m_segmenter = segmenter;
+    }
+
+    /**
+     * Releases the decoders. They are created again when needed.
+     */
+    public synchronized void clear(){
+        releasePool();
+    }
+
+    /**
+     * Loads the models of the current configuration in the background, so
+     * that the first audio file doesn't have to wait for them.
+     */
+    public synchronized void prewarm(){
+        CMUSphinxModelRegistry.prewarm(getPool());
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -152,22 +247,306 @@ public class CMUSphinxRecognizer implements Recognizer{
         return "CMU Sphinx-4 Recognizer";
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized String getConfigurationKey() {
+        return getName() + "|" + getModelKey(m_config.getAcousticModelPath())
+                + "|" + getModelKey(m_config.getDictionaryPath())
+                + "|" + getModelKey(m_config.getLanguageModelPath())
+                + (m_voiceActivityDetector == null ? "" : "|" + m_voiceActivityDetector.getConfigurationKey())
+                + (m_segmenter == null ? "" : "|" + m_segmenter.getConfigurationKey());
+    }
+
+    /**
+     * Models on the file system are identified by their path and modification
+     * time, hence results are invalidated when a model is changed.
+     */
+    private static String getModelKey(final String path){
+        final File file = new File(path);
+        return file.exists() ? path + "@" + file.lastModified() : path;
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public RecognitionResult recognize(final KNAudio audio) throws FileNotFoundException {
-        final InputStream inStream = new BufferedInputStream(
-            new FileInputStream(audio.getFilePath()));
-        final StreamSpeechRecognizer recognizer = (StreamSpeechRecognizer) m_recognizer;
-        recognizer.startRecognition(inStream);
-        SpeechResult result;
+        final List<SpeechRegion> regions;
+        List<SpeechRegion> segments = null;
+        try{
+            regions = detectSpeech(audio);
+            if(regions == null || !regions.isEmpty()){
+                segments = segment(audio);
+            }
+        } catch(FileNotFoundException ex){
+            throw ex;
+        } catch(IOException ex){
+            throw new IllegalStateException("Couldn't read audio \"" + audio.getName() + "\": "
+                + ex.getMessage(), ex);
+        }
+        if(regions != null && regions.isEmpty()){
+            // Nothing to decode, don't occupy a decoder
+            return new RecognitionResult(getName(), "");
+        }
+        if(segments != null && segments.size() > 1){
+            return recognizeSegments(audio, segments, regions);
+        }
+
+        final CMUSphinxDecoderPool pool = getPool();
+        final StreamSpeechRecognizer recognizer = acquire(pool);
+        boolean success = false;
+        try{
+            final String transcript = decode(recognizer, audio, regions);
+            success = true;
+            return new RecognitionResult(getName(), transcript);
+        } finally{
+            release(pool, recognizer, success);
+        }
+    }
+
+    /**
+     * Decodes the segments of a long audio concurrently and joins their
+     * transcripts. The calling thread and up to one helper thread per
+     * additional decoder of the pool take the next segment to decode until all
+     * segments are decoded, so the number of threads is bounded by the size of
+     * the pool. The timecodes and the transcript of each segment are added to
+     * the recognizer info of the result.
+     */
+    private RecognitionResult recognizeSegments(final KNAudio audio, final List<SpeechRegion> segments,
+            final List<SpeechRegion> regions) throws FileNotFoundException {
+        final List<List<SpeechRegion>> segmentRegions = new ArrayList<List<SpeechRegion>>(segments.size());
+        for(final SpeechRegion segment : segments){
+            segmentRegions.add(regions == null ? Collections.singletonList(segment)
+                : intersect(regions, segment));
+        }
+
+        final CMUSphinxDecoderPool pool = getPool();
+        final String[] transcripts = new String[segments.size()];
+        final AtomicInteger next = new AtomicInteger();
+        final AtomicReference<Exception> failure = new AtomicReference<Exception>();
+        final Runnable worker = new Runnable() {
+            @Override
+            public void run() {
+                decodeSegments(pool, audio, segmentRegions, transcripts, next, failure);
+            }
+        };
+        final int nWorkers = Math.min(pool.getSize(), segments.size());
+        final List<Future<?>> helpers = new ArrayList<Future<?>>(nWorkers);
+        for(int i = 1; i < nWorkers; i++){
+            helpers.add(SEGMENT_EXECUTOR.submit(worker));
+        }
+        worker.run();
+        try{
+            for(final Future<?> helper : helpers){
+                helper.get();
+            }
+        } catch(InterruptedException ex){
+            // Stops the helpers after their current segment
+            failure.compareAndSet(null, ex);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while decoding the segments", ex);
+        } catch(ExecutionException ex){
+            throw new IllegalStateException("Couldn't decode a segment: "
+                + ex.getCause().getMessage(), ex.getCause());
+        }
+
+        final Exception ex = failure.get();
+        if(ex instanceof FileNotFoundException){
+            throw (FileNotFoundException)ex;
+        } else if(ex instanceof InterruptedException){
+            throw new IllegalStateException("Interrupted while waiting for a decoder", ex);
+        } else if(ex instanceof IOException){
+            throw new IllegalStateException("Couldn't load the recognizer models: " + ex.getMessage(), ex);
+        } else if(ex instanceof RuntimeException){
+            throw (RuntimeException)ex;
+        } else if(ex != null){
+            throw new IllegalStateException(ex.getMessage(), ex);
+        }
+
         final StringBuilder builder = new StringBuilder();
-        while((result = recognizer.getResult()) != null){
-            builder.append(result.getHypothesis());
+        for(final String transcript : transcripts){
+            if(!transcript.isEmpty()){
+                if(builder.length() > 0){
+                    builder.append(' ');
+                }
+                builder.append(transcript);
+            }
+        }
+        final RecognitionResult result = new RecognitionResult(getName(), builder.toString());
+        for(int i = 0; i < segments.size(); i++){
+            final SpeechRegion segment = segments.get(i);
+            result.addRecognizerInfo(RecognizerInfo.KEY_SEGMENT_PREFIX + (i + 1),
+                formatTimecode(segment.getStartMillis()) + " - "
+                    + formatTimecode(segment.getEndMillis()) + ": " + transcripts[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Decodes the next segment until all segments are decoded or a segment
+     * failed. A decoder is only acquired once a segment contains speech.
+     */
+    private static void decodeSegments(final CMUSphinxDecoderPool pool, final KNAudio audio,
+            final List<List<SpeechRegion>> segmentRegions, final String[] transcripts,
+            final AtomicInteger next, final AtomicReference<Exception> failure){
+        StreamSpeechRecognizer recognizer = null;
+        boolean success = false;
+        try{
+            int i;
+            while(failure.get() == null && (i = next.getAndIncrement()) < transcripts.length){
+                if(segmentRegions.get(i).isEmpty()){
+                    transcripts[i] = "";
+                    continue;
+                }
+                if(recognizer == null){
+                    recognizer = pool.acquire();
+                }
+                transcripts[i] = decode(recognizer, audio, segmentRegions.get(i));
+            }
+            success = true;
+        } catch(InterruptedException ex){
+            Thread.currentThread().interrupt();
+            failure.compareAndSet(null, ex);
+        } catch(Exception ex){
+            failure.compareAndSet(null, ex);
+        } finally{
+            if(recognizer != null){
+                release(pool, recognizer, success);
+            }
+        }
+    }
+
+    /**
+     * Returns the parts of the given regions which lie within the given segment.
+     */
+    private static List<SpeechRegion> intersect(final List<SpeechRegion> regions,
+            final SpeechRegion segment){
+        final List<SpeechRegion> result = new ArrayList<SpeechRegion>();
+        for(final SpeechRegion region : regions){
+            final long start = Math.max(region.getStartMillis(), segment.getStartMillis());
+            final long end = Math.min(region.getEndMillis(), segment.getEndMillis());
+            if(start < end){
+                result.add(new SpeechRegion(start, end));
+            }
+        }
+        return result;
+    }
+
+    private static String formatTimecode(final long millis){
+        return String.format("%02d:%02d:%02d.%03d", millis / 3600000, millis / 60000 % 60,
+            millis / 1000 % 60, millis % 1000);
+    }
+
+    /**
+     * Decodes the audio, or only the given regions of it, with the given decoder.
+     */
+    private static String decode(final StreamSpeechRecognizer recognizer, final KNAudio audio,
+            final List<SpeechRegion> regions) throws FileNotFoundException {
+        InputStream inStream = null;
+        try{
+            inStream = openStream(audio, regions);
+            recognizer.startRecognition(inStream);
+            SpeechResult result;
+            final StringBuilder builder = new StringBuilder();
+            while((result = recognizer.getResult()) != null){
+                builder.append(result.getHypothesis());
+            }
+            recognizer.stopRecognition();
+            return builder.toString();
+        } catch(FileNotFoundException ex){
+            throw ex;
+        } catch(IOException ex){
+            throw new IllegalStateException("Couldn't read audio \"" + audio.getName() + "\": "
+                + ex.getMessage(), ex);
+        } finally{
+            IOUtils.closeQuietly(inStream);
+        }
+    }
+
+    private static StreamSpeechRecognizer acquire(final CMUSphinxDecoderPool pool){
+        try{
+            return pool.acquire();
+        } catch(InterruptedException ex){
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a decoder", ex);
+        } catch(IOException ex){
+            throw new IllegalStateException("Couldn't load the recognizer models: " + ex.getMessage(), ex);
+        }
+    }
+
+    private static void release(final CMUSphinxDecoderPool pool,
+            final StreamSpeechRecognizer recognizer, final boolean success){
+        if(success){
+            pool.release(recognizer);
+        }else{
+            // The state of the decoder is unknown after a failure
+            pool.discard(recognizer);
+        }
+    }
+
+    /**
+     * Returns the speech regions of the given audio, or <code>null</code> if
+     * no detector is set or the audio can't be converted and is hence decoded
+     * as a whole.
+     */
+    private List<SpeechRegion> detectSpeech(final KNAudio audio) throws IOException{
+        final VoiceActivityDetector detector;
+        synchronized(this){
+            detector = m_voiceActivityDetector;
+        }
+        if(detector == null || !TranscodingAudioInputStream.isSupported(audio.getFormat())){
+            return null;
+        }
+        return detector.detect(audio);
+    }
+
+    /**
+     * Returns the segments the given audio is split into, or <code>null</code>
+     * if no segmenter is set or the audio can't be converted and is hence
+     * decoded as a whole.
+     */
+    private List<SpeechRegion> segment(final KNAudio audio) throws IOException{
+        final SilenceSegmenter segmenter;
+        synchronized(this){
+            segmenter = m_segmenter;
+        }
+        if(segmenter == null || !TranscodingAudioInputStream.isSupported(audio.getFormat())){
+            return null;
+        }
+        return segmenter.segment(audio);
+    }
+
+    /**
+     * Opens the samples of the audio converted to 16 kHz mono on the fly, as
+     * expected by the acoustic models. If regions are given, only these are
+     * decoded. Audio which can't be converted is decoded from the file as is.
+     */
+    private static InputStream openStream(final KNAudio audio, final List<SpeechRegion> regions)
+            throws IOException{
+        if(TranscodingAudioInputStream.isSupported(audio.getFormat())){
+            return new TranscodingAudioInputStream(audio, false, regions);
+        }
+        return new BufferedInputStream(new FileInputStream(audio.getFilePath()));
+    }
+
+    /**
+     * Returns the shared pool of decoders of the current configuration.
+     */
+    private synchronized CMUSphinxDecoderPool getPool(){
+        if(m_pool == null){
+            m_pool = CMUSphinxModelRegistry.acquire(m_config.getAcousticModelPath(),
+                m_config.getDictionaryPath(), m_config.getLanguageModelPath(), m_numberOfDecoders);
+        }
+        return m_pool;
+    }
+
+    private synchronized void releasePool(){
+        if(m_pool != null){
+            CMUSphinxModelRegistry.release(m_pool, m_numberOfDecoders);
+            m_pool = null;
         }
-        recognizer.stopRecognition();
-        return new RecognitionResult(getName(), builder.toString());
     }
 
 }
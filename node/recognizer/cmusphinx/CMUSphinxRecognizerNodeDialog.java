@@ -1,10 +1,16 @@
 package org.knime.base.node.audio.node.recognizer.cmusphinx;
 
 import javax.swing.JFileChooser;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
 
 import org.knime.base.node.audio.data.node.AudioColumnSelection;
 import org.knime.core.node.defaultnodesettings.DefaultNodeSettingsPane;
+import org.knime.core.node.defaultnodesettings.DialogComponentBoolean;
 import org.knime.core.node.defaultnodesettings.DialogComponentFileChooser;
+import org.knime.core.node.defaultnodesettings.DialogComponentNumber;
+import org.knime.core.node.defaultnodesettings.SettingsModelBoolean;
+import org.knime.core.node.defaultnodesettings.SettingsModelIntegerBounded;
 import org.knime.core.node.defaultnodesettings.SettingsModelString;
 
 /**
@@ -57,6 +63,39 @@ public class CMUSphinxRecognizerNodeDialog extends DefaultNodeSettingsPane {
 
         closeCurrentGroup();
 
+        createNewGroup("Parallel Processing");
+        addDialogComponent(new DialogComponentNumber(
+            CMUSphinxRecognizerNodeModel.createNumberOfThreadsSettingsModel(),
+            "Number of threads (each holds its own copy of the models in memory)", 1));
+        addDialogComponent(new DialogComponentBoolean(
+            CMUSphinxRecognizerNodeModel.createPreloadModelsSettingsModel(),
+            "Load the models in the background when the workflow is opened"));
+        addDialogComponent(new DialogComponentBoolean(
+            CMUSphinxRecognizerNodeModel.createCacheResultsSettingsModel(),
+            "Reuse the results of previously recognized audio files"));
+        addDialogComponent(new DialogComponentBoolean(
+            CMUSphinxRecognizerNodeModel.createSkipNonSpeechSettingsModel(),
+            "Recognize only the detected speech regions"));
+        closeCurrentGroup();
+
+        createNewGroup("Long Audio");
+        final SettingsModelBoolean splitLongAudio =
+                CMUSphinxRecognizerNodeModel.createSplitLongAudioSettingsModel();
+        final SettingsModelIntegerBounded maxSegmentLength =
+                CMUSphinxRecognizerNodeModel.createMaxSegmentLengthSettingsModel();
+        splitLongAudio.addChangeListener(new ChangeListener() {
+            @Override
+            public void stateChanged(final ChangeEvent e) {
+                maxSegmentLength.setEnabled(splitLongAudio.getBooleanValue());
+            }
+        });
+        maxSegmentLength.setEnabled(splitLongAudio.getBooleanValue());
+        addDialogComponent(new DialogComponentBoolean(splitLongAudio,
+            "Split long audio files at pauses and decode the parts in parallel"));
+        addDialogComponent(new DialogComponentNumber(maxSegmentLength,
+            "Maximum length of a part (seconds)", 5));
+        closeCurrentGroup();
+
     }
 
 }
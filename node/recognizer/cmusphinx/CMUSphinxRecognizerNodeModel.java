@@ -9,6 +9,9 @@ import org.knime.base.node.audio.data.KNAudio;
 import org.knime.base.node.audio.data.node.AudioCell;
 import org.knime.base.node.audio.data.node.AudioColumnSelection;
 import org.knime.base.node.audio.data.recognizer.RecognitionResult;
+import org.knime.base.node.audio.data.recognizer.RecognitionResultCache;
+import org.knime.base.node.audio.data.vad.SilenceSegmenter;
+import org.knime.base.node.audio.data.vad.VoiceActivityDetector;
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataRow;
 import org.knime.core.data.DataTableSpec;
@@ -23,7 +26,14 @@ import org.knime.core.node.NodeLogger;
 import org.knime.core.node.NodeModel;
 import org.knime.core.node.NodeSettingsRO;
 import org.knime.core.node.NodeSettingsWO;
+import org.knime.core.node.defaultnodesettings.SettingsModelBoolean;
+import org.knime.core.node.defaultnodesettings.SettingsModelIntegerBounded;
 import org.knime.core.node.defaultnodesettings.SettingsModelString;
+import org.knime.core.node.port.PortObjectSpec;
+import org.knime.core.node.streamable.InputPortRole;
+import org.knime.core.node.streamable.OutputPortRole;
+import org.knime.core.node.streamable.PartitionInfo;
+import org.knime.core.node.streamable.StreamableOperator;
 
 /**
  * This is the model implementation of CMUSphinxRecognizer.
@@ -35,6 +45,21 @@ public class CMUSphinxRecognizerNodeModel extends NodeModel {
 
     private static final NodeLogger LOGGER = NodeLogger.getLogger(CMUSphinxRecognizerNodeModel.class);
 
+    /** The maximum number of rows in process per thread */
+    private static final int MAX_QUEUE_SIZE_PER_THREAD = 4;
+
+    private static final String CFG_NUMBER_OF_THREADS = "NumberOfThreads";
+
+    private static final String CFG_PRELOAD_MODELS = "PreloadModels";
+
+    private static final String CFG_CACHE_RESULTS = "CacheResults";
+
+    private static final String CFG_SKIP_NON_SPEECH = "SkipNonSpeech";
+
+    private static final String CFG_SPLIT_LONG_AUDIO = "SplitLongAudio";
+
+    private static final String CFG_MAX_SEGMENT_LENGTH = "MaxSegmentLength";
+
     private final AudioColumnSelection m_audioColumnSelection = new AudioColumnSelection();
 
     private final SettingsModelString m_acousticModelPath = createAcousticModelPathSettingsModel();
@@ -43,6 +68,18 @@ public class CMUSphinxRecognizerNodeModel extends NodeModel {
 
     private final SettingsModelString m_languageModelPath = createLanguageModelPathSettingsModel();
 
+    private final SettingsModelIntegerBounded m_numberOfThreads = createNumberOfThreadsSettingsModel();
+
+    private final SettingsModelBoolean m_preloadModels = createPreloadModelsSettingsModel();
+
+    private final SettingsModelBoolean m_cacheResults = createCacheResultsSettingsModel();
+
+    private final SettingsModelBoolean m_skipNonSpeech = createSkipNonSpeechSettingsModel();
+
+    private final SettingsModelBoolean m_splitLongAudio = createSplitLongAudioSettingsModel();
+
+    private final SettingsModelIntegerBounded m_maxSegmentLength = createMaxSegmentLengthSettingsModel();
+
     private final CMUSphinxRecognizer m_recognizer = new CMUSphinxRecognizer();
 
     /**
@@ -63,9 +100,7 @@ public class CMUSphinxRecognizerNodeModel extends NodeModel {
         }
 
         final BufferedDataTable dataTable = inData[0];
-        m_recognizer.setAcoustisModelPath(m_acousticModelPath.getStringValue());
-        m_recognizer.setLanguageModelPath(m_languageModelPath.getStringValue());
-        m_recognizer.setDictionaryPath(m_dictionaryPath.getStringValue());
+        configureRecognizer();
         final ColumnRearranger rearranger = createColumnRearranger(
             dataTable.getDataTableSpec());
 
@@ -80,6 +115,15 @@ public class CMUSphinxRecognizerNodeModel extends NodeModel {
         // TODO: generated method stub
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void onDispose() {
+        // Release the reference to the shared decoders and their models
+        m_recognizer.clear();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -91,9 +135,40 @@ public class CMUSphinxRecognizerNodeModel extends NodeModel {
         validateAcousticModelPath(m_acousticModelPath.getStringValue());
         validateDictionaryPath(m_dictionaryPath.getStringValue());
         validateLanguageModelPath(m_languageModelPath.getStringValue());
+        if (m_preloadModels.getBooleanValue()) {
+            // Load the models in the background, e.g. while the workflow is opened
+            configureRecognizer();
+            m_recognizer.prewarm();
+        }
         return new DataTableSpec[]{createColumnRearranger(inSpec).createSpec()};
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public InputPortRole[] getInputPortRoles() {
+        return new InputPortRole[]{InputPortRole.DISTRIBUTED_STREAMABLE};
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public OutputPortRole[] getOutputPortRoles() {
+        return new OutputPortRole[]{OutputPortRole.DISTRIBUTED};
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public StreamableOperator createStreamableOperator(final PartitionInfo partitionInfo,
+            final PortObjectSpec[] inSpecs) throws InvalidSettingsException {
+        configureRecognizer();
+        return createColumnRearranger((DataTableSpec)inSpecs[0]).createStreamableFunction();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -103,6 +178,12 @@ public class CMUSphinxRecognizerNodeModel extends NodeModel {
         m_acousticModelPath.saveSettingsTo(settings);
         m_dictionaryPath.saveSettingsTo(settings);
         m_languageModelPath.saveSettingsTo(settings);
+        m_numberOfThreads.saveSettingsTo(settings);
+        m_preloadModels.saveSettingsTo(settings);
+        m_cacheResults.saveSettingsTo(settings);
+        m_skipNonSpeech.saveSettingsTo(settings);
+        m_splitLongAudio.saveSettingsTo(settings);
+        m_maxSegmentLength.saveSettingsTo(settings);
     }
 
     /**
@@ -114,6 +195,36 @@ public class CMUSphinxRecognizerNodeModel extends NodeModel {
         m_acousticModelPath.loadSettingsFrom(settings);
         m_dictionaryPath.loadSettingsFrom(settings);
         m_languageModelPath.loadSettingsFrom(settings);
+        try {
+            m_numberOfThreads.loadSettingsFrom(settings);
+        } catch (InvalidSettingsException ex) {
+            // Older versions decode one audio file at a time
+            m_numberOfThreads.setIntValue(1);
+        }
+        try {
+            m_preloadModels.loadSettingsFrom(settings);
+        } catch (InvalidSettingsException ex) {
+            m_preloadModels.setBooleanValue(false);
+        }
+        try {
+            m_cacheResults.loadSettingsFrom(settings);
+        } catch (InvalidSettingsException ex) {
+            // Older versions always recognize the audio files again
+            m_cacheResults.setBooleanValue(false);
+        }
+        try {
+            m_skipNonSpeech.loadSettingsFrom(settings);
+        } catch (InvalidSettingsException ex) {
+            // Older versions always recognize the whole audio
+            m_skipNonSpeech.setBooleanValue(false);
+        }
+        try {
+            m_splitLongAudio.loadSettingsFrom(settings);
+            m_maxSegmentLength.loadSettingsFrom(settings);
+        } catch (InvalidSettingsException ex) {
+            // Older versions decode each audio file as one stream
+            m_splitLongAudio.setBooleanValue(false);
+        }
     }
 
     /**
@@ -125,6 +236,22 @@ public class CMUSphinxRecognizerNodeModel extends NodeModel {
         m_acousticModelPath.validateSettings(settings);
         m_dictionaryPath.validateSettings(settings);
         m_languageModelPath.validateSettings(settings);
+        if (settings.containsKey(CFG_NUMBER_OF_THREADS)) {
+            m_numberOfThreads.validateSettings(settings);
+        }
+        if (settings.containsKey(CFG_PRELOAD_MODELS)) {
+            m_preloadModels.validateSettings(settings);
+        }
+        if (settings.containsKey(CFG_CACHE_RESULTS)) {
+            m_cacheResults.validateSettings(settings);
+        }
+        if (settings.containsKey(CFG_SKIP_NON_SPEECH)) {
+            m_skipNonSpeech.validateSettings(settings);
+        }
+        if (settings.containsKey(CFG_SPLIT_LONG_AUDIO)) {
+            m_splitLongAudio.validateSettings(settings);
+            m_maxSegmentLength.validateSettings(settings);
+        }
     }
 
     /**
@@ -145,10 +272,25 @@ public class CMUSphinxRecognizerNodeModel extends NodeModel {
         // TODO: generated method stub
     }
 
+    private void configureRecognizer() {
+        m_recognizer.setAcoustisModelPath(m_acousticModelPath.getStringValue());
+        m_recognizer.setLanguageModelPath(m_languageModelPath.getStringValue());
+        m_recognizer.setDictionaryPath(m_dictionaryPath.getStringValue());
+        m_recognizer.setNumberOfDecoders(m_numberOfThreads.getIntValue());
+        m_recognizer.setVoiceActivityDetector(
+            m_skipNonSpeech.getBooleanValue() ? new VoiceActivityDetector() : null);
+        m_recognizer.setSegmenter(m_splitLongAudio.getBooleanValue()
+            ? new SilenceSegmenter(1000 * m_maxSegmentLength.getIntValue()) : null);
+    }
+
     private ColumnRearranger createColumnRearranger(final DataTableSpec inSpec) {
         final ColumnRearranger rearranger = new ColumnRearranger(inSpec);
         final int colIdx = m_audioColumnSelection.getSelectedColumnIndex();
-        rearranger.replace(new SingleCellFactory(inSpec.getColumnSpec(colIdx)) {
+        final boolean cacheResults = m_cacheResults.getBooleanValue();
+        final int nThreads = m_numberOfThreads.getIntValue();
+        // The rows are processed concurrently but their order is retained
+        rearranger.replace(new SingleCellFactory(nThreads > 1, nThreads,
+                MAX_QUEUE_SIZE_PER_THREAD * nThreads, inSpec.getColumnSpec(colIdx)) {
 
             @Override
             public DataCell getCell(final DataRow row) {
@@ -156,7 +298,9 @@ public class CMUSphinxRecognizerNodeModel extends NodeModel {
                 if(!cell.isMissing()){
                     try {
                         final KNAudio newAudio = cell.getAudio().clone();
-                        final RecognitionResult result = m_recognizer.recognize(newAudio);
+                        final RecognitionResult result = cacheResults
+                            ? RecognitionResultCache.getDefault().recognize(m_recognizer, newAudio)
+                            : m_recognizer.recognize(newAudio);
                         newAudio.addRecognitionResult(result);
                         cell = new AudioCell(newAudio);
                     } catch (Exception ex) {
@@ -170,6 +314,15 @@ public class CMUSphinxRecognizerNodeModel extends NodeModel {
         return rearranger;
     }
 
+    static SettingsModelIntegerBounded createNumberOfThreadsSettingsModel() {
+        // Each thread loads its own models, hence more threads must be chosen explicitly
+        return new SettingsModelIntegerBounded(CFG_NUMBER_OF_THREADS, 1, 1, Integer.MAX_VALUE);
+    }
+
+    static SettingsModelBoolean createPreloadModelsSettingsModel() {
+        return new SettingsModelBoolean(CFG_PRELOAD_MODELS, false);
+    }
+
     static SettingsModelString createAcousticModelPathSettingsModel() {
         return new SettingsModelString("AcousticModelPath", null);
     }
@@ -260,4 +413,22 @@ public class CMUSphinxRecognizerNodeModel extends NodeModel {
         setWarningMessage(error + " " + message);
     }
 
+    static SettingsModelBoolean createCacheResultsSettingsModel() {
+        return new SettingsModelBoolean(CFG_CACHE_RESULTS, true);
+    }
+
+    static SettingsModelBoolean createSkipNonSpeechSettingsModel() {
+        return new SettingsModelBoolean(CFG_SKIP_NON_SPEECH, false);
+    }
+
+    static SettingsModelBoolean createSplitLongAudioSettingsModel() {
+        return new SettingsModelBoolean(CFG_SPLIT_LONG_AUDIO, false);
+    }
+
+    /** The maximum length of a segment in seconds */
+    static SettingsModelIntegerBounded createMaxSegmentLengthSettingsModel() {
+        return new SettingsModelIntegerBounded(CFG_MAX_SEGMENT_LENGTH,
+            SilenceSegmenter.DEFAULT_MAX_SEGMENT_MILLIS / 1000, 1, 3600);
+    }
+
 }
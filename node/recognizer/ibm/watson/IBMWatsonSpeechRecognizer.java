@@ -51,16 +51,23 @@ package org.knime.base.node.audio.node.recognizer.ibm.watson;
 import java.io.File;
 import java.io.FileNotFoundException;
 
+import org.apache.commons.lang.StringUtils;
 import org.knime.base.node.audio.data.KNAudio;
 import org.knime.base.node.audio.data.recognizer.RecognitionResult;
 import org.knime.base.node.audio.data.recognizer.Recognizer;
+import org.knime.base.node.audio.data.recognizer.RetryPolicy;
 import org.knime.core.node.NodeLogger;
 
+import com.ibm.watson.developer_cloud.service.exception.ServiceResponseException;
 import com.ibm.watson.developer_cloud.speech_to_text.v1.SpeechToText;
 import com.ibm.watson.developer_cloud.speech_to_text.v1.model.SpeechAlternative;
 import com.ibm.watson.developer_cloud.speech_to_text.v1.model.SpeechResults;
 
 /**
+ * Recognizer using the IBM Watson Speech to Text service. The service client is
+ * created once per credentials and reuses its connections, hence a recognizer
+ * can be used by several threads at the same time. Requests which fail because
+ * the service is overloaded or unavailable are retried.
  *
  * @author Budi Yanto, KNIME.com
  */
@@ -71,11 +78,18 @@ public class IBMWatsonSpeechRecognizer implements Recognizer{
 
     private String m_userName = "";
     private String m_password = "";
+    private String m_endPoint = null;
+    private RetryPolicy m_retryPolicy = RetryPolicy.DEFAULT;
+
+    private SpeechToText m_service = null;
 
     /**
      * @param userName
      */
-    public void setUserName(final String userName){
+    public synchronized void setUserName(final String userName){
+        if(!StringUtils.equals(m_userName, userName)){
+            m_service = null;
+        }
         m_userName = userName;
     }
 
@@ -90,7 +104,10 @@ public class IBMWatsonSpeechRecognizer implements Recognizer{
      *
      * @param password
      */
-    public void setPassword(final String password){
+    public synchronized void setPassword(final String password){
+        if(!StringUtils.equals(m_password, password)){
+            m_service = null;
+        }
         m_password = password;
     }
 
@@ -101,6 +118,37 @@ public class IBMWatsonSpeechRecognizer implements Recognizer{
         return m_password;
     }
 
+    /**
+     * Sets the URL of the service, e.g. to use a local server for testing.
+     *
+     * @param endPoint the URL of the service, <code>null</code> to use the
+     *            default URL
+     */
+    public synchronized void setEndPoint(final String endPoint){
+        if(!StringUtils.equals(m_endPoint, endPoint)){
+            m_service = null;
+        }
+        m_endPoint = endPoint;
+    }
+
+    /**
+     * @param retryPolicy the policy to retry failed requests
+     */
+    public void setRetryPolicy(final RetryPolicy retryPolicy) {
+        m_retryPolicy = retryPolicy;
+    }
+
+    private synchronized SpeechToText getService(){
+        if(m_service == null){
+            m_service = new SpeechToText();
+            m_service.setUsernameAndPassword(m_userName, m_password);
+            if(StringUtils.isNotBlank(m_endPoint)){
+                m_service.setEndPoint(m_endPoint);
+            }
+        }
+        return m_service;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -109,21 +157,53 @@ public class IBMWatsonSpeechRecognizer implements Recognizer{
         return "IBM Watson Speech To Text";
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized String getConfigurationKey() {
+        return getName() + "|" + (m_endPoint == null ? "" : m_endPoint);
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public RecognitionResult recognize(final KNAudio audio) throws FileNotFoundException {
-        final SpeechToText service = new SpeechToText();
-        service.setUsernameAndPassword(m_userName, m_password);
-        final SpeechResults results = service.recognize(
-            new File(audio.getFilePath()));
-
-        final SpeechAlternative alternative = results.getResults().get(0)
-                .getAlternatives().get(0);
-        final String transcript = alternative.getTranscript();
-        final double confidence = alternative.getConfidence();
-        return new RecognitionResult(getName(), transcript, confidence);
+        final File file = new File(audio.getFilePath());
+        if(!file.isFile()){
+            throw new FileNotFoundException("Audio file " + file + " doesn't exist.");
+        }
+
+        final SpeechToText service = getService();
+        for(int attempt = 0; ; attempt++){
+            try{
+                final SpeechResults results = service.recognize(file);
+                if(results.getResults() == null || results.getResults().isEmpty()
+                        || results.getResults().get(0).getAlternatives().isEmpty()){
+                    LOGGER.warn("No result for audio file " + file.getName());
+                    return null;
+                }
+                final SpeechAlternative alternative = results.getResults().get(0)
+                        .getAlternatives().get(0);
+                final String transcript = alternative.getTranscript();
+                final double confidence = alternative.getConfidence();
+                return new RecognitionResult(getName(), transcript, confidence);
+            } catch(ServiceResponseException ex){
+                if(!RetryPolicy.isRetryable(ex.getStatusCode()) || !m_retryPolicy.canRetry(attempt)){
+                    throw ex;
+                }
+                LOGGER.debug("Retry recognition of " + file.getName() + " - Status "
+                    + ex.getStatusCode() + ", attempt " + (attempt + 1));
+            }
+
+            try{
+                m_retryPolicy.backoff(attempt, null);
+            } catch(InterruptedException ex){
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
     }
 
 }
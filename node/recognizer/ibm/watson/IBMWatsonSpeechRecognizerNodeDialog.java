@@ -2,6 +2,8 @@ package org.knime.base.node.audio.node.recognizer.ibm.watson;
 
 import org.knime.base.node.audio.data.node.AudioColumnSelection;
 import org.knime.core.node.defaultnodesettings.DefaultNodeSettingsPane;
+import org.knime.core.node.defaultnodesettings.DialogComponentBoolean;
+import org.knime.core.node.defaultnodesettings.DialogComponentNumber;
 import org.knime.core.node.defaultnodesettings.DialogComponentPasswordField;
 import org.knime.core.node.defaultnodesettings.DialogComponentString;
 
@@ -30,6 +32,15 @@ public class IBMWatsonSpeechRecognizerNodeDialog extends DefaultNodeSettingsPane
             IBMWatsonSpeechRecognizerNodeModel.createPasswordSettingsModel(),
             "Password: ", 40));
         closeCurrentGroup();
+
+        createNewGroup("Parallel Processing");
+        addDialogComponent(new DialogComponentNumber(
+            IBMWatsonSpeechRecognizerNodeModel.createMaxConcurrentRequestsSettingsModel(),
+            "Maximum concurrent requests: ", 1));
+        addDialogComponent(new DialogComponentBoolean(
+            IBMWatsonSpeechRecognizerNodeModel.createCacheResultsSettingsModel(),
+            "Reuse the results of previously recognized audio files"));
+        closeCurrentGroup();
     }
 }
 
@@ -8,6 +8,7 @@ import org.knime.base.node.audio.data.KNAudio;
 import org.knime.base.node.audio.data.node.AudioCell;
 import org.knime.base.node.audio.data.node.AudioColumnSelection;
 import org.knime.base.node.audio.data.recognizer.RecognitionResult;
+import org.knime.base.node.audio.data.recognizer.RecognitionResultCache;
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataRow;
 import org.knime.core.data.DataTableSpec;
@@ -22,7 +23,14 @@ import org.knime.core.node.NodeLogger;
 import org.knime.core.node.NodeModel;
 import org.knime.core.node.NodeSettingsRO;
 import org.knime.core.node.NodeSettingsWO;
+import org.knime.core.node.defaultnodesettings.SettingsModelBoolean;
+import org.knime.core.node.defaultnodesettings.SettingsModelIntegerBounded;
 import org.knime.core.node.defaultnodesettings.SettingsModelString;
+import org.knime.core.node.port.PortObjectSpec;
+import org.knime.core.node.streamable.InputPortRole;
+import org.knime.core.node.streamable.OutputPortRole;
+import org.knime.core.node.streamable.PartitionInfo;
+import org.knime.core.node.streamable.StreamableOperator;
 
 /**
  * This is the model implementation of IBMWatsonSpeechRecognizer.
@@ -34,9 +42,19 @@ public class IBMWatsonSpeechRecognizerNodeModel extends NodeModel {
 
     private static final NodeLogger LOGGER = NodeLogger.getLogger(IBMWatsonSpeechRecognizerNodeModel.class);
 
+    /** The maximum number of rows in process per request */
+    private static final int MAX_QUEUE_SIZE_PER_REQUEST = 4;
+
+    private static final String CFG_MAX_CONCURRENT_REQUESTS = "MaxConcurrentRequests";
+
+    private static final String CFG_CACHE_RESULTS = "CacheResults";
+
     private AudioColumnSelection m_audioColumnSelection = new AudioColumnSelection();
     private SettingsModelString m_userNameSettingsModel = createUserNameSettingsModel();
     private SettingsModelString m_passwordSettingsModel = createPasswordSettingsModel();
+    private final SettingsModelIntegerBounded m_maxConcurrentRequestsSettingsModel =
+        createMaxConcurrentRequestsSettingsModel();
+    private final SettingsModelBoolean m_cacheResultsSettingsModel = createCacheResultsSettingsModel();
 
     private final IBMWatsonSpeechRecognizer m_recognizer = new IBMWatsonSpeechRecognizer();
 
@@ -59,8 +77,7 @@ public class IBMWatsonSpeechRecognizerNodeModel extends NodeModel {
         }
 
         final BufferedDataTable dataTable = inData[0];
-        m_recognizer.setUserName(m_userNameSettingsModel.getStringValue());
-        m_recognizer.setPassword(m_passwordSettingsModel.getStringValue());
+        configureRecognizer();
         final ColumnRearranger rearranger = createColumnRearranger(
             dataTable.getDataTableSpec());
 
@@ -102,6 +119,32 @@ public class IBMWatsonSpeechRecognizerNodeModel extends NodeModel {
         return new DataTableSpec[]{createColumnRearranger(inSpec).createSpec()};
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public InputPortRole[] getInputPortRoles() {
+        return new InputPortRole[]{InputPortRole.DISTRIBUTED_STREAMABLE};
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public OutputPortRole[] getOutputPortRoles() {
+        return new OutputPortRole[]{OutputPortRole.DISTRIBUTED};
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public StreamableOperator createStreamableOperator(final PartitionInfo partitionInfo,
+            final PortObjectSpec[] inSpecs) throws InvalidSettingsException {
+        configureRecognizer();
+        return createColumnRearranger((DataTableSpec)inSpecs[0]).createStreamableFunction();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -110,6 +153,8 @@ public class IBMWatsonSpeechRecognizerNodeModel extends NodeModel {
          m_audioColumnSelection.saveSettingsTo(settings);
          m_userNameSettingsModel.saveSettingsTo(settings);
          m_passwordSettingsModel.saveSettingsTo(settings);
+         m_maxConcurrentRequestsSettingsModel.saveSettingsTo(settings);
+         m_cacheResultsSettingsModel.saveSettingsTo(settings);
     }
 
     /**
@@ -121,6 +166,18 @@ public class IBMWatsonSpeechRecognizerNodeModel extends NodeModel {
         m_audioColumnSelection.laodSettingsFrom(settings);
         m_userNameSettingsModel.loadSettingsFrom(settings);
         m_passwordSettingsModel.loadSettingsFrom(settings);
+        try {
+            m_maxConcurrentRequestsSettingsModel.loadSettingsFrom(settings);
+        } catch (InvalidSettingsException ex) {
+            // Older versions send one request at a time
+            m_maxConcurrentRequestsSettingsModel.setIntValue(1);
+        }
+        try {
+            m_cacheResultsSettingsModel.loadSettingsFrom(settings);
+        } catch (InvalidSettingsException ex) {
+            // Older versions always recognize the audio files again
+            m_cacheResultsSettingsModel.setBooleanValue(false);
+        }
     }
 
     /**
@@ -132,6 +189,12 @@ public class IBMWatsonSpeechRecognizerNodeModel extends NodeModel {
         m_audioColumnSelection.validateSettings(settings);
         m_userNameSettingsModel.validateSettings(settings);
         m_passwordSettingsModel.validateSettings(settings);
+        if (settings.containsKey(CFG_MAX_CONCURRENT_REQUESTS)) {
+            m_maxConcurrentRequestsSettingsModel.validateSettings(settings);
+        }
+        if (settings.containsKey(CFG_CACHE_RESULTS)) {
+            m_cacheResultsSettingsModel.validateSettings(settings);
+        }
     }
 
     /**
@@ -162,10 +225,18 @@ public class IBMWatsonSpeechRecognizerNodeModel extends NodeModel {
         return new SettingsModelString("Password", null);
     }
 
+    private void configureRecognizer(){
+        m_recognizer.setUserName(m_userNameSettingsModel.getStringValue());
+        m_recognizer.setPassword(m_passwordSettingsModel.getStringValue());
+    }
+
     private ColumnRearranger createColumnRearranger(final DataTableSpec inSpec){
         final ColumnRearranger rearranger = new ColumnRearranger(inSpec);
         final int colIdx = m_audioColumnSelection.getSelectedColumnIndex();
-        rearranger.replace(new SingleCellFactory(inSpec.getColumnSpec(colIdx)) {
+        final boolean cacheResults = m_cacheResultsSettingsModel.getBooleanValue();
+        final int nRequests = m_maxConcurrentRequestsSettingsModel.getIntValue();
+        rearranger.replace(new SingleCellFactory(nRequests > 1, nRequests,
+                MAX_QUEUE_SIZE_PER_REQUEST * nRequests, inSpec.getColumnSpec(colIdx)) {
 
             @Override
             public DataCell getCell(final DataRow row) {
@@ -173,7 +244,9 @@ public class IBMWatsonSpeechRecognizerNodeModel extends NodeModel {
                 if(!cell.isMissing()){
                     try {
                         final KNAudio newAudio = cell.getAudio().clone();
-                        final RecognitionResult result = m_recognizer.recognize(newAudio);
+                        final RecognitionResult result = cacheResults
+                            ? RecognitionResultCache.getDefault().recognize(m_recognizer, newAudio)
+                            : m_recognizer.recognize(newAudio);
                         newAudio.addRecognitionResult(result);
                         cell = new AudioCell(newAudio);
                     } catch (Exception ex) {
@@ -186,5 +259,13 @@ public class IBMWatsonSpeechRecognizerNodeModel extends NodeModel {
         return rearranger;
     }
 
+    static SettingsModelIntegerBounded createMaxConcurrentRequestsSettingsModel(){
+        return new SettingsModelIntegerBounded(CFG_MAX_CONCURRENT_REQUESTS, 4, 1, 64);
+    }
+
+    static SettingsModelBoolean createCacheResultsSettingsModel() {
+        return new SettingsModelBoolean(CFG_CACHE_RESULTS, true);
+    }
+
 }
 
@@ -5,6 +5,7 @@ import org.knime.base.node.audio.node.recognizer.microsoft.util.MSSpeechRecogniz
 import org.knime.core.node.InvalidSettingsException;
 import org.knime.core.node.NodeSettingsWO;
 import org.knime.core.node.defaultnodesettings.DefaultNodeSettingsPane;
+import org.knime.core.node.defaultnodesettings.DialogComponentBoolean;
 import org.knime.core.node.defaultnodesettings.DialogComponentNumber;
 import org.knime.core.node.defaultnodesettings.DialogComponentPasswordField;
 import org.knime.core.node.defaultnodesettings.DialogComponentStringSelection;
@@ -62,6 +63,18 @@ public class MSSpeechRecognizerNodeDialog extends DefaultNodeSettingsPane {
             "Profanity Markup: ", 1));
         closeCurrentGroup();
 
+        createNewGroup("Parallel Processing");
+        addDialogComponent(new DialogComponentNumber(
+            MSSpeechRecognizerNodeModel.createMaxConcurrentRequestsSettingsModel(),
+            "Maximum concurrent requests: ", 1));
+        addDialogComponent(new DialogComponentBoolean(
+            MSSpeechRecognizerNodeModel.createCacheResultsSettingsModel(),
+            "Reuse the results of previously recognized audio files"));
+        addDialogComponent(new DialogComponentBoolean(
+            MSSpeechRecognizerNodeModel.createSkipNonSpeechSettingsModel(),
+            "Recognize only the detected speech regions"));
+        closeCurrentGroup();
+
     }
 
     /**
@@ -8,6 +8,8 @@ import org.knime.base.node.audio.data.KNAudio;
 import org.knime.base.node.audio.data.node.AudioCell;
 import org.knime.base.node.audio.data.node.AudioColumnSelection;
 import org.knime.base.node.audio.data.recognizer.RecognitionResult;
+import org.knime.base.node.audio.data.recognizer.RecognitionResultCache;
+import org.knime.base.node.audio.data.vad.VoiceActivityDetector;
 import org.knime.base.node.audio.node.recognizer.microsoft.util.MSSpeechRecognizer;
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataRow;
@@ -23,8 +25,14 @@ import org.knime.core.node.NodeLogger;
 import org.knime.core.node.NodeModel;
 import org.knime.core.node.NodeSettingsRO;
 import org.knime.core.node.NodeSettingsWO;
+import org.knime.core.node.defaultnodesettings.SettingsModelBoolean;
 import org.knime.core.node.defaultnodesettings.SettingsModelIntegerBounded;
 import org.knime.core.node.defaultnodesettings.SettingsModelString;
+import org.knime.core.node.port.PortObjectSpec;
+import org.knime.core.node.streamable.InputPortRole;
+import org.knime.core.node.streamable.OutputPortRole;
+import org.knime.core.node.streamable.PartitionInfo;
+import org.knime.core.node.streamable.StreamableOperator;
 
 /**
  * This is the model implementation of MSSpeechRecognizer.
@@ -36,12 +44,25 @@ public class MSSpeechRecognizerNodeModel extends NodeModel {
 
     private static final NodeLogger LOGGER = NodeLogger.getLogger(MSSpeechRecognizerNodeModel.class);
 
+    /** The maximum number of rows in process per request */
+    private static final int MAX_QUEUE_SIZE_PER_REQUEST = 4;
+
+    private static final String CFG_MAX_CONCURRENT_REQUESTS = "MaxConcurrentRequests";
+
+    private static final String CFG_CACHE_RESULTS = "CacheResults";
+
+    private static final String CFG_SKIP_NON_SPEECH = "SkipNonSpeech";
+
     private final AudioColumnSelection m_audioColumnSelection = new AudioColumnSelection();
     private final SettingsModelString m_subscriptionKeyModel = createSubscriptionKeySettingsModel();
     private final SettingsModelString m_audioLanguageModel = createAudioLanguageSettingsModel();
     private final SettingsModelString m_scenarioModel = createScenarioSettingsModel();
     private final SettingsModelIntegerBounded m_maxNBestModel = createMaxNBestSettingsModel();
     private final SettingsModelIntegerBounded m_profinityMarkupModel = createProfanityMarkupSettingsModel();
+    private final SettingsModelIntegerBounded m_maxConcurrentRequestsModel =
+        createMaxConcurrentRequestsSettingsModel();
+    private final SettingsModelBoolean m_cacheResultsModel = createCacheResultsSettingsModel();
+    private final SettingsModelBoolean m_skipNonSpeechModel = createSkipNonSpeechSettingsModel();
     private final MSSpeechRecognizer m_recognizer = new MSSpeechRecognizer();
 
     /**
@@ -63,11 +84,7 @@ public class MSSpeechRecognizerNodeModel extends NodeModel {
         }
 
         final BufferedDataTable dataTable = inData[0];
-        m_recognizer.setSubscriptionKey(m_subscriptionKeyModel.getStringValue());
-        m_recognizer.setLanguage(m_audioLanguageModel.getStringValue());
-        m_recognizer.setScenario(m_scenarioModel.getStringValue());
-        m_recognizer.setMaxNBest(m_maxNBestModel.getIntValue());
-        m_recognizer.setProfanityMarkup(m_profinityMarkupModel.getIntValue());
+        configureRecognizer();
         final ColumnRearranger rearranger = createColumnRearranger(
             dataTable.getDataTableSpec());
 
@@ -104,6 +121,32 @@ public class MSSpeechRecognizerNodeModel extends NodeModel {
         return new DataTableSpec[]{createColumnRearranger(inSpec).createSpec()};
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public InputPortRole[] getInputPortRoles() {
+        return new InputPortRole[]{InputPortRole.DISTRIBUTED_STREAMABLE};
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public OutputPortRole[] getOutputPortRoles() {
+        return new OutputPortRole[]{OutputPortRole.DISTRIBUTED};
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public StreamableOperator createStreamableOperator(final PartitionInfo partitionInfo,
+            final PortObjectSpec[] inSpecs) throws InvalidSettingsException {
+        configureRecognizer();
+        return createColumnRearranger((DataTableSpec)inSpecs[0]).createStreamableFunction();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -115,6 +158,9 @@ public class MSSpeechRecognizerNodeModel extends NodeModel {
          m_scenarioModel.saveSettingsTo(settings);
          m_maxNBestModel.saveSettingsTo(settings);
          m_profinityMarkupModel.saveSettingsTo(settings);
+         m_maxConcurrentRequestsModel.saveSettingsTo(settings);
+         m_cacheResultsModel.saveSettingsTo(settings);
+         m_skipNonSpeechModel.saveSettingsTo(settings);
     }
 
     /**
@@ -129,6 +175,24 @@ public class MSSpeechRecognizerNodeModel extends NodeModel {
         m_scenarioModel.loadSettingsFrom(settings);
         m_maxNBestModel.loadSettingsFrom(settings);
         m_profinityMarkupModel.loadSettingsFrom(settings);
+        try {
+            m_maxConcurrentRequestsModel.loadSettingsFrom(settings);
+        } catch (InvalidSettingsException ex) {
+            // Older versions send one request at a time
+            m_maxConcurrentRequestsModel.setIntValue(1);
+        }
+        try {
+            m_cacheResultsModel.loadSettingsFrom(settings);
+        } catch (InvalidSettingsException ex) {
+            // Older versions always recognize the audio files again
+            m_cacheResultsModel.setBooleanValue(false);
+        }
+        try {
+            m_skipNonSpeechModel.loadSettingsFrom(settings);
+        } catch (InvalidSettingsException ex) {
+            // Older versions always recognize the whole audio
+            m_skipNonSpeechModel.setBooleanValue(false);
+        }
     }
 
     /**
@@ -143,6 +207,15 @@ public class MSSpeechRecognizerNodeModel extends NodeModel {
         m_scenarioModel.validateSettings(settings);
         m_maxNBestModel.validateSettings(settings);
         m_profinityMarkupModel.validateSettings(settings);
+        if (settings.containsKey(CFG_MAX_CONCURRENT_REQUESTS)) {
+            m_maxConcurrentRequestsModel.validateSettings(settings);
+        }
+        if (settings.containsKey(CFG_CACHE_RESULTS)) {
+            m_cacheResultsModel.validateSettings(settings);
+        }
+        if (settings.containsKey(CFG_SKIP_NON_SPEECH)) {
+            m_skipNonSpeechModel.validateSettings(settings);
+        }
     }
 
     /**
@@ -165,10 +238,23 @@ public class MSSpeechRecognizerNodeModel extends NodeModel {
         // TODO: generated method stub
     }
 
+    private void configureRecognizer(){
+        m_recognizer.setSubscriptionKey(m_subscriptionKeyModel.getStringValue());
+        m_recognizer.setLanguage(m_audioLanguageModel.getStringValue());
+        m_recognizer.setScenario(m_scenarioModel.getStringValue());
+        m_recognizer.setMaxNBest(m_maxNBestModel.getIntValue());
+        m_recognizer.setProfanityMarkup(m_profinityMarkupModel.getIntValue());
+        m_recognizer.setVoiceActivityDetector(
+            m_skipNonSpeechModel.getBooleanValue() ? new VoiceActivityDetector() : null);
+    }
+
     private ColumnRearranger createColumnRearranger(final DataTableSpec inSpec){
         final ColumnRearranger rearranger = new ColumnRearranger(inSpec);
         final int colIdx = m_audioColumnSelection.getSelectedColumnIndex();
-        rearranger.replace(new SingleCellFactory(inSpec.getColumnSpec(colIdx)) {
+        final boolean cacheResults = m_cacheResultsModel.getBooleanValue();
+        final int nRequests = m_maxConcurrentRequestsModel.getIntValue();
+        rearranger.replace(new SingleCellFactory(nRequests > 1, nRequests,
+                MAX_QUEUE_SIZE_PER_REQUEST * nRequests, inSpec.getColumnSpec(colIdx)) {
 
             @Override
             public DataCell getCell(final DataRow row) {
@@ -176,7 +262,9 @@ public class MSSpeechRecognizerNodeModel extends NodeModel {
                 if(!cell.isMissing()){
                     try{
                         final KNAudio newAudio = cell.getAudio().clone();
-                        final RecognitionResult result = m_recognizer.recognize(newAudio);
+                        final RecognitionResult result = cacheResults
+                            ? RecognitionResultCache.getDefault().recognize(m_recognizer, newAudio)
+                            : m_recognizer.recognize(newAudio);
                         newAudio.addRecognitionResult(result);
                         cell = new AudioCell(newAudio);
                     } catch(Exception ex){
@@ -211,5 +299,17 @@ public class MSSpeechRecognizerNodeModel extends NodeModel {
             MSSpeechRecognizer.DEFAULT_PROFANITY_MARKUP, 0, 1);
     }
 
+    static SettingsModelIntegerBounded createMaxConcurrentRequestsSettingsModel(){
+        return new SettingsModelIntegerBounded(CFG_MAX_CONCURRENT_REQUESTS, 4, 1, 64);
+    }
+
+    static SettingsModelBoolean createCacheResultsSettingsModel() {
+        return new SettingsModelBoolean(CFG_CACHE_RESULTS, true);
+    }
+
+    static SettingsModelBoolean createSkipNonSpeechSettingsModel() {
+        return new SettingsModelBoolean(CFG_SKIP_NON_SPEECH, false);
+    }
+
 }
 
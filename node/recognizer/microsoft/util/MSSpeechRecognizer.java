@@ -49,11 +49,13 @@
 package org.knime.base.node.audio.node.recognizer.microsoft.util;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.InputStream;
+import java.util.List;
 import java.util.UUID;
 
+import javax.ws.rs.ProcessingException;
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.Entity;
@@ -66,13 +68,23 @@ import javax.ws.rs.core.Response.Status.Family;
 import javax.ws.rs.core.UriBuilder;
 
 import org.apache.commons.lang.StringUtils;
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.RequestEntityProcessing;
 import org.glassfish.jersey.jackson.JacksonFeature;
 import org.knime.base.node.audio.data.KNAudio;
 import org.knime.base.node.audio.data.recognizer.RecognitionResult;
 import org.knime.base.node.audio.data.recognizer.Recognizer;
+import org.knime.base.node.audio.data.recognizer.RetryPolicy;
+import org.knime.base.node.audio.data.vad.SpeechRegion;
+import org.knime.base.node.audio.data.vad.VoiceActivityDetector;
+import org.knime.base.node.audio.util.TranscodingAudioInputStream;
 import org.knime.core.node.NodeLogger;
 
 /**
+ * Recognizer using the Microsoft Bing Speech API. All recognizers share one
+ * HTTP client and each recognizer caches its access token, hence a recognizer
+ * can be used by several threads at the same time. Requests which fail because
+ * the service is overloaded or unavailable are retried.
  *
  * @author Budi Yanto, KNIME.com
  */
@@ -93,16 +105,19 @@ public class MSSpeechRecognizer implements Recognizer{
     public static final int DEFAULT_PROFANITY_MARKUP = 1;
 
     // Data needed for authentication to get the access token from Microsoft
-    private static final String ACCESS_URI = "https://oxford-speech.cloudapp.net/token/issueToken";
+    /** The default URI to retrieve the access token from */
+    public static final String ACCESS_URI = "https://oxford-speech.cloudapp.net/token/issueToken";
     private static final String GRANT_TYPE = "client_credentials";
     private static final String CLIENT_ID = "microsoft-cognitive-service-speechapi";
     private static final String SCOPE = "https://speech.platform.bing.com";
 
     // Data needed for recognition
-    private static final String HOST = "https://speech.platform.bing.com/recognize/query";
+    /** The default URI of the recognition service */
+    public static final String HOST = "https://speech.platform.bing.com/recognize/query";
     private static final String VERSION = "3.0";
     private static final String APP_ID = "D4D52672-91D7-4C74-8AD8-42B1D98141A5";
     private static final String FORMAT = "json";
+    private static final String CONTENT_TYPE = "audio/wav; codec=\"audio/pcm\"; samplerate=16000";
     private static final String DEVICE_OS = "Linux";
     private final String INSTANCE_ID = UUID.randomUUID().toString();
 
@@ -112,6 +127,14 @@ public class MSSpeechRecognizer implements Recognizer{
     private int m_maxNBest;
     private int m_profanityMarkup;
 
+    private String m_accessUri = ACCESS_URI;
+    private String m_host = HOST;
+    private RetryPolicy m_retryPolicy = RetryPolicy.DEFAULT;
+    private VoiceActivityDetector m_voiceActivityDetector = null;
+
+    /** The client shared by all recognizers, it is thread-safe and reuses its connections */
+    private static Client client;
+
     private AccessTokenInfo m_accessToken = null;
 
     /**
@@ -193,7 +216,11 @@ public class MSSpeechRecognizer implements Recognizer{
     /**
      * @param subscriptionKey the subscriptionKey to set
      */
-    public void setSubscriptionKey(final String subscriptionKey) {
+    public synchronized void setSubscriptionKey(final String subscriptionKey) {
+        if(!StringUtils.equals(m_subscriptionKey, subscriptionKey)){
+            // The cached token belongs to the old key
+            m_accessToken = null;
+        }
         m_subscriptionKey = subscriptionKey;
     }
 
@@ -261,42 +288,110 @@ public class MSSpeechRecognizer implements Recognizer{
         m_profanityMarkup = profanityMarkup;
     }
 
-    private boolean authenticate(){
-        if(m_accessToken == null || m_accessToken.isExpired()){
+    /**
+     * Sets the URIs of the services, e.g. to use a local server for testing.
+     *
+     * @param accessUri the URI to retrieve the access token from
+     * @param host the URI of the recognition service
+     */
+    public synchronized void setServiceUris(final String accessUri, final String host) {
+        m_accessUri = accessUri;
+        m_host = host;
+        m_accessToken = null;
+    }
+
+    /**
+     * @param retryPolicy the policy to retry failed requests
+     */
+    public void setRetryPolicy(final RetryPolicy retryPolicy) {
+        m_retryPolicy = retryPolicy;
+    }
+
+    /**
+     * @param detector the detector of the speech regions, only these regions
+     *            are sent to the service, <code>null</code> to send the whole audio
+     */
+    public synchronized void setVoiceActivityDetector(final VoiceActivityDetector detector) {
+        m_voiceActivityDetector = detector;
+    }
+
+    private static synchronized Client getClient(){
+        if(client == null){
+            client = ClientBuilder.newBuilder()
+                    .register(JacksonFeature.class)
+                    // Stream the audio instead of buffering it to compute the length
+                    .property(ClientProperties.REQUEST_ENTITY_PROCESSING,
+                        RequestEntityProcessing.CHUNKED)
+                    .build();
+        }
+        return client;
+    }
+
+    /**
+     * Returns the cached access token, a new token is retrieved if there is
+     * none or it is expired. Concurrent callers wait for the same token.
+     *
+     * @param invalidate <code>true</code> if the cached token has been rejected
+     *            and a new token must be retrieved
+     * @return the access token, <code>null</code> if it couldn't be retrieved
+     */
+    private synchronized String getAccessToken(final boolean invalidate){
+        if(invalidate || m_accessToken == null || m_accessToken.isExpired()){
+            m_accessToken = null;
             final Form form = new Form();
             form.param("grant_type", GRANT_TYPE);
             form.param("client_id", CLIENT_ID);
             form.param("client_secret", m_subscriptionKey);
             form.param("scope", SCOPE);
 
-            final Client client = ClientBuilder.newBuilder()
-                    .register(JacksonFeature.class)
-                    .build();
-//            client.register(new LoggingFilter());
             LOGGER.info("Retrieve access token from Microsoft.");
-            LOGGER.info("Access URI: " + ACCESS_URI);
-            final Response response = client.target(ACCESS_URI)
-                    .request(MediaType.APPLICATION_JSON_TYPE)
-                    .post(Entity.entity(form, MediaType.APPLICATION_FORM_URLENCODED_TYPE));
-            if(response.getStatusInfo().getFamily() == Family.SUCCESSFUL){
-                LOGGER.info("Successfully retrieved access token");
-                m_accessToken = response.readEntity(AccessTokenInfo.class);
-                return true;
-            }else{
-                LOGGER.error("Cannot retrieved access token - Status " + response.getStatus());
-                LOGGER.error("Info: " + response.getStatusInfo());
-                m_accessToken = null;
+            LOGGER.debug("Access URI: " + m_accessUri);
+            for(int attempt = 0; m_accessToken == null; attempt++){
+                String retryAfter = null;
+                Response response = null;
+                try{
+                    response = getClient().target(m_accessUri)
+                            .request(MediaType.APPLICATION_JSON_TYPE)
+                            .post(Entity.entity(form, MediaType.APPLICATION_FORM_URLENCODED_TYPE));
+                    if(response.getStatusInfo().getFamily() == Family.SUCCESSFUL){
+                        LOGGER.info("Successfully retrieved access token");
+                        m_accessToken = response.readEntity(AccessTokenInfo.class);
+                    }else if(!RetryPolicy.isRetryable(response.getStatus())
+                            || !m_retryPolicy.canRetry(attempt)){
+                        LOGGER.error("Cannot retrieved access token - Status " + response.getStatus());
+                        LOGGER.error("Info: " + response.getStatusInfo());
+                        return null;
+                    }
+                    retryAfter = response.getHeaderString(HttpHeaders.RETRY_AFTER);
+                } catch(ProcessingException ex){
+                    // The service couldn't be reached or the response couldn't be read
+                    if(!m_retryPolicy.canRetry(attempt)){
+                        LOGGER.error("Cannot retrieved access token: " + ex.getMessage(), ex);
+                        return null;
+                    }
+                } finally{
+                    if(response != null){
+                        response.close();
+                    }
+                }
+                if(m_accessToken == null && !backoff(attempt, retryAfter)){
+                    return null;
+                }
             }
         }
+        return m_accessToken.getAccess_token();
+    }
 
-        if(!m_accessToken.isExpired()){
+    private boolean backoff(final int attempt, final String retryAfter){
+        try{
+            m_retryPolicy.backoff(attempt, retryAfter);
             return true;
+        } catch(InterruptedException ex){
+            Thread.currentThread().interrupt();
+            return false;
         }
-
-        return false;
     }
 
-
     /**
      * @return all supported languages of the recognizer in UTF-8 format
      */
@@ -325,6 +420,16 @@ public class MSSpeechRecognizer implements Recognizer{
         return "Microsoft Bing Speech";
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized String getConfigurationKey() {
+        return getName() + "|" + m_host + "|" + m_language + "|" + m_scenario
+                + "|" + m_maxNBest + "|" + m_profanityMarkup
+                + (m_voiceActivityDetector == null ? "" : "|" + m_voiceActivityDetector.getConfigurationKey());
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -334,51 +439,128 @@ public class MSSpeechRecognizer implements Recognizer{
             throw new NullPointerException("Subscription key must be set.");
         }
 
-        RecognitionResult result = null;
-
-        if(authenticate()){
-            // Start recognition
-            final String authToken = "Bearer " + m_accessToken.getAccess_token();
-            final String requestId = UUID.randomUUID().toString();
-
-            final Client client = ClientBuilder.newClient();
-//            client.register(new LoggingFilter());
-
-            final String endPoint = UriBuilder.fromPath(HOST)
-                    .queryParam("scenarios", m_scenario)
-                    .queryParam("appid", APP_ID)
-                    .queryParam("locale", m_language)
-                    .queryParam("device.os", DEVICE_OS)
-                    .queryParam("version", VERSION)
-                    .queryParam("format", FORMAT)
-                    .queryParam("instanceid", INSTANCE_ID)
-                    .queryParam("requestid", requestId)
-                    .queryParam("maxnbest", m_maxNBest)
-                    .queryParam("result.profanitymarkup", m_profanityMarkup)
-                    .toString();
-
-            LOGGER.info("Start recognition using Microsoft Congitive Service - Speech API");
-            LOGGER.info("End-Point: " + endPoint);
-
-            final Invocation.Builder builder = client.target(endPoint).request();
-            builder.header(HttpHeaders.AUTHORIZATION, authToken);
-
-            final InputStream stream = new FileInputStream(new File(audio.getFilePath()));
-            Response response = builder.post(Entity.entity(stream, "audio/wav; samplerate=16000"));
-
-            if(response.getStatusInfo().getFamily() == Family.SUCCESSFUL){
-                LOGGER.info("Successfully recognized audio file.");
-                final MSRecognitionResponse responseResult = response.readEntity(
-                    MSRecognitionResponse.class);
-                Result res = responseResult.getResults().get(0);
-                result = new RecognitionResult(getName(), res.getLexical(), res.getConfidence());
-            }else{
-                LOGGER.error("Cannot recognized audio file - Status " + response.getStatus());
-                LOGGER.error("Info: " + response.getStatusInfo());
+        final File file = new File(audio.getFilePath());
+        if(!file.isFile()){
+            throw new FileNotFoundException("Audio file " + file + " doesn't exist.");
+        }
+        if(!TranscodingAudioInputStream.isSupported(audio.getFormat())){
+            // The service only accepts the converted format
+            LOGGER.error("Cannot recognize audio file " + file.getName()
+                + ": only PCM audio with 8, 16, 24 or 32 bits can be sent.");
+            return null;
+        }
+
+        final List<SpeechRegion> regions;
+        try{
+            regions = detectSpeech(audio);
+        } catch(IOException ex){
+            LOGGER.error("Cannot read audio file " + file.getName() + ": " + ex.getMessage(), ex);
+            return null;
+        }
+        if(regions != null && regions.isEmpty()){
+            LOGGER.debug("No speech detected in audio file " + file.getName());
+            return new RecognitionResult(getName(), "");
+        }
+
+        boolean invalidateToken = false;
+        for(int attempt = 0; ; attempt++){
+            final String accessToken = getAccessToken(invalidateToken);
+            if(accessToken == null){
+                return null;
+            }
+            invalidateToken = false;
+
+            String retryAfter = null;
+            Response response = null;
+            try(final InputStream stream = openStream(audio, regions)){
+                response = createRequest(accessToken).post(
+                    Entity.entity(stream, CONTENT_TYPE));
+                final int status = response.getStatus();
+                if(response.getStatusInfo().getFamily() == Family.SUCCESSFUL){
+                    LOGGER.debug("Successfully recognized audio file.");
+                    final MSRecognitionResponse responseResult = response.readEntity(
+                        MSRecognitionResponse.class);
+                    if(responseResult.getResults() == null || responseResult.getResults().isEmpty()){
+                        LOGGER.warn("No result for audio file " + file.getName());
+                        return null;
+                    }
+                    final Result res = responseResult.getResults().get(0);
+                    return new RecognitionResult(getName(), res.getLexical(), res.getConfidence());
+                }
+                if(status == 401 && attempt == 0){
+                    // The token might have been revoked, retry once with a new one
+                    invalidateToken = true;
+                }else if(!RetryPolicy.isRetryable(status) || !m_retryPolicy.canRetry(attempt)){
+                    LOGGER.error("Cannot recognized audio file - Status " + status);
+                    LOGGER.error("Info: " + response.getStatusInfo());
+                    return null;
+                }
+                retryAfter = response.getHeaderString(HttpHeaders.RETRY_AFTER);
+            } catch(ProcessingException ex){
+                if(!m_retryPolicy.canRetry(attempt)){
+                    LOGGER.error("Cannot recognized audio file: " + ex.getMessage(), ex);
+                    return null;
+                }
+            } catch(FileNotFoundException ex){
+                throw ex;
+            } catch(IOException ex){
+                LOGGER.error("Cannot read audio file " + file.getName() + ": " + ex.getMessage(), ex);
+                return null;
+            } finally{
+                if(response != null){
+                    response.close();
+                }
             }
+
+            LOGGER.debug("Retry recognition of " + file.getName() + ", attempt " + (attempt + 1));
+            if(!invalidateToken && !backoff(attempt, retryAfter)){
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Returns the speech regions of the given audio, or <code>null</code> if
+     * no detector is set and the audio is hence sent as a whole.
+     */
+    private List<SpeechRegion> detectSpeech(final KNAudio audio) throws IOException{
+        final VoiceActivityDetector detector;
+        synchronized(this){
+            detector = m_voiceActivityDetector;
         }
+        if(detector == null){
+            return null;
+        }
+        return detector.detect(audio);
+    }
+
+    /**
+     * Opens the audio converted to 16 kHz mono WAV on the fly, the service
+     * only accepts this format. If regions are given, only these are sent.
+     */
+    private static InputStream openStream(final KNAudio audio,
+            final List<SpeechRegion> regions) throws IOException{
+        return new TranscodingAudioInputStream(audio, true, regions);
+    }
 
-        return result;
+    private Invocation.Builder createRequest(final String accessToken){
+        final String endPoint = UriBuilder.fromPath(m_host)
+                .queryParam("scenarios", m_scenario)
+                .queryParam("appid", APP_ID)
+                .queryParam("locale", m_language)
+                .queryParam("device.os", DEVICE_OS)
+                .queryParam("version", VERSION)
+                .queryParam("format", FORMAT)
+                .queryParam("instanceid", INSTANCE_ID)
+                .queryParam("requestid", UUID.randomUUID().toString())
+                .queryParam("maxnbest", m_maxNBest)
+                .queryParam("result.profanitymarkup", m_profanityMarkup)
+                .toString();
+        LOGGER.debug("End-Point: " + endPoint);
+
+        final Invocation.Builder builder = getClient().target(endPoint).request();
+        builder.header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken);
+        return builder;
     }
 
 }
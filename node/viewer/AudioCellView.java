@@ -53,6 +53,7 @@ import java.awt.Dimension;
 import java.awt.GridLayout;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
 
 import javax.sound.sampled.AudioFormat;
 import javax.swing.BorderFactory;
@@ -67,6 +68,7 @@ import javax.swing.JTabbedPane;
 import javax.swing.JTable;
 import javax.swing.JTree;
 import javax.swing.ListSelectionModel;
+import javax.swing.SwingWorker;
 import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
 import javax.swing.table.DefaultTableModel;
@@ -76,14 +78,17 @@ import javax.swing.tree.DefaultTreeCellRenderer;
 import org.jfree.chart.ChartFactory;
 import org.jfree.chart.ChartPanel;
 import org.jfree.chart.JFreeChart;
+import org.jfree.chart.axis.ValueAxis;
+import org.jfree.chart.event.AxisChangeEvent;
+import org.jfree.chart.event.AxisChangeListener;
 import org.jfree.data.xy.XYSeries;
 import org.jfree.data.xy.XYSeriesCollection;
 import org.knime.base.node.audio.data.KNAudio;
+import org.knime.base.node.audio.data.WaveformPyramid;
 import org.knime.base.node.audio.data.feature.FeatureType;
 import org.knime.base.node.audio.data.recognizer.RecognitionResult;
 import org.knime.base.node.audio.data.recognizer.RecognizerInfo;
 import org.knime.base.node.audio.ext.org.openimaj.feature.DoubleFV;
-import org.knime.base.node.audio.util.AudioUtils;
 import org.knime.core.node.NodeLogger;
 
 /**
@@ -99,6 +104,9 @@ class AudioCellView extends JPanel{
 
     private static final NodeLogger LOGGER = NodeLogger.getLogger(AudioCellView.class);
 
+    /** The minimum number of bins shown in a wave chart */
+    private static final int WAVE_BINS = 1000;
+
     private final KNAudio m_audio;
 
     AudioCellView(final KNAudio audio){
@@ -126,40 +134,170 @@ class AudioCellView extends JPanel{
         return splitPane;
     }
 
+    /**
+     * Creates the panel of the wave charts. The pyramid of the audio is
+     * computed in the background, a placeholder is shown until it's ready.
+     */
     private JPanel createAudioWavePanel(){
 
         final JPanel panel = new JPanel();
         panel.setLayout(new BoxLayout(panel, BoxLayout.PAGE_AXIS));
 //        panel.setPreferredSize(new Dimension(600, 300));
         panel.setBorder(BorderFactory.createTitledBorder("Audio Wave"));
-        try{
-            final double[][] samples = AudioUtils.getSamples(m_audio);
-            final double[] yData = AudioUtils.getSamplesMixedDownIntoOneChannel(m_audio);
-
-            for(int channel = 0; channel < samples.length; channel++){
-                final XYSeriesCollection dataset = new XYSeriesCollection();
-                final XYSeries series = new XYSeries("Audio Wave");
-//                series.
-                for(int i = 0; i < samples[channel].length; i++){
-                    series.add(i, samples[channel][i]);
-                }
-                dataset.addSeries(series);
-                JFreeChart chart = ChartFactory.createXYLineChart(
-                    "Channel " + (channel + 1), "Sample", "Value", dataset);
-                chart.removeLegend();
-                final JPanel chartPanel = new ChartPanel(chart);
-                panel.add(chartPanel);
+        panel.add(new JLabel("Computing audio wave..."));
+
+        new SwingWorker<WaveformPyramid, Void>() {
+
+            /**
+             * {@inheritDoc}
+             */
+            @Override
+            protected WaveformPyramid doInBackground() throws Exception {
+                return WaveformPyramid.get(m_audio);
             }
 
-        } catch(Exception ex){
-            panel.add(new JLabel("Error generating audio wave panel for: "
-                    + m_audio.getName()));
-            LOGGER.error(ex.getMessage());
-        }
+            /**
+             * {@inheritDoc}
+             */
+            @Override
+            protected void done() {
+                panel.removeAll();
+                try{
+                    final WaveformPyramid pyramid = get();
+                    for(int channel = 0; channel < pyramid.getNumberOfChannels(); channel++){
+                        panel.add(createChannelWavePanel(pyramid, channel));
+                    }
+                } catch(ExecutionException ex){
+                    panel.add(new JLabel("Error generating audio wave panel for: "
+                            + m_audio.getName()));
+                    LOGGER.error(ex.getCause().getMessage());
+                } catch(InterruptedException ex){
+                    // Can't happen, the computation is done
+                    Thread.currentThread().interrupt();
+                }
+                panel.revalidate();
+                panel.repaint();
+            }
+        }.execute();
 
         return panel;
     }
 
+    /**
+     * Creates the chart of one channel. The chart shows the minimum, maximum
+     * and RMS of the samples per bin instead of the samples themselves, and
+     * the bins are recomputed at the resolution of the visible range whenever
+     * the chart is zoomed. The bins are computed in the background since they
+     * may be read from the file, only the latest zoom level is shown.
+     */
+    private ChartPanel createChannelWavePanel(final WaveformPyramid pyramid, final int channel){
+        final XYSeries maxSeries = new XYSeries("Maximum");
+        final XYSeries minSeries = new XYSeries("Minimum");
+        final XYSeries rmsSeries = new XYSeries("RMS");
+        final XYSeries negRmsSeries = new XYSeries("-RMS");
+        final XYSeriesCollection dataset = new XYSeriesCollection();
+        dataset.addSeries(maxSeries);
+        dataset.addSeries(minSeries);
+        dataset.addSeries(rmsSeries);
+        dataset.addSeries(negRmsSeries);
+        final JFreeChart chart = ChartFactory.createXYLineChart(
+            "Channel " + (channel + 1), "Sample", "Value", dataset);
+        chart.removeLegend();
+
+        final long nFrames = pyramid.getNumberOfFrames();
+        final ChartPanel chartPanel = new ChartPanel(chart){
+
+            private static final long serialVersionUID = 1L;
+
+            /**
+             * {@inheritDoc}
+             */
+            @Override
+            public void restoreAutoDomainBounds() {
+                // The dataset only covers the visible range, hence zoom out to the whole audio
+                chart.getXYPlot().getDomainAxis().setRange(0, Math.max(1, nFrames));
+            }
+        };
+        chartPanel.setMouseWheelEnabled(true);
+
+        final ValueAxis domainAxis = chart.getXYPlot().getDomainAxis();
+        domainAxis.addChangeListener(new AxisChangeListener() {
+
+            /** The computation of the bins of the latest range */
+            private SwingWorker<WaveformPyramid.Summary, Void> m_worker = null;
+
+            @Override
+            public void axisChanged(final AxisChangeEvent event) {
+                final int nBins = Math.max(WAVE_BINS, chartPanel.getWidth());
+                final long startFrame = (long)Math.floor(domainAxis.getLowerBound());
+                final long endFrame = (long)Math.ceil(domainAxis.getUpperBound());
+                if(m_worker != null){
+                    // The result of the previous range isn't needed anymore
+                    m_worker.cancel(false);
+                }
+                m_worker = new SwingWorker<WaveformPyramid.Summary, Void>() {
+
+                    /**
+                     * {@inheritDoc}
+                     */
+                    @Override
+                    protected WaveformPyramid.Summary doInBackground() throws Exception {
+                        return pyramid.summarize(channel, startFrame, endFrame, nBins);
+                    }
+
+                    /**
+                     * {@inheritDoc}
+                     */
+                    @Override
+                    protected void done() {
+                        if(isCancelled()){
+                            return;
+                        }
+                        try{
+                            updateWaveSeries(get(), maxSeries, minSeries, rmsSeries, negRmsSeries);
+                        } catch(ExecutionException ex){
+                            LOGGER.error(ex.getCause().getMessage());
+                        } catch(InterruptedException ex){
+                            // Can't happen, the computation is done
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                };
+                m_worker.execute();
+            }
+        });
+        // Fixes the domain to the whole audio and computes the first summary
+        domainAxis.setRange(0, Math.max(1, nFrames));
+        return chartPanel;
+    }
+
+    /**
+     * Replaces the values of the series by the bins of the summary.
+     */
+    private static void updateWaveSeries(final WaveformPyramid.Summary summary,
+            final XYSeries maxSeries, final XYSeries minSeries, final XYSeries rmsSeries,
+            final XYSeries negRmsSeries){
+        maxSeries.setNotify(false);
+        minSeries.setNotify(false);
+        rmsSeries.setNotify(false);
+        negRmsSeries.setNotify(false);
+        maxSeries.clear();
+        minSeries.clear();
+        rmsSeries.clear();
+        negRmsSeries.clear();
+        for(int b = 0; b < summary.getNumberOfBins(); b++){
+            final double x = summary.getCenterFrame(b);
+            maxSeries.add(x, summary.getMax()[b], false);
+            minSeries.add(x, summary.getMin()[b], false);
+            rmsSeries.add(x, summary.getRms()[b], false);
+            negRmsSeries.add(x, -summary.getRms()[b], false);
+        }
+        maxSeries.setNotify(true);
+        minSeries.setNotify(true);
+        rmsSeries.setNotify(true);
+        negRmsSeries.setNotify(true);
+    }
+
     private JPanel createAudioInfoPanel(){
         final JPanel panel = new JPanel();
         panel.setLayout(new BorderLayout());
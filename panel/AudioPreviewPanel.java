@@ -341,7 +341,6 @@ public class AudioPreviewPanel extends JPanel{
                         final int normalBytes = AudioUtils.normalizeBytesFromBits(audioFormat.getSampleSizeInBits());
 
                         float[] samples = new float[AudioUtils.DEF_BUFFER_SAMPLE_SZ * audioFormat.getChannels()];
-                        long[] transfer = new long[samples.length];
                         byte[] bytes = new byte[samples.length * normalBytes];
 
                         out.open(audioFormat, bytes.length);
@@ -367,7 +366,7 @@ public class AudioPreviewPanel extends JPanel{
                                     break play_loop; // eof
                                 }
 
-                                samples = AudioUtils.unpack(bytes, transfer, samples, bread, audioFormat);
+                                samples = AudioUtils.unpack(bytes, samples, bread, audioFormat);
                                 samples = AudioUtils.window(samples, bread / normalBytes, audioFormat);
 
                                 playerRef.drawDisplay(samples, bread / normalBytes);
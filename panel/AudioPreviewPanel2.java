@@ -196,11 +196,10 @@ public class AudioPreviewPanel2 extends JPanel{
         public void beforePlay(final SampleChunk sc) {
             final int nChannels = sc.getFormat().getNumChannels();
             float[] samples = new float[AudioUtils.DEF_BUFFER_SAMPLE_SZ * nChannels];
-            long[] transfer = new long[samples.length];
             final int normalBytes = AudioUtils.normalizeBytesFromBits(sc.getFormat().getNBits());
             final int bread = sc.getSamples().length;
             final AudioFormat javaAudioFormat = sc.getFormat().getJavaAudioFormat();
-            samples = AudioUtils.unpack(sc.getSamples(), transfer, samples, bread, javaAudioFormat);
+            samples = AudioUtils.unpack(sc.getSamples(), samples, bread, javaAudioFormat);
             samples = AudioUtils.window(samples, bread / normalBytes, javaAudioFormat);
 
             m_panel.makePath(nChannels, samples, bread / normalBytes);
@@ -48,29 +48,42 @@
  */
 package org.knime.base.node.audio.util;
 
-import java.io.File;
 import java.io.IOException;
+import java.nio.FloatBuffer;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinPool.ForkJoinWorkerThreadFactory;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.sound.sampled.AudioFormat;
-import javax.sound.sampled.AudioInputStream;
-import javax.sound.sampled.AudioSystem;
 import javax.sound.sampled.UnsupportedAudioFileException;
 import javax.swing.JOptionPane;
 
+import org.knime.base.node.audio.data.DecodedAudio;
+import org.knime.base.node.audio.data.DecodedAudioCache;
+import org.knime.base.node.audio.data.DecodedAudioCache.Layout;
 import org.knime.base.node.audio.data.KNAudio;
 import org.knime.base.node.audio.data.feature.FeatureType;
-import org.knime.base.node.audio.data.feature.aggregator.Mean;
+import org.knime.base.node.audio.data.feature.aggregator.Aggregator;
+import org.knime.base.node.audio.data.feature.aggregator.AggregatorType;
 import org.knime.base.node.audio.data.feature.extractor.FeatureExtractor;
+import org.knime.base.node.audio.data.feature.extractor.FeatureExtractorGraph;
+import org.knime.base.node.audio.data.node.FeatureMatrixCell;
+import org.knime.base.node.audio.data.vad.SpeechRegion;
+import org.knime.base.node.audio.ext.org.openimaj.audio.AudioStream;
+import org.knime.base.node.audio.ext.org.openimaj.audio.SampleChunk;
+import org.knime.base.node.audio.ext.org.openimaj.audio.processor.FixedSizeSampleAudioProcessor;
 import org.knime.core.node.NodeLogger;
 
-import jAudioFeatureExtractor.jAudioTools.AudioMethods;
-import jAudioFeatureExtractor.jAudioTools.DSPMethods;
-
 /**
  * The code is mainly based on
  * https://github.com/Radiodef/WaveformDemo/blob/master/waveformdemo/WaveformDemo.java
@@ -97,7 +110,32 @@ public final class AudioUtils {
     public static final int DEF_BUFFER_SAMPLE_SZ = 1024;
 
     /** Default window size **/
-    private static int DEFAULT_WINDOW_SIZE = 512;
+    public static final int DEFAULT_WINDOW_SIZE = 512;
+
+    /** The minimum number of sample frames of an audio file processed by one fork-join task */
+    private static final int MIN_FRAMES_PER_TASK = 1 << 19;
+
+    /** The number of extractions currently processing an audio in one pass */
+    private static final AtomicInteger SINGLE_PASSES = new AtomicInteger();
+
+    /**
+     * The pool processing the ranges of long audio files. It has its own
+     * threads, so the blocking file I/O of the ranges doesn't occupy the
+     * common pool.
+     */
+    private static final ForkJoinPool FORK_JOIN_POOL = new ForkJoinPool(
+        Runtime.getRuntime().availableProcessors(), new ForkJoinWorkerThreadFactory() {
+            @Override
+            public ForkJoinWorkerThread newThread(final ForkJoinPool pool) {
+                final ForkJoinWorkerThread thread =
+                        ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("Audio feature extractor " + thread.getPoolIndex());
+                thread.setDaemon(true);
+                return thread;
+            }
+        }, null, false);
+
+    private static final AggregatorType[] MEAN_ONLY = new AggregatorType[]{AggregatorType.MEAN};
 
     /**
      * Normalizes bytes from bits.
@@ -128,130 +166,31 @@ public final class AudioUtils {
     }
 
     /**
+     * Decodes the given PCM bytes into normalized samples in the range of -1.0
+     * to 1.0. Formats other than signed or unsigned PCM are not decoded.
      *
-     * @param bytes
-     * @param transfer
-     * @param samples
-     * @param bvalid
-     * @param fmt
+     * @param bytes the PCM encoded bytes
+     * @param samples the array to store the decoded samples
+     * @param bvalid the number of valid bytes
+     * @param fmt the format of the bytes
      * @return samples
      */
-    public static float[] unpack(final byte[] bytes, final long[] transfer,
-            final float[] samples, final int bvalid, final AudioFormat fmt) {
+    public static float[] unpack(final byte[] bytes, final float[] samples, final int bvalid,
+            final AudioFormat fmt) {
         if(fmt.getEncoding() != AudioFormat.Encoding.PCM_SIGNED
                 && fmt.getEncoding() != AudioFormat.Encoding.PCM_UNSIGNED) {
             return samples;
         }
 
-        final int bitsPerSample = fmt.getSampleSizeInBits();
-        final int normalBytes = normalizeBytesFromBits(bitsPerSample);
-
-        /*
-         * not the most DRY way to do this but it's a bit more efficient.
-         * otherwise there would either have to be 4 separate methods for
-         * each combination of endianness/signedness or do it all in one
-         * loop and check the format for each sample.
-         *
-         * a helper array (transfer) allows the logic to be split up
-         * but without being too repetetive.
-         *
-         * here there are two loops converting bytes to raw long samples.
-         * integral primitives in Java get sign extended when they are
-         * promoted to a larger type so the & 0xffL mask keeps them intact.
-         *
-         */
+        final org.knime.base.node.audio.ext.org.openimaj.audio.AudioFormat format =
+                new org.knime.base.node.audio.ext.org.openimaj.audio.AudioFormat(
+                    fmt.getSampleSizeInBits(), fmt.getSampleRate() / 1000, fmt.getChannels());
+        format.setSigned(fmt.getEncoding() == AudioFormat.Encoding.PCM_SIGNED);
+        format.setBigEndian(fmt.isBigEndian());
 
-        if(fmt.isBigEndian()) {
-            for(int i = 0, k = 0, b; i < bvalid; i += normalBytes, k++) {
-                transfer[k] = 0L;
-
-                int least = i + normalBytes - 1;
-                for(b = 0; b < normalBytes; b++) {
-                    transfer[k] |= (bytes[least - b] & 0xffL) << (8 * b);
-                }
-            }
-        } else {
-            for(int i = 0, k = 0, b; i < bvalid; i += normalBytes, k++) {
-                transfer[k] = 0L;
-
-                for(b = 0; b < normalBytes; b++) {
-                    transfer[k] |= (bytes[i + b] & 0xffL) << (8 * b);
-                }
-            }
-        }
-
-        final long fullScale = (long)Math.pow(2.0, bitsPerSample - 1);
-
-        /*
-         * the OR is not quite enough to convert,
-         * the signage needs to be corrected.
-         *
-         */
-
-        if(fmt.getEncoding() == AudioFormat.Encoding.PCM_SIGNED) {
-
-            /*
-             * if the samples were signed, they must be
-             * extended to the 64-bit long.
-             *
-             * the arithmetic right shift in Java  will fill
-             * the left bits with 1's if the MSB is set.
-             *
-             * so sign extend by first shifting left so that
-             * if the sample is supposed to be negative,
-             * it will shift the sign bit in to the 64-bit MSB
-             * then shift back and fill with 1's.
-             *
-             * as an example, imagining these were 4-bit samples originally
-             * and the destination is 8-bit, if we have a hypothetical
-             * sample -5 that ought to be negative, the left shift looks
-             * like this:
-             *
-             *     00001011
-             *  <<  (8 - 4)
-             *  ===========
-             *     10110000
-             *
-             * (except the destination is 64-bit and the original
-             * bit depth from the file could be anything.)
-             *
-             * and the right shift now fills with 1's:
-             *
-             *     10110000
-             *  >>  (8 - 4)
-             *  ===========
-             *     11111011
-             *
-             */
-
-            final long signShift = 64L - bitsPerSample;
-
-            for(int i = 0; i < transfer.length; i++) {
-                transfer[i] = (
-                        (transfer[i] << signShift) >> signShift
-                        );
-            }
-        } else {
-            /*
-             * unsigned samples are easier since they
-             * will be read correctly in to the long.
-             *
-             * so just sign them:
-             * subtract 2^(bits - 1) so the center is 0.
-             *
-             */
-
-            for(int i = 0; i < transfer.length; i++) {
-                transfer[i] -= fullScale;
-            }
-        }
-        /* finally normalize to range of -1.0f to 1.0f */
-
-        for(int i = 0; i < transfer.length; i++) {
-            samples[i] = (float)transfer[i] / (float)fullScale;
-        }
-
-        return samples;
+        final int nSamples = Math.min(samples.length,
+            bvalid / normalizeBytesFromBits(fmt.getSampleSizeInBits()));
+        return PCMUtils.decode(bytes, 0, nSamples, format, samples, 0);
     }
 
     /**
@@ -272,10 +211,15 @@ public final class AudioUtils {
 
         int channels = fmt.getChannels();
         int slen = svalid / channels;
+        if(slen < 1){
+            return samples;
+        }
+        final double[] coefficients = WindowFunction.SINE.getCoefficients(slen);
 
         for(int ch = 0, k, i; ch < channels; ch++) {
-            for(i = ch, k = 0; i < svalid; i += channels) {
-                samples[i] *= Math.sin(Math.PI * k++ / (slen - 1));
+            for(i = ch, k = 0; i < svalid; i += channels, k++) {
+                // A trailing incomplete frame lies at the end of the window
+                samples[i] *= k < slen ? coefficients[k] : 0.0;
             }
         }
 
@@ -292,97 +236,932 @@ public final class AudioUtils {
             "There was an error", JOptionPane.WARNING_MESSAGE);
     }
 
+    /**
+     * Returns the samples of each channel of the given audio normalized to the
+     * range of -1.0 to 1.0. The samples are taken from the
+     * {@link DecodedAudioCache}, so the file is only decoded if no other node
+     * or view has done so before.
+     *
+     * @param audio the audio whose samples should be returned
+     * @return the samples per channel
+     * @throws UnsupportedAudioFileException if the audio format isn't supported
+     * @throws IOException if the audio couldn't be decoded
+     */
     public static double[][] getSamples(final KNAudio audio) throws UnsupportedAudioFileException, IOException{
-        final AudioInputStream originalStream = AudioSystem.getAudioInputStream(
-            new File(audio.getFilePath()));
-        AudioFormat format = originalStream.getFormat();
-        final int bitDepth = normalizeBitDepthFromBits(format.getSampleSizeInBits());
-
-        // If the audio is not PCM signed big endian, then convert it to PCM
-        // signed. This is particularly necessary when dealing with MP3s
-        AudioInputStream newStream = originalStream;
-        if(format.getEncoding() != AudioFormat.Encoding.PCM_SIGNED ||
-                !format.isBigEndian()){
-            format = new AudioFormat(AudioFormat.Encoding.PCM_SIGNED,
-                format.getSampleRate(), bitDepth, format.getChannels(),
-                format.getChannels() * (bitDepth / 8), format.getFrameRate(), true);
-            newStream = AudioSystem.getAudioInputStream(format, originalStream);
-        }
-
-        double[][] channelSamples = null;
+        try(final DecodedAudio decoded = DecodedAudioCache.get(audio, Layout.CHANNELS)){
+            final double[][] channelSamples = new double[decoded.getNumChannels()][];
+            for(int channel = 0; channel < channelSamples.length; channel++){
+                channelSamples[channel] = decoded.getChannelAsDoubles(channel);
+            }
+            return channelSamples;
+        }
+    }
+
+    /**
+     * Returns the samples of the given audio mixed down into one channel. The
+     * samples are taken from the {@link DecodedAudioCache}.
+     *
+     * @param audio the audio whose samples should be returned
+     * @return the mixed down samples
+     * @throws UnsupportedAudioFileException if the audio format isn't supported
+     * @throws IOException if the audio couldn't be decoded
+     */
+    public static double[] getSamplesMixedDownIntoOneChannel(
+            final KNAudio audio) throws UnsupportedAudioFileException, IOException {
+        try(final DecodedAudio decoded = DecodedAudioCache.get(audio, Layout.MONO)){
+            return decoded.getChannelAsDoubles(0);
+        }
+    }
+
+    public static Map<FeatureType, double[]> extractFeatures(final double[] samples,
+            final double sampleRate, final FeatureExtractor[] extractors) throws Exception{
+
+        final FeatureExtractorGraph graph = new FeatureExtractorGraph(extractors);
+        final Aggregator[][] aggregators = createAggregators(extractors, MEAN_ONLY);
+        for(double[] window : cutSampleIntoWindows(samples, DEFAULT_WINDOW_SIZE)){
+            updateAggregators(aggregators, graph.extract(window, sampleRate));
+        }
+        return getResults(extractors, aggregators);
+    }
+
+    /**
+     * Extracts the features of the given audio stream using non-overlapping windows
+     * of the default window size.
+     *
+     * @param audio the audio stream whose features should be extracted
+     * @param extractors the feature extractors
+     * @return the mean feature vector per feature type
+     * @throws Exception if the features couldn't be extracted
+     * @see #extractFeatures(AudioStream, FeatureExtractor[], int, int)
+     */
+    public static Map<FeatureType, double[]> extractFeatures(final AudioStream audio,
+            final FeatureExtractor[] extractors) throws Exception{
+        return extractFeatures(audio, extractors, DEFAULT_WINDOW_SIZE, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Extracts the features of the given audio stream. The stream is read window
+     * by window, each window is mixed down into one channel and passed to the
+     * extractors, and the resulting feature vectors are accumulated into their
+     * running mean right away. Only one window is held in memory at a time, so the
+     * memory needed doesn't depend on the length of the audio.
+     *
+     * @param audio the audio stream whose features should be extracted
+     * @param extractors the feature extractors
+     * @param windowSize the number of samples (per channel) of each window
+     * @param hopSize the number of samples (per channel) between the start of two
+     *            consecutive windows, must be between 1 and <code>windowSize</code>
+     * @return the mean feature vector per feature type
+     * @throws Exception if the features couldn't be extracted
+     */
+    public static Map<FeatureType, double[]> extractFeatures(final AudioStream audio,
+            final FeatureExtractor[] extractors, final int windowSize, final int hopSize)
+                    throws Exception{
+        return extractFeatures(audio, new FeatureExtractorGraph(extractors), windowSize, hopSize);
+    }
+
+    /**
+     * Extracts the features of the given audio stream using the given extractor
+     * graph, which allows to reuse the graph for several audio streams.
+     *
+     * @param audio the audio stream whose features should be extracted
+     * @param graph the graph of the feature extractors, must not be used
+     *            concurrently by another thread
+     * @param windowSize the number of samples (per channel) of each window
+     * @param hopSize the number of samples (per channel) between the start of two
+     *            consecutive windows, must be between 1 and <code>windowSize</code>
+     * @return the mean feature vector per feature type
+     * @throws Exception if the features couldn't be extracted
+     * @see #extractFeatures(AudioStream, FeatureExtractor[], int, int)
+     */
+    public static Map<FeatureType, double[]> extractFeatures(final AudioStream audio,
+            final FeatureExtractorGraph graph, final int windowSize, final int hopSize)
+                    throws Exception{
+        return extractFeatures(audio, graph, windowSize, hopSize, MEAN_ONLY);
+    }
+
+    /**
+     * Extracts the features of the given audio stream and aggregates the feature
+     * vectors of the windows with the given aggregators in a single pass. The
+     * result of a feature is the concatenation of the results of the aggregators
+     * in the given order, e.g. the means of all dimensions followed by their
+     * standard deviations.
+     *
+     * @param audio the audio stream whose features should be extracted
+     * @param graph the graph of the feature extractors, must not be used
+     *            concurrently by another thread
+     * @param windowSize the number of samples (per channel) of each window
+     * @param hopSize the number of samples (per channel) between the start of two
+     *            consecutive windows, must be between 1 and <code>windowSize</code>
+     * @param aggregatorTypes the aggregations to compute, must not be empty
+     * @return the aggregated feature vector per feature type
+     * @throws Exception if the features couldn't be extracted
+     */
+    public static Map<FeatureType, double[]> extractFeatures(final AudioStream audio,
+            final FeatureExtractorGraph graph, final int windowSize, final int hopSize,
+            final AggregatorType[] aggregatorTypes) throws Exception{
+        if(aggregatorTypes == null || aggregatorTypes.length == 0){
+            throw new IllegalArgumentException("At least one aggregator is required");
+        }
+        if(audio == null){
+            throw new IllegalArgumentException("Audio stream cannot be null");
+        }
+        checkWindow(windowSize, hopSize);
+        if(audio instanceof KNAudio){
+            return extractFeatures((KNAudio)audio, graph, new int[]{windowSize},
+                new int[]{hopSize}, aggregatorTypes, null, true).get(0);
+        }
+
+        final Aggregator[][] aggregators = createAggregators(graph.getExtractors(), aggregatorTypes);
+        audio.reset();
         try{
-            channelSamples = AudioMethods.extractSampleValues(newStream);
-        } catch(Exception ex){
-            LOGGER.error(ex.getMessage());
+            feed(audio, new WindowAccumulator[]{new AggregatingAccumulator(graph,
+                audio.getFormat().getSampleRateKHz(), windowSize, hopSize, 0, Long.MAX_VALUE,
+                null, aggregators)}, null);
+        } finally{
+            audio.reset();
         }
+        return getResults(graph.getExtractors(), aggregators);
+    }
 
+    /**
+     * Extracts the feature vector of every window of the given audio stream
+     * instead of aggregating them. The vectors are collected frame by frame
+     * while the stream is read, hence only one window of samples and the
+     * primitive feature values are held in memory.
+     *
+     * @param audio the audio stream whose features should be extracted
+     * @param graph the graph of the feature extractors, must not be used
+     *            concurrently by another thread
+     * @param windowSize the number of samples (per channel) of each window
+     * @param hopSize the number of samples (per channel) between the start of two
+     *            consecutive windows, must be between 1 and <code>windowSize</code>
+     * @return the feature vectors of all frames per feature type
+     * @throws Exception if the features couldn't be extracted
+     */
+    public static Map<FeatureType, FeatureMatrixCell> extractFrames(final AudioStream audio,
+            final FeatureExtractorGraph graph, final int windowSize, final int hopSize)
+                    throws Exception{
+        if(audio == null){
+            throw new IllegalArgumentException("Audio stream cannot be null");
+        }
+        checkWindow(windowSize, hopSize);
+        if(audio instanceof KNAudio){
+            return extractFrames((KNAudio)audio, graph, new int[]{windowSize},
+                new int[]{hopSize}).get(0);
+        }
 
-        originalStream.close();
+        final FrameAccumulator accumulator = new FrameAccumulator(graph,
+            audio.getFormat().getSampleRateKHz(), windowSize, hopSize);
+        audio.reset();
+        try{
+            feed(audio, new WindowAccumulator[]{accumulator}, null);
+        } finally{
+            audio.reset();
+        }
+        return accumulator.getFrames();
+    }
 
+    /**
+     * Extracts the aggregated features of the given audio for several window
+     * configurations. The audio is read only once, each chunk of samples is
+     * passed to one window accumulator per configuration, so the memory needed
+     * doesn't depend on the length of the audio.
+     *
+     * @param audio the audio whose features should be extracted
+     * @param graph the graph of the feature extractors, must not be used
+     *            concurrently by another thread
+     * @param windowSizes the number of samples (per channel) of the windows of
+     *            each configuration
+     * @param hopSizes the hop size of each configuration, must have the same
+     *            length as the window sizes
+     * @param aggregatorTypes the aggregations to compute, must not be empty
+     * @return the aggregated feature vector per feature type of each
+     *         configuration in the given order
+     * @throws Exception if the features couldn't be extracted
+     */
+    public static List<Map<FeatureType, double[]>> extractFeatures(final KNAudio audio,
+            final FeatureExtractorGraph graph, final int[] windowSizes, final int[] hopSizes,
+            final AggregatorType[] aggregatorTypes) throws Exception{
+        return extractFeatures(audio, graph, windowSizes, hopSizes, aggregatorTypes, null, true);
+    }
 
-        if(newStream != null){
-            newStream.close();
+    /**
+     * Extracts the aggregated features of the given audio for several window
+     * configurations like {@link #extractFeatures(KNAudio, FeatureExtractorGraph,
+     * int[], int[], AggregatorType[])}, but only aggregates the windows which
+     * start within one of the given regions. The windows are positioned in the
+     * same way as on the whole audio, so the features of a window don't depend
+     * on the regions.
+     *
+     * @param audio the audio whose features should be extracted
+     * @param graph the graph of the feature extractors, must not be used
+     *            concurrently by another thread
+     * @param windowSizes the number of samples (per channel) of the windows of
+     *            each configuration
+     * @param hopSizes the hop size of each configuration, must have the same
+     *            length as the window sizes
+     * @param aggregatorTypes the aggregations to compute, must not be empty
+     * @param regions the sorted, non-overlapping regions whose windows are
+     *            aggregated, <code>null</code> to aggregate all windows
+     * @return the aggregated feature vector per feature type of each
+     *         configuration in the given order
+     * @throws Exception if the features couldn't be extracted
+     */
+    public static List<Map<FeatureType, double[]>> extractFeatures(final KNAudio audio,
+            final FeatureExtractorGraph graph, final int[] windowSizes, final int[] hopSizes,
+            final AggregatorType[] aggregatorTypes, final List<SpeechRegion> regions)
+                    throws Exception{
+        return extractFeatures(audio, graph, windowSizes, hopSizes, aggregatorTypes, regions, true);
+    }
+
+    /**
+     * Extracts the aggregated features of the given audio for several window
+     * configurations, optionally only of the windows which start within the
+     * given regions, see {@link #extractFeatures(KNAudio, FeatureExtractorGraph,
+     * int[], int[], AggregatorType[], List)}.
+     *
+     * <p>
+     * The samples are taken from the {@link DecodedAudioCache}, the audio is
+     * decoded into the cache if it fits into its budget, so that further nodes
+     * don't decode it again. Otherwise the samples are streamed from the file.
+     * A long audio is split into ranges of sample frames which are processed
+     * in parallel, if allowed and enough processors are idle, see
+     * {@link #isWorthSplitting(long)}, or the audio is processed in one pass. Ranges
+     * without any region aren't read at all. The extraction stops with an
+     * {@link InterruptedException} if the calling thread is interrupted.
+     *
+     * @param audio the audio whose features should be extracted
+     * @param graph the graph of the feature extractors, must not be used
+     *            concurrently by another thread
+     * @param windowSizes the number of samples (per channel) of the windows of
+     *            each configuration
+     * @param hopSizes the hop size of each configuration, must have the same
+     *            length as the window sizes
+     * @param aggregatorTypes the aggregations to compute, must not be empty
+     * @param regions the sorted, non-overlapping regions whose windows are
+     *            aggregated, <code>null</code> to aggregate all windows
+     * @param parallel <code>true</code> if the ranges of a long audio may be
+     *            processed in parallel
+     * @return the aggregated feature vector per feature type of each
+     *         configuration in the given order
+     * @throws Exception if the features couldn't be extracted
+     */
+    public static List<Map<FeatureType, double[]>> extractFeatures(final KNAudio audio,
+            final FeatureExtractorGraph graph, final int[] windowSizes, final int[] hopSizes,
+            final AggregatorType[] aggregatorTypes, final List<SpeechRegion> regions,
+            final boolean parallel) throws Exception{
+        checkWindows(windowSizes, hopSizes);
+        if(aggregatorTypes == null || aggregatorTypes.length == 0){
+            throw new IllegalArgumentException("At least one aggregator is required");
         }
+        if(audio.getFormat() == null){
+            throw new IOException("The format of \"" + audio.getName() + "\" is unknown.");
+        }
+
+        final FeatureExtractor[] extractors = graph.getExtractors();
+        final double sampleRateKHz = audio.getFormat().getSampleRateKHz();
+        final long[][] regionFrames = getRegionFrames(regions, sampleRateKHz);
+        try(final DecodedAudio decoded = DecodedAudioCache.getIfFits(audio, Layout.MONO)){
+            // The samples of an audio which doesn't fit into the cache are streamed
+            final FloatBuffer samples = decoded == null ? null : decoded.getChannel(0);
+            final long nFrames = samples == null ? audio.getFrameLength() : samples.remaining();
+            if(parallel && isWorthSplitting(nFrames)){
+                final AtomicBoolean canceled = new AtomicBoolean(false);
+                final ForkJoinTask<Aggregator[][][]> task = FORK_JOIN_POOL.submit(new FrameRangeTask(
+                    audio, samples, graph, aggregatorTypes, windowSizes, hopSizes, regionFrames, 0,
+                    nFrames, nFrames, getFramesPerTask(nFrames), canceled));
+                try{
+                    return getResults(extractors, task.get());
+                } catch(InterruptedException ex){
+                    // Stop the ranges which are still running
+                    canceled.set(true);
+                    task.cancel(true);
+                    Thread.currentThread().interrupt();
+                    throw ex;
+                } catch(ExecutionException ex){
+                    final Throwable cause = ex.getCause();
+                    if(cause instanceof FrameRangeException){
+                        throw ((FrameRangeException)cause).getException();
+                    }
+                    throw cause instanceof Exception ? (Exception)cause : ex;
+                }
+            }
+
+            final Aggregator[][][] aggregators = new Aggregator[windowSizes.length][][];
+            SINGLE_PASSES.incrementAndGet();
+            try{
+                if(samples != null){
+                    feed(samples, createAccumulators(graph, sampleRateKHz, windowSizes, hopSizes,
+                        aggregatorTypes, 0, Long.MAX_VALUE, regionFrames, aggregators), null);
+                    return getResults(extractors, aggregators);
+                }
+                // The copy has its own read position
+                final KNAudio stream = new KNAudio(audio.getFilePath(), audio.getFormat().clone());
+                try{
+                    final long position = regionFrames == null || regionFrames.length == 0 ? 0
+                        : regionFrames[0][0];
+                    // Don't read the samples before the first region
+                    stream.seekFrame(position);
+                    feed(stream, createAccumulators(graph, sampleRateKHz, windowSizes, hopSizes,
+                        aggregatorTypes, position, Long.MAX_VALUE, regionFrames, aggregators), null);
+                } finally{
+                    stream.reset();
+                }
+                return getResults(extractors, aggregators);
+            } finally{
+                SINGLE_PASSES.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Extracts the feature vector of every window of the given audio for
+     * several window configurations. The audio is read only once, each chunk
+     * of samples is passed to one window accumulator per configuration.
+     *
+     * @param audio the audio whose features should be extracted
+     * @param graph the graph of the feature extractors, must not be used
+     *            concurrently by another thread
+     * @param windowSizes the number of samples (per channel) of the windows of
+     *            each configuration
+     * @param hopSizes the hop size of each configuration, must have the same
+     *            length as the window sizes
+     * @return the feature vectors of all frames per feature type of each
+     *         configuration in the given order
+     * @throws Exception if the features couldn't be extracted
+     */
+    public static List<Map<FeatureType, FeatureMatrixCell>> extractFrames(final KNAudio audio,
+            final FeatureExtractorGraph graph, final int[] windowSizes, final int[] hopSizes)
+                    throws Exception{
+        checkWindows(windowSizes, hopSizes);
+        if(audio.getFormat() == null){
+            throw new IOException("The format of \"" + audio.getName() + "\" is unknown.");
+        }
+
+        final double sampleRateKHz = audio.getFormat().getSampleRateKHz();
+        final FrameAccumulator[] accumulators = new FrameAccumulator[windowSizes.length];
+        for(int i = 0; i < accumulators.length; i++){
+            accumulators[i] = new FrameAccumulator(graph, sampleRateKHz, windowSizes[i], hopSizes[i]);
+        }
+        try(final DecodedAudio decoded = DecodedAudioCache.getIfFits(audio, Layout.MONO)){
+            if(decoded != null){
+                feed(decoded.getChannel(0), accumulators, null);
+            }else{
+                // The copy has its own read position
+                final KNAudio stream = new KNAudio(audio.getFilePath(), audio.getFormat().clone());
+                try{
+                    feed(stream, accumulators, null);
+                } finally{
+                    stream.reset();
+                }
+            }
+        }
+
+        final List<Map<FeatureType, FeatureMatrixCell>> result =
+                new ArrayList<Map<FeatureType, FeatureMatrixCell>>(windowSizes.length);
+        for(final FrameAccumulator accumulator : accumulators){
+            result.add(accumulator.getFrames());
+        }
+        return result;
+    }
+
+    private static void addFrame(final FeatureMatrixCell.Builder[] builders,
+            final double[][] features, final int hopSize, final double sampleRateKHz){
+        for(int i = 0; i < builders.length; i++){
+            // The dimensions are only known after the first window
+            if(builders[i] == null){
+                builders[i] = new FeatureMatrixCell.Builder(features[i].length, 0,
+                    hopSize, sampleRateKHz);
+            }
+            builders[i].addFrame(features[i]);
+        }
+    }
+
+    private static Map<FeatureType, FeatureMatrixCell> buildFrames(
+            final FeatureExtractor[] extractors, final FeatureMatrixCell.Builder[] builders,
+            final int hopSize, final double sampleRateKHz){
+        final Map<FeatureType, FeatureMatrixCell> result = new LinkedHashMap<FeatureType, FeatureMatrixCell>();
+        for(int i = 0; i < extractors.length; i++){
+            if(builders[i] == null){
+                builders[i] = new FeatureMatrixCell.Builder(0, 0, hopSize, sampleRateKHz);
+            }
+            result.put(extractors[i].getType(), builders[i].build());
+        }
+        return result;
+    }
+
+    private static void checkWindow(final int windowSize, final int hopSize){
+        if(windowSize <= 0){
+            throw new IllegalArgumentException("Window size must be greater than 0");
+        }
+        if(hopSize <= 0 || hopSize > windowSize){
+            throw new IllegalArgumentException("Hop size must be between 1 and the window size");
+        }
+    }
+
+    private static void checkWindows(final int[] windowSizes, final int[] hopSizes){
+        if(windowSizes == null || hopSizes == null || windowSizes.length == 0
+                || windowSizes.length != hopSizes.length){
+            throw new IllegalArgumentException(
+                "A hop size is required for each of at least one window size");
+        }
+        for(int i = 0; i < windowSizes.length; i++){
+            checkWindow(windowSizes[i], hopSizes[i]);
+        }
+    }
 
-        if(channelSamples == null){
+    /**
+     * Returns the [start, end) sample frames of the given regions, or
+     * <code>null</code> if no regions are given.
+     */
+    private static long[][] getRegionFrames(final List<SpeechRegion> regions,
+            final double sampleRateKHz){
+        if(regions == null){
             return null;
         }
-        return channelSamples;
-//        return DSPMethods.getSamplesMixedDownIntoOneChannel(channelSamples);
+        final long[][] frames = new long[regions.size()][];
+        for(int i = 0; i < frames.length; i++){
+            frames[i] = new long[]{regions.get(i).getStartFrame(sampleRateKHz),
+                regions.get(i).getEndFrame(sampleRateKHz)};
+        }
+        return frames;
+    }
 
+    /**
+     * Creates one aggregating accumulator per window configuration and stores
+     * its aggregators into the given array.
+     */
+    private static WindowAccumulator[] createAccumulators(final FeatureExtractorGraph graph,
+            final double sampleRateKHz, final int[] windowSizes, final int[] hopSizes,
+            final AggregatorType[] aggregatorTypes, final long position, final long end,
+            final long[][] regions, final Aggregator[][][] aggregators){
+        final WindowAccumulator[] accumulators = new WindowAccumulator[windowSizes.length];
+        for(int i = 0; i < accumulators.length; i++){
+            aggregators[i] = createAggregators(graph.getExtractors(), aggregatorTypes);
+            accumulators[i] = new AggregatingAccumulator(graph, sampleRateKHz, windowSizes[i],
+                hopSizes[i], position, end, regions, aggregators[i]);
+        }
+        return accumulators;
     }
 
-    public static double[] getSamplesMixedDownIntoOneChannel(
-            final KNAudio audio) throws UnsupportedAudioFileException, IOException {
-        final double[][] samples = getSamples(audio);
-        return DSPMethods.getSamplesMixedDownIntoOneChannel(samples);
+    /**
+     * Reads the stream from its current position, mixes each chunk down into
+     * one channel and passes it to all accumulators until all of them are done
+     * or the stream ends.
+     */
+    private static void feed(final AudioStream audio, final WindowAccumulator[] accumulators,
+            final AtomicBoolean canceled) throws Exception{
+        double[] mixed = new double[0];
+        SampleChunk chunk;
+        while(!isDone(accumulators) && (chunk = audio.nextSampleChunk()) != null){
+            checkCanceled(canceled);
+            final org.knime.base.node.audio.ext.org.openimaj.audio.AudioFormat format =
+                    chunk.getFormat();
+            final int nFrames = chunk.getSamples().length
+                    / (PCMUtils.getBytesPerSample(format) * format.getNumChannels());
+            if(mixed.length < nFrames){
+                mixed = new double[nFrames];
+            }
+            PCMUtils.mixDown(chunk.getSamples(), 0, nFrames, format, mixed, 0);
+            for(final WindowAccumulator accumulator : accumulators){
+                accumulator.add(mixed, 0, nFrames);
+            }
+        }
+        for(final WindowAccumulator accumulator : accumulators){
+            accumulator.finish();
+        }
     }
 
-    public static Map<FeatureType, double[]> extractFeatures(final double[] samples,
-            final double sampleRate, final FeatureExtractor[] extractors) throws Exception{
+    /**
+     * Passes the given decoded samples from their current position block by
+     * block to all accumulators until all of them are done.
+     */
+    private static void feed(final FloatBuffer samples, final WindowAccumulator[] accumulators,
+            final AtomicBoolean canceled) throws Exception{
+        final int nSamples = samples.remaining();
+        final double[] block = new double[Math.max(1, Math.min(DEF_BUFFER_SAMPLE_SZ * 8, nSamples))];
+        for(int pos = 0; pos < nSamples && !isDone(accumulators); pos += block.length){
+            checkCanceled(canceled);
+            final int n = Math.min(block.length, nSamples - pos);
+            for(int i = 0; i < n; i++){
+                block[i] = samples.get(samples.position() + pos + i);
+            }
+            for(final WindowAccumulator accumulator : accumulators){
+                accumulator.add(block, 0, n);
+            }
+        }
+        for(final WindowAccumulator accumulator : accumulators){
+            accumulator.finish();
+        }
+    }
+
+    private static boolean isDone(final WindowAccumulator[] accumulators){
+        for(final WindowAccumulator accumulator : accumulators){
+            if(!accumulator.isDone()){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void checkCanceled(final AtomicBoolean canceled) throws InterruptedException{
+        if(Thread.currentThread().isInterrupted() || (canceled != null && canceled.get())){
+            throw new InterruptedException("The feature extraction has been canceled.");
+        }
+    }
+
+    /**
+     * Decides whether an audio with the given number of sample frames is split
+     * into ranges. It is split if it has enough frames to give at least two
+     * idle processors a range of their own. The processors running a worker
+     * of the pool or an extraction in one pass aren't idle, e.g. an audio
+     * isn't split while other rows already keep all processors busy.
+     */
+    private static boolean isWorthSplitting(final long nFrames){
+        final int idle = FORK_JOIN_POOL.getParallelism() - FORK_JOIN_POOL.getActiveThreadCount()
+                - SINGLE_PASSES.get();
+        return Math.min(idle, nFrames / MIN_FRAMES_PER_TASK) >= 2;
+    }
 
-//        int[] windowIndices = calculateWindowStartIndices(samples, DEFAULT_WINDOW_SIZE);
-
-        Map<FeatureType, double[][]> featuresPerWindowMap = new HashMap<FeatureType, double[][]>();
-
-        List<double[]> sampleInWindows = cutSampleIntoWindows(samples, DEFAULT_WINDOW_SIZE);
-
-        for(FeatureExtractor extractor : extractors){
-            final double[][] featuresPerWindow = new double[sampleInWindows.size()][];
-            for(int windowIdx = 0; windowIdx < sampleInWindows.size(); windowIdx++){
-                double[][] additionalFeatures = null;
-                if(extractor.getType().hasDependencies()){
-                    FeatureType[] dependencies = extractor.getType().getDependencies();
-                    additionalFeatures = new double[dependencies.length][];
-                    for(int depIdx = 0; depIdx < dependencies.length; depIdx++){
-                        final FeatureType dep = dependencies[depIdx];
-                        // The dependency has been extracted
-                        if(featuresPerWindowMap.containsKey(dep)){
-                            additionalFeatures[depIdx] = featuresPerWindowMap.get(
-                                dependencies[depIdx])[windowIdx];
-                        } else{ // The dependency hasn't been extracted
-                            FeatureExtractor depExtractor = FeatureExtractor.
-                                    getFeatureExtractor(dep);
-                            additionalFeatures[depIdx] = depExtractor.
-                                    extractFeature(sampleInWindows.get(windowIdx),
-                                        sampleRate, null);
+    private static long getFramesPerTask(final long nFrames){
+        final long nTasks = 4L * FORK_JOIN_POOL.getParallelism();
+        return Math.max(MIN_FRAMES_PER_TASK, (nFrames + nTasks - 1) / nTasks);
+    }
+
+    /**
+     * Cuts the mono samples which are added chunk by chunk into the windows of
+     * one window configuration. The windows start at multiples of the hop size
+     * and only the ones starting before the given end frame and within the
+     * given regions are processed. A window which can't be filled anymore at
+     * the end of the samples is zero-padded and processed as the last one, like
+     * the last window read by a {@link FixedSizeSampleAudioProcessor}.
+     */
+    private abstract static class WindowAccumulator {
+
+        /** The samples of the current window */
+        private final double[] m_buffer;
+
+        /** The window passed on, so the extractors can't modify the buffer */
+        private final double[] m_window;
+
+        private final int m_hopSize;
+
+        private final long m_end;
+
+        private final long[][] m_regions;
+
+        /** The index of the first region which may contain the current window */
+        private int m_region = 0;
+
+        /** The index of the first frame of the current window */
+        private long m_start;
+
+        /** The number of samples to drop before the first window starts */
+        private long m_skip;
+
+        /** The number of samples in the buffer */
+        private int m_n = 0;
+
+        /**
+         * @param windowSize the number of samples of each window
+         * @param hopSize the number of samples between the start of two windows
+         * @param position the index of the frame of the first sample added
+         * @param end the index of the frame the processed windows must start
+         *            before
+         * @param regions the [start, end) frames of the regions the processed
+         *            windows must start within, <code>null</code> for all windows
+         */
+        WindowAccumulator(final int windowSize, final int hopSize, final long position,
+                final long end, final long[][] regions){
+            m_buffer = new double[windowSize];
+            m_window = new double[windowSize];
+            m_hopSize = hopSize;
+            m_start = (position + hopSize - 1) / hopSize * hopSize;
+            m_skip = m_start - position;
+            m_end = end;
+            m_regions = regions;
+        }
+
+        /**
+         * @return <code>true</code> if no further window will be processed
+         */
+        boolean isDone(){
+            return m_start >= m_end || (m_regions != null && (m_regions.length == 0
+                    || m_start >= m_regions[m_regions.length - 1][1]));
+        }
+
+        void add(final double[] samples, final int offset, final int length) throws Exception{
+            int pos = offset;
+            final int end = offset + length;
+            if(m_skip > 0){
+                final int n = (int)Math.min(m_skip, length);
+                pos += n;
+                m_skip -= n;
+            }
+            while(pos < end && !isDone()){
+                final int n = Math.min(end - pos, m_buffer.length - m_n);
+                System.arraycopy(samples, pos, m_buffer, m_n, n);
+                m_n += n;
+                pos += n;
+                if(m_n == m_buffer.length){
+                    processIfSelected();
+                    System.arraycopy(m_buffer, m_hopSize, m_buffer, 0, m_buffer.length - m_hopSize);
+                    m_n -= m_hopSize;
+                    m_start += m_hopSize;
+                }
+            }
+        }
+
+        /**
+         * Processes the last, partially filled window at the end of the samples.
+         */
+        void finish() throws Exception{
+            if(m_n > 0 && !isDone()){
+                Arrays.fill(m_buffer, m_n, m_buffer.length, 0.0);
+                processIfSelected();
+            }
+            m_n = 0;
+            m_start = m_end;
+        }
+
+        private void processIfSelected() throws Exception{
+            if(m_regions != null){
+                while(m_region < m_regions.length && m_regions[m_region][1] <= m_start){
+                    m_region++;
+                }
+                if(m_region == m_regions.length || m_regions[m_region][0] > m_start){
+                    // Skip the extraction of windows outside of the regions
+                    return;
+                }
+            }
+            System.arraycopy(m_buffer, 0, m_window, 0, m_buffer.length);
+            process(m_window);
+        }
+
+        /**
+         * @param window the samples of the window
+         * @throws Exception if the features of the window couldn't be extracted
+         */
+        abstract void process(double[] window) throws Exception;
+    }
+
+    /**
+     * Accumulates the features of the windows into aggregators.
+     */
+    private static final class AggregatingAccumulator extends WindowAccumulator {
+
+        private final FeatureExtractorGraph m_graph;
+        private final double m_sampleRate;
+        private final Aggregator[][] m_aggregators;
+
+        AggregatingAccumulator(final FeatureExtractorGraph graph, final double sampleRateKHz,
+                final int windowSize, final int hopSize, final long position, final long end,
+                final long[][] regions, final Aggregator[][] aggregators){
+            super(windowSize, hopSize, position, end, regions);
+            m_graph = graph;
+            m_sampleRate = sampleRateKHz * 1000;
+            m_aggregators = aggregators;
+        }
+
+        @Override
+        void process(final double[] window) throws Exception{
+            updateAggregators(m_aggregators, m_graph.extract(window, m_sampleRate));
+        }
+    }
+
+    /**
+     * Collects the features of every window into feature matrices.
+     */
+    private static final class FrameAccumulator extends WindowAccumulator {
+
+        private final FeatureExtractorGraph m_graph;
+        private final double m_sampleRateKHz;
+        private final int m_hopSize;
+        private final FeatureMatrixCell.Builder[] m_builders;
+
+        FrameAccumulator(final FeatureExtractorGraph graph, final double sampleRateKHz,
+                final int windowSize, final int hopSize){
+            super(windowSize, hopSize, 0, Long.MAX_VALUE, null);
+            m_graph = graph;
+            m_sampleRateKHz = sampleRateKHz;
+            m_hopSize = hopSize;
+            m_builders = new FeatureMatrixCell.Builder[graph.getExtractors().length];
+        }
+
+        @Override
+        void process(final double[] window) throws Exception{
+            addFrame(m_builders, m_graph.extract(window, m_sampleRateKHz * 1000), m_hopSize,
+                m_sampleRateKHz);
+        }
+
+        Map<FeatureType, FeatureMatrixCell> getFrames(){
+            return buildFrames(m_graph.getExtractors(), m_builders, m_hopSize, m_sampleRateKHz);
+        }
+    }
+
+    /**
+     * Extracts the features of the windows starting within a range of sample
+     * frames of an audio file for all window configurations. Ranges which are
+     * larger than the given threshold are split in half and processed in
+     * parallel. Each leaf reads the decoded samples if they are given,
+     * otherwise it opens its own stream of the file, starting at its range, or
+     * at its first region, and uses its own copy of the extractors. Leaves
+     * without any region don't read any samples. The partial aggregations of
+     * the ranges are merged afterwards.
+     */
+    private static final class FrameRangeTask extends RecursiveTask<Aggregator[][][]> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final KNAudio m_audio;
+        /** The decoded samples of the audio, <code>null</code> if the file has to be read */
+        private final FloatBuffer m_samples;
+        private final FeatureExtractorGraph m_graph;
+        private final AggregatorType[] m_aggregatorTypes;
+        private final int[] m_windowSizes;
+        private final int[] m_hopSizes;
+        private final long[][] m_regions;
+        private final long m_start;
+        private final long m_end;
+        private final long m_nFrames;
+        private final long m_threshold;
+        private final AtomicBoolean m_canceled;
+
+        private FrameRangeTask(final KNAudio audio, final FloatBuffer samples,
+                final FeatureExtractorGraph graph, final AggregatorType[] aggregatorTypes,
+                final int[] windowSizes, final int[] hopSizes, final long[][] regions,
+                final long start, final long end, final long nFrames, final long threshold,
+                final AtomicBoolean canceled){
+            m_audio = audio;
+            m_samples = samples;
+            m_graph = graph;
+            m_aggregatorTypes = aggregatorTypes;
+            m_windowSizes = windowSizes;
+            m_hopSizes = hopSizes;
+            m_regions = regions;
+            m_start = start;
+            m_end = end;
+            m_nFrames = nFrames;
+            m_threshold = threshold;
+            m_canceled = canceled;
+        }
+
+        private FrameRangeTask createSubtask(final long start, final long end){
+            return new FrameRangeTask(m_audio, m_samples, m_graph, m_aggregatorTypes,
+                m_windowSizes, m_hopSizes, m_regions, start, end, m_nFrames, m_threshold,
+                m_canceled);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected Aggregator[][][] compute() {
+            if(m_end - m_start > m_threshold){
+                final long middle = m_start + (m_end - m_start) / 2;
+                final FrameRangeTask left = createSubtask(m_start, middle);
+                final FrameRangeTask right = createSubtask(middle, m_end);
+                left.fork();
+                final Aggregator[][][] aggregators = right.compute();
+                final Aggregator[][][] leftAggregators = left.join();
+                for(int c = 0; c < aggregators.length; c++){
+                    for(int i = 0; i < aggregators[c].length; i++){
+                        for(int j = 0; j < aggregators[c][i].length; j++){
+                            leftAggregators[c][i][j].merge(aggregators[c][i][j]);
                         }
+                    }
+                }
+                return leftAggregators;
+            }
 
+            final FeatureExtractorGraph graph = m_graph.copy();
+            final Aggregator[][][] aggregators = new Aggregator[m_windowSizes.length][][];
+            // The last range also takes the windows after the expected length
+            final long end = m_end >= m_nFrames ? Long.MAX_VALUE : m_end;
+            long position = m_start;
+            if(m_regions != null){
+                int r = 0;
+                while(r < m_regions.length && m_regions[r][1] <= m_start){
+                    r++;
+                }
+                if(r == m_regions.length || m_regions[r][0] >= end){
+                    // No window of the range has to be processed
+                    for(int c = 0; c < aggregators.length; c++){
+                        aggregators[c] = createAggregators(graph.getExtractors(), m_aggregatorTypes);
                     }
+                    return aggregators;
+                }
+                position = Math.max(m_start, m_regions[r][0]);
+            }
+            final WindowAccumulator[] accumulators = createAccumulators(graph,
+                m_audio.getFormat().getSampleRateKHz(), m_windowSizes, m_hopSizes,
+                m_aggregatorTypes, position, end, m_regions, aggregators);
+            if(m_samples != null){
+                // Each range reads the shared samples through its own view
+                final FloatBuffer samples = m_samples.duplicate();
+                samples.position((int)Math.min(position, samples.limit()));
+                try{
+                    feed(samples, accumulators, m_canceled);
+                } catch(Exception ex){
+                    throw new FrameRangeException(ex);
                 }
+                return aggregators;
+            }
+            final KNAudio audio = new KNAudio(m_audio.getFilePath(), m_audio.getFormat().clone());
+            try{
+                checkCanceled(m_canceled);
+                audio.seekFrame(position);
+                feed(audio, accumulators, m_canceled);
+            } catch(Exception ex){
+                throw new FrameRangeException(ex);
+            } finally{
+                audio.reset();
+            }
+            return aggregators;
+        }
+    }
+
+    /**
+     * Carries a checked exception out of a {@link FrameRangeTask}.
+     */
+    private static final class FrameRangeException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        private FrameRangeException(final Exception cause){
+            super(cause);
+        }
+
+        private Exception getException(){
+            Throwable cause = getCause();
+            while(cause instanceof FrameRangeException){
+                cause = cause.getCause();
+            }
+            return cause instanceof Exception ? (Exception)cause : this;
+        }
+    }
 
-                featuresPerWindow[windowIdx] = extractor.extractFeature(
-                    sampleInWindows.get(windowIdx), sampleRate, additionalFeatures);
+    /**
+     * Creates the aggregators of the given types for each extractor.
+     */
+    private static Aggregator[][] createAggregators(final FeatureExtractor[] extractors,
+            final AggregatorType[] types){
+        final Aggregator[][] aggregators = new Aggregator[extractors.length][types.length];
+        for(int i = 0; i < aggregators.length; i++){
+            for(int j = 0; j < types.length; j++){
+                aggregators[i][j] = types[j].createAggregator();
             }
-            featuresPerWindowMap.put(extractor.getType(), featuresPerWindow);
         }
+        return aggregators;
+    }
 
-        Map<FeatureType, double[]> result = new HashMap<FeatureType, double[]>();
-        for(Entry<FeatureType, double[][]> entry : featuresPerWindowMap.entrySet()){
-            final double[] mean = Mean.aggregate(entry.getValue());
-            result.put(entry.getKey(), mean);
+    private static void updateAggregators(final Aggregator[][] aggregators, final double[][] features){
+        for(int i = 0; i < aggregators.length; i++){
+            for(final Aggregator aggregator : aggregators[i]){
+                aggregator.update(features[i]);
+            }
         }
+    }
 
+    /**
+     * Returns the concatenated results of the aggregators per feature type.
+     */
+    private static Map<FeatureType, double[]> getResults(final FeatureExtractor[] extractors,
+            final Aggregator[][] aggregators){
+        final Map<FeatureType, double[]> result = new LinkedHashMap<FeatureType, double[]>();
+        for(int i = 0; i < extractors.length; i++){
+            if(aggregators[i].length == 1){
+                result.put(extractors[i].getType(), aggregators[i][0].getResult());
+                continue;
+            }
+            final double[][] results = new double[aggregators[i].length][];
+            int length = 0;
+            for(int j = 0; j < results.length; j++){
+                results[j] = aggregators[i][j].getResult();
+                length += results[j].length;
+            }
+            final double[] values = new double[length];
+            int offset = 0;
+            for(final double[] res : results){
+                System.arraycopy(res, 0, values, offset, res.length);
+                offset += res.length;
+            }
+            result.put(extractors[i].getType(), values);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the results of the aggregators of each window configuration.
+     */
+    private static List<Map<FeatureType, double[]>> getResults(final FeatureExtractor[] extractors,
+            final Aggregator[][][] aggregators){
+        final List<Map<FeatureType, double[]>> result =
+                new ArrayList<Map<FeatureType, double[]>>(aggregators.length);
+        for(final Aggregator[][] configAggregators : aggregators){
+            result.add(getResults(extractors, configAggregators));
+        }
         return result;
     }
 
@@ -0,0 +1,322 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map.Entry;
+
+import org.knime.core.node.KNIMEConstants;
+
+/**
+ * Directory of cache entries, each stored in its own file. The total size of
+ * the entries is bounded, the least recently used entries are deleted first.
+ * The modification time of the files keeps the order of use across restarts.
+ * Entries are written to a temporary file first and then moved into place, so
+ * readers never see a partial entry, even from another process.
+ *
+ * <p>
+ * The keys are used as file names, hence they should be created by
+ * {@link #hash(String)} or {@link #toHex(byte[])}.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+public final class DiskCache {
+
+    /**
+     * Writes the content of an entry.
+     */
+    public interface EntryWriter {
+
+        /**
+         * @param output the output to write the entry to
+         * @throws IOException if the entry couldn't be written
+         */
+        void write(DataOutputStream output) throws IOException;
+    }
+
+    /**
+     * Reads the content of an entry.
+     *
+     * @param <T> the type of the entry
+     */
+    public interface EntryReader<T> {
+
+        /**
+         * @param input the input to read the entry from
+         * @return the entry, <code>null</code> if it isn't valid anymore
+         * @throws IOException if the entry couldn't be read
+         */
+        T read(DataInputStream input) throws IOException;
+    }
+
+    private final File m_directory;
+
+    private final String m_suffix;
+
+    private final long m_maxSize;
+
+    /** The size of each entry file in least recently used order, loaded lazily */
+    private LinkedHashMap<String, Long> m_entries = null;
+
+    private long m_size = 0;
+
+    /**
+     * @param directory the directory to store the entries in
+     * @param suffix the suffix of the entry files
+     * @param maxSize the maximum total size of the entries in bytes
+     */
+    public DiskCache(final File directory, final String suffix, final long maxSize){
+        if(directory == null){
+            throw new IllegalArgumentException("The cache directory can't be null.");
+        }
+        if(maxSize <= 0){
+            throw new IllegalArgumentException("The maximum cache size must be positive: " + maxSize);
+        }
+        m_directory = directory;
+        m_suffix = suffix;
+        m_maxSize = maxSize;
+    }
+
+    /**
+     * @param name the name of the directory
+     * @return the directory with the given name in the KNIME home directory,
+     *         or in the temporary directory if there is no KNIME home directory
+     */
+    public static File getDefaultDirectory(final String name){
+        String home = KNIMEConstants.getKNIMEHomeDir();
+        if(home == null){
+            home = System.getProperty("java.io.tmpdir");
+        }
+        return new File(home, name);
+    }
+
+    /**
+     * @return a new SHA-256 message digest
+     */
+    public static MessageDigest createDigest(){
+        try{
+            return MessageDigest.getInstance("SHA-256");
+        } catch(NoSuchAlgorithmException ex){
+            // Every Java platform supports SHA-256
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * @param value the value to hash
+     * @return the hexadecimal SHA-256 hash of the given value, usable as key
+     */
+    public static String hash(final String value){
+        return toHex(createDigest().digest(value.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * @param bytes the bytes to convert
+     * @return the lower case hexadecimal representation of the given bytes
+     */
+    public static String toHex(final byte[] bytes){
+        final StringBuilder builder = new StringBuilder(bytes.length * 2);
+        for(byte b : bytes){
+            builder.append(Character.forDigit((b >> 4) & 0xF, 16));
+            builder.append(Character.forDigit(b & 0xF, 16));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Reads the entry with the given key and marks it as recently used.
+     *
+     * @param <T> the type of the entry
+     * @param key the key of the entry
+     * @param reader the reader of the entry
+     * @return the entry or <code>null</code> if there is none
+     * @throws IOException if the entry couldn't be read
+     */
+    public <T> T get(final String key, final EntryReader<T> reader) throws IOException{
+        final File file = getEntryFile(key);
+        synchronized(this){
+            // Also marks the entry as recently used
+            if(getEntries().get(key) == null){
+                return null;
+            }
+        }
+        final T entry;
+        try(final DataInputStream input = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file)))){
+            entry = reader.read(input);
+        } catch(FileNotFoundException ex){
+            // Deleted by another process
+            remove(key);
+            return null;
+        }
+        file.setLastModified(System.currentTimeMillis());
+        return entry;
+    }
+
+    /**
+     * Writes the entry with the given key and deletes the least recently used
+     * entries if the maximum size is exceeded.
+     *
+     * @param key the key of the entry
+     * @param writer the writer of the entry
+     * @throws IOException if the entry couldn't be written
+     */
+    public void put(final String key, final EntryWriter writer) throws IOException{
+        final File file = getEntryFile(key);
+        if(!m_directory.isDirectory() && !m_directory.mkdirs() && !m_directory.isDirectory()){
+            throw new IOException("Couldn't create cache directory " + m_directory);
+        }
+        final File tmpFile = File.createTempFile(key, ".tmp", m_directory);
+        try(final DataOutputStream output = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(tmpFile)))){
+            writer.write(output);
+        } catch(IOException ex){
+            Files.deleteIfExists(tmpFile.toPath());
+            throw ex;
+        }
+        Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+        synchronized(this){
+            final Long oldSize = getEntries().put(key, file.length());
+            m_size += file.length() - (oldSize == null ? 0 : oldSize);
+            evict();
+        }
+    }
+
+    /**
+     * Deletes all entries.
+     */
+    public synchronized void clear(){
+        for(String key : new ArrayList<String>(getEntries().keySet())){
+            getEntryFile(key).delete();
+        }
+        m_entries.clear();
+        m_size = 0;
+    }
+
+    private synchronized void remove(final String key){
+        final Long size = getEntries().remove(key);
+        if(size != null){
+            m_size -= size;
+        }
+    }
+
+    private void evict(){
+        final Iterator<Entry<String, Long>> it = m_entries.entrySet().iterator();
+        while(m_size > m_maxSize && it.hasNext()){
+            final Entry<String, Long> entry = it.next();
+            getEntryFile(entry.getKey()).delete();
+            m_size -= entry.getValue();
+            it.remove();
+        }
+    }
+
+    /**
+     * Returns the entries, they are read from the cache directory on first
+     * access and ordered by their modification time.
+     */
+    private LinkedHashMap<String, Long> getEntries(){
+        if(m_entries == null){
+            m_entries = new LinkedHashMap<String, Long>(16, 0.75f, true);
+            m_size = 0;
+            final File[] files = m_directory.listFiles(new FilenameFilter() {
+                @Override
+                public boolean accept(final File dir, final String name) {
+                    return name.endsWith(m_suffix);
+                }
+            });
+            if(files != null){
+                final long[] lastModified = new long[files.length];
+                final Integer[] order = new Integer[files.length];
+                for(int i = 0; i < files.length; i++){
+                    lastModified[i] = files[i].lastModified();
+                    order[i] = i;
+                }
+                Arrays.sort(order, new Comparator<Integer>() {
+                    @Override
+                    public int compare(final Integer i1, final Integer i2) {
+                        return Long.compare(lastModified[i1], lastModified[i2]);
+                    }
+                });
+                for(Integer i : order){
+                    final String name = files[i].getName();
+                    final long size = files[i].length();
+                    m_entries.put(name.substring(0, name.length() - m_suffix.length()), size);
+                    m_size += size;
+                }
+            }
+            evict();
+        }
+        return m_entries;
+    }
+
+    private File getEntryFile(final String key){
+        return new File(m_directory, key + m_suffix);
+    }
+
+}
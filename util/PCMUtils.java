@@ -0,0 +1,480 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio.util;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.knime.base.node.audio.ext.org.openimaj.audio.AudioFormat;
+
+/**
+ * Decode kernels for linear PCM samples. The kernels convert 8, 16, 24 and 32
+ * bit signed or unsigned samples in either byte order directly from a
+ * <code>byte[]</code> or {@link ByteBuffer} into normalized floating point
+ * values in the range of -1.0 to 1.0, in a single pass and without any
+ * intermediate array. The bit depth, signedness and byte order are resolved
+ * once per call, so the inner loops don't branch per sample.
+ *
+ * <p>
+ * Unsigned samples are converted to signed ones by flipping the most
+ * significant bit, which is the same as subtracting the zero offset.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+public final class PCMUtils {
+
+    /** Prevent the creation of a new instance. */
+    private PCMUtils() {}
+
+    private static final double[] SCALE = new double[]{
+        0, 1.0 / (1 << 7), 1.0 / (1 << 15), 1.0 / (1 << 23), 1.0 / (1L << 31)};
+
+    /**
+     * Decodes the given number of samples.
+     *
+     * @param src the PCM encoded bytes
+     * @param srcOffset the index of the first byte to decode
+     * @param nSamples the number of samples (over all channels) to decode
+     * @param format the format of the samples
+     * @param dst the array to store the decoded samples
+     * @param dstOffset the index in <code>dst</code> of the first decoded sample
+     * @return the given destination array
+     */
+    public static double[] decode(final byte[] src, final int srcOffset, final int nSamples,
+            final AudioFormat format, final double[] dst, final int dstOffset){
+        final int n = getBytesPerSample(format);
+        final boolean big = format.isBigEndian();
+        final int flip = format.isSigned() ? 0 : 0x80;
+        final double scale = SCALE[n];
+        final int msb = big ? 0 : n - 1;
+        final int lsb = big ? n - 1 : 0;
+        final int end = dstOffset + nSamples;
+        int i = srcOffset;
+        switch(n){
+            case 1:
+                for(int k = dstOffset; k < end; k++, i++){
+                    dst[k] = s8(src, i, flip) * scale;
+                }
+                break;
+            case 2:
+                for(int k = dstOffset; k < end; k++, i += 2){
+                    dst[k] = s16(src, i, msb, lsb, flip) * scale;
+                }
+                break;
+            case 3:
+                for(int k = dstOffset; k < end; k++, i += 3){
+                    dst[k] = s24(src, i, msb, lsb, flip) * scale;
+                }
+                break;
+            default:
+                final int b1 = big ? 1 : 2;
+                final int b2 = big ? 2 : 1;
+                for(int k = dstOffset; k < end; k++, i += 4){
+                    dst[k] = s32(src, i, msb, b1, b2, lsb, flip) * scale;
+                }
+        }
+        return dst;
+    }
+
+    /**
+     * Decodes the given number of samples.
+     *
+     * @param src the PCM encoded bytes
+     * @param srcOffset the index of the first byte to decode
+     * @param nSamples the number of samples (over all channels) to decode
+     * @param format the format of the samples
+     * @param dst the array to store the decoded samples
+     * @param dstOffset the index in <code>dst</code> of the first decoded sample
+     * @return the given destination array
+     */
+    public static float[] decode(final byte[] src, final int srcOffset, final int nSamples,
+            final AudioFormat format, final float[] dst, final int dstOffset){
+        final int n = getBytesPerSample(format);
+        final boolean big = format.isBigEndian();
+        final int flip = format.isSigned() ? 0 : 0x80;
+        final float scale = (float)SCALE[n];
+        final int msb = big ? 0 : n - 1;
+        final int lsb = big ? n - 1 : 0;
+        final int end = dstOffset + nSamples;
+        int i = srcOffset;
+        switch(n){
+            case 1:
+                for(int k = dstOffset; k < end; k++, i++){
+                    dst[k] = s8(src, i, flip) * scale;
+                }
+                break;
+            case 2:
+                for(int k = dstOffset; k < end; k++, i += 2){
+                    dst[k] = s16(src, i, msb, lsb, flip) * scale;
+                }
+                break;
+            case 3:
+                for(int k = dstOffset; k < end; k++, i += 3){
+                    dst[k] = s24(src, i, msb, lsb, flip) * scale;
+                }
+                break;
+            default:
+                final int b1 = big ? 1 : 2;
+                final int b2 = big ? 2 : 1;
+                for(int k = dstOffset; k < end; k++, i += 4){
+                    dst[k] = (float)(s32(src, i, msb, b1, b2, lsb, flip) * SCALE[4]);
+                }
+        }
+        return dst;
+    }
+
+    /**
+     * Decodes the given number of samples starting at the current position of
+     * the buffer. The position of the buffer is not changed.
+     *
+     * @param src the buffer containing the PCM encoded bytes
+     * @param nSamples the number of samples (over all channels) to decode
+     * @param format the format of the samples
+     * @param dst the array to store the decoded samples
+     * @param dstOffset the index in <code>dst</code> of the first decoded sample
+     * @return the given destination array
+     */
+    public static double[] decode(final ByteBuffer src, final int nSamples,
+            final AudioFormat format, final double[] dst, final int dstOffset){
+        if(src.hasArray()){
+            return decode(src.array(), src.arrayOffset() + src.position(), nSamples, format,
+                dst, dstOffset);
+        }
+        final int n = getBytesPerSample(format);
+        final ByteBuffer buf = order(src, format);
+        final int flip = format.isSigned() ? 0 : 0x80;
+        final double scale = SCALE[n];
+        final int end = dstOffset + nSamples;
+        int p = buf.position();
+        switch(n){
+            case 1:
+                for(int k = dstOffset; k < end; k++, p++){
+                    dst[k] = (byte)(buf.get(p) ^ flip) * scale;
+                }
+                break;
+            case 2:
+                for(int k = dstOffset; k < end; k++, p += 2){
+                    dst[k] = (short)(buf.getShort(p) ^ (flip << 8)) * scale;
+                }
+                break;
+            case 3:
+                final int msb = format.isBigEndian() ? 0 : 2;
+                final int lsb = 2 - msb;
+                for(int k = dstOffset; k < end; k++, p += 3){
+                    dst[k] = s24(buf, p, msb, lsb, flip) * scale;
+                }
+                break;
+            default:
+                for(int k = dstOffset; k < end; k++, p += 4){
+                    dst[k] = (buf.getInt(p) ^ (flip << 24)) * scale;
+                }
+        }
+        return dst;
+    }
+
+    /**
+     * Decodes the given number of samples starting at the current position of
+     * the buffer. The position of the buffer is not changed.
+     *
+     * @param src the buffer containing the PCM encoded bytes
+     * @param nSamples the number of samples (over all channels) to decode
+     * @param format the format of the samples
+     * @param dst the array to store the decoded samples
+     * @param dstOffset the index in <code>dst</code> of the first decoded sample
+     * @return the given destination array
+     */
+    public static float[] decode(final ByteBuffer src, final int nSamples,
+            final AudioFormat format, final float[] dst, final int dstOffset){
+        if(src.hasArray()){
+            return decode(src.array(), src.arrayOffset() + src.position(), nSamples, format,
+                dst, dstOffset);
+        }
+        final int n = getBytesPerSample(format);
+        final ByteBuffer buf = order(src, format);
+        final int flip = format.isSigned() ? 0 : 0x80;
+        final float scale = (float)SCALE[n];
+        final int end = dstOffset + nSamples;
+        int p = buf.position();
+        switch(n){
+            case 1:
+                for(int k = dstOffset; k < end; k++, p++){
+                    dst[k] = (byte)(buf.get(p) ^ flip) * scale;
+                }
+                break;
+            case 2:
+                for(int k = dstOffset; k < end; k++, p += 2){
+                    dst[k] = (short)(buf.getShort(p) ^ (flip << 8)) * scale;
+                }
+                break;
+            case 3:
+                final int msb = format.isBigEndian() ? 0 : 2;
+                final int lsb = 2 - msb;
+                for(int k = dstOffset; k < end; k++, p += 3){
+                    dst[k] = s24(buf, p, msb, lsb, flip) * scale;
+                }
+                break;
+            default:
+                for(int k = dstOffset; k < end; k++, p += 4){
+                    dst[k] = (float)((buf.getInt(p) ^ (flip << 24)) * SCALE[4]);
+                }
+        }
+        return dst;
+    }
+
+    /**
+     * Decodes the given number of interleaved sample frames into one array per
+     * channel.
+     *
+     * @param src the PCM encoded bytes
+     * @param srcOffset the index of the first byte to decode
+     * @param nFrames the number of sample frames to decode
+     * @param format the format of the samples
+     * @param dst the arrays to store the decoded samples of each channel
+     * @param dstOffset the index in the arrays of <code>dst</code> of the first
+     *            decoded sample
+     * @return the given destination arrays
+     */
+    public static float[][] deinterleave(final byte[] src, final int srcOffset, final int nFrames,
+            final AudioFormat format, final float[][] dst, final int dstOffset){
+        final int nChannels = format.getNumChannels();
+        final int n = getBytesPerSample(format);
+        final boolean big = format.isBigEndian();
+        final int flip = format.isSigned() ? 0 : 0x80;
+        final double scale = SCALE[n];
+        final int msb = big ? 0 : n - 1;
+        final int lsb = big ? n - 1 : 0;
+        final int b1 = big ? 1 : 2;
+        final int b2 = big ? 2 : 1;
+        final int frameSize = n * nChannels;
+        for(int ch = 0; ch < nChannels; ch++){
+            final float[] channel = dst[ch];
+            final int end = dstOffset + nFrames;
+            int i = srcOffset + ch * n;
+            switch(n){
+                case 1:
+                    for(int k = dstOffset; k < end; k++, i += frameSize){
+                        channel[k] = (float)(s8(src, i, flip) * scale);
+                    }
+                    break;
+                case 2:
+                    for(int k = dstOffset; k < end; k++, i += frameSize){
+                        channel[k] = (float)(s16(src, i, msb, lsb, flip) * scale);
+                    }
+                    break;
+                case 3:
+                    for(int k = dstOffset; k < end; k++, i += frameSize){
+                        channel[k] = (float)(s24(src, i, msb, lsb, flip) * scale);
+                    }
+                    break;
+                default:
+                    for(int k = dstOffset; k < end; k++, i += frameSize){
+                        channel[k] = (float)(s32(src, i, msb, b1, b2, lsb, flip) * scale);
+                    }
+            }
+        }
+        return dst;
+    }
+
+    /**
+     * Decodes the given number of interleaved sample frames and mixes them down
+     * into one channel by averaging the channels of each frame.
+     *
+     * @param src the PCM encoded bytes
+     * @param srcOffset the index of the first byte to decode
+     * @param nFrames the number of sample frames to decode
+     * @param format the format of the samples
+     * @param dst the array to store the mixed down samples
+     * @param dstOffset the index in <code>dst</code> of the first mixed down sample
+     * @return the given destination array
+     */
+    public static double[] mixDown(final byte[] src, final int srcOffset, final int nFrames,
+            final AudioFormat format, final double[] dst, final int dstOffset){
+        final int nChannels = format.getNumChannels();
+        if(nChannels == 1){
+            return decode(src, srcOffset, nFrames, format, dst, dstOffset);
+        }
+        final int n = getBytesPerSample(format);
+        final boolean big = format.isBigEndian();
+        final int flip = format.isSigned() ? 0 : 0x80;
+        final double scale = SCALE[n] / nChannels;
+        final int msb = big ? 0 : n - 1;
+        final int lsb = big ? n - 1 : 0;
+        final int b1 = big ? 1 : 2;
+        final int b2 = big ? 2 : 1;
+        final int end = dstOffset + nFrames;
+        int i = srcOffset;
+        for(int k = dstOffset; k < end; k++){
+            long sum = 0;
+            switch(n){
+                case 1:
+                    for(int ch = 0; ch < nChannels; ch++, i++){
+                        sum += s8(src, i, flip);
+                    }
+                    break;
+                case 2:
+                    for(int ch = 0; ch < nChannels; ch++, i += 2){
+                        sum += s16(src, i, msb, lsb, flip);
+                    }
+                    break;
+                case 3:
+                    for(int ch = 0; ch < nChannels; ch++, i += 3){
+                        sum += s24(src, i, msb, lsb, flip);
+                    }
+                    break;
+                default:
+                    for(int ch = 0; ch < nChannels; ch++, i += 4){
+                        sum += s32(src, i, msb, b1, b2, lsb, flip);
+                    }
+            }
+            dst[k] = sum * scale;
+        }
+        return dst;
+    }
+
+    /**
+     * Decodes the given number of interleaved sample frames starting at the
+     * current position of the buffer and mixes them down into one channel by
+     * averaging the channels of each frame. The position of the buffer is not
+     * changed.
+     *
+     * @param src the buffer containing the PCM encoded bytes
+     * @param nFrames the number of sample frames to decode
+     * @param format the format of the samples
+     * @param dst the array to store the mixed down samples
+     * @param dstOffset the index in <code>dst</code> of the first mixed down sample
+     * @return the given destination array
+     */
+    public static double[] mixDown(final ByteBuffer src, final int nFrames,
+            final AudioFormat format, final double[] dst, final int dstOffset){
+        if(src.hasArray()){
+            return mixDown(src.array(), src.arrayOffset() + src.position(), nFrames, format,
+                dst, dstOffset);
+        }
+        final int nChannels = format.getNumChannels();
+        final int n = getBytesPerSample(format);
+        final ByteBuffer buf = order(src, format);
+        final int flip = format.isSigned() ? 0 : 0x80;
+        final double scale = SCALE[n] / nChannels;
+        final int msb = format.isBigEndian() ? 0 : n - 1;
+        final int lsb = n - 1 - msb;
+        final int end = dstOffset + nFrames;
+        int p = buf.position();
+        for(int k = dstOffset; k < end; k++){
+            long sum = 0;
+            switch(n){
+                case 1:
+                    for(int ch = 0; ch < nChannels; ch++, p++){
+                        sum += (byte)(buf.get(p) ^ flip);
+                    }
+                    break;
+                case 2:
+                    for(int ch = 0; ch < nChannels; ch++, p += 2){
+                        sum += (short)(buf.getShort(p) ^ (flip << 8));
+                    }
+                    break;
+                case 3:
+                    for(int ch = 0; ch < nChannels; ch++, p += 3){
+                        sum += s24(buf, p, msb, lsb, flip);
+                    }
+                    break;
+                default:
+                    for(int ch = 0; ch < nChannels; ch++, p += 4){
+                        sum += buf.getInt(p) ^ (flip << 24);
+                    }
+            }
+            dst[k] = sum * scale;
+        }
+        return dst;
+    }
+
+    /**
+     * @param format the format of the samples
+     * @return the number of bytes of each sample
+     * @throws IllegalArgumentException if the bit depth isn't supported
+     */
+    public static int getBytesPerSample(final AudioFormat format){
+        final int n = AudioUtils.normalizeBytesFromBits(format.getNBits());
+        if(n < 1 || n > 4){
+            throw new IllegalArgumentException("Unsupported bit depth: " + format.getNBits());
+        }
+        return n;
+    }
+
+    private static ByteBuffer order(final ByteBuffer src, final AudioFormat format){
+        final ByteOrder order = format.isBigEndian() ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+        return src.order() == order ? src : src.duplicate().order(order);
+    }
+
+    private static int s8(final byte[] b, final int i, final int flip){
+        return (byte)(b[i] ^ flip);
+    }
+
+    private static int s16(final byte[] b, final int i, final int msb, final int lsb,
+            final int flip){
+        return ((byte)(b[i + msb] ^ flip) << 8) | (b[i + lsb] & 0xff);
+    }
+
+    private static int s24(final byte[] b, final int i, final int msb, final int lsb,
+            final int flip){
+        return ((byte)(b[i + msb] ^ flip) << 16) | ((b[i + 1] & 0xff) << 8) | (b[i + lsb] & 0xff);
+    }
+
+    private static int s24(final ByteBuffer b, final int i, final int msb, final int lsb,
+            final int flip){
+        return ((byte)(b.get(i + msb) ^ flip) << 16) | ((b.get(i + 1) & 0xff) << 8)
+                | (b.get(i + lsb) & 0xff);
+    }
+
+    private static int s32(final byte[] b, final int i, final int msb, final int b1, final int b2,
+            final int lsb, final int flip){
+        return ((b[i + msb] ^ flip) << 24) | ((b[i + b1] & 0xff) << 16)
+                | ((b[i + b2] & 0xff) << 8) | (b[i + lsb] & 0xff);
+    }
+
+}
@@ -0,0 +1,467 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+
+import org.knime.base.node.audio.data.KNAudio;
+import org.knime.base.node.audio.data.vad.SpeechRegion;
+import org.knime.base.node.audio.data.vad.SpeechRegionFilter;
+import org.knime.base.node.audio.ext.org.openimaj.audio.AudioFormat;
+import org.knime.base.node.audio.ext.org.openimaj.audio.AudioStream;
+import org.knime.base.node.audio.ext.org.openimaj.audio.SampleChunk;
+import org.knime.base.node.audio.ext.org.openimaj.audio.processor.AudioProcessor;
+
+/**
+ * Input stream delivering the samples of an audio as 16 bit signed little
+ * endian PCM with 16 kHz and one channel, the format expected by the speech
+ * recognizers. The samples are converted chunk by chunk while the stream is
+ * read, hence neither the whole audio is held in memory nor a temporary file
+ * is written. Optionally the samples are preceded by a WAV header and only
+ * the samples within given speech regions are delivered.
+ *
+ * <p>
+ * The samples are mixed down into one channel by {@link PCMUtils} and
+ * resampled with a windowed sinc filter, which removes the frequencies above
+ * the Nyquist frequency of the output before they can alias into the speech
+ * band, see {@link #isSupported(AudioFormat)} for the supported formats.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+public class TranscodingAudioInputStream extends InputStream {
+
+    /** The format of the samples delivered by the stream */
+    public static final AudioFormat OUTPUT_FORMAT = new AudioFormat(16, 16, 1)
+            .setSigned(true).setBigEndian(false);
+
+    private static final int WAV_HEADER_SIZE = 44;
+
+    /** The length written into the WAV header, the length is unknown while streaming */
+    private static final int UNKNOWN_LENGTH = 0xFFFFFFFF;
+
+    private final KNAudio m_audio;
+
+    private final AudioStream m_stream;
+
+    private byte[] m_buffer;
+
+    private int m_position;
+
+    private boolean m_closed = false;
+
+    /**
+     * @param audio the audio to convert, the stream reads a copy of it
+     * @param wavHeader <code>true</code> if the samples should be preceded by a
+     *            WAV header
+     * @throws IOException if the format of the audio isn't supported
+     */
+    public TranscodingAudioInputStream(final KNAudio audio, final boolean wavHeader)
+            throws IOException {
+        this(audio, wavHeader, null);
+    }
+
+    /**
+     * @param audio the audio to convert, the stream reads a copy of it
+     * @param wavHeader <code>true</code> if the samples should be preceded by a
+     *            WAV header
+     * @param regions the speech regions whose samples should be delivered in
+     *            chronological order, <code>null</code> to deliver all samples
+     * @throws IOException if the format of the audio isn't supported or the
+     *             start of the first region couldn't be read
+     */
+    public TranscodingAudioInputStream(final KNAudio audio, final boolean wavHeader,
+            final List<SpeechRegion> regions) throws IOException {
+        final AudioFormat format = audio.getFormat();
+        if(!isSupported(format)){
+            throw new IOException("Audio \"" + audio.getName() + "\" can't be converted, "
+                + "only PCM audio with 8, 16, 24 or 32 bits is supported.");
+        }
+        // The copy has its own read position
+        m_audio = new KNAudio(audio.getFilePath(), format.clone());
+
+        final AudioStream source;
+        if(regions == null){
+            source = m_audio;
+        }else{
+            // Don't convert the samples before the first region
+            final long firstFrame = regions.isEmpty() ? 0
+                : regions.get(0).getStartFrame(format.getSampleRateKHz());
+            m_audio.seekFrame(firstFrame);
+            source = new SpeechRegionFilter(m_audio, regions, firstFrame);
+        }
+        m_stream = new ResamplingProcessor(source, format);
+
+        m_buffer = wavHeader ? createWavHeader() : new byte[0];
+        m_position = 0;
+    }
+
+    /**
+     * @param format the format of an audio
+     * @return <code>true</code> if an audio with the given format can be
+     *         converted by this stream
+     */
+    public static boolean isSupported(final AudioFormat format){
+        if(format == null){
+            return false;
+        }
+        final int nBits = format.getNBits();
+        return nBits == 8 || nBits == 16 || nBits == 24 || nBits == 32;
+    }
+
+    private static byte[] createWavHeader(){
+        final int sampleRate = (int)(OUTPUT_FORMAT.getSampleRateKHz() * 1000);
+        final int blockAlign = OUTPUT_FORMAT.getNumChannels() * OUTPUT_FORMAT.getNBits() / 8;
+        final byte[] header = new byte[WAV_HEADER_SIZE];
+        int pos = putAscii(header, 0, "RIFF");
+        pos = putInt(header, pos, UNKNOWN_LENGTH);
+        pos = putAscii(header, pos, "WAVE");
+        pos = putAscii(header, pos, "fmt ");
+        pos = putInt(header, pos, 16);
+        pos = putShort(header, pos, 1); // PCM
+        pos = putShort(header, pos, OUTPUT_FORMAT.getNumChannels());
+        pos = putInt(header, pos, sampleRate);
+        pos = putInt(header, pos, sampleRate * blockAlign);
+        pos = putShort(header, pos, blockAlign);
+        pos = putShort(header, pos, OUTPUT_FORMAT.getNBits());
+        pos = putAscii(header, pos, "data");
+        putInt(header, pos, UNKNOWN_LENGTH);
+        return header;
+    }
+
+    private static int putAscii(final byte[] dst, final int pos, final String value){
+        for(int i = 0; i < value.length(); i++){
+            dst[pos + i] = (byte)value.charAt(i);
+        }
+        return pos + value.length();
+    }
+
+    private static int putInt(final byte[] dst, final int pos, final int value){
+        putShort(dst, pos, value);
+        return putShort(dst, pos + 2, value >>> 16);
+    }
+
+    private static int putShort(final byte[] dst, final int pos, final int value){
+        dst[pos] = (byte)value;
+        dst[pos + 1] = (byte)(value >>> 8);
+        return pos + 2;
+    }
+
+    /**
+     * Converts the next chunk of samples into the buffer.
+     *
+     * @return <code>false</code> if the end of the audio is reached
+     */
+    private boolean fillBuffer() throws IOException{
+        if(m_closed){
+            throw new IOException("Stream closed");
+        }
+        SampleChunk chunk;
+        do{
+            chunk = m_stream.nextSampleChunk();
+            if(chunk == null){
+                return false;
+            }
+        } while(chunk.getSamples().length == 0);
+
+        m_buffer = chunk.getSamples();
+        m_position = 0;
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int read() throws IOException {
+        if(m_position >= m_buffer.length && !fillBuffer()){
+            return -1;
+        }
+        return m_buffer[m_position++] & 0xFF;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        if(off < 0 || len < 0 || len > b.length - off){
+            throw new IndexOutOfBoundsException();
+        }
+        if(len == 0){
+            return 0;
+        }
+        if(m_position >= m_buffer.length && !fillBuffer()){
+            return -1;
+        }
+        final int n = Math.min(len, m_buffer.length - m_position);
+        System.arraycopy(m_buffer, m_position, b, off, n);
+        m_position += n;
+        return n;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int available() throws IOException {
+        return m_closed ? 0 : m_buffer.length - m_position;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException {
+        if(!m_closed){
+            m_closed = true;
+            m_buffer = new byte[0];
+            m_position = 0;
+            m_audio.reset();
+        }
+    }
+
+    /**
+     * Mixes the samples down into one channel and resamples them to the
+     * sample rate of {@link #OUTPUT_FORMAT}, delivering 16 bit signed little
+     * endian samples. Each output sample is computed by a windowed sinc
+     * kernel whose cutoff lies below the lower of the two Nyquist
+     * frequencies, hence the samples are low-pass filtered while they are
+     * resampled. The input samples still needed by the kernel and the
+     * position of the next output sample are carried from chunk to chunk, so
+     * the chunk boundaries aren't audible, and the last output samples are
+     * flushed at the end of the stream.
+     */
+    private static final class ResamplingProcessor extends AudioProcessor {
+
+        /** The number of zero crossings of the kernel on each side of its center */
+        private static final int ZERO_CROSSINGS = 16;
+
+        /** The cutoff relative to the lower of the two Nyquist frequencies */
+        private static final double ROLLOFF = 0.95;
+
+        /** The number of tabulated kernel values per input sample */
+        private static final int KERNEL_RESOLUTION = 256;
+
+        private final int m_inputRate;
+
+        private final int m_outputRate;
+
+        /** The half width of the kernel in input samples */
+        private final double m_halfWidth;
+
+        /** The kernel tabulated from its center to its end */
+        private final double[] m_kernel;
+
+        /** The input samples still needed, the first one has the index m_offset */
+        private double[] m_history;
+
+        private int m_nHistory;
+
+        private long m_offset;
+
+        private long m_nInput = 0;
+
+        private long m_nOutput = 0;
+
+        private boolean m_flushed = false;
+
+        private double[] m_mixed = new double[0];
+
+        private ResamplingProcessor(final AudioStream stream, final AudioFormat inputFormat){
+            super(stream);
+            setFormat(OUTPUT_FORMAT.clone());
+            m_inputRate = (int)Math.round(inputFormat.getSampleRateKHz() * 1000);
+            m_outputRate = (int)Math.round(OUTPUT_FORMAT.getSampleRateKHz() * 1000);
+
+            final double cutoff = ROLLOFF * 0.5 * Math.min(1.0, (double)m_outputRate / m_inputRate);
+            m_halfWidth = ZERO_CROSSINGS / (2 * cutoff);
+            m_kernel = new double[(int)(m_halfWidth * KERNEL_RESOLUTION) + 2];
+            for(int i = 0; i < m_kernel.length; i++){
+                final double t = (double)i / KERNEL_RESOLUTION;
+                if(t < m_halfWidth){
+                    final double x = Math.PI * 2 * cutoff * t;
+                    final double sinc = x == 0 ? 1 : Math.sin(x) / x;
+                    // Blackman window
+                    final double w = Math.PI * t / m_halfWidth;
+                    m_kernel[i] = 2 * cutoff * sinc
+                            * (0.42 + 0.5 * Math.cos(w) + 0.08 * Math.cos(2 * w));
+                }
+            }
+
+            // The samples before the start of the audio are silent
+            m_nHistory = (int)Math.ceil(m_halfWidth);
+            m_history = new double[Math.max(1024, 2 * m_nHistory)];
+            m_offset = -m_nHistory;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public SampleChunk nextSampleChunk(){
+            if(m_flushed){
+                return null;
+            }
+            final SampleChunk sample = getUnderlyingStream().nextSampleChunk();
+            if(sample != null){
+                return process(sample);
+            }
+            if(m_inputRate == m_outputRate){
+                return null;
+            }
+            // Deliver the samples whose kernel reaches beyond the end of the audio
+            m_flushed = true;
+            append(null, (int)Math.ceil(m_halfWidth) + 1);
+            final long nTotal = (m_nInput * m_outputRate + m_inputRate - 1) / m_inputRate;
+            return new SampleChunk(resample(nTotal), getFormat().clone());
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public SampleChunk process(final SampleChunk sample){
+            final AudioFormat format = sample.getFormat();
+            final byte[] bytes = sample.getSamples();
+            final int nFrames = bytes.length
+                    / (PCMUtils.getBytesPerSample(format) * format.getNumChannels());
+            if(m_mixed.length < nFrames){
+                m_mixed = new double[nFrames];
+            }
+            PCMUtils.mixDown(bytes, 0, nFrames, format, m_mixed, 0);
+            m_nInput += nFrames;
+            if(m_inputRate == m_outputRate){
+                return createChunk(toPCM(m_mixed, nFrames), sample);
+            }
+            append(m_mixed, nFrames);
+            return createChunk(resample(Long.MAX_VALUE), sample);
+        }
+
+        /**
+         * Appends the given samples to the history, <code>null</code> to
+         * append silence.
+         */
+        private void append(final double[] samples, final int n){
+            if(m_history.length < m_nHistory + n){
+                final double[] history = new double[Math.max(2 * m_history.length, m_nHistory + n)];
+                System.arraycopy(m_history, 0, history, 0, m_nHistory);
+                m_history = history;
+            }
+            if(samples != null){
+                System.arraycopy(samples, 0, m_history, m_nHistory, n);
+            }else{
+                Arrays.fill(m_history, m_nHistory, m_nHistory + n, 0);
+            }
+            m_nHistory += n;
+        }
+
+        /**
+         * Computes the output samples whose kernel is covered by the history
+         * and drops the input samples which aren't needed any more.
+         *
+         * @param end the index of the output sample to stop at
+         * @return the computed samples
+         */
+        private byte[] resample(final long end){
+            final long available = m_offset + m_nHistory;
+            final long bound = Math.min(end, available * m_outputRate / m_inputRate + 1);
+            final double[] out = new double[(int)Math.max(0, bound - m_nOutput)];
+            int n = 0;
+            while(n < out.length){
+                // Computed from the index to avoid accumulating rounding errors
+                final double t = (double)m_nOutput * m_inputRate / m_outputRate;
+                final long first = (long)Math.floor(t - m_halfWidth) + 1;
+                final long last = (long)Math.floor(t + m_halfWidth);
+                if(last >= available){
+                    break;
+                }
+                double sum = 0;
+                for(long k = first; k <= last; k++){
+                    final double pos = Math.abs(t - k) * KERNEL_RESOLUTION;
+                    final int i = (int)pos;
+                    final double h = m_kernel[i] + (pos - i) * (m_kernel[i + 1] - m_kernel[i]);
+                    sum += m_history[(int)(k - m_offset)] * h;
+                }
+                out[n++] = sum;
+                m_nOutput++;
+            }
+
+            final double next = (double)m_nOutput * m_inputRate / m_outputRate;
+            final int drop = (int)Math.min(m_nHistory,
+                Math.max(0, (long)Math.floor(next - m_halfWidth) + 1 - m_offset));
+            if(drop > 0){
+                System.arraycopy(m_history, drop, m_history, 0, m_nHistory - drop);
+                m_nHistory -= drop;
+                m_offset += drop;
+            }
+            return toPCM(out, n);
+        }
+
+        private static byte[] toPCM(final double[] samples, final int n){
+            final byte[] bytes = new byte[n * 2];
+            for(int i = 0; i < n; i++){
+                final long value = Math.max(Short.MIN_VALUE,
+                    Math.min(Short.MAX_VALUE, Math.round(samples[i] * (1 << 15))));
+                bytes[2 * i] = (byte)value;
+                bytes[2 * i + 1] = (byte)(value >>> 8);
+            }
+            return bytes;
+        }
+
+        private SampleChunk createChunk(final byte[] bytes, final SampleChunk sample){
+            final SampleChunk chunk = new SampleChunk(bytes, getFormat().clone());
+            chunk.setStartTimecode(sample.getStartTimecode());
+            return chunk;
+        }
+    }
+
+}
@@ -0,0 +1,199 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Window functions applied to a window of samples before its spectrum is
+ * computed. The coefficients are computed once per window size and shared by
+ * all threads.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+public enum WindowFunction {
+
+    /** Leaves the samples unaltered */
+    RECTANGULAR("Rectangular") {
+        @Override
+        double getCoefficient(final int n, final int size) {
+            return 1.0;
+        }
+    },
+
+    /** The Hann window, used by default and by older versions */
+    HANN("Hann") {
+        @Override
+        double getCoefficient(final int n, final int size) {
+            return 0.5 - 0.5 * Math.cos(2 * Math.PI * n / (size - 1));
+        }
+    },
+
+    /** The Hamming window */
+    HAMMING("Hamming") {
+        @Override
+        double getCoefficient(final int n, final int size) {
+            return 0.54 - 0.46 * Math.cos(2 * Math.PI * n / (size - 1));
+        }
+    },
+
+    /** The Blackman window */
+    BLACKMAN("Blackman") {
+        @Override
+        double getCoefficient(final int n, final int size) {
+            final double phase = 2 * Math.PI * n / (size - 1);
+            return 0.42 - 0.5 * Math.cos(phase) + 0.08 * Math.cos(2 * phase);
+        }
+    },
+
+    /** The sine window */
+    SINE("Sine") {
+        @Override
+        double getCoefficient(final int n, final int size) {
+            return Math.sin(Math.PI * n / (size - 1));
+        }
+    };
+
+    private final String m_name;
+
+    /** The coefficients per window size */
+    private final ConcurrentMap<Integer, double[]> m_coefficients =
+            new ConcurrentHashMap<Integer, double[]>();
+
+    private WindowFunction(final String name){
+        m_name = name;
+    }
+
+    /**
+     * @param n the index of the sample within the window
+     * @param size the size of the window, at least 2
+     * @return the coefficient of the sample
+     */
+    abstract double getCoefficient(final int n, final int size);
+
+    /**
+     * @return the name of the window function
+     */
+    public String getName(){
+        return m_name;
+    }
+
+    /**
+     * Returns the coefficients of a window of the given size. The array is
+     * shared and must not be modified.
+     *
+     * @param size the size of the window
+     * @return the coefficients of the window
+     */
+    public double[] getCoefficients(final int size){
+        if(size <= 0){
+            throw new IllegalArgumentException("Window size must be greater than 0");
+        }
+        double[] coefficients = m_coefficients.get(size);
+        if(coefficients == null){
+            coefficients = new double[size];
+            if(size == 1){
+                coefficients[0] = 1.0;
+            }else{
+                for(int n = 0; n < size; n++){
+                    coefficients[n] = getCoefficient(n, size);
+                }
+            }
+            final double[] existing = m_coefficients.putIfAbsent(size, coefficients);
+            if(existing != null){
+                coefficients = existing;
+            }
+        }
+        return coefficients;
+    }
+
+    /**
+     * Writes the windowed samples into the given destination.
+     *
+     * @param samples the samples of the window
+     * @param dest the array to write the windowed samples into, may be the
+     *            samples array itself, must be at least as long as the samples
+     */
+    public void apply(final double[] samples, final double[] dest){
+        if(this == RECTANGULAR){
+            if(samples != dest){
+                System.arraycopy(samples, 0, dest, 0, samples.length);
+            }
+            return;
+        }
+        final double[] coefficients = getCoefficients(samples.length);
+        for(int i = 0; i < samples.length; i++){
+            dest[i] = samples[i] * coefficients[i];
+        }
+    }
+
+    /**
+     * @param name the name of the enum constant
+     * @return the window function with the given name, or the Hann window if
+     * the name is unknown
+     */
+    public static WindowFunction getWindowFunction(final String name){
+        for(WindowFunction function : values()){
+            if(function.name().equals(name)){
+                return function;
+            }
+        }
+        return HANN;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return m_name;
+    }
+
+}